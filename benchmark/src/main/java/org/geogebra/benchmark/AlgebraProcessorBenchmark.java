@@ -0,0 +1,73 @@
+package org.geogebra.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.parser.ParseException;
+import org.geogebra.common.kernel.parser.ParserInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and evaluation of algebra input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgebraProcessorBenchmark {
+
+	@Param({ "f(x)=x^3-2x^2+sin(x)/(1+x^2)", "A=(a+1,sqrt(b))",
+			"l=Sequence(k^2,k,1,100)", "c=Circle((a,b),Distance((0,0),(a,b)))",
+			"g(x)=If(x<a,x^2,b*exp(-x))" })
+	private String input;
+
+	private AppCommon app;
+	private ParserInterface parser;
+
+	/**
+	 * Creates app with the free numbers used by the inputs.
+	 */
+	@Setup
+	public void setup() {
+		app = BenchmarkApps.createApp();
+		BenchmarkApps.run(app, "a=2");
+		BenchmarkApps.run(app, "b=3");
+		parser = app.getKernel().getParser();
+	}
+
+	/**
+	 * @return parsed input
+	 * @throws ParseException
+	 *             for invalid input
+	 */
+	@Benchmark
+	public ValidExpression parse() throws ParseException {
+		return parser.parseGeoGebraExpression(input);
+	}
+
+	/**
+	 * Parses input, creates the element and removes it again.
+	 *
+	 * @return created element
+	 */
+	@Benchmark
+	public GeoElement processAndRemove() {
+		GeoElement geo = BenchmarkApps.run(app, input);
+		geo.remove();
+		return geo;
+	}
+}
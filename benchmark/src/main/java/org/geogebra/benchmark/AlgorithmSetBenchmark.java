@@ -0,0 +1,143 @@
+package org.geogebra.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.algos.AlgorithmSet;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Collecting and traversing update sets: the array backed
+ * {@link AlgorithmSet} compared to the old linked list version.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgorithmSetBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int size;
+
+	private AlgoElement[] algos;
+	private final AlgorithmSet reused = new AlgorithmSet();
+
+	/**
+	 * Collects the algorithms of a generated construction.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = BenchmarkApps.createApp();
+		BenchmarkApps.createConstruction(app, size);
+		ArrayList<AlgoElement> list = new ArrayList<>();
+		for (GeoElement geo : app.getKernel().getConstruction()
+				.getGeoSetConstructionOrder()) {
+			AlgoElement algo = geo.getParentAlgorithm();
+			if (algo != null && !list.contains(algo)) {
+				list.add(algo);
+			}
+		}
+		algos = list.subList(0, size).toArray(new AlgoElement[0]);
+	}
+
+	/**
+	 * @return number of visited algos
+	 */
+	@Benchmark
+	public int arrayNewSet() {
+		return fillAndIterate(new AlgorithmSet());
+	}
+
+	/**
+	 * @return number of visited algos
+	 */
+	@Benchmark
+	public int arrayReusedSet() {
+		reused.clear();
+		return fillAndIterate(reused);
+	}
+
+	/**
+	 * @return number of visited algos
+	 */
+	@Benchmark
+	public int linkedNewSet() {
+		LinkedAlgorithmSet set = new LinkedAlgorithmSet();
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		// second pass: duplicates as collected from several inputs
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		int visited = 0;
+		for (AlgoElement algo : set) {
+			visited += algo == null ? 0 : 1;
+		}
+		return visited;
+	}
+
+	/**
+	 * Removes every other algo, as when deleting elements.
+	 *
+	 * @return number of remaining algos
+	 */
+	@Benchmark
+	public int arrayRemove() {
+		AlgorithmSet set = new AlgorithmSet();
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		for (int i = 0; i < algos.length; i += 2) {
+			set.remove(algos[i]);
+		}
+		return set.getSize();
+	}
+
+	/**
+	 * Removes every other algo, as when deleting elements.
+	 *
+	 * @return number of remaining algos
+	 */
+	@Benchmark
+	public int linkedRemove() {
+		LinkedAlgorithmSet set = new LinkedAlgorithmSet();
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		for (int i = 0; i < algos.length; i += 2) {
+			set.remove(algos[i]);
+		}
+		return set.getSize();
+	}
+
+	private int fillAndIterate(AlgorithmSet set) {
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		// second pass: duplicates as collected from several inputs
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		int visited = 0;
+		for (AlgoElement algo : set) {
+			visited += algo == null ? 0 : 1;
+		}
+		return visited;
+	}
+}
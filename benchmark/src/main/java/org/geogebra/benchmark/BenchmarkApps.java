@@ -0,0 +1,80 @@
+package org.geogebra.benchmark;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Headless apps and generated constructions shared by the benchmarks.
+ */
+public final class BenchmarkApps {
+
+	/** number of independent dependency chains in generated constructions */
+	public static final int CHAINS = 8;
+
+	private BenchmarkApps() {
+		// utility class
+	}
+
+	/**
+	 * @return headless 2D app
+	 */
+	public static AppCommon createApp() {
+		return AppCommonFactory.create();
+	}
+
+	/**
+	 * Creates a free number a and {@link #CHAINS} chains of dependent
+	 * numbers, points and segments depending on it; every element depends on
+	 * the previous one in its chain.
+	 *
+	 * @param app
+	 *            app
+	 * @param size
+	 *            number of dependent elements
+	 */
+	public static void createConstruction(AppCommon app, int size) {
+		run(app, "a=1");
+		for (int i = 0; i < size; i++) {
+			String previous = i < CHAINS ? "a" : label(i - CHAINS);
+			switch (i / CHAINS % 3) {
+			case 0:
+				run(app, label(i) + "=" + previous + "*1.0001+sin(a)");
+				break;
+			case 1:
+				run(app, "P_{" + i + "}=(" + previous + ",cos("
+						+ previous + "))");
+				run(app, label(i) + "=x(P_{" + i + "})");
+				break;
+			default:
+				run(app, "s_{" + i + "}=Segment((0,0),(" + previous
+						+ ",a))");
+				run(app, label(i) + "=s_{" + i + "}/a");
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return label of the number at given index of a generated construction
+	 */
+	public static String label(int i) {
+		return "v_{" + i + "}";
+	}
+
+	/**
+	 * @param app
+	 *            app
+	 * @param command
+	 *            algebra input
+	 * @return first created element
+	 */
+	public static GeoElement run(AppCommon app, String command) {
+		AlgebraProcessor processor = app.getKernel().getAlgebraProcessor();
+		return processor.processAlgebraCommand(command, false)[0]
+				.toGeoElement();
+	}
+}
@@ -0,0 +1,115 @@
+package org.geogebra.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.CASException;
+import org.geogebra.common.kernel.GeoGebraCasInterface;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Giac round trips with a stub CAS: parsing GeoGebra CAS input, translating
+ * it to Giac and parsing the Giac result back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CasBenchmark {
+
+	@Param({ "expand", "factor", "solve", "derivative", "integral" })
+	private String command;
+
+	private Kernel kernel;
+	private GeoGebraCasInterface cas;
+	private CASparser parser;
+	private StubGiac giac;
+	private String input;
+	private String output;
+
+	/**
+	 * Creates app with stub CAS.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = BenchmarkApps.createApp();
+		app.setCASFactory(new StubGiac.Factory());
+		app.getSettings().getCasSettings().setEnabled(true);
+		kernel = app.getKernel();
+		cas = kernel.getGeoGebraCAS();
+		parser = (CASparser) cas.getCASparser();
+		giac = (StubGiac) cas.getCurrentCAS();
+		switch (command) {
+		case "factor":
+			input = "Factor(x^4-1)";
+			output = "(x-1)*(x+1)*(x^2+1)";
+			break;
+		case "solve":
+			input = "Solve(x^2-5x+6=0,x)";
+			output = "{x=2,x=3}";
+			break;
+		case "derivative":
+			input = "Derivative(sin(x)*exp(x^2))";
+			output = "exp(x^2)*(cos(x)+2*x*sin(x))";
+			break;
+		case "integral":
+			input = "Integral(x*ln(x))";
+			output = "x^2*ln(x)/2-x^2/4";
+			break;
+		default:
+			input = "Expand((x+1)^3)";
+			output = "x^3+3*x^2+3*x+1";
+			break;
+		}
+		giac.setResult(output);
+	}
+
+	/**
+	 * @return result in GeoGebra syntax
+	 * @throws CASException
+	 *             if the input is not valid
+	 */
+	@Benchmark
+	public String roundTrip() throws CASException {
+		return cas.evaluateGeoGebraCAS(input, null,
+				StringTemplate.numericNoLocal, kernel);
+	}
+
+	/**
+	 * @return command in Giac syntax
+	 * @throws CASException
+	 *             if the input is not valid
+	 */
+	@Benchmark
+	public String translate() throws CASException {
+		ValidExpression ve = parser.parseGeoGebraCASInput(input, null);
+		return parser.translateToCAS(ve, StringTemplate.giacTemplate, giac);
+	}
+
+	/**
+	 * @return Giac output in GeoGebra syntax
+	 * @throws CASException
+	 *             if the output is not valid
+	 */
+	@Benchmark
+	public String parseOutput() throws CASException {
+		return giac.toGeoGebraString(output, null,
+				StringTemplate.numericNoLocal, kernel);
+	}
+}
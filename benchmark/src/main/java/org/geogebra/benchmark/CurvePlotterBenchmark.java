@@ -0,0 +1,90 @@
+package org.geogebra.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurvePlotter.Gap;
+import org.geogebra.common.euclidian.plot.CurveSampleCache;
+import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sampling of function graphs, with and without the sample cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurvePlotterBenchmark {
+
+	@Param({ "sin(x)+x^2/10", "x sin(1/x)", "floor(x)+sqrt(abs(x))",
+			"tan(x)" })
+	private String function;
+
+	@Param({ "false", "true" })
+	private boolean cache;
+
+	private EuclidianView view;
+	private GeoFunction geo;
+	private CurveSampleCache sampleCache;
+	private int step;
+
+	/**
+	 * Creates the function in a 400x300 view.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = BenchmarkApps.createApp();
+		view = app.getActiveEuclidianView();
+		view.setCoordSystem(400, 300, 50, 50);
+		geo = (GeoFunction) BenchmarkApps.run(app, "f(x)=" + function);
+		sampleCache = cache ? new CurveSampleCache() : null;
+	}
+
+	/**
+	 * Plots the whole view.
+	 *
+	 * @return path
+	 */
+	@Benchmark
+	public GeneralPathClippedForCurvePlotter plot() {
+		return plotView();
+	}
+
+	/**
+	 * Pans the view by a few pixels and plots it, as when dragging.
+	 *
+	 * @return path
+	 */
+	@Benchmark
+	public GeneralPathClippedForCurvePlotter panAndPlot() {
+		step = (step + 1) % 40;
+		int dx = step < 20 ? 5 : -5;
+		view.setCoordSystem(view.getXZero() + dx, view.getYZero(),
+				view.getXscale(), view.getYscale());
+		return plotView();
+	}
+
+	private GeneralPathClippedForCurvePlotter plotView() {
+		GeneralPathClippedForCurvePlotter gp =
+				new GeneralPathClippedForCurvePlotter(view);
+		CurvePlotter.plotCurve(geo, view.getXmin(), view.getXmax(), view, gp,
+				false, Gap.MOVE_TO, sampleCache);
+		return gp;
+	}
+}
@@ -0,0 +1,89 @@
+package org.geogebra.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.arithmetic.ExpressionProgram;
+import org.geogebra.common.kernel.arithmetic.Function;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Function evaluation by the expression tree walker compared to compiled
+ * programs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionProgramBenchmark {
+
+	private static final int SAMPLES = 1000;
+
+	@Param({ "x^3-2x^2+x-1", "sin(x)/(1+x^2)+a*cos(2x)",
+			"sqrt(abs(x))*exp(-x^2/b)" })
+	private String function;
+
+	private Function fun;
+	private ExpressionProgram program;
+	private final double[] xs = new double[SAMPLES];
+
+	/**
+	 * Creates and compiles the function.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = BenchmarkApps.createApp();
+		BenchmarkApps.run(app, "a=2");
+		BenchmarkApps.run(app, "b=3");
+		fun = ((GeoFunction) BenchmarkApps.run(app, "f(x)=" + function))
+				.getFunction();
+		program = ExpressionProgram.compile(fun.getExpression(),
+				fun.getFunctionVariables());
+		if (program == null) {
+			throw new IllegalStateException("not compiled: " + function);
+		}
+		for (int i = 0; i < SAMPLES; i++) {
+			xs[i] = -10 + 20.0 * i / SAMPLES;
+		}
+	}
+
+	/**
+	 * @return sum of values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SAMPLES)
+	public double treeWalker() {
+		double sum = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			sum += fun.value(xs[i]);
+		}
+		return sum;
+	}
+
+	/**
+	 * @return sum of values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SAMPLES)
+	public double compiled() {
+		double sum = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			sum += program.evaluate(xs[i]);
+		}
+		return sum;
+	}
+}
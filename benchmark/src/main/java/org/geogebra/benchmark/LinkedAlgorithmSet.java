@@ -0,0 +1,151 @@
+package org.geogebra.benchmark;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.algos.AlgorithmSet;
+
+/**
+ * Copy of the linked list version of {@link AlgorithmSet} that was used
+ * before it became array backed, kept as a baseline for
+ * {@link AlgorithmSetBenchmark}. Only the operations used on hot paths are
+ * included.
+ */
+public class LinkedAlgorithmSet implements Iterable<AlgoElement> {
+
+	private Set<AlgoElement> set;
+
+	private Link head;
+	private Link tail;
+	private int size;
+
+	/**
+	 * @return number of algos
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Inserts algo at the end, or right after its update-after algo.
+	 *
+	 * @param algo
+	 *            algo to be added
+	 * @return true = the algo was added, false = the algo was already in the
+	 *         set
+	 */
+	public boolean add(AlgoElement algo) {
+		if (contains(algo)) {
+			return false;
+		}
+
+		if (head == null) {
+			if (set == null) {
+				set = new HashSet<>();
+			}
+			set.add(algo);
+			head = new Link(algo, null);
+			tail = head;
+			size++;
+			return true;
+		}
+
+		AlgoElement parentAlgo = algo.getUpdateAfterAlgo();
+		if (parentAlgo == null || parentAlgo == tail.algo
+				|| !contains(parentAlgo)) {
+			tail.next = new Link(algo, null);
+			tail = tail.next;
+		} else {
+			Link cur = head;
+			while (cur.algo != parentAlgo) {
+				cur = cur.next;
+			}
+			cur.next = new Link(algo, cur.next);
+		}
+
+		set.add(algo);
+		size++;
+		return true;
+	}
+
+	/**
+	 * @param algo
+	 *            algorithm
+	 * @return true iff this set contains algo.
+	 */
+	public boolean contains(AlgoElement algo) {
+		if (size == 0 || algo == null) {
+			return false;
+		}
+		return set.contains(algo);
+	}
+
+	/**
+	 * @param algo
+	 *            algo to be removed
+	 * @return true if found and removed, false if not found
+	 */
+	public boolean remove(AlgoElement algo) {
+		if (set == null || !set.remove(algo)) {
+			return false;
+		}
+
+		Link prev = null;
+		Link cur = head;
+		while (cur != null) {
+			if (cur.algo == algo) {
+				if (prev == null) {
+					head = cur.next;
+					if (head == null) {
+						tail = null;
+					}
+				} else {
+					prev.next = cur.next;
+					if (prev.next == null) {
+						tail = prev;
+					}
+				}
+				size--;
+				return true;
+			}
+			prev = cur;
+			cur = cur.next;
+		}
+		return false;
+	}
+
+	@Override
+	public Iterator<AlgoElement> iterator() {
+		return new Iterator<AlgoElement>() {
+			private Link cur = head;
+
+			@Override
+			public boolean hasNext() {
+				return cur != null;
+			}
+
+			@Override
+			public AlgoElement next() {
+				if (cur == null) {
+					throw new NoSuchElementException();
+				}
+				AlgoElement ret = cur.algo;
+				cur = cur.next;
+				return ret;
+			}
+		};
+	}
+
+	private static class Link {
+		AlgoElement algo;
+		Link next;
+
+		Link(AlgoElement a, Link n) {
+			algo = a;
+			next = n;
+		}
+	}
+}
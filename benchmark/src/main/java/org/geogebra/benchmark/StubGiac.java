@@ -0,0 +1,72 @@
+package org.geogebra.benchmark;
+
+import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.cas.giac.CASgiac;
+import org.geogebra.common.factories.CASFactory;
+import org.geogebra.common.kernel.CASGenericInterface;
+import org.geogebra.common.kernel.Kernel;
+
+/**
+ * Giac stand-in that answers every command with a fixed result, so that
+ * round trips measure only translation to Giac and parsing of its output.
+ */
+public class StubGiac extends CASgiac {
+
+	private String result = "?";
+	private String lastInput;
+
+	/**
+	 * @param casParser
+	 *            parser
+	 */
+	public StubGiac(CASparser casParser) {
+		super(casParser);
+	}
+
+	/**
+	 * @param result
+	 *            Giac output returned for every command
+	 */
+	public void setResult(String result) {
+		this.result = result;
+	}
+
+	/**
+	 * @return last command sent to Giac
+	 */
+	public String getLastInput() {
+		return lastInput;
+	}
+
+	@Override
+	public void clearResult() {
+		// nothing to clear
+	}
+
+	@Override
+	public boolean externalCAS() {
+		return false;
+	}
+
+	@Override
+	public String evaluateCAS(String exp) {
+		lastInput = exp;
+		return result;
+	}
+
+	@Override
+	protected String evaluate(String exp, long timeoutMilliseconds) {
+		return evaluateCAS(exp);
+	}
+
+	/**
+	 * Factory creating stub CAS instances.
+	 */
+	public static class Factory extends CASFactory {
+
+		@Override
+		public CASGenericInterface newGiac(CASparser parser, Kernel kernel) {
+			return new StubGiac(parser);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package org.geogebra.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.headless.LocalizationCommon;
+import org.geogebra.common.jre.kernel.CompressedUndoManager;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.DefaultUndoManager;
+import org.geogebra.common.kernel.DeltaUndoManager;
+import org.geogebra.common.kernel.UndoManager;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Storing and restoring undo points of a generated construction with each
+ * of the undo managers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UndoBenchmark {
+
+	@Param({ "default", "delta", "compressed" })
+	private String manager;
+
+	@Param({ "500", "2000" })
+	private int size;
+
+	private AppCommon app;
+	private Construction cons;
+	private GeoNumeric a;
+	private double value;
+
+	/**
+	 * Creates the construction with undo enabled.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		app = new AppCommon(new LocalizationCommon(2),
+				new AwtFactoryCommon()) {
+			@Override
+			public UndoManager getUndoManager(Construction construction) {
+				return createUndoManager(construction);
+			}
+		};
+		app.setUndoActive(true);
+		BenchmarkApps.createConstruction(app, size);
+		cons = app.getKernel().getConstruction();
+		a = (GeoNumeric) app.getKernel().lookupLabel("a");
+	}
+
+	/**
+	 * Starts every iteration with a single undo point.
+	 */
+	@Setup(Level.Iteration)
+	public void resetHistory() {
+		cons.initUndoInfo();
+	}
+
+	private UndoManager createUndoManager(Construction construction) {
+		switch (manager) {
+		case "delta":
+			return new DeltaUndoManager(construction);
+		case "compressed":
+			return new CompressedUndoManager(construction);
+		default:
+			return new DefaultUndoManager(construction);
+		}
+	}
+
+	/**
+	 * Changes the free number and stores an undo point.
+	 */
+	@Benchmark
+	public void store() {
+		value = value > 1 ? 0 : value + 0.01;
+		a.setValue(value);
+		a.updateCascade();
+		app.storeUndoInfo();
+	}
+
+	/**
+	 * Restores the previous undo point and goes forward again.
+	 */
+	@Benchmark
+	public void undoRedo() {
+		if (!cons.undoPossible()) {
+			store();
+		}
+		cons.getUndoManager().undo();
+		cons.getUndoManager().redo();
+	}
+}
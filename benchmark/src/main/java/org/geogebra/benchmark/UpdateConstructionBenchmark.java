@@ -0,0 +1,107 @@
+package org.geogebra.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.kernel.ParallelCascadeEvaluator;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.util.profiler.MetricType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Updates of large generated constructions, sequential or with the parallel
+ * cascade evaluator, with and without performance metrics.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateConstructionBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int size;
+
+	@Param({ "false", "true" })
+	private boolean parallel;
+
+	@Param({ "false", "true" })
+	private boolean metrics;
+
+	private AppCommon app;
+	private Kernel kernel;
+	private GeoNumeric a;
+	private ForkJoinPool pool;
+	private double value;
+
+	/**
+	 * Creates the construction.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		app = BenchmarkApps.createApp();
+		kernel = app.getKernel();
+		BenchmarkApps.createConstruction(app, size);
+		a = (GeoNumeric) kernel.lookupLabel("a");
+		if (parallel) {
+			pool = new ForkJoinPool();
+			kernel.setCascadeEvaluator(new ParallelCascadeEvaluator(pool,
+					BenchmarkApps.CHAINS));
+		}
+		kernel.getMetrics().setEnabled(metrics);
+	}
+
+	/**
+	 * Logs recorded metrics and stops the pool.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (metrics) {
+			kernel.getMetrics().logSummary(MetricType.ALGO_COMPUTE);
+		}
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Changes the free number and updates all dependent elements.
+	 *
+	 * @return value of the last element
+	 */
+	@Benchmark
+	public double updateCascade() {
+		value = value > 1 ? 0 : value + 0.01;
+		a.setValue(value);
+		a.updateCascade();
+		return kernel.lookupLabel(BenchmarkApps.label(size - 1))
+				.evaluateDouble();
+	}
+
+	/**
+	 * Recomputes the whole construction.
+	 *
+	 * @return value of the last element
+	 */
+	@Benchmark
+	public double updateConstruction() {
+		kernel.updateConstruction(false);
+		return kernel.lookupLabel(BenchmarkApps.label(size - 1))
+				.evaluateDouble();
+	}
+}
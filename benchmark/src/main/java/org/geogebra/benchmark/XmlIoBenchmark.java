@@ -0,0 +1,101 @@
+package org.geogebra.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.io.MyXMLioCommon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving and loading of .ggb files and construction XML.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlIoBenchmark {
+
+	@Param({ "500", "5000" })
+	private int size;
+
+	private AppCommon app;
+	private MyXMLioCommon xmlio;
+	private byte[] file;
+	private String xml;
+
+	/**
+	 * Creates the construction and saves it once for the load benchmarks.
+	 *
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	@Setup
+	public void setup() throws IOException {
+		app = BenchmarkApps.createApp();
+		BenchmarkApps.createConstruction(app, size);
+		xmlio = (MyXMLioCommon) app.getXMLio();
+		file = save().toByteArray();
+		xml = xmlio.getFullXML();
+	}
+
+	/**
+	 * @return zipped file
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	@Benchmark
+	public ByteArrayOutputStream save() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		xmlio.writeGeoGebraFile(os, false);
+		return os;
+	}
+
+	/**
+	 * @return construction XML
+	 */
+	@Benchmark
+	public String getXML() {
+		return xmlio.getFullXML();
+	}
+
+	/**
+	 * Loads the zipped file through the streaming parser.
+	 *
+	 * @return number of loaded elements
+	 * @throws Exception
+	 *             if the file is not valid
+	 */
+	@Benchmark
+	public int load() throws Exception {
+		xmlio.readZipFromInputStream(new ByteArrayInputStream(file), false);
+		return app.getKernel().getConstruction().steps();
+	}
+
+	/**
+	 * Rebuilds the construction from XML.
+	 *
+	 * @return number of loaded elements
+	 * @throws Exception
+	 *             if the XML is not valid
+	 */
+	@Benchmark
+	public int processXML() throws Exception {
+		xmlio.processXMLString(xml, true, false);
+		return app.getKernel().getConstruction().steps();
+	}
+}
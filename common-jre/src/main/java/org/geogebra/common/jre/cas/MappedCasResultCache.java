@@ -0,0 +1,351 @@
+package org.geogebra.common.jre.cas;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.geogebra.common.cas.CasResultCache;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * CAS result cache stored in a memory mapped file, so results survive
+ * restarts and can be shared by all kernels of one JVM, see
+ * {@link org.geogebra.common.kernel.Kernel#setCasResultCache}.
+ *
+ * Records are appended to the file; the key index and the access order are
+ * kept in memory. When the file is full, the least recently used records
+ * are dropped and the rest is rewritten in access order.
+ */
+public final class MappedCasResultCache implements CasResultCache {
+
+	/** default file size: 64MB */
+	public static final long DEFAULT_SIZE = 64 * 1024 * 1024;
+
+	private static final int MAGIC = 0x67676263;
+	private static final int VERSION = 1;
+	/** magic, version, end of last record */
+	private static final int HEADER = 16;
+	/** key length, value length, checksum */
+	private static final int RECORD_HEADER = 12;
+
+	private static final HashMap<String, MappedCasResultCache> OPEN =
+			new HashMap<>();
+
+	private final String path;
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final FileLock lock;
+	private final MappedByteBuffer buffer;
+	private final int capacity;
+	/** offsets of records, in access order */
+	private final LinkedHashMap<String, Integer> index = new LinkedHashMap<>(
+			256, 0.75f, true);
+	private int end;
+	private long liveBytes;
+	private int users;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	private MappedCasResultCache(File cacheFile, long size)
+			throws IOException {
+		path = cacheFile.getCanonicalPath();
+		capacity = (int) Math.min(Integer.MAX_VALUE,
+				Math.max(size, 2 * HEADER));
+		file = new RandomAccessFile(cacheFile, "rw");
+		channel = file.getChannel();
+		lock = channel.tryLock();
+		if (lock == null) {
+			file.close();
+			throw new IOException(path + " is used by another process");
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		load();
+	}
+
+	/**
+	 * Opens a cache file; kernels that open the same file share one instance.
+	 * Each call needs to be matched by {@link #close()}.
+	 *
+	 * @param cacheFile
+	 *            cache file, created if missing
+	 * @param size
+	 *            maximal file size in bytes
+	 * @return cache
+	 * @throws IOException
+	 *             if file cannot be mapped or is used by another process
+	 */
+	public static MappedCasResultCache open(File cacheFile, long size)
+			throws IOException {
+		synchronized (OPEN) {
+			String key = cacheFile.getCanonicalPath();
+			MappedCasResultCache cache = OPEN.get(key);
+			if (cache == null) {
+				cache = new MappedCasResultCache(cacheFile, size);
+				OPEN.put(key, cache);
+			}
+			synchronized (cache) {
+				cache.users++;
+			}
+			return cache;
+		}
+	}
+
+	private void load() {
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			reset();
+			return;
+		}
+		long storedEnd = buffer.getLong(8);
+		int limit = storedEnd < HEADER || storedEnd > capacity ? HEADER
+				: (int) storedEnd;
+		int offset = HEADER;
+		while (offset < limit) {
+			String key = readKey(offset, limit);
+			if (key == null) {
+				Log.warn("CAS cache truncated at " + offset);
+				break;
+			}
+			Integer old = index.put(key, offset);
+			if (old != null) {
+				liveBytes -= recordSize(old);
+			}
+			liveBytes += recordSize(offset);
+			offset += recordSize(offset);
+		}
+		setEnd(offset);
+	}
+
+	private void reset() {
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		index.clear();
+		liveBytes = 0;
+		setEnd(HEADER);
+	}
+
+	private void setEnd(int newEnd) {
+		end = newEnd;
+		buffer.putLong(8, newEnd);
+	}
+
+	private int recordSize(int offset) {
+		return RECORD_HEADER + buffer.getInt(offset) + buffer.getInt(offset + 4);
+	}
+
+	/**
+	 * @return key of valid record at given offset, null if record is damaged
+	 */
+	private String readKey(int offset, int limit) {
+		if (offset + RECORD_HEADER > limit) {
+			return null;
+		}
+		int keyLength = buffer.getInt(offset);
+		int valueLength = buffer.getInt(offset + 4);
+		if (keyLength < 0 || valueLength < 0
+				|| limit - offset - RECORD_HEADER < (long) keyLength
+						+ valueLength) {
+			return null;
+		}
+		byte[] data = read(offset + RECORD_HEADER, keyLength + valueLength);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		if ((int) crc.getValue() != buffer.getInt(offset + 8)) {
+			return null;
+		}
+		return new String(data, 0, keyLength, Charsets.getUtf8());
+	}
+
+	private byte[] read(int offset, int length) {
+		byte[] data = new byte[length];
+		at(offset).get(data);
+		return data;
+	}
+
+	private void write(int offset, byte[] data) {
+		at(offset).put(data);
+	}
+
+	/**
+	 * @return view of the file starting at given offset, for bulk transfers
+	 */
+	private ByteBuffer at(int offset) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset);
+		return view;
+	}
+
+	@Override
+	public synchronized String get(String key) {
+		Integer offset = index.get(key);
+		if (offset == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return readValue(offset);
+	}
+
+	private String readValue(int offset) {
+		int keyLength = buffer.getInt(offset);
+		int valueLength = buffer.getInt(offset + 4);
+		return new String(read(offset + RECORD_HEADER + keyLength, valueLength),
+				Charsets.getUtf8());
+	}
+
+	@Override
+	public synchronized void put(String key, String result) {
+		Integer stored = index.get(key);
+		if (stored != null && result.equals(readValue(stored))) {
+			return;
+		}
+		byte[] keyBytes = key.getBytes(Charsets.getUtf8());
+		byte[] valueBytes = result.getBytes(Charsets.getUtf8());
+		int size = RECORD_HEADER + keyBytes.length + valueBytes.length;
+		if (size > (capacity - HEADER) / 2) {
+			return;
+		}
+		if (end + size > capacity) {
+			compact((capacity - HEADER) / 2);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(keyBytes);
+		crc.update(valueBytes);
+		buffer.putInt(end, keyBytes.length);
+		buffer.putInt(end + 4, valueBytes.length);
+		buffer.putInt(end + 8, (int) crc.getValue());
+		write(end + RECORD_HEADER, keyBytes);
+		write(end + RECORD_HEADER + keyBytes.length, valueBytes);
+		Integer old = index.put(key, end);
+		if (old != null) {
+			liveBytes -= recordSize(old);
+		}
+		liveBytes += size;
+		setEnd(end + size);
+	}
+
+	/**
+	 * Drops least recently used records until at most the given number of
+	 * bytes is used and rewrites the remaining records in access order.
+	 */
+	private void compact(long maxBytes) {
+		ArrayList<Map.Entry<String, Integer>> entries = new ArrayList<>(
+				index.entrySet());
+		int first = entries.size();
+		long kept = 0;
+		while (first > 0
+				&& kept + recordSize(entries.get(first - 1).getValue())
+						<= maxBytes) {
+			first--;
+			kept += recordSize(entries.get(first).getValue());
+		}
+		ArrayList<String> keys = new ArrayList<>(entries.size() - first);
+		ArrayList<byte[]> records = new ArrayList<>(entries.size() - first);
+		for (int i = first; i < entries.size(); i++) {
+			int offset = entries.get(i).getValue();
+			keys.add(entries.get(i).getKey());
+			records.add(read(offset, recordSize(offset)));
+		}
+		evictions += first;
+		index.clear();
+		int offset = HEADER;
+		// make sure a crash while rewriting does not leave invalid offsets
+		setEnd(HEADER);
+		for (int i = 0; i < records.size(); i++) {
+			write(offset, records.get(i));
+			index.put(keys.get(i), offset);
+			offset += records.get(i).length;
+		}
+		liveBytes = kept;
+		setEnd(offset);
+	}
+
+	/**
+	 * Writes changes to disk.
+	 */
+	public synchronized void flush() {
+		buffer.force();
+	}
+
+	/**
+	 * Releases this cache; the file is closed when the last user closes it.
+	 */
+	public void close() {
+		synchronized (OPEN) {
+			synchronized (this) {
+				users--;
+				if (users > 0) {
+					return;
+				}
+				OPEN.remove(path);
+				buffer.force();
+				try {
+					lock.release();
+					file.close();
+				} catch (IOException e) {
+					Log.error("Cannot close CAS cache: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		reset();
+	}
+
+	/**
+	 * @return number of cached results
+	 */
+	public synchronized int size() {
+		return index.size();
+	}
+
+	/**
+	 * @return bytes used by cached results
+	 */
+	public synchronized long getLiveBytes() {
+		return liveBytes;
+	}
+
+	/**
+	 * @return maximal file size in bytes
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return number of lookups answered from this cache
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of lookups not found in this cache
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of results dropped to make room for new ones
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+}
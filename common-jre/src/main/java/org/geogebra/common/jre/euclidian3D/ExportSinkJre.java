@@ -0,0 +1,98 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportSink;
+
+/**
+ * Export sink keeping the first write error, which is thrown when the sink
+ * is closed; later writes are ignored.
+ */
+public abstract class ExportSinkJre implements ExportSink, Closeable {
+
+	private IOException error;
+
+	@Override
+	public void write(StringBuilder text) {
+		byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+		write(data, data.length);
+	}
+
+	@Override
+	public void write(byte[] data, int length) {
+		if (error != null) {
+			return;
+		}
+		try {
+			append(data, length);
+		} catch (IOException e) {
+			error = e;
+		}
+	}
+
+	@Override
+	public void writeAt(long position, byte[] data, int length) {
+		if (error != null) {
+			return;
+		}
+		try {
+			overwrite(position, data, length);
+		} catch (IOException e) {
+			error = e;
+		}
+	}
+
+	/**
+	 * Closes the output.
+	 * 
+	 * @throws IOException
+	 *             first error that happened while writing, or while closing
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			closeOutput();
+		} catch (IOException e) {
+			if (error == null) {
+				error = e;
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * @param data
+	 *            data
+	 * @param length
+	 *            number of bytes to write
+	 * @throws IOException
+	 *             when writing fails
+	 */
+	protected abstract void append(byte[] data, int length)
+			throws IOException;
+
+	/**
+	 * @param position
+	 *            position from the start of the export
+	 * @param data
+	 *            data
+	 * @param length
+	 *            number of bytes to write
+	 * @throws IOException
+	 *             when writing fails
+	 */
+	protected void overwrite(long position, byte[] data, int length)
+			throws IOException {
+		throw new IOException("sink is not seekable");
+	}
+
+	/**
+	 * @throws IOException
+	 *             when closing fails
+	 */
+	protected abstract void closeOutput() throws IOException;
+}
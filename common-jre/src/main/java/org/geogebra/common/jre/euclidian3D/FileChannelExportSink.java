@@ -0,0 +1,69 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Seekable export sink writing to a file channel.
+ */
+public class FileChannelExportSink extends ExportSinkJre {
+
+	private final FileChannel channel;
+	private final long start;
+
+	/**
+	 * @param channel
+	 *            channel, export starts at its current position; closed with
+	 *            this sink
+	 * @throws IOException
+	 *             if the position can't be read
+	 */
+	public FileChannelExportSink(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.start = channel.position();
+	}
+
+	/**
+	 * @param path
+	 *            file to create or replace
+	 * @return sink for the file
+	 * @throws IOException
+	 *             if the file can't be opened
+	 */
+	public static FileChannelExportSink create(Path path) throws IOException {
+		return new FileChannelExportSink(FileChannel.open(path,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	@Override
+	public boolean isSeekable() {
+		return true;
+	}
+
+	@Override
+	protected void append(byte[] data, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	@Override
+	protected void overwrite(long position, byte[] data, int length)
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+		long pos = start + position;
+		while (buffer.hasRemaining()) {
+			pos += channel.write(buffer, pos);
+		}
+	}
+
+	@Override
+	protected void closeOutput() throws IOException {
+		channel.close();
+	}
+}
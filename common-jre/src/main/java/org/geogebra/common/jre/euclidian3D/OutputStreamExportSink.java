@@ -0,0 +1,37 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Export sink writing to a stream; binary STL needs two passes over the
+ * scene with this sink since the triangle count can't be patched.
+ */
+public class OutputStreamExportSink extends ExportSinkJre {
+
+	private final OutputStream out;
+
+	/**
+	 * @param out
+	 *            output stream, closed with this sink
+	 */
+	public OutputStreamExportSink(OutputStream out) {
+		this.out = new BufferedOutputStream(out);
+	}
+
+	@Override
+	public boolean isSeekable() {
+		return false;
+	}
+
+	@Override
+	protected void append(byte[] data, int length) throws IOException {
+		out.write(data, 0, length);
+	}
+
+	@Override
+	protected void closeOutput() throws IOException {
+		out.close();
+	}
+}
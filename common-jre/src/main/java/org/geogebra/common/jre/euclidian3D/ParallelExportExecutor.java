@@ -0,0 +1,51 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportExecutor;
+
+/**
+ * Runs the encoding tasks of a streamed 3D export on a fork-join pool.
+ */
+public class ParallelExportExecutor implements ExportExecutor {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Executor using a pool with one thread per core.
+	 */
+	public ParallelExportExecutor() {
+		this(new ForkJoinPool());
+	}
+
+	/**
+	 * @param pool
+	 *            pool for encoding tasks
+	 */
+	public ParallelExportExecutor(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void runAll(List<? extends Runnable> tasks) {
+		final ArrayList<RecursiveAction> actions = new ArrayList<>(
+				tasks.size());
+		for (final Runnable task : tasks) {
+			actions.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					task.run();
+				}
+			});
+		}
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(actions);
+			}
+		});
+	}
+}
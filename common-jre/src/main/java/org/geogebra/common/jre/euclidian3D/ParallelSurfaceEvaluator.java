@@ -0,0 +1,76 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.geogebra3D.euclidian3D.draw.SurfaceBatchEvaluator;
+import org.geogebra.common.geogebra3D.euclidian3D.draw.SurfaceSampleBatch;
+import org.geogebra.common.kernel.kernelND.SurfaceEvaluable;
+
+/**
+ * Surface batch evaluator that splits each batch into contiguous ranges and
+ * evaluates them on a fork-join pool, one copy of the surface per range.
+ * Enabled via
+ * {@link org.geogebra.common.geogebra3D.euclidian3D.EuclidianView3D#setSurfaceBatchEvaluator}.
+ */
+public class ParallelSurfaceEvaluator implements SurfaceBatchEvaluator {
+
+	/** smallest number of samples worth evaluating in parallel */
+	public static final int MIN_PARALLEL_SIZE = 64;
+
+	private final ForkJoinPool pool;
+	private final int minParallelSize;
+
+	/**
+	 * Evaluator using a pool with one thread per core.
+	 */
+	public ParallelSurfaceEvaluator() {
+		this(new ForkJoinPool(), MIN_PARALLEL_SIZE);
+	}
+
+	/**
+	 * @param pool
+	 *            pool for evaluations
+	 * @param minParallelSize
+	 *            smallest number of samples worth evaluating in parallel
+	 */
+	public ParallelSurfaceEvaluator(ForkJoinPool pool, int minParallelSize) {
+		this.pool = pool;
+		this.minParallelSize = Math.max(2, minParallelSize);
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public void evaluate(SurfaceEvaluable[] copies,
+			final SurfaceSampleBatch batch) {
+		int size = batch.size();
+		int parts = Math.min(copies.length, size / minParallelSize);
+		if (parts < 2) {
+			batch.evaluate(copies[0], 0, size);
+			return;
+		}
+		final ArrayList<RecursiveAction> tasks = new ArrayList<>(parts);
+		for (int i = 0; i < parts; i++) {
+			final SurfaceEvaluable copy = copies[i];
+			final int from = (int) ((long) size * i / parts);
+			final int to = (int) ((long) size * (i + 1) / parts);
+			tasks.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					batch.evaluate(copy, from, to);
+				}
+			});
+		}
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+	}
+}
@@ -0,0 +1,67 @@
+package org.geogebra.common.jre.headless;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Outcome of one command of an evaluation job.
+ */
+public class CommandResult {
+
+	private final String command;
+	private final List<String> labels;
+	private final List<String> values;
+	private final String error;
+
+	/**
+	 * @param command
+	 *            evaluated command
+	 * @param labels
+	 *            labels of created objects
+	 * @param values
+	 *            values of created objects
+	 * @param error
+	 *            error message, null if evaluation succeeded
+	 */
+	public CommandResult(String command, String[] labels, String[] values,
+			String error) {
+		this.command = command;
+		this.labels = Arrays.asList(labels);
+		this.values = Arrays.asList(values);
+		this.error = error;
+	}
+
+	/**
+	 * @return evaluated command
+	 */
+	public String getCommand() {
+		return command;
+	}
+
+	/**
+	 * @return labels of created objects
+	 */
+	public List<String> getLabels() {
+		return labels;
+	}
+
+	/**
+	 * @return values of created objects, in the order of labels
+	 */
+	public List<String> getValues() {
+		return values;
+	}
+
+	/**
+	 * @return error message, null if evaluation succeeded
+	 */
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return error != null ? command + ": " + error
+				: command + ": " + values;
+	}
+}
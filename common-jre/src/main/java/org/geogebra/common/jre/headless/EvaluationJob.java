@@ -0,0 +1,132 @@
+package org.geogebra.common.jre.headless;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.geogebra.common.jre.headless.EvaluationResult.Status;
+
+/**
+ * Batch of commands evaluated in one construction of a pooled app, see
+ * {@link EvaluationPool#submit}.
+ */
+public class EvaluationJob {
+
+	private final List<String> commands;
+	private final long timeout;
+	private final long submitTime;
+	private final ArrayList<CommandResult> results = new ArrayList<>();
+	private final AtomicReference<EvaluationResult> result =
+			new AtomicReference<>();
+	private final CountDownLatch done = new CountDownLatch(1);
+	private volatile long startTime;
+
+	/**
+	 * @param commands
+	 *            commands
+	 * @param timeout
+	 *            time limit in milliseconds, measured from start of evaluation
+	 */
+	EvaluationJob(List<String> commands, long timeout) {
+		this.commands = new ArrayList<>(commands);
+		this.timeout = timeout;
+		this.submitTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return commands
+	 */
+	List<String> getCommands() {
+		return commands;
+	}
+
+	/**
+	 * Marks start of evaluation.
+	 */
+	void start() {
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return whether time limit is exceeded
+	 */
+	boolean isOverdue() {
+		return startTime > 0
+				&& System.currentTimeMillis() - startTime > timeout;
+	}
+
+	/**
+	 * @param commandResult
+	 *            result of next command
+	 */
+	synchronized void addResult(CommandResult commandResult) {
+		results.add(commandResult);
+	}
+
+	/**
+	 * Completes the job unless it was completed already; waiting threads are
+	 * only woken up by {@link #release()}.
+	 *
+	 * @param status
+	 *            final status
+	 * @return result, null if the job was completed already
+	 */
+	synchronized EvaluationResult complete(Status status) {
+		long now = System.currentTimeMillis();
+		long start = startTime > 0 ? startTime : now;
+		EvaluationResult evaluationResult = new EvaluationResult(status,
+				new ArrayList<>(results), start - submitTime, now - start);
+		return result.compareAndSet(null, evaluationResult) ? evaluationResult
+				: null;
+	}
+
+	/**
+	 * Wakes up threads waiting for the result.
+	 */
+	void release() {
+		done.countDown();
+	}
+
+	/**
+	 * @return whether the job is completed
+	 */
+	public boolean isDone() {
+		return result.get() != null;
+	}
+
+	/**
+	 * Waits for the job to complete.
+	 *
+	 * @return result
+	 * @throws InterruptedException
+	 *             when interrupted while waiting
+	 */
+	public EvaluationResult get() throws InterruptedException {
+		done.await();
+		return result.get();
+	}
+
+	/**
+	 * Waits for the job to complete.
+	 *
+	 * @param wait
+	 *            maximal waiting time
+	 * @param unit
+	 *            unit of waiting time
+	 * @return result
+	 * @throws InterruptedException
+	 *             when interrupted while waiting
+	 * @throws TimeoutException
+	 *             if job is not completed in time
+	 */
+	public EvaluationResult get(long wait, TimeUnit unit)
+			throws InterruptedException, TimeoutException {
+		if (!done.await(wait, unit)) {
+			throw new TimeoutException();
+		}
+		return result.get();
+	}
+}
@@ -0,0 +1,519 @@
+package org.geogebra.common.jre.headless;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.geogebra.common.jre.headless.EvaluationResult.Status;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.error.ErrorHandler;
+import org.geogebra.common.util.AsyncOperation;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Pool of warm headless apps that evaluate batches of commands. Each worker
+ * thread owns one app; between jobs the construction, macros, CAS caches and
+ * settings are reset, the kernel and CAS stay initialized.
+ *
+ * Jobs that exceed their time limit are completed with
+ * {@link Status#TIMEOUT}. A worker stuck in a single command is retired
+ * together with its app and replaced by a fresh one. Kernel code does not
+ * check for interrupts, so a retired thread may keep running until its
+ * command ends; once too many of them are still alive the pool is degraded
+ * and rejects new jobs until some of them finish.
+ */
+public class EvaluationPool {
+
+	/** default time limit per job in milliseconds */
+	public static final long DEFAULT_TIMEOUT = 10000;
+	private static final long WATCHDOG_PERIOD = 50;
+
+	/**
+	 * Creates apps for workers.
+	 */
+	public interface AppFactory {
+		/**
+		 * @return new headless app
+		 */
+		AppCommon createApp();
+	}
+
+	private final AppFactory factory;
+	private final int poolSize;
+	private final int maxStuckWorkers;
+	private final BlockingQueue<EvaluationJob> queue;
+	private final ArrayList<Worker> workers = new ArrayList<>();
+	private final ArrayList<Thread> stuckThreads = new ArrayList<>();
+	private final ScheduledExecutorService watchdog;
+	private final AtomicInteger workerCount = new AtomicInteger();
+	private final long startTime = System.currentTimeMillis();
+	private volatile boolean shutdown;
+
+	private final AtomicLong completedJobs = new AtomicLong();
+	private final AtomicLong timedOutJobs = new AtomicLong();
+	private final AtomicLong rejectedJobs = new AtomicLong();
+	private final AtomicLong evaluatedCommands = new AtomicLong();
+	private final AtomicLong failedCommands = new AtomicLong();
+	private final AtomicLong runTime = new AtomicLong();
+	private final AtomicLong waitTime = new AtomicLong();
+
+	/**
+	 * @param factory
+	 *            creates apps for workers
+	 * @param poolSize
+	 *            number of workers
+	 * @param queueCapacity
+	 *            maximal number of waiting jobs
+	 */
+	public EvaluationPool(AppFactory factory, int poolSize,
+			int queueCapacity) {
+		this(factory, poolSize, queueCapacity, poolSize);
+	}
+
+	/**
+	 * @param factory
+	 *            creates apps for workers
+	 * @param poolSize
+	 *            number of workers
+	 * @param queueCapacity
+	 *            maximal number of waiting jobs
+	 * @param maxStuckWorkers
+	 *            maximal number of retired threads still running a timed out
+	 *            command before the pool is degraded
+	 */
+	public EvaluationPool(AppFactory factory, int poolSize,
+			int queueCapacity, int maxStuckWorkers) {
+		this.factory = factory;
+		this.poolSize = poolSize;
+		this.maxStuckWorkers = Math.max(1, maxStuckWorkers);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		watchdog = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r,
+								"GeoGebra evaluation watchdog");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		synchronized (workers) {
+			for (int i = 0; i < poolSize; i++) {
+				startWorker(createApp());
+			}
+		}
+		watchdog.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				checkTimeouts();
+			}
+		}, WATCHDOG_PERIOD, WATCHDOG_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	private AppCommon createApp() {
+		// app initialization touches static factories
+		synchronized (AppFactory.class) {
+			AppCommon app = factory.createApp();
+			app.setUndoActive(false);
+			return app;
+		}
+	}
+
+	private void startWorker(AppCommon app) {
+		Worker worker = new Worker(app);
+		workers.add(worker);
+		Thread thread = new Thread(worker,
+				"GeoGebra evaluation worker " + workerCount.incrementAndGet());
+		thread.setDaemon(true);
+		worker.thread = thread;
+		thread.start();
+	}
+
+	/**
+	 * Queues a job with the default time limit.
+	 *
+	 * @param commands
+	 *            commands, evaluated in order in one construction
+	 * @return job
+	 * @throws RejectedExecutionException
+	 *             if the queue is full or the pool is shut down or degraded
+	 */
+	public EvaluationJob submit(List<String> commands) {
+		return submit(commands, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Queues a job.
+	 *
+	 * @param commands
+	 *            commands, evaluated in order in one construction
+	 * @param timeout
+	 *            time limit in milliseconds
+	 * @return job
+	 * @throws RejectedExecutionException
+	 *             if the queue is full or the pool is shut down or degraded
+	 */
+	public EvaluationJob submit(List<String> commands, long timeout) {
+		EvaluationJob job = new EvaluationJob(commands, timeout);
+		if (shutdown) {
+			throw reject("Pool is shut down");
+		}
+		if (isDegraded()) {
+			throw reject("Pool is degraded");
+		}
+		if (!queue.offer(job)) {
+			throw reject("Queue is full");
+		}
+		return job;
+	}
+
+	private RejectedExecutionException reject(String reason) {
+		rejectedJobs.incrementAndGet();
+		return new RejectedExecutionException(reason);
+	}
+
+	/**
+	 * Evaluates commands and waits for the result.
+	 *
+	 * @param commands
+	 *            commands, evaluated in order in one construction
+	 * @return result
+	 * @throws InterruptedException
+	 *             when interrupted while waiting
+	 */
+	public EvaluationResult evaluate(List<String> commands)
+			throws InterruptedException {
+		return submit(commands).get();
+	}
+
+	private void checkTimeouts() {
+		synchronized (workers) {
+			for (int i = stuckThreads.size() - 1; i >= 0; i--) {
+				if (!stuckThreads.get(i).isAlive()) {
+					stuckThreads.remove(i);
+				}
+			}
+			for (Worker worker : new ArrayList<>(workers)) {
+				EvaluationJob job = worker.current;
+				if (job != null && job.isOverdue()
+						&& finish(job, Status.TIMEOUT)) {
+					Log.warn(worker.thread.getName()
+							+ " exceeded time limit, replacing it");
+					workers.remove(worker);
+					worker.retire();
+					stuckThreads.add(worker.thread);
+				}
+			}
+			if (shutdown) {
+				return;
+			}
+			if (isDegraded()) {
+				if (workers.isEmpty()) {
+					cancelWaitingJobs();
+				}
+				return;
+			}
+			while (workers.size() < poolSize) {
+				startWorker(createApp());
+			}
+		}
+	}
+
+	/**
+	 * @return whether too many retired threads are still running timed out
+	 *         commands; new jobs are rejected until some of them finish
+	 */
+	public boolean isDegraded() {
+		synchronized (workers) {
+			return stuckThreads.size() >= maxStuckWorkers;
+		}
+	}
+
+	private void cancelWaitingJobs() {
+		ArrayList<EvaluationJob> waiting = new ArrayList<>();
+		queue.drainTo(waiting);
+		for (EvaluationJob job : waiting) {
+			job.complete(Status.CANCELLED);
+			job.release();
+		}
+	}
+
+	private boolean finish(EvaluationJob job, Status status) {
+		EvaluationResult result = job.complete(status);
+		if (result == null) {
+			return false;
+		}
+		completedJobs.incrementAndGet();
+		if (status == Status.TIMEOUT) {
+			timedOutJobs.incrementAndGet();
+		}
+		runTime.addAndGet(result.getRunTime());
+		waitTime.addAndGet(result.getWaitTime());
+		job.release();
+		return true;
+	}
+
+	/**
+	 * Stops all workers; waiting jobs are cancelled.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		watchdog.shutdownNow();
+		synchronized (workers) {
+			for (Worker worker : workers) {
+				worker.retire();
+			}
+			workers.clear();
+		}
+		cancelWaitingJobs();
+	}
+
+	/**
+	 * @return number of jobs waiting for a worker
+	 */
+	public int getQueueLength() {
+		return queue.size();
+	}
+
+	/**
+	 * @return number of completed jobs, including timeouts
+	 */
+	public long getCompletedJobs() {
+		return completedJobs.get();
+	}
+
+	/**
+	 * @return number of jobs that exceeded their time limit
+	 */
+	public long getTimedOutJobs() {
+		return timedOutJobs.get();
+	}
+
+	/**
+	 * @return number of jobs rejected because the queue was full or the
+	 *         pool was degraded
+	 */
+	public long getRejectedJobs() {
+		return rejectedJobs.get();
+	}
+
+	/**
+	 * @return number of evaluated commands
+	 */
+	public long getEvaluatedCommands() {
+		return evaluatedCommands.get();
+	}
+
+	/**
+	 * @return number of commands that produced an error
+	 */
+	public long getFailedCommands() {
+		return failedCommands.get();
+	}
+
+	/**
+	 * @return average evaluation time of completed jobs in milliseconds
+	 */
+	public double getAverageRunTime() {
+		long jobs = completedJobs.get();
+		return jobs == 0 ? 0 : runTime.get() / (double) jobs;
+	}
+
+	/**
+	 * @return average queueing time of completed jobs in milliseconds
+	 */
+	public double getAverageWaitTime() {
+		long jobs = completedJobs.get();
+		return jobs == 0 ? 0 : waitTime.get() / (double) jobs;
+	}
+
+	/**
+	 * @return completed jobs per second since the pool was created
+	 */
+	public double getThroughput() {
+		long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+		return completedJobs.get() * 1000.0 / elapsed;
+	}
+
+	/**
+	 * Error handler that keeps the first error of a command.
+	 */
+	private static class CommandErrors implements ErrorHandler {
+		String error;
+
+		@Override
+		public void showError(String msg) {
+			if (error == null) {
+				error = msg;
+			}
+		}
+
+		@Override
+		public void showCommandError(String command, String message) {
+			showError(message);
+		}
+
+		@Override
+		public String getCurrentCommand() {
+			return null;
+		}
+
+		@Override
+		public boolean onUndefinedVariables(String string,
+				AsyncOperation<String[]> callback) {
+			return false;
+		}
+
+		@Override
+		public void resetError() {
+			error = null;
+		}
+	}
+
+	/**
+	 * Evaluates jobs in its own app.
+	 */
+	private class Worker implements Runnable {
+		private final AppCommon app;
+		private final int angleUnit;
+		private final int printDecimals;
+		private final int printFigures;
+		private final int coordStyle;
+		private final int algebraStyle;
+		private final boolean inverseTrigReturnsAngle;
+		volatile EvaluationJob current;
+		volatile boolean retired;
+		Thread thread;
+
+		Worker(AppCommon app) {
+			this.app = app;
+			Kernel kernel = app.getKernel();
+			angleUnit = kernel.getAngleUnit();
+			printDecimals = kernel.getPrintDecimals();
+			printFigures = kernel.getPrintFigures();
+			coordStyle = kernel.getCoordStyle();
+			algebraStyle = kernel.getAlgebraStyle();
+			inverseTrigReturnsAngle = kernel.getInverseTrigReturnsAngle();
+		}
+
+		void retire() {
+			retired = true;
+			thread.interrupt();
+		}
+
+		@Override
+		public void run() {
+			while (!retired) {
+				EvaluationJob job;
+				try {
+					job = queue.take();
+				} catch (InterruptedException e) {
+					return;
+				}
+				current = job;
+				try {
+					runJob(job);
+				} finally {
+					current = null;
+				}
+			}
+		}
+
+		private void runJob(EvaluationJob job) {
+			job.start();
+			Status status = Status.DONE;
+			try {
+				for (String command : job.getCommands()) {
+					if (retired || job.isDone()) {
+						// cancelled or finished by the watchdog
+						return;
+					}
+					if (job.isOverdue()) {
+						status = Status.TIMEOUT;
+						break;
+					}
+					job.addResult(evaluate(command));
+				}
+				finish(job, status);
+			} finally {
+				reset();
+			}
+		}
+
+		private CommandResult evaluate(String command) {
+			CommandErrors errors = new CommandErrors();
+			GeoElementND[] geos = null;
+			try {
+				geos = app.getKernel().getAlgebraProcessor()
+						.processAlgebraCommandNoExceptionHandling(command,
+								false, errors, false, null);
+			} catch (Error | Exception e) {
+				errors.showError(e.getMessage() == null ? e.toString()
+						: e.getMessage());
+			}
+			evaluatedCommands.incrementAndGet();
+			if (geos == null && errors.error == null) {
+				geos = new GeoElementND[0];
+			}
+			if (errors.error != null) {
+				failedCommands.incrementAndGet();
+				return new CommandResult(command, new String[0],
+						new String[0], errors.error);
+			}
+			String[] labels = new String[geos.length];
+			String[] values = new String[geos.length];
+			for (int i = 0; i < geos.length; i++) {
+				labels[i] = geos[i].getLabelSimple();
+				values[i] = geos[i]
+						.toValueString(StringTemplate.defaultTemplate);
+			}
+			return new CommandResult(command, labels, values, null);
+		}
+
+		/**
+		 * Prepares the app for the next job: clears the construction, macros
+		 * and CAS caches and restores settings that commands may change, so
+		 * that no state leaks from one job to the next.
+		 */
+		private void reset() {
+			Kernel kernel = app.getKernel();
+			if (!kernel.getConstruction().isEmpty()) {
+				kernel.clearConstruction(true);
+			}
+			if (kernel.getMacroNumber() > 0) {
+				kernel.removeAllMacros();
+			}
+			kernel.clearCasCache();
+			if (kernel.isGeoGebraCASready()) {
+				kernel.getGeoGebraCAS().clearResult();
+			}
+			app.getSettings().resetSettings(app);
+			app.setRandomSeed(ThreadLocalRandom.current().nextInt());
+			kernel.setCoordStyle(coordStyle);
+			kernel.setAlgebraStyle(algebraStyle);
+			kernel.setInverseTrigReturnsAngle(inverseTrigReturnsAngle);
+			if (kernel.getAngleUnit() != angleUnit) {
+				kernel.setAngleUnit(angleUnit);
+			}
+			if (kernel.getPrintFigures() != printFigures
+					|| kernel.getPrintDecimals() != printDecimals) {
+				if (printFigures >= 0) {
+					kernel.setPrintFigures(printFigures);
+				} else {
+					kernel.setPrintDecimals(printDecimals);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package org.geogebra.common.jre.headless;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of an evaluation job.
+ */
+public class EvaluationResult {
+
+	/** job state at the time the result was created */
+	public enum Status {
+		/** all commands were evaluated */
+		DONE,
+		/** time limit was reached, results of later commands are missing */
+		TIMEOUT,
+		/** job was not run because the pool was shut down */
+		CANCELLED
+	}
+
+	private final Status status;
+	private final List<CommandResult> commands;
+	private final long waitTime;
+	private final long runTime;
+
+	/**
+	 * @param status
+	 *            status
+	 * @param commands
+	 *            results of evaluated commands
+	 * @param waitTime
+	 *            time spent in the queue in milliseconds
+	 * @param runTime
+	 *            evaluation time in milliseconds
+	 */
+	public EvaluationResult(Status status, List<CommandResult> commands,
+			long waitTime, long runTime) {
+		this.status = status;
+		this.commands = Collections.unmodifiableList(commands);
+		this.waitTime = waitTime;
+		this.runTime = runTime;
+	}
+
+	/**
+	 * @return status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return results of evaluated commands, in job order
+	 */
+	public List<CommandResult> getCommands() {
+		return commands;
+	}
+
+	/**
+	 * @return time spent in the queue in milliseconds
+	 */
+	public long getWaitTime() {
+		return waitTime;
+	}
+
+	/**
+	 * @return evaluation time in milliseconds
+	 */
+	public long getRunTime() {
+		return runTime;
+	}
+}
@@ -0,0 +1,97 @@
+package org.geogebra.common.jre.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.geogebra.common.kernel.statistics.DataTable;
+import org.geogebra.common.kernel.statistics.DataTableParser;
+
+/**
+ * Reads comma or tab separated files into a {@link DataTable} through a
+ * memory mapped buffer. ASCII files are parsed from the mapped bytes
+ * directly; other files are decoded as UTF-8 first.
+ */
+public class MappedCSVReader {
+
+	/**
+	 * Character view of ASCII bytes.
+	 */
+	private static class AsciiSequence implements CharSequence {
+		private final ByteBuffer bytes;
+		private final int offset;
+		private final int length;
+
+		AsciiSequence(ByteBuffer bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) bytes.get(offset + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new AsciiSequence(bytes, offset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			byte[] data = new byte[length];
+			for (int i = 0; i < length; i++) {
+				data[i] = bytes.get(offset + i);
+			}
+			return new String(data, StandardCharsets.US_ASCII);
+		}
+	}
+
+	/**
+	 * @param file
+	 *            CSV file
+	 * @return parsed table
+	 * @throws IOException
+	 *             if the file can't be read or is larger than 2GB
+	 */
+	public static DataTable read(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("file too large: " + file);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+					0, size);
+			return new DataTableParser(toChars(buffer)).parse();
+		}
+	}
+
+	private static CharSequence toChars(ByteBuffer buffer) {
+		int length = buffer.limit();
+		int start = 0;
+		// UTF-8 byte order mark
+		if (length >= 3 && buffer.get(0) == (byte) 0xEF
+				&& buffer.get(1) == (byte) 0xBB
+				&& buffer.get(2) == (byte) 0xBF) {
+			start = 3;
+		}
+		for (int i = start; i < length; i++) {
+			if (buffer.get(i) < 0) {
+				buffer.position(start);
+				return StandardCharsets.UTF_8.decode(buffer);
+			}
+		}
+		return new AsciiSequence(buffer, start, length - start);
+	}
+}
@@ -1,23 +1,159 @@
 package org.geogebra.common.jre.io;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import org.geogebra.common.jre.gui.MyImageJre;
+import org.geogebra.common.jre.util.StreamUtil;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
 
+/**
+ * XML IO for headless apps. The construction XML is not buffered: it is
+ * unzipped and parsed on a worker thread while the construction is built.
+ */
 public final class MyXMLioCommon extends MyXMLioJre {
+	/**
+	 * @param kernel
+	 *            kernel
+	 * @param cons
+	 *            construction
+	 */
 	public MyXMLioCommon(Kernel kernel, Construction cons) {
 		super(kernel, cons);
+		setParseOffThread(true);
 	}
 
 	@Override
 	protected void readZip(ZipInputStream zip, boolean isGGTfile)
 			throws Exception {
-		// TODO Auto-generated method stub
+		long start = System.currentTimeMillis();
+		byte[] defaults2dXmlFileBuffer = null;
+		byte[] defaults3dXmlFileBuffer = null;
+		boolean xmlFound = false;
+		boolean macroXMLfound = false;
+		boolean javaScriptFound = false;
+		boolean structureFound = false;
+		long constructionTime = 0;
+		long updateTime = 0;
+		PipelinedXMLParser constructionParser = null;
+
+		if (!isGGTfile) {
+			// ggb file: remove all macros from kernel before processing
+			kernel.removeAllMacros();
+		}
+
+		while (true) {
+			ZipEntry entry = null;
+			try {
+				entry = zip.getNextEntry();
+			} catch (Exception e) {
+				Log.error(e.getMessage());
+			}
+			if (entry == null) {
+				break;
+			}
+			String name = entry.getName();
+
+			if (name.equals("structure.json")) {
+				structureFound = true;
+			} else if (name.equals(XML_FILE)) {
+				if (!isGGTfile) {
+					// stream construction straight from the archive
+					kernel.getConstruction().setFileLoading(true);
+					try {
+						app.getCompanion().resetEuclidianViewForPlaneIds();
+						processXMLStream(zip, !macroXMLfound, false);
+					} finally {
+						kernel.getConstruction().setFileLoading(false);
+					}
+					constructionTime = getLastParseTime();
+					updateTime = getLastUpdateTime();
+					constructionParser = getPipelinedParser();
+				}
+				xmlFound = true;
+			} else if (name.equals(XML_FILE_DEFAULTS_2D)) {
+				defaults2dXmlFileBuffer = StreamUtil.loadIntoMemory(zip);
+			} else if (app.is3D() && name.equals(XML_FILE_DEFAULTS_3D)) {
+				defaults3dXmlFileBuffer = StreamUtil.loadIntoMemory(zip);
+			} else if (name.equals(XML_FILE_MACRO)) {
+				kernel.getConstruction().setFileLoading(true);
+				try {
+					// writers put macros first; if they come after the
+					// construction, keep the construction loaded from it
+					processXMLStream(zip, !isGGTfile && !xmlFound, isGGTfile);
+				} finally {
+					kernel.getConstruction().setFileLoading(false);
+				}
+				macroXMLfound = true;
+			} else if (name.equals(JAVASCRIPT_FILE)) {
+				kernel.setLibraryJavaScript(
+						new String(StreamUtil.loadIntoMemory(zip),
+								Charsets.getUtf8()));
+				javaScriptFound = true;
+			} else {
+				Log.debug("Headless app ignores " + name);
+			}
+
+			try {
+				zip.closeEntry();
+			} catch (Exception e) {
+				Log.error(e.getMessage());
+			}
+		}
+		zip.close();
+
+		// process defaults (after construction for labeling styles)
+		if (defaults2dXmlFileBuffer != null) {
+			kernel.getConstruction().setFileLoading(true);
+			try {
+				processXMLBuffer(defaults2dXmlFileBuffer, false, true);
+			} finally {
+				kernel.getConstruction().setFileLoading(false);
+			}
+		}
+		if (defaults3dXmlFileBuffer != null) {
+			kernel.getConstruction().setFileLoading(true);
+			try {
+				processXMLBuffer(defaults3dXmlFileBuffer, false, true);
+			} finally {
+				kernel.getConstruction().setFileLoading(false);
+			}
+		}
+
+		if (!javaScriptFound && !isGGTfile) {
+			kernel.resetLibraryJavaScript();
+		}
+		if (!(macroXMLfound || xmlFound || structureFound)) {
+			throw new Exception("No XML data found in file.");
+		}
+		if (constructionParser != null) {
+			Log.debug("Loaded file in " + (System.currentTimeMillis() - start)
+					+ "ms: construction " + constructionTime
+					+ "ms (unzip and parse "
+					+ constructionParser.getParseTime() + "ms, waiting "
+					+ constructionParser.getWaitTime() + "ms), update "
+					+ updateTime + "ms");
+		}
+	}
 
+	private void processXMLStream(InputStream is, boolean clearConstruction,
+			boolean isGGTOrDefaults) throws Exception {
+		// the parser closes its reader, keep the archive open
+		InputStream entry = new FilterInputStream(is) {
+			@Override
+			public void close() {
+				// closed with the archive
+			}
+		};
+		doParseXML(new XMLStreamInputStream(entry), clearConstruction,
+				isGGTOrDefaults, true, true, true);
 	}
 
 	@Override
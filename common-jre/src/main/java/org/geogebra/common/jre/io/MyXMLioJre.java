@@ -64,6 +64,8 @@ public abstract class MyXMLioJre extends MyXMLio {
 	// private static XMLReaderFactory factory;
 
 	private QDParser xmlParser;
+	private boolean parseOffThread;
+	private PipelinedXMLParser pipelinedParser;
 
 	/**
 	 * @param kernel
@@ -573,11 +575,32 @@ public abstract class MyXMLioJre extends MyXMLio {
 	final protected void parseXML(MyXMLHandler xmlHandler, XMLStream stream)
 			throws Exception {
 		XMLStreamJre streamJre = (XMLStreamJre) stream;
-		xmlParser.parse(xmlHandler, streamJre.getReader());
+		if (parseOffThread && stream instanceof XMLStreamInputStream) {
+			pipelinedParser = new PipelinedXMLParser();
+			pipelinedParser.parse(xmlHandler, streamJre.getReader());
+		} else {
+			xmlParser.parse(xmlHandler, streamJre.getReader());
+		}
 		streamJre.closeReader();
 
 	}
 
+	/**
+	 * @param offThread
+	 *            whether to read and tokenize files on a worker thread while
+	 *            the construction is built
+	 */
+	public void setParseOffThread(boolean offThread) {
+		this.parseOffThread = offThread;
+	}
+
+	/**
+	 * @return parser used for the last file read off thread, null if none
+	 */
+	public PipelinedXMLParser getPipelinedParser() {
+		return pipelinedParser;
+	}
+
 	/**
 	 *
 	 */
@@ -0,0 +1,245 @@
+package org.geogebra.common.jre.io;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.geogebra.common.io.DocHandler;
+import org.geogebra.common.io.QDParser;
+
+/**
+ * XML parser that reads and tokenizes the document on a worker thread while
+ * the calling thread builds the construction. Parsed events are passed in
+ * batches through a bounded queue, so memory use does not depend on the size
+ * of the document and decompression, decoding and tokenizing overlap with
+ * element construction.
+ */
+public class PipelinedXMLParser {
+
+	/** number of events passed to the handler thread at once */
+	static final int BATCH_SIZE = 512;
+	/** maximal number of batches waiting for the handler */
+	static final int QUEUE_SIZE = 16;
+
+	private static final int START = 0;
+	private static final int END = 1;
+	private static final int TEXT = 2;
+	private static final int START_DOCUMENT = 3;
+	private static final int END_DOCUMENT = 4;
+
+	/** shared by all parsers; idle threads are reused for the next file */
+	private static final ExecutorService EXECUTOR = Executors
+			.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "GeoGebra XML parser");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	private long parseTime;
+	private long waitTime;
+
+	/**
+	 * Parses the document, the handler is called on the calling thread.
+	 *
+	 * @param doc
+	 *            handler that receives document events
+	 * @param reader
+	 *            source of XML data
+	 * @throws Exception
+	 *             if XML is not valid or the handler fails
+	 */
+	public void parse(DocHandler doc, Reader reader) throws Exception {
+		BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+		Worker worker = new Worker(new BufferedReader(reader), queue);
+		Future<?> task = EXECUTOR.submit(worker);
+		waitTime = 0;
+		try {
+			while (true) {
+				long start = System.currentTimeMillis();
+				Batch batch = queue.take();
+				waitTime += System.currentTimeMillis() - start;
+				if (batch.error != null) {
+					throw batch.error;
+				}
+				batch.replay(doc);
+				if (batch.last) {
+					break;
+				}
+			}
+		} finally {
+			// the worker must not touch the reader once we return
+			if (!worker.claimed.compareAndSet(false, true)) {
+				task.cancel(true);
+				worker.done.await();
+			}
+			parseTime = worker.time;
+		}
+	}
+
+	/**
+	 * @return time the worker spent reading and tokenizing the last document
+	 *         in milliseconds
+	 */
+	public long getParseTime() {
+		return parseTime;
+	}
+
+	/**
+	 * @return time the handler thread spent waiting for the worker in
+	 *         milliseconds
+	 */
+	public long getWaitTime() {
+		return waitTime;
+	}
+
+	/**
+	 * Parser events of a part of the document.
+	 */
+	private static class Batch {
+		final int[] types = new int[BATCH_SIZE];
+		final String[] names = new String[BATCH_SIZE];
+		final ArrayList<LinkedHashMap<String, String>> attrs =
+				new ArrayList<>(BATCH_SIZE);
+		int size;
+		boolean last;
+		Exception error;
+
+		Batch() {
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				attrs.add(null);
+			}
+		}
+
+		boolean isFull() {
+			return size == BATCH_SIZE;
+		}
+
+		void add(int type, String name,
+				LinkedHashMap<String, String> attributes) {
+			types[size] = type;
+			names[size] = name;
+			attrs.set(size, attributes);
+			size++;
+		}
+
+		void replay(DocHandler doc) throws Exception {
+			for (int i = 0; i < size; i++) {
+				switch (types[i]) {
+				case START:
+					doc.startElement(names[i], attrs.get(i));
+					break;
+				case END:
+					doc.endElement(names[i]);
+					break;
+				case TEXT:
+					doc.text(names[i]);
+					break;
+				case START_DOCUMENT:
+					doc.startDocument();
+					break;
+				default:
+					doc.endDocument();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the parser and records its events.
+	 */
+	private static class Worker implements Runnable, DocHandler {
+		private final Reader reader;
+		private final BlockingQueue<Batch> queue;
+		private Batch batch = new Batch();
+		/** set by whoever comes first: the worker or the giving up handler */
+		final AtomicBoolean claimed = new AtomicBoolean();
+		final CountDownLatch done = new CountDownLatch(1);
+		volatile long time;
+
+		Worker(Reader reader, BlockingQueue<Batch> queue) {
+			this.reader = reader;
+			this.queue = queue;
+		}
+
+		@Override
+		public void run() {
+			if (!claimed.compareAndSet(false, true)) {
+				// handler gave up before the worker started
+				return;
+			}
+			try {
+				parse();
+			} finally {
+				done.countDown();
+			}
+		}
+
+		private void parse() {
+			long start = System.currentTimeMillis();
+			try {
+				new QDParser().parse(this, reader);
+				batch.last = true;
+			} catch (InterruptedException e) {
+				// handler gave up
+				return;
+			} catch (Exception e) {
+				batch.error = e;
+			}
+			time = System.currentTimeMillis() - start;
+			try {
+				queue.put(batch);
+			} catch (InterruptedException e) {
+				// handler gave up
+			}
+		}
+
+		private void record(int type, String name,
+				LinkedHashMap<String, String> attributes)
+				throws InterruptedException {
+			batch.add(type, name, attributes);
+			if (batch.isFull()) {
+				queue.put(batch);
+				batch = new Batch();
+			}
+		}
+
+		@Override
+		public void startElement(String tag,
+				LinkedHashMap<String, String> h) throws Exception {
+			// the parser reuses the map
+			record(START, tag, new LinkedHashMap<>(h));
+		}
+
+		@Override
+		public void endElement(String tag) throws Exception {
+			record(END, tag, null);
+		}
+
+		@Override
+		public void startDocument() throws Exception {
+			record(START_DOCUMENT, null, null);
+		}
+
+		@Override
+		public void endDocument() throws Exception {
+			record(END_DOCUMENT, null, null);
+		}
+
+		@Override
+		public void text(String str) throws Exception {
+			record(TEXT, str, null);
+		}
+	}
+}
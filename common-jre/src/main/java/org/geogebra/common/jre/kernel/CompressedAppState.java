@@ -0,0 +1,107 @@
+package org.geogebra.common.jre.kernel;
+
+import java.io.File;
+
+import org.geogebra.common.kernel.AppState;
+
+/**
+ * App state stored in compressed form, either in memory or in a temporary
+ * file of its {@link CompressedStateStore}.
+ */
+public class CompressedAppState implements AppState {
+
+	private final CompressedStateStore store;
+	private final int rawLength;
+	private final int compressedLength;
+	private final long checksum;
+	private byte[] data;
+	private File file;
+
+	/**
+	 * @param store
+	 *            store managing this state
+	 * @param data
+	 *            compressed XML
+	 * @param rawLength
+	 *            length of the uncompressed XML in bytes
+	 * @param checksum
+	 *            CRC32 of the uncompressed XML
+	 */
+	CompressedAppState(CompressedStateStore store, byte[] data,
+			int rawLength, long checksum) {
+		this.store = store;
+		this.data = data;
+		this.rawLength = rawLength;
+		this.compressedLength = data.length;
+		this.checksum = checksum;
+	}
+
+	@Override
+	public String getXml() {
+		return store.getXml(this);
+	}
+
+	@Override
+	public void delete() {
+		store.delete(this);
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state == null) {
+			return false;
+		}
+		if (state instanceof CompressedAppState) {
+			CompressedAppState other = (CompressedAppState) state;
+			if (other.rawLength != rawLength || other.checksum != checksum) {
+				return false;
+			}
+		}
+		String xml = getXml();
+		return xml != null && xml.equals(state.getXml());
+	}
+
+	/**
+	 * @return compressed data, null if only on disk
+	 */
+	byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * @param data
+	 *            compressed data
+	 */
+	void setData(byte[] data) {
+		this.data = data;
+	}
+
+	/**
+	 * @return temporary file, null if never evicted
+	 */
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * @param file
+	 *            temporary file
+	 */
+	void setFile(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * @return length of uncompressed XML in bytes
+	 */
+	public int getRawLength() {
+		return rawLength;
+	}
+
+	/**
+	 * @return length of compressed XML in bytes
+	 */
+	public int getCompressedLength() {
+		return compressedLength;
+	}
+}
@@ -0,0 +1,355 @@
+package org.geogebra.common.jre.kernel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.geogebra.common.jre.util.StreamUtil;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Keeps compressed undo snapshots within a memory budget. Snapshots are
+ * deflated with a preset dictionary of common GeoGebra XML; least recently
+ * used snapshots are moved to a temporary directory once the budget is
+ * exceeded.
+ */
+public class CompressedStateStore {
+
+	/** default in-memory budget: 16MB of compressed data */
+	public static final long DEFAULT_BUDGET = 16 * 1024 * 1024;
+
+	private static final String TEMP_FILE_PREFIX = "GeoGebraUndoInfo";
+
+	/**
+	 * Preset dictionary; most frequent fragments are at the end, where
+	 * deflate can reference them with the shortest distance.
+	 */
+	private static final byte[] DICTIONARY = ("<?xml version=\"1.0\" "
+			+ "encoding=\"utf-8\"?>\n<geogebra format=\"5.0\" version=\""
+			+ "<euclidianView>\n\t<viewNumber viewNo=\"1\"/>\n\t<size  width=\""
+			+ "\t<coordSystem xZero=\"\t<evSettings axes=\"true\" grid=\"false\""
+			+ "<kernel>\n\t<continuous val=\"false\"/>\n\t<decimals val=\"2\"/>"
+			+ "<construction title=\"\" author=\"\" date=\"\">\n"
+			+ "\t<slider min=\"-5\" max=\"5\" width=\"200\" fixed=\"true\" "
+			+ "horizontal=\"true\" showAlgebra=\"true\"/>\n"
+			+ "\t<value val=\"\t<caption val=\"\t<fixed val=\"true\"/>\n"
+			+ "\t<lineStyle thickness=\"5\" type=\"0\" typeHidden=\"1\"/>\n"
+			+ "\t<outlyingIntersections val=\"false\"/>\n"
+			+ "\t<keepTypeOnTransform val=\"true\"/>\n"
+			+ "\t<pointSize val=\"5\"/>\n\t<pointStyle val=\"0\"/>\n"
+			+ "\t<animation step=\"0.1\" speed=\"1\" type=\"1\" "
+			+ "playing=\"false\"/>\n"
+			+ "<expression label=\"\" exp=\"\" type=\"point\"/>\n"
+			+ "<command name=\"\">\n\t<input a0=\"\" a1=\"\"/>\n"
+			+ "\t<output a0=\"\"/>\n</command>\n"
+			+ "\t<show object=\"true\" label=\"true\"/>\n"
+			+ "\t<show object=\"true\" label=\"false\"/>\n"
+			+ "\t<objColor r=\"0\" g=\"0\" b=\"0\" alpha=\"0.0\"/>\n"
+			+ "\t<layer val=\"0\"/>\n\t<labelMode val=\"0\"/>\n"
+			+ "\t<coords x=\"\" y=\"\" z=\"1.0\"/>\n"
+			+ "<element type=\"point\" label=\"\">\n</element>\n")
+					.getBytes(Charsets.getUtf8());
+
+	/** files of all stores not deleted yet, removed on JVM exit */
+	private static final HashSet<File> SPILLED_FILES = new HashSet<>();
+	private static boolean shutdownHookAdded;
+
+	private final long budget;
+	private final File tempDir;
+	/** states held in memory, in access order */
+	private final LinkedHashMap<CompressedAppState, Boolean> inMemory =
+			new LinkedHashMap<>(16, 0.75f, true);
+	/** states that have a copy on disk */
+	private final HashSet<CompressedAppState> onDisk = new HashSet<>();
+	private long memorySize;
+	private long diskSize;
+
+	private long lastFetchTime;
+	private int lastFetchSize;
+	private boolean lastFetchFromDisk;
+
+	/**
+	 * Store with default budget in system temp directory.
+	 */
+	public CompressedStateStore() {
+		this(DEFAULT_BUDGET, null);
+	}
+
+	/**
+	 * @param budget
+	 *            maximal number of compressed bytes kept in memory
+	 * @param tempDir
+	 *            directory for evicted states, null for system default
+	 */
+	public CompressedStateStore(long budget, File tempDir) {
+		this.budget = budget;
+		this.tempDir = tempDir;
+	}
+
+	/**
+	 * @param xml
+	 *            construction XML
+	 * @return compressed state
+	 */
+	public synchronized CompressedAppState createState(StringBuilder xml) {
+		byte[] raw = xml.toString().getBytes(Charsets.getUtf8());
+		CRC32 crc = new CRC32();
+		crc.update(raw);
+		CompressedAppState state = new CompressedAppState(this, compress(raw),
+				raw.length, crc.getValue());
+		addToMemory(state);
+		return state;
+	}
+
+	private static byte[] compress(byte[] raw) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setDictionary(DICTIONARY);
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(
+					raw.length / 8 + 64);
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] decompress(byte[] data, int rawLength)
+			throws DataFormatException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			byte[] raw = new byte[rawLength];
+			int offset = 0;
+			while (offset < rawLength && !inflater.finished()) {
+				int read = inflater.inflate(raw, offset, rawLength - offset);
+				if (read == 0 && inflater.needsDictionary()) {
+					inflater.setDictionary(DICTIONARY);
+				} else if (read == 0 && inflater.needsInput()) {
+					throw new DataFormatException("Truncated undo state");
+				}
+				offset += read;
+			}
+			return raw;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * @param state
+	 *            state
+	 * @return uncompressed XML of the state
+	 */
+	synchronized String getXml(CompressedAppState state) {
+		long start = System.currentTimeMillis();
+		boolean fromDisk = state.getData() == null;
+		try {
+			if (fromDisk) {
+				if (state.getFile() == null) {
+					return null;
+				}
+				readFromDisk(state);
+				addToMemory(state);
+			} else {
+				// mark as recently used
+				inMemory.get(state);
+			}
+			byte[] raw = decompress(state.getData(), state.getRawLength());
+			return new String(raw, Charsets.getUtf8());
+		} catch (IOException | DataFormatException e) {
+			Log.error("Cannot restore undo state: " + e.getMessage());
+			return null;
+		} finally {
+			lastFetchTime = System.currentTimeMillis() - start;
+			lastFetchSize = state.getCompressedLength();
+			lastFetchFromDisk = fromDisk;
+		}
+	}
+
+	private void addToMemory(CompressedAppState state) {
+		inMemory.put(state, Boolean.TRUE);
+		memorySize += state.getCompressedLength();
+		evict(state);
+	}
+
+	/**
+	 * Moves least recently used states to disk until the memory budget is
+	 * met; the given state stays in memory.
+	 */
+	private void evict(CompressedAppState keep) {
+		Iterator<CompressedAppState> it = inMemory.keySet().iterator();
+		while (memorySize > budget && it.hasNext()) {
+			CompressedAppState state = it.next();
+			if (state == keep) {
+				continue;
+			}
+			try {
+				writeToDisk(state);
+				it.remove();
+				memorySize -= state.getCompressedLength();
+				state.setData(null);
+			} catch (IOException e) {
+				Log.warn("Cannot spill undo state: " + e.getMessage());
+				return;
+			}
+		}
+	}
+
+	private void writeToDisk(CompressedAppState state) throws IOException {
+		if (state.getFile() == null) {
+			File file = File.createTempFile(TEMP_FILE_PREFIX, ".bin",
+					tempDir);
+			registerSpilledFile(file);
+			OutputStream os = new FileOutputStream(file);
+			try {
+				os.write(state.getData());
+			} finally {
+				StreamUtil.closeSilent(os);
+			}
+			state.setFile(file);
+			onDisk.add(state);
+			diskSize += state.getCompressedLength();
+		}
+	}
+
+	/**
+	 * Unlike {@link File#deleteOnExit()}, the set only holds files that were
+	 * not deleted yet, so it does not grow with the number of spilled states.
+	 */
+	private static void registerSpilledFile(File file) {
+		synchronized (SPILLED_FILES) {
+			SPILLED_FILES.add(file);
+			if (!shutdownHookAdded) {
+				shutdownHookAdded = true;
+				Runtime.getRuntime().addShutdownHook(new Thread() {
+					@Override
+					public void run() {
+						synchronized (SPILLED_FILES) {
+							for (File spilled : SPILLED_FILES) {
+								spilled.delete();
+							}
+							SPILLED_FILES.clear();
+						}
+					}
+				});
+			}
+		}
+	}
+
+	private static void readFromDisk(CompressedAppState state)
+			throws IOException {
+		byte[] data = new byte[state.getCompressedLength()];
+		InputStream is = new FileInputStream(state.getFile());
+		try {
+			int offset = 0;
+			while (offset < data.length) {
+				int read = is.read(data, offset, data.length - offset);
+				if (read < 0) {
+					throw new IOException("Truncated undo file");
+				}
+				offset += read;
+			}
+		} finally {
+			StreamUtil.closeSilent(is);
+		}
+		state.setData(data);
+	}
+
+	/**
+	 * Releases memory and disk space of a state.
+	 *
+	 * @param state
+	 *            deleted state
+	 */
+	synchronized void delete(CompressedAppState state) {
+		if (inMemory.remove(state) != null) {
+			memorySize -= state.getCompressedLength();
+		}
+		state.setData(null);
+		File file = state.getFile();
+		if (file != null) {
+			onDisk.remove(state);
+			diskSize -= state.getCompressedLength();
+			if (!file.delete()) {
+				Log.warn("Failed to delete " + file.getAbsolutePath());
+			}
+			synchronized (SPILLED_FILES) {
+				SPILLED_FILES.remove(file);
+			}
+			state.setFile(null);
+		}
+	}
+
+	/**
+	 * Releases memory and disk space of all states.
+	 */
+	public synchronized void clear() {
+		ArrayList<CompressedAppState> states = new ArrayList<>(
+				inMemory.keySet());
+		states.addAll(onDisk);
+		for (CompressedAppState state : states) {
+			delete(state);
+		}
+	}
+
+	/**
+	 * @return compressed bytes held in memory
+	 */
+	public synchronized long getMemorySize() {
+		return memorySize;
+	}
+
+	/**
+	 * @return compressed bytes written to disk
+	 */
+	public synchronized long getDiskSize() {
+		return diskSize;
+	}
+
+	/**
+	 * @return in-memory budget in bytes
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * @return duration of last fetch in milliseconds
+	 */
+	public synchronized long getLastFetchTime() {
+		return lastFetchTime;
+	}
+
+	/**
+	 * @return compressed size of last fetched state
+	 */
+	public synchronized int getLastFetchSize() {
+		return lastFetchSize;
+	}
+
+	/**
+	 * @return whether last fetched state had to be read from disk
+	 */
+	public synchronized boolean isLastFetchFromDisk() {
+		return lastFetchFromDisk;
+	}
+}
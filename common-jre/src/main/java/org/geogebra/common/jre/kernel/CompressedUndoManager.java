@@ -0,0 +1,63 @@
+package org.geogebra.common.jre.kernel;
+
+import org.geogebra.common.kernel.AppState;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.DefaultUndoManager;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Undo manager that keeps snapshots compressed within a memory budget, see
+ * {@link CompressedStateStore}.
+ */
+public class CompressedUndoManager extends DefaultUndoManager {
+
+	private final CompressedStateStore store;
+
+	/**
+	 * @param cons
+	 *            construction
+	 */
+	public CompressedUndoManager(Construction cons) {
+		this(cons, new CompressedStateStore());
+	}
+
+	/**
+	 * @param cons
+	 *            construction
+	 * @param store
+	 *            store for snapshots
+	 */
+	public CompressedUndoManager(Construction cons,
+			CompressedStateStore store) {
+		super(cons);
+		this.store = store;
+	}
+
+	@Override
+	protected AppState createAppState(StringBuilder undoXML) {
+		return store.createState(undoXML);
+	}
+
+	@Override
+	protected void loadUndoInfo(AppState state, String slideID) {
+		super.loadUndoInfo(state, slideID);
+		if (state instanceof CompressedAppState) {
+			Log.debug("Undo state fetched in " + store.getLastFetchTime()
+					+ "ms (" + store.getLastFetchSize() + " bytes"
+					+ (store.isLastFetchFromDisk() ? ", from disk)" : ")"));
+		}
+	}
+
+	@Override
+	public synchronized void clearUndoInfo() {
+		super.clearUndoInfo();
+		store.clear();
+	}
+
+	/**
+	 * @return store holding the snapshots
+	 */
+	public CompressedStateStore getStore() {
+		return store;
+	}
+}
@@ -0,0 +1,170 @@
+package org.geogebra.common.jre.kernel;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.algos.CascadeEvaluator;
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Cascade evaluator that computes independent algorithms on a fork-join
+ * pool. Algorithms are split into dependency levels; within each level the
+ * {@link AlgoElement#isComputeThreadSafe() thread safe} ones are computed in
+ * parallel and then all output objects are updated sequentially on the
+ * calling thread, in construction order.
+ * Enabled via {@link org.geogebra.common.kernel.Kernel#setCascadeEvaluator}.
+ */
+public class ParallelCascadeEvaluator implements CascadeEvaluator {
+
+	/** smallest number of algos in a level worth computing in parallel */
+	public static final int MIN_PARALLEL_SIZE = 8;
+	private static final int ALGOS_PER_TASK = 4;
+
+	private final ForkJoinPool pool;
+	private final int minParallelSize;
+	private long parallelLevels;
+	private long parallelAlgos;
+
+	/**
+	 * Evaluator using a pool with one thread per core.
+	 */
+	public ParallelCascadeEvaluator() {
+		this(new ForkJoinPool(), MIN_PARALLEL_SIZE);
+	}
+
+	/**
+	 * @param pool
+	 *            pool for computations
+	 * @param minParallelSize
+	 *            smallest number of algos in a level worth computing in
+	 *            parallel
+	 */
+	public ParallelCascadeEvaluator(ForkJoinPool pool, int minParallelSize) {
+		this.pool = pool;
+		this.minParallelSize = Math.max(2, minParallelSize);
+	}
+
+	@Override
+	public void updateAll(Iterable<AlgoElement> algos) {
+		ArrayList<AlgoElement> list = new ArrayList<>();
+		int threadSafe = 0;
+		for (AlgoElement algo : algos) {
+			list.add(algo);
+			if (algo.isComputeThreadSafe()) {
+				threadSafe++;
+			}
+		}
+		if (threadSafe < minParallelSize) {
+			for (AlgoElement algo : list) {
+				algo.update();
+			}
+			return;
+		}
+		for (List<AlgoElement> level : splitLevels(list)) {
+			updateLevel(level);
+		}
+	}
+
+	private void updateLevel(List<AlgoElement> level) {
+		ArrayList<AlgoElement> threadSafe = new ArrayList<>(level.size());
+		for (AlgoElement algo : level) {
+			if (algo.isComputeThreadSafe()) {
+				threadSafe.add(algo);
+			}
+		}
+		boolean parallel = threadSafe.size() >= minParallelSize;
+		if (parallel) {
+			pool.invoke(new ComputeTask(threadSafe, 0, threadSafe.size()));
+			parallelLevels++;
+			parallelAlgos += threadSafe.size();
+		}
+		for (AlgoElement algo : level) {
+			if (parallel && algo.isComputeThreadSafe()) {
+				algo.notifyOutput();
+			} else {
+				algo.update();
+			}
+		}
+	}
+
+	/**
+	 * Splits topologically sorted algos into levels so that algos only
+	 * depend on algos of lower levels. Algos that are not thread safe may
+	 * have dependencies not reflected by their input, so they keep their
+	 * relative order. Order within each level is kept.
+	 *
+	 * @param algos
+	 *            topologically sorted algos
+	 * @return dependency levels
+	 */
+	static List<List<AlgoElement>> splitLevels(List<AlgoElement> algos) {
+		IdentityHashMap<AlgoElement, Integer> levelOf =
+				new IdentityHashMap<>();
+		ArrayList<List<AlgoElement>> levels = new ArrayList<>();
+		int lastUnsafeLevel = 0;
+		for (AlgoElement algo : algos) {
+			int level = 0;
+			for (GeoElement input : algo.getInput()) {
+				Integer parentLevel = levelOf.get(input.getParentAlgorithm());
+				if (parentLevel != null) {
+					level = Math.max(level, parentLevel + 1);
+				}
+			}
+			if (!algo.isComputeThreadSafe()) {
+				level = Math.max(level, lastUnsafeLevel);
+				lastUnsafeLevel = level;
+			}
+			levelOf.put(algo, level);
+			if (level == levels.size()) {
+				levels.add(new ArrayList<AlgoElement>());
+			}
+			levels.get(level).add(algo);
+		}
+		return levels;
+	}
+
+	/**
+	 * @return number of levels that were computed in parallel
+	 */
+	public long getParallelLevels() {
+		return parallelLevels;
+	}
+
+	/**
+	 * @return number of algos that were computed in parallel
+	 */
+	public long getParallelAlgos() {
+		return parallelAlgos;
+	}
+
+	private static class ComputeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final List<AlgoElement> algos;
+		private final int start;
+		private final int end;
+
+		ComputeTask(List<AlgoElement> algos, int start, int end) {
+			this.algos = algos;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= ALGOS_PER_TASK) {
+				for (int i = start; i < end; i++) {
+					algos.get(i).computeOutput();
+				}
+			} else {
+				int middle = (start + end) / 2;
+				invokeAll(new ComputeTask(algos, start, middle),
+						new ComputeTask(algos, middle, end));
+			}
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package org.geogebra.common.jre.kernel;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.kernel.algos.LocusEvaluator;
+import org.geogebra.common.kernel.algos.LocusSampler;
+import org.geogebra.common.kernel.algos.LocusSegment;
+import org.geogebra.common.util.AsyncOperation;
+
+/**
+ * Locus evaluator that samples all segments of a locus on a fork-join pool.
+ * Segments are passed to the locus on the calling thread in order, so the
+ * first part of the locus is inserted while the rest is still sampled.
+ * Enabled via {@link org.geogebra.common.kernel.Kernel#setLocusEvaluator}.
+ */
+public class ParallelLocusEvaluator implements LocusEvaluator {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Evaluator using a pool with one thread per core.
+	 */
+	public ParallelLocusEvaluator() {
+		this(new ForkJoinPool());
+	}
+
+	/**
+	 * @param pool
+	 *            pool for sampling
+	 */
+	public ParallelLocusEvaluator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public void sample(LocusSampler[] samplers, LocusSegment[] segments,
+			AsyncOperation<LocusSegment> consumer) {
+		ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>(samplers.length);
+		for (int i = 0; i < samplers.length; i++) {
+			final LocusSampler sampler = samplers[i];
+			final LocusSegment segment = segments[i];
+			tasks.add(pool.submit(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					sampler.sample(segment);
+				}
+			}));
+		}
+		try {
+			for (int i = 0; i < tasks.size(); i++) {
+				tasks.get(i).join();
+				consumer.callback(segments[i]);
+			}
+		} finally {
+			// samplers read the main construction: wait for all of them
+			for (ForkJoinTask<?> task : tasks) {
+				task.quietlyJoin();
+			}
+		}
+	}
+}
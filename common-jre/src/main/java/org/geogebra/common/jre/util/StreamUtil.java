@@ -1,7 +1,9 @@
 package org.geogebra.common.jre.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.geogebra.common.util.debug.Log;
 
@@ -26,4 +28,23 @@ public class StreamUtil {
 		}
 	}
 
+	/**
+	 * Reads the rest of a stream, the stream is not closed.
+	 *
+	 * @param is
+	 *            input stream
+	 * @return content of the stream
+	 * @throws IOException
+	 *             on read error
+	 */
+	public static byte[] loadIntoMemory(InputStream is) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		int len;
+		while ((len = is.read(buf)) > -1) {
+			bos.write(buf, 0, len);
+		}
+		return bos.toByteArray();
+	}
+
 }
@@ -1,12 +1,10 @@
 package org.geogebra.common.jre.util;
 
 import org.geogebra.common.factories.UtilFactory;
-import org.geogebra.common.util.Reflection;
 
+/**
+ * Common base of util factories on JRE platforms.
+ */
 public abstract class UtilFactoryJre extends UtilFactory  {
-
-	@Override
-	public Reflection newReflection(Class clazz) {
-		return new ReflectionJre(clazz);
-	}
+	// no JRE specific methods at the moment
 }
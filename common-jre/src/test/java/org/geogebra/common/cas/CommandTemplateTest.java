@@ -0,0 +1,179 @@
+package org.geogebra.common.cas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.cas.giac.CASgiac;
+import org.geogebra.common.cas.giac.Ggb2giac;
+import org.geogebra.common.factories.CASFactory;
+import org.geogebra.common.kernel.CASGenericInterface;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CommandTemplateTest extends BaseUnitTest {
+
+	private GeoGebraCAS cas;
+	private RecordingGiac giac;
+
+	@Before
+	public void setupCas() {
+		getApp().setCASFactory(new CASFactory() {
+			@Override
+			public CASGenericInterface newGiac(CASparser parser,
+					Kernel kernel) {
+				return new RecordingGiac(parser);
+			}
+		});
+		getApp().getSettings().getCasSettings().setEnabled(true);
+		cas = (GeoGebraCAS) getKernel().getGeoGebraCAS();
+		giac = (RecordingGiac) cas.getCurrentCAS();
+	}
+
+	@Test
+	public void templatesShouldRenameTemporaryVariables() {
+		Map<String, String> translations = Ggb2giac.getMap(getApp());
+		for (Map.Entry<String, String> entry : translations.entrySet()) {
+			String translation = entry.getValue();
+			String expected = translation.replaceAll("arg0", "arg07")
+					.replaceAll("arg1", "arg17");
+			assertEquals(entry.getKey(), expected,
+					CommandTemplate.parse(translation).toString(7));
+		}
+	}
+
+	@Test
+	public void templateShouldSplitArguments() {
+		CommandTemplate.Part[] parts = CommandTemplate
+				.parse("f(%0,%%1,@2,ggbarg0)").getParts();
+		assertEquals(9, parts.length);
+		assertEquals(CommandTemplate.Part.ARGUMENT, parts[1].getType());
+		assertEquals(0, parts[1].getIndex());
+		assertEquals(false, parts[1].isNumeric());
+		assertEquals(1, parts[3].getIndex());
+		assertEquals(true, parts[3].isNumeric());
+		assertEquals(CommandTemplate.Part.SIMPLE_ARGUMENT,
+				parts[5].getType());
+		assertEquals(",ggb", parts[6].getText());
+		assertEquals(CommandTemplate.Part.TEMPORARY_VARIABLE,
+				parts[7].getType());
+		assertEquals("f(%0,%%1,@2,ggbarg05)",
+				CommandTemplate.parse("f(%0,%%1,@2,ggbarg0)").toString(5));
+	}
+
+	@Test
+	public void signatureTranslationShouldUseNewSuffixEachTime() {
+		String first = cas.translateCommandSignature("BinomialDist.3");
+		String second = cas.translateCommandSignature("BinomialDist.3");
+		assertEquals(withoutSuffix(first), withoutSuffix(second));
+		assertNotEquals(first, second);
+	}
+
+	@Test
+	public void singleEvaluationShouldUseBatchResults() {
+		String[] inputs = { "Expand((x+1)^2)", "Factor(x^2-1)",
+				"BinomialDist(5, 0.5, 2)", "Delete(a)" };
+		List<String> single = evaluate(inputs);
+		List<String> singleGiacInputs = new ArrayList<>(giac.singleInputs);
+		giac.singleInputs.clear();
+
+		ValidExpression[] parsed = new ValidExpression[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			parsed[i] = cas.getCASparser().parseGeoGebraCASInput(inputs[i],
+					null);
+		}
+		cas.startBatch(parsed, getKernel());
+		List<String> batched = evaluate(inputs);
+		cas.endBatch();
+
+		assertEquals(1, giac.batches);
+		// Delete is not sent to Giac
+		assertEquals(3, giac.batchSize);
+		assertEquals(single, batched);
+		assertEquals(0, giac.singleInputs.size());
+		for (int i = 0; i < giac.batchInputs.size(); i++) {
+			assertEquals(withoutSuffix(singleGiacInputs.get(i)),
+					withoutSuffix(giac.batchInputs.get(i)));
+		}
+
+		evaluate(inputs);
+		assertEquals(3, giac.singleInputs.size());
+	}
+
+	@Test
+	public void batchKeyShouldIgnoreSuffixesOfTemporaryVariables() {
+		assertEquals("f(ggbinarg0,ggbtmpvarharg012,ggbangarg1+1)",
+				CommandTemplate.withoutSuffixes(
+						"f(ggbinarg017,ggbtmpvarharg012,ggbangarg117+1)"));
+	}
+
+	private List<String> evaluate(String[] inputs) {
+		List<String> results = new ArrayList<>();
+		for (String input : inputs) {
+			results.add(cas.evaluateGeoGebraCAS(input, null,
+					StringTemplate.numericNoLocal, getKernel()));
+		}
+		return results;
+	}
+
+	private static String withoutSuffix(String translation) {
+		return translation.replaceAll("arg([01])\\d+", "arg$1");
+	}
+
+	private static class RecordingGiac extends CASgiac {
+		int batches;
+		int batchSize;
+		final List<String> batchInputs = new ArrayList<>();
+		final List<String> singleInputs = new ArrayList<>();
+		private boolean inBatch;
+
+		RecordingGiac(CASparser casParser) {
+			super(casParser);
+		}
+
+		@Override
+		public String[] evaluateCAS(String[] exps) {
+			batches++;
+			inBatch = true;
+			for (String exp : exps) {
+				if (exp != null) {
+					batchSize++;
+					batchInputs.add(exp);
+				}
+			}
+			String[] results = super.evaluateCAS(exps);
+			inBatch = false;
+			return results;
+		}
+
+		@Override
+		public String evaluateCAS(String exp) {
+			if (!inBatch) {
+				singleInputs.add(exp);
+			}
+			return "x^2+2*x+1";
+		}
+
+		@Override
+		protected String evaluate(String exp, long timeoutMilliseconds) {
+			return evaluateCAS(exp);
+		}
+
+		@Override
+		public void clearResult() {
+			// nothing to clear
+		}
+
+		@Override
+		public boolean externalCAS() {
+			return false;
+		}
+	}
+}
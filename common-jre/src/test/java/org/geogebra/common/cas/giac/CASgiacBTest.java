@@ -0,0 +1,88 @@
+package org.geogebra.common.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.geogebra.common.cas.giac.binding.Gen;
+import org.junit.Test;
+
+public class CASgiacBTest extends BaseUnitTest {
+
+	@Test
+	public void batchShouldResetGiacBeforeEachCommand() {
+		RecordingGiac giac = new RecordingGiac(
+				new CASparser(getKernel().getParser(), null));
+		giac.evaluateCAS(
+				new String[] { "assume(x>0)", null, "sqrt(x^2)", "x+1" });
+		List<String> evaluated = giac.evaluated;
+		List<Integer> resets = new ArrayList<>();
+		List<Integer> commands = new ArrayList<>();
+		for (int i = 0; i < evaluated.size(); i++) {
+			if (CASgiac.initString.equals(evaluated.get(i))) {
+				resets.add(i);
+			} else if (evaluated.get(i).startsWith("caseval(")) {
+				commands.add(i);
+			}
+		}
+		assertEquals(3, commands.size());
+		assertEquals(3, resets.size());
+		for (int i = 0; i < commands.size(); i++) {
+			assertEquals(true, resets.get(i) < commands.get(i));
+			if (i > 0) {
+				assertEquals(true, commands.get(i - 1) < resets.get(i));
+			}
+		}
+	}
+
+	private static class RecordingGiac extends CASgiacB {
+		final List<String> evaluated = new ArrayList<>();
+
+		RecordingGiac(CASparser casParser) {
+			super(casParser);
+		}
+
+		@Override
+		protected CASGiacBinding createBinding() {
+			return new CASGiacBinding() {
+				@Override
+				public Context createContext() {
+					return new Context() {
+						// no state
+					};
+				}
+
+				@Override
+				public Gen createGen(final String string, Context context) {
+					return new Gen() {
+						@Override
+						public Gen eval(int level, Context context1) {
+							evaluated.add(string);
+							return this;
+						}
+
+						@Override
+						public String print(Context context1) {
+							return "1";
+						}
+					};
+				}
+			};
+		}
+
+		@Override
+		protected void callEvaluateFunction(Runnable evaluateFunction) {
+			evaluateFunction.run();
+		}
+
+		@Override
+		public boolean externalCAS() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package org.geogebra.common.euclidian;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.event.PointerEventType;
+import org.geogebra.common.factories.AwtFactory;
+import org.junit.Test;
+
+public class HitDetectorTest extends BaseControllerTest {
+
+	private static final int POINTS = 200;
+
+	private void addPoints() {
+		for (int i = 0; i < POINTS; i++) {
+			add("P_{" + i + "}=(" + (i % 20) + ",-" + (i / 20) + ")");
+		}
+	}
+
+	@Test
+	public void pointerShouldHitNearbyPointOnly() {
+		addPoints();
+		EuclidianView view = getApp().getActiveEuclidianView();
+		int x = view.toScreenCoordX(3);
+		int y = view.toScreenCoordY(-2);
+		view.setHits(new GPoint(x, y), PointerEventType.MOUSE);
+		assertEquals(1, view.getHits().size());
+		assertEquals(lookup("P_{43}"), view.getHits().get(0));
+		assertTrue(view.getAllDrawableList().getDrawablesNear(x, y, 10)
+				.size() < POINTS / 10);
+	}
+
+	@Test
+	public void rectangleShouldHitPointsInside() {
+		addPoints();
+		EuclidianView view = getApp().getActiveEuclidianView();
+		int x = view.toScreenCoordX(0.5);
+		int y = view.toScreenCoordY(-0.5);
+		view.getHitDetector().setHits(AwtFactory.getPrototype().newRectangle(x,
+				y, view.toScreenCoordX(2.5) - x, view.toScreenCoordY(-1.5) - y));
+		assertEquals(2, view.getHits().size());
+		assertThat(view.getHits(), hasItem(lookup("P_{21}")));
+		assertThat(view.getHits(), hasItem(lookup("P_{22}")));
+	}
+
+	@Test
+	public void pointerShouldHitRenamedPointAtNewPosition() {
+		addPoints();
+		add("SetCoords(P_{0}, 10, -20)");
+		add("Rename(P_{0}, \"Q\")");
+		EuclidianView view = getApp().getActiveEuclidianView();
+		view.setHits(new GPoint(view.toScreenCoordX(10),
+				view.toScreenCoordY(-20)), PointerEventType.MOUSE);
+		assertThat(view.getHits(), hasItem(lookup("Q")));
+		view.setHits(new GPoint(view.toScreenCoordX(0),
+				view.toScreenCoordY(0)), PointerEventType.MOUSE);
+		assertThat(view.getHits(), not(hasItem(lookup("Q"))));
+	}
+}
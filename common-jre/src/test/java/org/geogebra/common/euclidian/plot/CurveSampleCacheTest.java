@@ -0,0 +1,71 @@
+package org.geogebra.common.euclidian.plot;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter.Gap;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CurveSampleCacheTest extends BaseUnitTest {
+
+	private EuclidianView view;
+	private GeoFunction function;
+	private CurveSampleCache cache;
+
+	@Before
+	public void setupFunction() {
+		view = getApp().getActiveEuclidianView();
+		view.setCoordSystem(400, 300, 50, 50);
+		function = add("f(x)=sin(x)+x^2/10");
+		cache = new CurveSampleCache();
+	}
+
+	@Test
+	public void panningShouldReuseSamples() {
+		plot();
+		long evaluations = cache.getMisses();
+		assertThat(evaluations, greaterThan(0L));
+
+		view.setCoordSystem(view.getXZero() + 37, view.getYZero(),
+				view.getXscale(), view.getYscale());
+		plot();
+
+		// samples left of the old view and a few at the new chunk border
+		assertThat(cache.getMisses() - evaluations,
+				lessThan(evaluations / 2));
+		assertThat(cache.getHits(), greaterThan(evaluations / 2));
+	}
+
+	@Test
+	public void invalidatedCacheShouldEvaluateAgain() {
+		plot();
+		long evaluations = cache.getMisses();
+		cache.invalidate();
+		plot();
+		assertThat(cache.getMisses(), is(2 * evaluations));
+	}
+
+	@Test
+	public void cachedSampleShouldMatchCurve() {
+		cache.startPlot(function);
+		double[] cached = new double[2];
+		cache.evaluateCurve(0.5, cached);
+		cache.evaluateCurve(0.5, cached);
+		assertEquals(1, cache.getHits());
+		assertEquals(Math.sin(0.5) + 0.025, cached[1], DELTA);
+	}
+
+	private void plot() {
+		GeneralPathClippedForCurvePlotter gp =
+				new GeneralPathClippedForCurvePlotter(view);
+		CurvePlotter.plotCurve(function, view.getXmin(), view.getXmax(), view,
+				gp, false, Gap.MOVE_TO, cache);
+	}
+}
@@ -0,0 +1,82 @@
+package org.geogebra.common.jre.cas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.headless.LocalizationCommon;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedCasResultCacheTest extends BaseUnitTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void resultsShouldSurviveReopening() throws IOException {
+		File file = folder.newFile("cas.cache");
+		MappedCasResultCache cache = MappedCasResultCache.open(file, 4096);
+		cache.put("Derivative(x^2)", "2x");
+		cache.put("Solve(x^2=4)", "{x = -2, x = 2}");
+		cache.put("Derivative(x^2)", "2*x");
+		cache.close();
+
+		cache = MappedCasResultCache.open(file, 4096);
+		assertEquals("2*x", cache.get("Derivative(x^2)"));
+		assertEquals("{x = -2, x = 2}", cache.get("Solve(x^2=4)"));
+		assertThat(cache.get("Integral(x)"), is(nullValue()));
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		cache.close();
+	}
+
+	@Test
+	public void fullCacheShouldDropLeastRecentlyUsed() throws IOException {
+		MappedCasResultCache cache = MappedCasResultCache
+				.open(folder.newFile("cas.cache"), 1024);
+		cache.put("key0", "value0");
+		for (int i = 1; i < 100; i++) {
+			cache.put("key" + i, "value" + i);
+			// keep first entry recently used
+			cache.get("key0");
+		}
+		assertEquals("value0", cache.get("key0"));
+		assertEquals("value99", cache.get("key99"));
+		assertThat(cache.get("key1"), is(nullValue()));
+		assertTrue(cache.getEvictions() > 0);
+		assertTrue(cache.getLiveBytes() <= cache.getCapacity());
+		cache.close();
+	}
+
+	@Test
+	public void kernelsShouldShareResults() throws Exception {
+		File file = folder.newFile("cas.cache");
+		MappedCasResultCache cache = MappedCasResultCache.open(file, 4096);
+		assertSame(cache, MappedCasResultCache.open(file, 4096));
+		getKernel().setCasResultCache(cache);
+		getKernel().putSharedCasResult("expand((x+1)^2)", "x^2+2*x+1");
+
+		AppCommon other = new AppCommon(new LocalizationCommon(2),
+				new AwtFactoryCommon());
+		other.getKernel().setCasResultCache(cache);
+		assertEquals("x^2+2*x+1",
+				other.getKernel().getSharedCasResult("expand((x+1)^2)"));
+		assertThat(other.getKernel().getSharedCasResult("expand((x+2)^2)"),
+				is(nullValue()));
+		assertEquals(1, cache.getHits());
+		cache.close();
+		cache.close();
+	}
+}
@@ -0,0 +1,104 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.geogebra3D.euclidian3D.draw.SurfaceSampleBatch;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.kernelND.SurfaceEvaluable;
+import org.geogebra.common.kernel.matrix.Coords3;
+import org.geogebra.common.kernel.matrix.CoordsDouble3;
+import org.junit.Test;
+
+public class ParallelSurfaceEvaluatorTest extends BaseUnitTest {
+
+	private static final int GRID = 40;
+
+	@Override
+	public AppCommon createAppCommon() {
+		return AppCommonFactory.create3D();
+	}
+
+	private static SurfaceSampleBatch createGrid() {
+		SurfaceSampleBatch batch = new SurfaceSampleBatch();
+		batch.setScale(50, 50, 25);
+		for (int i = 0; i < GRID; i++) {
+			for (int j = 0; j < GRID; j++) {
+				batch.add(-1 + 3.0 * i / GRID, -2 + 4.0 * j / GRID);
+			}
+		}
+		// duplicates are ignored
+		batch.add(-1, -2);
+		return batch;
+	}
+
+	private void checkParallelEvaluation(String definition) {
+		SurfaceEvaluable surface = add(definition);
+		SurfaceEvaluable[] copies = new SurfaceEvaluable[4];
+		for (int i = 0; i < copies.length; i++) {
+			copies[i] = surface.copyForConcurrentEvaluation();
+			assertNotNull(copies[i]);
+		}
+		SurfaceSampleBatch expected = createGrid();
+		assertEquals(GRID * GRID, expected.size());
+		expected.evaluate(surface, 0, expected.size());
+		SurfaceSampleBatch actual = createGrid();
+		new ParallelSurfaceEvaluator(new ForkJoinPool(4), 16)
+				.evaluate(copies, actual);
+		Coords3 p1 = new CoordsDouble3();
+		Coords3 p2 = new CoordsDouble3();
+		int definedNormals = 0;
+		for (int i = 0; i < GRID; i++) {
+			for (int j = 0; j < GRID; j++) {
+				double u = -1 + 3.0 * i / GRID;
+				double v = -2 + 4.0 * j / GRID;
+				int index = actual.find(u, v);
+				assertEquals(i * GRID + j, index);
+				expected.getPoint(index, p1);
+				actual.getPoint(index, p2);
+				assertCoordsEqual(p1, p2);
+				boolean defined = expected.getNormal(index, p1);
+				assertEquals(defined, actual.getNormal(index, p2));
+				if (defined) {
+					definedNormals++;
+					assertCoordsEqual(p1, p2);
+				}
+			}
+		}
+		assertTrue(definedNormals > GRID * GRID / 2);
+		assertEquals(-1, actual.find(5, 5));
+	}
+
+	private static void assertCoordsEqual(Coords3 expected, Coords3 actual) {
+		assertEquals(expected.getXd(), actual.getXd(), 0);
+		assertEquals(expected.getYd(), actual.getYd(), 0);
+		assertEquals(expected.getZd(), actual.getZd(), 0);
+	}
+
+	@Test
+	public void parametricSurfaceShouldMatchSequentialEvaluation() {
+		add("a=1.5");
+		checkParallelEvaluation(
+				"Surface(u cos(v), u sin(v), a sqrt(u^2 + 1), u, -1, 2, v, -2, 2)");
+	}
+
+	@Test
+	public void functionShouldMatchSequentialEvaluation() {
+		checkParallelEvaluation("f(x,y)=sin(x y) + x^3 / (y^2 + 1)");
+	}
+
+	@Test
+	public void surfacesWithCommandsShouldNotBeCopied() {
+		SurfaceEvaluable surface = add("h(x,y)=If(x > y, x, y)");
+		assertNull(surface.copyForConcurrentEvaluation());
+		SurfaceEvaluable surface2 = add(
+				"Surface(u, v, If(u > v, u, v), u, 0, 1, v, 0, 1)");
+		assertNull(surface2.copyForConcurrentEvaluation());
+	}
+}
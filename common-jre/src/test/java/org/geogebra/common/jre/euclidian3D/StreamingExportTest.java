@@ -0,0 +1,105 @@
+package org.geogebra.common.jre.euclidian3D;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.geogebra3D.euclidian3D.EuclidianController3DForExport;
+import org.geogebra.common.geogebra3D.euclidian3D.EuclidianView3DForExport;
+import org.geogebra.common.geogebra3D.euclidian3D.openGL.GLFactory;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportExecutor;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.Format;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatCollada;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatSTL;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatSTLBinary;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.openGL.GLFactoryJre;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamingExportTest extends BaseUnitTest {
+
+	private EuclidianView3DForExport view;
+
+	@Override
+	public AppCommon createAppCommon() {
+		return AppCommonFactory.create3D();
+	}
+
+	@Before
+	public void setupScene() {
+		GLFactory.setPrototypeIfNull(new GLFactoryJre());
+		add("a=Cube((0,0,0),(1,0,0))");
+		add("s=Surface(u, v, u v, u, 0, 1, v, 0, 1)");
+		add("f(x,y)=sin(x y)");
+		view = new EuclidianView3DForExport(
+				new EuclidianController3DForExport(getApp()),
+				getApp().getSettings().getEuclidian(3));
+	}
+
+	private byte[] streamToBytes(Format format, ExportExecutor executor)
+			throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStreamExportSink sink = new OutputStreamExportSink(out)) {
+			view.export3D(format, sink, executor);
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	public void streamedStlShouldMatchStringExport() throws IOException {
+		String expected = view.export3D(new FormatSTL()).toString();
+		assertTrue(expected.length() > 1 << 20);
+		assertEquals(expected, new String(streamToBytes(new FormatSTL(), null),
+				StandardCharsets.UTF_8));
+		assertEquals(expected,
+				new String(streamToBytes(new FormatSTL(),
+						new ParallelExportExecutor(new ForkJoinPool(4))),
+						StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void streamedColladaShouldMatchStringExport() throws IOException {
+		String expected = view.export3D(new FormatCollada()).toString();
+		assertEquals(expected,
+				new String(streamToBytes(new FormatCollada(), null),
+						StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void binaryStlShouldHaveHeaderCount() throws IOException {
+		FormatSTL ascii = new FormatSTL();
+		view.export3D(ascii);
+		int triangles = ascii.getTriangleCount();
+		assertTrue(triangles > 2048);
+
+		Path file = Files.createTempFile("export", ".stl");
+		try {
+			try (FileChannelExportSink sink = FileChannelExportSink
+					.create(file)) {
+				view.export3D(new FormatSTLBinary(), sink,
+						new ParallelExportExecutor(new ForkJoinPool(4)));
+			}
+			byte[] fromFile = Files.readAllBytes(file);
+			assertEquals(84 + 50 * triangles, fromFile.length);
+			assertEquals(triangles, ByteBuffer.wrap(fromFile, 80, 4)
+					.order(ByteOrder.LITTLE_ENDIAN).getInt());
+			// stream needs a counting pass instead of patching the header
+			assertArrayEquals(fromFile,
+					streamToBytes(new FormatSTLBinary(), null));
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
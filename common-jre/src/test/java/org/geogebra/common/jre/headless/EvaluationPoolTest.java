@@ -0,0 +1,120 @@
+package org.geogebra.common.jre.headless;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.EvaluationResult.Status;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EvaluationPoolTest {
+
+	private EvaluationPool pool;
+
+	@Before
+	public void setupPool() {
+		pool = new EvaluationPool(() -> new AppCommon(
+				new LocalizationCommon(3), new AwtFactoryCommon()), 2, 16);
+	}
+
+	@After
+	public void shutdownPool() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void batchShouldBeEvaluatedInOneConstruction() throws Exception {
+		EvaluationResult result = pool.evaluate(
+				Arrays.asList("A=(1,2)", "B=(4,6)", "d=Distance(A,B)",
+						"C=Foo(A)"));
+		assertEquals(Status.DONE, result.getStatus());
+		List<CommandResult> commands = result.getCommands();
+		assertEquals(4, commands.size());
+		assertEquals(Arrays.asList("d"), commands.get(2).getLabels());
+		assertEquals(Arrays.asList("5"), commands.get(2).getValues());
+		assertThat(commands.get(2).getError(), is(nullValue()));
+		assertThat(commands.get(3).getError(), is(notNullValue()));
+		assertEquals(1, pool.getFailedCommands());
+	}
+
+	@Test
+	public void appsShouldBeResetBetweenJobs() throws Exception {
+		ArrayList<EvaluationJob> jobs = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			jobs.add(pool.submit(Arrays.asList("a=" + i, "b=a+1")));
+		}
+		for (int i = 0; i < 10; i++) {
+			EvaluationResult result = jobs.get(i).get();
+			assertEquals(Arrays.asList("b"),
+					result.getCommands().get(1).getLabels());
+			assertEquals(Arrays.asList(String.valueOf(i + 1)),
+					result.getCommands().get(1).getValues());
+		}
+		assertEquals(10, pool.getCompletedJobs());
+		assertEquals(20, pool.getEvaluatedCommands());
+	}
+
+	@Test
+	public void randomSeedShouldNotLeakToNextJob() throws Exception {
+		pool.shutdown();
+		pool = new EvaluationPool(() -> new AppCommon(
+				new LocalizationCommon(3), new AwtFactoryCommon()), 1, 16);
+		String random = "r=RandomBetween(1,1000000000)";
+		pool.evaluate(Arrays.asList("SetSeed(42)"));
+		EvaluationResult next = pool.evaluate(Arrays.asList(random));
+		EvaluationResult seeded = pool.evaluate(
+				Arrays.asList("SetSeed(42)", random));
+		assertFalse(seeded.getCommands().get(1).getValues()
+				.equals(next.getCommands().get(0).getValues()));
+	}
+
+	@Test
+	public void longJobShouldTimeOut() throws Exception {
+		ArrayList<String> commands = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			commands.add("P_{" + i + "}=(" + i + ",0)");
+		}
+		EvaluationResult result = pool.submit(commands, 0).get();
+		assertEquals(Status.TIMEOUT, result.getStatus());
+		assertTrue(result.getCommands().size() < commands.size());
+		assertEquals(1, pool.getTimedOutJobs());
+		// pool keeps working
+		assertEquals(Status.DONE,
+				pool.evaluate(Arrays.asList("x=1")).getStatus());
+	}
+
+	@Test
+	public void stuckWorkersShouldDegradePool() throws Exception {
+		pool.shutdown();
+		pool = new EvaluationPool(() -> new AppCommon(
+				new LocalizationCommon(3), new AwtFactoryCommon()), 1, 16, 1);
+		EvaluationResult result = pool.submit(
+				Arrays.asList("s=Sum(Sequence(k^2,k,1,3000000))"), 0).get();
+		assertEquals(Status.TIMEOUT, result.getStatus());
+		assertTrue(pool.isDegraded());
+		try {
+			pool.submit(Arrays.asList("x=1"));
+			fail("degraded pool should reject jobs");
+		} catch (RejectedExecutionException e) {
+			assertEquals("Pool is degraded", e.getMessage());
+		}
+		while (pool.isDegraded()) {
+			Thread.sleep(20);
+		}
+		assertEquals(Status.DONE,
+				pool.evaluate(Arrays.asList("x=1")).getStatus());
+	}
+}
@@ -0,0 +1,42 @@
+package org.geogebra.common.jre.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.geogebra.common.kernel.statistics.DataTable;
+import org.junit.Test;
+
+public class MappedCSVReaderTest {
+
+	private static DataTable read(String content) throws IOException {
+		Path file = Files.createTempFile("data", ".csv");
+		try {
+			Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+			return MappedCSVReader.read(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void shouldReadAsciiFile() throws IOException {
+		DataTable table = read("x,y\n1,2\n3,4\n");
+		assertEquals("y", table.getColumnName(1));
+		assertArrayEquals(new double[] { 1, 3 }, table.getValues(0), 0);
+		assertArrayEquals(new double[] { 2, 4 }, table.getValues(1), 0);
+	}
+
+	@Test
+	public void shouldReadUtf8File() throws IOException {
+		DataTable table = read("\uFEFFcafé,α\nnaïve,1\n");
+		assertEquals("café", table.getColumnName(0));
+		assertEquals("α", table.getColumnName(1));
+		assertEquals("naïve", table.getText(0, 0));
+		assertEquals(1, table.getValue(0, 1), 0);
+	}
+}
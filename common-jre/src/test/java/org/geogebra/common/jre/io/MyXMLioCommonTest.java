@@ -0,0 +1,167 @@
+package org.geogebra.common.jre.io;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.gui.dialog.ToolCreationDialogModel;
+import org.geogebra.common.gui.dialog.ToolInputOutputListener;
+import org.geogebra.common.io.DocHandler;
+import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.jre.util.StreamUtil;
+import org.geogebra.common.util.Charsets;
+import org.junit.Test;
+
+public class MyXMLioCommonTest extends BaseUnitTest {
+
+	@Test
+	public void streamedFileShouldRestoreConstruction() throws Exception {
+		int points = 3 * PipelinedXMLParser.BATCH_SIZE;
+		for (int i = 0; i < points; i++) {
+			add("P_{" + i + "}=(" + i + ",1)");
+		}
+		add("a=x(P_{7})+y(P_{7})");
+		MyXMLioCommon xmlio = (MyXMLioCommon) getApp().getXMLio();
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		xmlio.writeGeoGebraFile(os, false);
+
+		add("g(x)=x");
+		xmlio.readZipFromInputStream(
+				new ByteArrayInputStream(os.toByteArray()), false);
+
+		assertThat(lookup("g"), is(nullValue()));
+		assertThat(lookup("P_{" + (points - 1) + "}"), is(notNullValue()));
+		assertEquals(8, lookup("a").evaluateDouble(), DELTA);
+		assertThat(xmlio.getPipelinedParser(), is(notNullValue()));
+	}
+
+	@Test
+	public void macrosAfterConstructionShouldKeepConstruction()
+			throws Exception {
+		add("A=(1,1)");
+		add("B=(2,2)");
+		add("f=Line(A,B)");
+		ToolCreationDialogModel macroBuilder = new ToolCreationDialogModel(
+				getApp(), new ToolInputOutputListener() {
+
+					@Override
+					public void updateLists() {
+						// no UI to update
+					}
+				});
+		macroBuilder.addToInput(lookup("A"));
+		macroBuilder.addToInput(lookup("B"));
+		macroBuilder.addToOutput(lookup("f"));
+		macroBuilder.createTool();
+		macroBuilder.finish(getApp(), "TestLine", "TestLine", "two points",
+				false, null);
+		MyXMLioCommon xmlio = (MyXMLioCommon) getApp().getXMLio();
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		xmlio.writeGeoGebraFile(os, false);
+
+		getKernel().removeAllMacros();
+		xmlio.readZipFromInputStream(
+				new ByteArrayInputStream(moveMacrosToEnd(os.toByteArray())),
+				false);
+
+		assertThat(lookup("f"), is(notNullValue()));
+		assertThat(getKernel().getMacro("TestLine"), is(notNullValue()));
+	}
+
+	private static byte[] moveMacrosToEnd(byte[] file) throws Exception {
+		ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(file));
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		ZipOutputStream out = new ZipOutputStream(os);
+		byte[] macros = null;
+		ZipEntry entry;
+		while ((entry = zip.getNextEntry()) != null) {
+			byte[] content = StreamUtil.loadIntoMemory(zip);
+			if (MyXMLio.XML_FILE_MACRO.equals(entry.getName())) {
+				macros = content;
+			} else {
+				out.putNextEntry(new ZipEntry(entry.getName()));
+				out.write(content);
+			}
+		}
+		assertThat(macros, is(notNullValue()));
+		out.putNextEntry(new ZipEntry(MyXMLio.XML_FILE_MACRO));
+		out.write(macros);
+		out.close();
+		return os.toByteArray();
+	}
+
+	@Test
+	public void invalidFileShouldResetFileLoading() throws Exception {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		ZipOutputStream out = new ZipOutputStream(os);
+		out.putNextEntry(new ZipEntry(MyXMLio.XML_FILE));
+		out.write("<geogebra><construction><element type=\"point\""
+				.getBytes(Charsets.getUtf8()));
+		out.close();
+		try {
+			((MyXMLioCommon) getApp().getXMLio()).readZipFromInputStream(
+					new ByteArrayInputStream(os.toByteArray()), false);
+			fail("parse error expected");
+		} catch (Exception e) {
+			assertThat(getConstruction().isFileLoading(), is(false));
+		}
+	}
+
+	@Test
+	public void handlerErrorShouldStopParser() throws Exception {
+		StringBuilder xml = new StringBuilder("<a>");
+		for (int i = 0; i < 100 * PipelinedXMLParser.BATCH_SIZE; i++) {
+			xml.append("<b/>");
+		}
+		xml.append("</a>");
+		PipelinedXMLParser parser = new PipelinedXMLParser();
+		try {
+			parser.parse(new FailingHandler(), new StringReader(xml.toString()));
+			fail("handler error expected");
+		} catch (IllegalStateException e) {
+			assertEquals("b", e.getMessage());
+		}
+	}
+
+	private static class FailingHandler implements DocHandler {
+
+		@Override
+		public void startElement(String tag, LinkedHashMap<String, String> h) {
+			if ("b".equals(tag)) {
+				throw new IllegalStateException(tag);
+			}
+		}
+
+		@Override
+		public void endElement(String tag) {
+			// not needed
+		}
+
+		@Override
+		public void startDocument() {
+			// not needed
+		}
+
+		@Override
+		public void endDocument() {
+			// not needed
+		}
+
+		@Override
+		public void text(String str) {
+			// not needed
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package org.geogebra.common.jre.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompressedStateStoreTest {
+
+	private File tempDir;
+
+	@Before
+	public void createTempDir() throws IOException {
+		tempDir = File.createTempFile("undoTest", "");
+		assertTrue(tempDir.delete() && tempDir.mkdir());
+	}
+
+	@After
+	public void deleteTempDir() {
+		for (File file : tempDir.listFiles()) {
+			file.delete();
+		}
+		tempDir.delete();
+	}
+
+	@Test
+	public void statesShouldBeCompressed() {
+		CompressedStateStore store = new CompressedStateStore();
+		StringBuilder xml = getXML(100);
+		CompressedAppState state = store.createState(xml);
+		assertTrue(state.getCompressedLength() * 10 < state.getRawLength());
+		assertEquals(xml.toString(), state.getXml());
+	}
+
+	@Test
+	public void statesOverBudgetShouldSpillToDisk() {
+		CompressedStateStore store = new CompressedStateStore(1, tempDir);
+		CompressedAppState first = store.createState(getXML(10));
+		CompressedAppState second = store.createState(getXML(20));
+		assertEquals(1, tempDir.listFiles().length);
+		assertEquals(second.getCompressedLength(), store.getMemorySize());
+
+		assertEquals(getXML(10).toString(), first.getXml());
+		assertTrue(store.isLastFetchFromDisk());
+		assertEquals(first.getCompressedLength(), store.getMemorySize());
+
+		assertEquals(getXML(20).toString(), second.getXml());
+		assertTrue(store.isLastFetchFromDisk());
+		assertEquals(2, tempDir.listFiles().length);
+	}
+
+	@Test
+	public void deleteShouldReleaseFiles() {
+		CompressedStateStore store = new CompressedStateStore(1, tempDir);
+		CompressedAppState first = store.createState(getXML(10));
+		store.createState(getXML(20)).delete();
+		first.delete();
+		assertEquals(0, tempDir.listFiles().length);
+		assertEquals(0, store.getMemorySize());
+		assertEquals(0, store.getDiskSize());
+	}
+
+	@Test
+	public void clearShouldReleaseFiles() {
+		CompressedStateStore store = new CompressedStateStore(1, tempDir);
+		store.createState(getXML(10));
+		store.createState(getXML(20));
+		store.createState(getXML(30));
+		store.clear();
+		assertEquals(0, tempDir.listFiles().length);
+		assertEquals(0, store.getMemorySize());
+		assertEquals(0, store.getDiskSize());
+	}
+
+	@Test
+	public void equalStatesShouldBeDetected() {
+		CompressedStateStore store = new CompressedStateStore();
+		CompressedAppState first = store.createState(getXML(10));
+		assertTrue(first.equalsTo(store.createState(getXML(10))));
+		assertFalse(first.equalsTo(store.createState(getXML(11))));
+		assertFalse(first.equalsTo(null));
+	}
+
+	private static StringBuilder getXML(int points) {
+		StringBuilder sb = new StringBuilder("<construction>\n");
+		for (int i = 0; i < points; i++) {
+			sb.append("<element type=\"point\" label=\"A_{").append(i)
+					.append("}\">\n\t<coords x=\"").append(i)
+					.append("\" y=\"1.0\" z=\"1.0\"/>\n</element>\n");
+		}
+		return sb.append("</construction>\n");
+	}
+}
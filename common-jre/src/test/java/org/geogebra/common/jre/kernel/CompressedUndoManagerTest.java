@@ -0,0 +1,23 @@
+package org.geogebra.common.jre.kernel;
+
+import static org.junit.Assert.assertEquals;
+
+import org.geogebra.common.BaseUnitTest;
+import org.junit.Test;
+
+public class CompressedUndoManagerTest extends BaseUnitTest {
+
+	@Test
+	public void duplicateStatesShouldBeReleased() {
+		CompressedStateStore store = new CompressedStateStore();
+		CompressedUndoManager undoManager = new CompressedUndoManager(
+				getConstruction(), store);
+		StringBuilder xml = new StringBuilder(
+				"<construction>\n<element type=\"point\" label=\"A\"/>\n"
+						+ "</construction>\n");
+		undoManager.storeUndoInfo(xml, false);
+		long size = store.getMemorySize();
+		undoManager.storeUndoInfo(xml, false);
+		assertEquals(size, store.getMemorySize());
+	}
+}
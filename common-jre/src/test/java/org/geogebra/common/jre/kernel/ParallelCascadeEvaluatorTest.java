@@ -0,0 +1,69 @@
+package org.geogebra.common.jre.kernel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.commands.Commands;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelCascadeEvaluatorTest extends BaseUnitTest {
+
+	private static final int BRANCHES = 20;
+	private ParallelCascadeEvaluator evaluator;
+
+	@Before
+	public void setupEvaluator() {
+		evaluator = new ParallelCascadeEvaluator(new ForkJoinPool(4), 4);
+		getKernel().setCascadeEvaluator(evaluator);
+		for (int i = 0; i < BRANCHES; i++) {
+			add("A_{" + i + "}=(" + i + ",0)");
+			add("B_{" + i + "}=(" + i + ",2)");
+			add("M_{" + i + "}=Midpoint(A_{" + i + "},B_{" + i + "})");
+			add("d_{" + i + "}=Distance(M_{" + i + "},A_{" + i + "})");
+			add("t_{" + i + "}=Text(d_{" + i + "})");
+		}
+	}
+
+	@Test
+	public void independentBranchesShouldBeComputedInParallel() {
+		ArrayList<GeoElement> moved = new ArrayList<>();
+		for (int i = 0; i < BRANCHES; i++) {
+			GeoPoint b = (GeoPoint) lookup("B_{" + i + "}");
+			b.setCoords(i, 2 * i + 4, 1);
+			moved.add(b);
+		}
+		GeoElement.updateCascade(moved, new TreeSet<AlgoElement>(), true);
+		for (int i = 0; i < BRANCHES; i++) {
+			assertEquals(i + 2, lookup("d_{" + i + "}").evaluateDouble(),
+					DELTA);
+			assertEquals(String.valueOf(i + 2),
+					lookup("t_{" + i + "}")
+							.toValueString(StringTemplate.defaultTemplate));
+		}
+		// midpoints first, then distances
+		assertEquals(2, evaluator.getParallelLevels());
+		assertEquals(2 * BRANCHES, evaluator.getParallelAlgos());
+	}
+
+	@Test
+	public void levelsShouldFollowDependencies() {
+		TreeSet<AlgoElement> algos = new TreeSet<>();
+		lookup("A_{0}").getAlgoUpdateSet().addAllToCollection(algos);
+		lookup("A_{1}").getAlgoUpdateSet().addAllToCollection(algos);
+		List<List<AlgoElement>> levels = ParallelCascadeEvaluator
+				.splitLevels(new ArrayList<>(algos));
+		assertEquals(3, levels.size());
+		assertEquals(2, levels.get(0).size());
+		assertEquals(Commands.Midpoint, levels.get(0).get(0).getClassName());
+	}
+}
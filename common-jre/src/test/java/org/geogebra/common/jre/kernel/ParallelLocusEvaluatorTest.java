@@ -0,0 +1,145 @@
+package org.geogebra.common.jre.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.headless.LocalizationCommon;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.algos.LocusSampler;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.main.App;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelLocusEvaluatorTest extends BaseUnitTest {
+
+	private static final double MAX_GAP = 0.2;
+
+	private ForkJoinPool pool;
+
+	@Override
+	public AppCommon createAppCommon() {
+		// resolution of loci depends on visible views
+		return new AppCommon(new LocalizationCommon(2),
+				new AwtFactoryCommon()) {
+			@Override
+			public boolean showView(int view) {
+				return view == App.VIEW_EUCLIDIAN || super.showView(view);
+			}
+		};
+	}
+
+	@Before
+	public void setupEvaluator() {
+		pool = new ForkJoinPool(4);
+		getKernel().setLocusEvaluator(new ParallelLocusEvaluator(pool));
+	}
+
+	@After
+	public void shutdownPool() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void circleLocusShouldBeClosedCurve() {
+		add("A=(1,1)");
+		add("c=Circle((0,0),2)");
+		add("P=Point(c)");
+		add("M=Midpoint(A,P)");
+		GeoLocus locus = add("loc=Locus(M,P)");
+		assertTrue(locus.isDefined());
+		ArrayList<MyPoint> points = locus.getPoints();
+		assertTrue(points.size() > 100);
+		for (MyPoint pt : points) {
+			assertEquals(1, Math.hypot(pt.getX() - 0.5, pt.getY() - 0.5),
+					1E-8);
+		}
+		assertEquals(1, countMoveTo(points));
+		assertConnectedPointsClose(points);
+	}
+
+	@Test
+	public void locusShouldFollowInputChanges() {
+		add("A=(1,1)");
+		add("c=Circle((0,0),2)");
+		add("P=Point(c)");
+		add("M=Midpoint(A,P)");
+		GeoLocus locus = add("loc=Locus(M,P)");
+		((GeoPoint) lookup("A")).setCoords(3, 1, 1);
+		lookup("A").updateCascade();
+		for (MyPoint pt : locus.getPoints()) {
+			assertEquals(1, Math.hypot(pt.getX() - 1.5, pt.getY() - 0.5),
+					1E-8);
+		}
+	}
+
+	@Test
+	public void lineLocusShouldUseWholeLine() {
+		add("f=Line((0,0),(1,1))");
+		add("P=Point(f)");
+		add("Q=P+(0,1)");
+		GeoLocus locus = add("loc=Locus(Q,P)");
+		ArrayList<MyPoint> points = locus.getPoints();
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		for (MyPoint pt : points) {
+			assertEquals(pt.getX() + 1, pt.getY(), 1E-8);
+			minX = Math.min(minX, pt.getX());
+			maxX = Math.max(maxX, pt.getX());
+		}
+		assertTrue(minX < -1000);
+		assertTrue(maxX > 1000);
+	}
+
+	@Test
+	public void undefinedPartsShouldNotBeConnected() {
+		add("c=Circle((0,0),2)");
+		add("P=Point(c)");
+		add("Q=(x(P),sqrt(y(P)))");
+		GeoLocus locus = add("loc=Locus(Q,P)");
+		ArrayList<MyPoint> points = locus.getPoints();
+		assertFalse(points.isEmpty());
+		for (MyPoint pt : points) {
+			assertTrue(pt.isFinite());
+		}
+		assertConnectedPointsClose(points);
+	}
+
+	@Test
+	public void infiniteRangesShouldBeCompressed() {
+		assertEquals(0, LocusSampler.toPathParameter(0.5,
+				Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), 1E-12);
+		assertEquals(3, LocusSampler.toPathParameter(0, 3,
+				Double.POSITIVE_INFINITY), 1E-12);
+		assertEquals(3, LocusSampler.toPathParameter(1,
+				Double.NEGATIVE_INFINITY, 3), 1E-12);
+		assertEquals(2.5, LocusSampler.toPathParameter(0.25, 2, 4), 1E-12);
+	}
+
+	private static int countMoveTo(ArrayList<MyPoint> points) {
+		int moveTo = 0;
+		for (MyPoint pt : points) {
+			if (!pt.getLineTo()) {
+				moveTo++;
+			}
+		}
+		return moveTo;
+	}
+
+	private static void assertConnectedPointsClose(ArrayList<MyPoint> points) {
+		for (int i = 1; i < points.size(); i++) {
+			if (points.get(i).getLineTo()) {
+				assertTrue(points.get(i).distance(points.get(i - 1)) < MAX_GAP);
+			}
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package org.geogebra.common.kernel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.factories.AwtFactoryCommon;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.headless.LocalizationCommon;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.undoredo.UndoXMLChunks;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeltaUndoManagerTest extends BaseUnitTest {
+
+	private DeltaUndoManager undoManager;
+
+	@Override
+	public AppCommon createAppCommon() {
+		return new AppCommon(new LocalizationCommon(2),
+				new AwtFactoryCommon()) {
+			@Override
+			public UndoManager getUndoManager(Construction cons) {
+				return new DeltaUndoManager(cons);
+			}
+		};
+	}
+
+	@Before
+	public void setupUndo() {
+		getApp().setUndoActive(true);
+		undoManager = (DeltaUndoManager) getConstruction().getUndoManager();
+		add("A=(1,2)");
+		add("B=(3,4)");
+		add("s=Segment(A,B)");
+		// drop the point definitions, as dragging would
+		getPointA().setCoords(1, 2, 1);
+		((GeoPoint) lookup("B")).setCoords(3, 4, 1);
+		getApp().storeUndoInfo();
+	}
+
+	@Test
+	public void movingPointShouldOnlyReloadChangedElements() {
+		moveA(5, 6);
+		undoManager.undo();
+		assertEquals(1, getPointA().getInhomX(), DELTA);
+		assertEquals(Math.sqrt(8), lookup("s").evaluateDouble(), 1E-10);
+		undoManager.redo();
+		assertEquals(5, getPointA().getInhomX(), DELTA);
+		assertEquals(Math.sqrt(8), lookup("s").evaluateDouble(), 1E-10);
+		assertEquals(2, undoManager.getPartialRestoreCount());
+		assertEquals(0, undoManager.getFullRestoreCount());
+	}
+
+	@Test
+	public void deletingObjectShouldRebuildConstruction() {
+		lookup("s").remove();
+		getApp().storeUndoInfo();
+		undoManager.undo();
+		assertThat(lookup("s"), is(notNullValue()));
+		undoManager.redo();
+		assertThat(lookup("s"), is(nullValue()));
+		assertEquals(2, undoManager.getFullRestoreCount());
+	}
+
+	@Test
+	public void deltasShouldBeSmallerThanCheckpoints() {
+		for (int i = 0; i < 10; i++) {
+			add("f_{" + i + "}(x)=x^" + i);
+		}
+		getApp().storeUndoInfo();
+		int checkpoints = undoManager.getCheckpointCount();
+		long memory = undoManager.getHistoryMemorySize();
+		String fullXML = getConstruction().getCurrentUndoXML(true).toString();
+		for (int i = 0; i < 5; i++) {
+			moveA(i, i);
+		}
+		assertEquals(checkpoints, undoManager.getCheckpointCount());
+		assertTrue(undoManager.getHistoryMemorySize() - memory < fullXML
+				.length());
+	}
+
+	@Test
+	public void duplicateStatesShouldNotForceCheckpoint() {
+		moveA(5, 6);
+		int checkpoints = undoManager.getCheckpointCount();
+		for (int i = 0; i < DeltaUndoManager.CHECKPOINT_INTERVAL; i++) {
+			getApp().storeUndoInfo();
+		}
+		moveA(7, 8);
+		assertEquals(checkpoints, undoManager.getCheckpointCount());
+	}
+
+	@Test
+	public void splitShouldPreserveXML() {
+		String xml = getConstruction().getCurrentUndoXML(true).toString();
+		UndoXMLChunks chunks = UndoXMLChunks.split(xml);
+		assertEquals(xml, chunks.getXML());
+		assertEquals("element:A", chunks.getKey(0));
+		assertEquals("command:a0=\"s\"", chunks.getKey(2));
+	}
+
+	private void moveA(double x, double y) {
+		GeoPoint point = getPointA();
+		point.setCoords(x, y, 1);
+		point.updateCascade();
+		getApp().storeUndoInfo();
+	}
+
+	private GeoPoint getPointA() {
+		return (GeoPoint) lookup("A");
+	}
+}
@@ -0,0 +1,116 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math3.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.junit.Test;
+
+public class AlgoNSolveODETest extends BaseUnitTest {
+
+	@Test
+	public void movingEndShouldKeepStartOfSolution() {
+		add("f(t, u) = u");
+		add("n = 1");
+		GeoLocus locus = add("s = NSolveODE({f}, 0, {1}, n)");
+		assertSolution(locus, 1, 1);
+		MyPoint first = locus.getPoints().get(1);
+		double firstY = first.getY();
+
+		add("SetValue(n, 2)");
+		assertSolution(locus, 1, 1);
+		assertSame(first, locus.getPoints().get(1));
+		assertEquals(firstY, first.getY(), 0);
+		assertEquals(2, last(locus).getX(), 0);
+
+		add("SetValue(n, 0.5)");
+		assertSolution(locus, 1, 1);
+		assertEquals(0.5, last(locus).getX(), 0);
+		assertEquals(firstY, first.getY(), 0);
+	}
+
+	@Test
+	public void solutionShouldFollowEquationAndStart() {
+		add("a = 1");
+		add("f(t, u) = a u");
+		add("c = 1");
+		GeoLocus locus = add("s = NSolveODE({f}, 0, {c}, 1)");
+		add("SetValue(a, 2)");
+		assertSolution(locus, 1, 2);
+		add("SetValue(c, 3)");
+		assertSolution(locus, 3, 2);
+	}
+
+	@Test
+	public void backwardSolutionShouldBeRecomputed() {
+		add("f(t, u) = u");
+		add("n = 1");
+		GeoLocus locus = add("s = NSolveODE({f}, 0, {1}, n)");
+		add("SetValue(n, -1)");
+		assertSolution(locus, 1, 1);
+		assertEquals(-1, last(locus).getX(), 0);
+	}
+
+	@Test
+	public void solutionShouldContinueFromPreviousSamples() {
+		ODESolution solution = new ODESolution(
+				new ClassicalRungeKuttaIntegrator(0.1), 1);
+		FirstOrderDifferentialEquations ode = new Exponential();
+		double[] y0 = { 1 };
+		assertEquals(0, solution.integrate(ode, 0, y0, 1, false));
+		assertEquals(11, solution.size());
+		assertEquals(11, solution.integrate(ode, 0, y0, 1, true));
+		assertEquals(10, solution.integrate(ode, 0, y0, 2, true));
+		assertEquals(21, solution.size());
+		assertEquals(Math.E, solution.getState(10, 0), 1E-5);
+		assertEquals(6, solution.integrate(ode, 0, y0, 0.55, true));
+		assertEquals(0.55, solution.getTime(solution.size() - 1), 1E-12);
+		assertEquals(0, solution.integrate(ode, 0, y0, 1, false));
+		y0[0] = 2;
+		assertEquals(0, solution.integrate(ode, 0, y0, 1, true));
+		assertEquals(2 * Math.E, solution.getState(10, 0), 1E-5);
+	}
+
+	private static MyPoint last(GeoLocus locus) {
+		ArrayList<MyPoint> points = locus.getPoints();
+		return points.get(points.size() - 1);
+	}
+
+	/**
+	 * Checks the solution of u' = k u, u(0) = c.
+	 */
+	private static void assertSolution(GeoLocus locus, double c, double k) {
+		assertTrue(locus.isDefined());
+		ArrayList<MyPoint> points = locus.getPoints();
+		assertTrue(points.size() > 2);
+		assertFalse(points.get(0).getLineTo());
+		for (int i = 0; i < points.size(); i++) {
+			MyPoint pt = points.get(i);
+			assertEquals(i > 0, pt.getLineTo());
+			assertEquals(c * Math.exp(k * pt.getX()), pt.getY(),
+					1E-3 * c * Math.exp(Math.abs(k * pt.getX())));
+		}
+	}
+
+	private static class Exponential
+			implements FirstOrderDifferentialEquations {
+
+		@Override
+		public int getDimension() {
+			return 1;
+		}
+
+		@Override
+		public void computeDerivatives(double t, double[] y, double[] yDot) {
+			yDot[0] = y[0];
+		}
+	}
+}
@@ -2,9 +2,16 @@ package org.geogebra.common.kernel.algos;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.geos.GeoAngle;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoList;
 import org.junit.Test;
 
 public class AlgoSequenceTest extends BaseUnitTest {
@@ -18,4 +25,70 @@ public class AlgoSequenceTest extends BaseUnitTest {
 		GeoAngle angle = addAvInput("list(1)");
 		assertThat(angle.showInEuclidianView(), is(true));
 	}
-}
\ No newline at end of file
+
+	private static void assertListValue(String expected, GeoList list) {
+		assertEquals(expected,
+				list.toValueString(StringTemplate.defaultTemplate));
+	}
+
+	@Test
+	public void growingSequenceShouldKeepElements() {
+		add("n=3");
+		GeoList list = add("l=Sequence(k^2, k, 1, n)");
+		GeoElement first = list.get(0);
+		int stamp = list.getUpdateStamp();
+		add("SetValue(n,5)");
+		assertListValue("{1, 4, 9, 16, 25}", list);
+		assertSame(first, list.get(0));
+		assertFalse(list.isElementChangedSince(2, stamp));
+		assertTrue(list.isElementChangedSince(3, stamp));
+		add("SetValue(n,2)");
+		assertListValue("{1, 4}", list);
+		add("SetValue(n,4)");
+		assertListValue("{1, 4, 9, 16}", list);
+	}
+
+	@Test
+	public void sequenceShouldFollowExpressionAndBound() {
+		add("a=1");
+		add("n=a+2");
+		GeoList list = add("l=Sequence(a k, k, 1, n)");
+		add("m=3");
+		GeoList list2 = add("l2=Sequence(a k, k, 1, m)");
+		add("SetValue(a,2)");
+		assertListValue("{2, 4, 6, 8}", list);
+		assertListValue("{2, 4, 6}", list2);
+		int stamp = list2.getUpdateStamp();
+		add("SetValue(m,4)");
+		assertListValue("{2, 4, 6, 8}", list2);
+		assertFalse(list2.isElementChangedSince(0, stamp));
+	}
+
+	@Test
+	public void zipShouldOnlyComputeNewElements() {
+		add("n=2");
+		add("l=Sequence(k, k, 1, n)");
+		GeoList zip = add("z=Zip(t + 10, t, l)");
+		GeoElement first = zip.get(0);
+		int stamp = zip.getUpdateStamp();
+		add("SetValue(n,4)");
+		assertListValue("{11, 12, 13, 14}", zip);
+		assertSame(first, zip.get(0));
+		assertFalse(zip.isElementChangedSince(1, stamp));
+		assertTrue(zip.isElementChangedSince(2, stamp));
+		add("SetValue(n,1)");
+		assertListValue("{11}", zip);
+	}
+
+	@Test
+	public void appendShouldReuseElements() {
+		add("a=1");
+		GeoList list = add("l=Append({1,2}, a)");
+		GeoElement last = list.get(2);
+		add("SetValue(a,5)");
+		assertListValue("{1, 2, 5}", list);
+		assertSame(last, list.get(2));
+		GeoList filtered = add("KeepIf(x > 1, l)");
+		assertListValue("{2, 5}", filtered);
+	}
+}
@@ -60,6 +60,73 @@ public class AlgorithmSetTest extends BaseUnitTest {
 		assertThat(element.getID(), is(30L));
 	}
 
+	@Test
+	public void testRemove() {
+		AlgoElement[] elements = new AlgoElement[100];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = createAlgoElement(i);
+			algoSet.add(elements[i]);
+		}
+		for (int i = 0; i < elements.length; i += 2) {
+			assertThat(algoSet.remove(elements[i]), is(true));
+		}
+		assertThat(algoSet.remove(elements[0]), is(false));
+		assertThat(algoSet.getSize(), is(50));
+		for (int i = 0; i < elements.length; i++) {
+			assertThat(algoSet.contains(elements[i]), is(i % 2 == 1));
+		}
+		Iterator<AlgoElement> iterator = algoSet.iterator();
+		for (int i = 1; i < elements.length; i += 2) {
+			assertThat(iterator.next(), is(elements[i]));
+		}
+		assertThat(iterator.hasNext(), is(false));
+	}
+
+	@Test
+	public void testAddAfterParentAlgo() {
+		AlgoElement parent = createAlgoElement(1);
+		AlgoElement other = createAlgoElement(2);
+		AlgoElement child = createAlgoElement(3);
+		child.setUpdateAfterAlgo(parent);
+		algoSet.add(parent);
+		algoSet.add(other);
+		algoSet.add(child);
+
+		Iterator<AlgoElement> iterator = algoSet.iterator();
+		assertThat(iterator.next(), is(parent));
+		assertThat(iterator.next(), is(child));
+		assertThat(iterator.next(), is(other));
+	}
+
+	@Test
+	public void testUpdateAllWhenAlgoIsRemoved() {
+		final AlgoElement first = createAlgoElement(1);
+		AlgoElement second = createAlgoElement(2);
+		AlgoElement third = createAlgoElement(3);
+		algoSet.add(first);
+		algoSet.add(second);
+		algoSet.add(third);
+		Mockito.doAnswer(invocation -> algoSet.remove(first)).when(second)
+				.update();
+
+		algoSet.updateAll();
+
+		Mockito.verify(first).update();
+		Mockito.verify(second).update();
+		Mockito.verify(third).update();
+		assertThat(algoSet.getSize(), is(2));
+	}
+
+	@Test
+	public void testClear() {
+		AlgoElement element = createAlgoElement(0);
+		algoSet.add(element);
+		algoSet.clear();
+		assertThat(algoSet.isEmpty(), is(true));
+		assertThat(algoSet.contains(element), is(false));
+		assertThat(algoSet.add(element), is(true));
+	}
+
 	private AlgoElement createAlgoElement(long id) {
 		AlgoElement element = Mockito.mock(AlgoElement.class);
 		Mockito.when(element.getID()).thenReturn(id);
@@ -0,0 +1,129 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpressionProgramTest extends BaseUnitTest {
+
+	private static final String[] FUNCTIONS = { "x^2 - 3x + 1",
+			"a x^3 + b x", "x sin(x)", "sin(x) cos(x) / x", "tan(x)",
+			"e^x - exp(-x)", "ln(x) + lg(x) + ld(x)", "sqrt(x) + cbrt(x)",
+			"abs(x) sgn(x)", "sinh(x) + cosh(x) - tanh(x)",
+			"asin(x / 10) + acos(x / 10) + atan(x)", "x^(1/3)",
+			"(-8)^(1/3) x", "2^3 x + sin(pi / 2)", "floor(x) + a",
+			"If(x > 0, x, -x)", "Element({1, 2, 3}, 2) x", "sin(2 pi x / a)",
+			"x^a + (x + 1)^(2 / 4)", "1 / (x - 1)", "0 x + 1 / x",
+			"sin(floor(x)) + cos(x)^2", "(x + a)(x - b)",
+			"Derivative(x^3) + x" };
+
+	@Before
+	public void addSliders() {
+		add("a=2");
+		add("b=-1.5");
+	}
+
+	@Test
+	public void compiledFunctionsShouldMatchTreeWalker() {
+		for (String definition : FUNCTIONS) {
+			GeoFunction f = add("f(x)=" + definition);
+			Function fun = f.getFunction();
+			ExpressionProgram program = ExpressionProgram
+					.compile(fun.getExpression(), fun.getFunctionVariables());
+			for (double x = -7; x <= 7; x += 0.125) {
+				double expected = fun.value(x);
+				double actual = program == null ? expected
+						: program.evaluate(x);
+				assertEquals(definition + " at " + x, expected, actual, 0);
+			}
+			for (double x : new double[] { 0, -0.0, Double.NaN,
+					Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+					Math.PI / 2, -Math.PI, 1E-20, 1E300 }) {
+				double expected = fun.value(x);
+				double actual = program == null ? expected
+						: program.evaluate(x);
+				assertEquals(definition + " at " + x, expected, actual, 0);
+			}
+		}
+	}
+
+	@Test
+	public void constantsShouldBeFolded() {
+		GeoFunction f = add("f(x)=x + 2^3 sin(pi / 2) + 1");
+		Function fun = f.getFunction();
+		ExpressionProgram program = ExpressionProgram
+				.compile(fun.getExpression(), fun.getFunctionVariables());
+		assertNotNull(program);
+		assertEquals(2, program.getLength());
+		assertEquals(0, program.getFallbackCount());
+		assertEquals(10, program.evaluate(1), DELTA);
+	}
+
+	@Test
+	public void commandsShouldNotBeCompiled() {
+		GeoFunction f = add("f(x)=If(x > 0, x, -x)");
+		Function fun = f.getFunction();
+		assertNull(ExpressionProgram.compile(fun.getExpression(),
+				fun.getFunctionVariables()));
+	}
+
+	@Test
+	public void compiledEvaluationShouldFollowSliders() {
+		GeoFunction f = add("f(x)=a x + b");
+		Function fun = f.getFunction();
+		fun.startCompiledEvaluation();
+		try {
+			assertNotNull(fun.getProgram());
+			assertEquals(2.5, fun.value(2), DELTA);
+			add("SetValue(a, 3)");
+			assertEquals(4.5, fun.value(2), DELTA);
+		} finally {
+			fun.endCompiledEvaluation();
+		}
+		assertNull(fun.getProgram());
+	}
+
+	@Test
+	public void compiledEvaluationShouldWorkForTwoVariables() {
+		GeoFunctionNVar f = add("g(x,y)=x^2 + a sin(x y)");
+		FunctionNVar fun = f.getFunction();
+		double[] expected = new double[50];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = fun.evaluate(i / 7.0, -i / 3.0);
+		}
+		fun.startCompiledEvaluation();
+		try {
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], fun.evaluate(i / 7.0, -i / 3.0), 0);
+				assertEquals(expected[i],
+						fun.evaluate(new double[] { i / 7.0, -i / 3.0 }), 0);
+			}
+		} finally {
+			fun.endCompiledEvaluation();
+		}
+	}
+
+	@Test
+	public void compiledSamplingShouldMatchTreeWalker() {
+		GeoFunction f = add("f(x)=a x^3 - b sin(x) cos(2x) + e^(-x^2) / 3");
+		Function fun = f.getFunction();
+		double[] expected = new double[2000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = fun.value(i / 100.0 - 10);
+		}
+		fun.startCompiledEvaluation();
+		try {
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], fun.value(i / 100.0 - 10), 0);
+			}
+		} finally {
+			fun.endCompiledEvaluation();
+		}
+	}
+}
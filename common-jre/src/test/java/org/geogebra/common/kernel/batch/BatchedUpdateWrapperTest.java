@@ -1,16 +1,19 @@
 package org.geogebra.common.kernel.batch;
 
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.geogebra.common.BaseUnitTest;
 import org.geogebra.common.jre.util.UtilFactoryJre;
+import org.geogebra.common.kernel.CheckBeforeUpdateView;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.util.GTimer;
@@ -38,18 +41,22 @@ public class BatchedUpdateWrapperTest extends BaseUnitTest {
 	private BatchedUpdateWrapper wrapper;
 
 	static abstract private class WrappedViewTest
-			implements WrappableView {
+			implements WrappableView, CheckBeforeUpdateView {
 
+		@Override
 		public boolean needsUpdateVisualstyle(GProperty property) {
 			return true;
 		}
 
+		@Override
 		public boolean show(GeoElement geo) {
 			return true;
 		}
 
-		public boolean getIsWrapped() {
-			return true;
+		@Override
+		public boolean isShowing() {
+			// hidden, so that all notifications wait for the timer
+			return false;
 		}
 
 	}
@@ -146,6 +153,40 @@ public class BatchedUpdateWrapperTest extends BaseUnitTest {
 		wrapper.onRun();
 	}
 
+	@Test
+	public void testOptimizeVisualStyle() {
+		GeoElement line = getElementFactory().createGeoLine();
+		wrapper.updateVisualStyle(line, GProperty.COLOR);
+		wrapper.updateVisualStyle(line, GProperty.COLOR);
+		wrapper.updateVisualStyle(line, GProperty.LABEL_STYLE);
+		wrapper.repaintView();
+		wrapper.repaintView();
+
+		wrapper.onRun();
+
+		verify(wrappedView, times(1)).updateVisualStyle(line, GProperty.COLOR);
+		verify(wrappedView, times(1)).updateVisualStyle(line,
+				GProperty.LABEL_STYLE);
+		verify(wrappedView, times(1)).repaintView();
+	}
+
+	@Test
+	public void exceptionInViewShouldEndBatchUpdate() {
+		GeoElement line = getElementFactory().createGeoLine();
+		doThrow(new IllegalStateException()).when(wrappedView).update(line);
+		wrapper.update(line);
+
+		try {
+			wrapper.onRun();
+			fail("exception should be passed on");
+		} catch (IllegalStateException expected) {
+			// expected
+		}
+
+		verify(wrappedView).startBatchUpdate();
+		verify(wrappedView).endBatchUpdate();
+	}
+
 	protected void addLine() {
 		GeoElement line2 = getElementFactory().createGeoLine();
 		wrapper.add(line2);
@@ -0,0 +1,129 @@
+package org.geogebra.common.kernel.batch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.util.GTimer;
+import org.geogebra.common.util.GTimerListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class ViewNotificationBusTest extends BaseUnitTest {
+
+	private ViewNotificationBus bus;
+	private WrappableView visibleView;
+	private WrappableView hiddenView;
+	private BatchedUpdateWrapper visible;
+	private BatchedUpdateWrapper hidden;
+
+	@Before
+	public void setupBus() {
+		UtilFactory factory = mock(UtilFactory.class);
+		when(factory.newTimer(any(GTimerListener.class), anyInt()))
+				.thenReturn(mock(GTimer.class));
+		bus = new ViewNotificationBus(factory);
+		hiddenView = mockView(false);
+		visibleView = mockView(true);
+		hidden = bus.wrap(hiddenView);
+		visible = bus.wrap(visibleView);
+	}
+
+	private static WrappableView mockView(boolean showing) {
+		WrappableView view = mock(WrappableView.class);
+		when(view.isShowing()).thenReturn(showing);
+		return view;
+	}
+
+	@Test
+	public void visibleViewsShouldBeNotifiedFirst() {
+		GeoElement line = getElementFactory().createGeoLine();
+		hidden.update(line);
+		visible.update(line);
+		bus.flush();
+
+		InOrder order = inOrder(visibleView, hiddenView);
+		order.verify(visibleView).update(line);
+		order.verify(hiddenView).update(line);
+	}
+
+	@Test
+	public void hiddenViewsShouldBeDeferred() {
+		GeoElement line = getElementFactory().createGeoLine();
+		for (int i = 1; i < ViewNotificationBus.DEFERRED_FRAMES; i++) {
+			hidden.update(line);
+			visible.update(line);
+			bus.onRun();
+		}
+		verify(visibleView, times(ViewNotificationBus.DEFERRED_FRAMES - 1))
+				.update(line);
+		verify(hiddenView, never()).update(line);
+
+		bus.onRun();
+		verify(hiddenView, times(1)).update(line);
+	}
+
+	@Test
+	public void visibleViewsShouldGetAddedElementsImmediately() {
+		GeoElement line = getElementFactory().createGeoLine();
+		GeoElement ray = getElementFactory().createGeoRay();
+		visible.update(line);
+		visible.add(ray);
+
+		InOrder order = inOrder(visibleView);
+		order.verify(visibleView).update(line);
+		order.verify(visibleView).add(ray);
+	}
+
+	@Test
+	public void changesShouldKeepKernelOrder() {
+		GeoElement line = getElementFactory().createGeoLine();
+		GeoElement ray = getElementFactory().createGeoRay();
+		hidden.update(line);
+		hidden.add(ray);
+		hidden.update(line);
+		hidden.update(ray);
+		hidden.update(line);
+		bus.flush();
+
+		InOrder order = inOrder(hiddenView);
+		order.verify(hiddenView).update(line);
+		order.verify(hiddenView).add(ray);
+		order.verify(hiddenView).update(line);
+		order.verify(hiddenView).update(ray);
+		verify(hiddenView, times(2)).update(line);
+	}
+
+	@Test
+	public void kernelShouldNotifyViewsThroughBus() {
+		WrappableView view = mockView(false);
+		getKernel().setViewNotificationBus(bus);
+		getKernel().attach(view);
+		GeoPoint point = add("A=(1,2)");
+		point.setCoords(3, 4, 1);
+		point.updateRepaint();
+		point.setCoords(5, 6, 1);
+		point.updateRepaint();
+		verify(view, never()).add(point);
+
+		bus.flush();
+		verify(view).add(point);
+		verify(view, times(1)).update(point);
+
+		getKernel().detach(view);
+		point.setCoords(7, 8, 1);
+		point.updateRepaint();
+		bus.flush();
+		verify(view, times(1)).update(point);
+	}
+}
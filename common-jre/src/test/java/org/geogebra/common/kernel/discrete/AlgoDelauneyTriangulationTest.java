@@ -0,0 +1,77 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.junit.Test;
+
+public class AlgoDelauneyTriangulationTest extends BaseUnitTest {
+
+	@Test
+	public void draggedPointsShouldGiveSameResultAsNewCommand() {
+		Random random = new Random(1);
+		StringBuilder list = new StringBuilder("L = {");
+		for (int i = 1; i <= 20; i++) {
+			add("A" + i + " = (" + random.nextInt(100) / 10.0 + ", "
+					+ random.nextInt(100) / 10.0 + ")");
+			list.append(i > 1 ? ", A" : "A").append(i);
+		}
+		add(list.append("}").toString());
+		GeoLocus triangulation = add("DelauneyTriangulation(L)");
+		GeoLocus voronoi = add("Voronoi(L)");
+		for (int step = 0; step < 20; step++) {
+			add("SetCoords(A" + (1 + random.nextInt(20)) + ", "
+					+ random.nextInt(100) / 10.0 + ", "
+					+ random.nextInt(100) / 10.0 + ")");
+			assertSameSegments("DelauneyTriangulation(L)", triangulation);
+			assertSameSegments("Voronoi(L)", voronoi);
+		}
+	}
+
+	@Test
+	public void edgesShouldBeDrawnOnce() {
+		GeoLocus triangulation = add(
+				"DelauneyTriangulation({(0, 0), (4, 0), (0, 4), (1, 1)})");
+		assertEquals(12, triangulation.getPoints().size());
+		assertEquals(12, getSegments(triangulation).size() * 2);
+	}
+
+	@Test
+	public void pointsAfterNonPointsShouldBeUsed() {
+		GeoLocus triangulation = add(
+				"DelauneyTriangulation({(0, 0), 1, (4, 0), (0, 4)})");
+		assertTrue(triangulation.isDefined());
+		assertEquals(6, triangulation.getPoints().size());
+	}
+
+	private void assertSameSegments(String command, GeoLocus locus) {
+		GeoLocus expected = add(command);
+		assertTrue(locus.isDefined());
+		assertEquals(getSegments(expected), getSegments(locus));
+		expected.remove();
+	}
+
+	private static TreeSet<String> getSegments(GeoLocus locus) {
+		TreeSet<String> segments = new TreeSet<>();
+		ArrayList<MyPoint> points = locus.getPoints();
+		for (int i = 0; i < points.size(); i += 2) {
+			String start = format(points.get(i));
+			String end = format(points.get(i + 1));
+			segments.add(start.compareTo(end) < 0 ? start + end : end + start);
+		}
+		return segments;
+	}
+
+	private static String format(MyPoint point) {
+		return String.format(Locale.US, "(%.6f, %.6f)", point.getX(),
+				point.getY());
+	}
+}
@@ -0,0 +1,80 @@
+package org.geogebra.common.kernel.discrete.delaunay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class DelaunayTriangulationTest {
+
+	@Test
+	public void movedPointsShouldGiveSameTriangles() {
+		Random random = new Random(42);
+		PointDt[] points = new PointDt[100];
+		// keep the corners on the hull, move the others inside
+		points[0] = new PointDt(-1, -1);
+		points[1] = new PointDt(2, -1);
+		points[2] = new PointDt(2, 2);
+		points[3] = new PointDt(-1, 2);
+		for (int i = 4; i < points.length; i++) {
+			points[i] = new PointDt(random.nextDouble(), random.nextDouble());
+		}
+		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		for (int step = 0; step < 50; step++) {
+			int moved = 4 + random.nextInt(points.length - 4);
+			points[moved] = new PointDt(random.nextDouble(),
+					random.nextDouble());
+			assertTrue(dt.update(points, 2));
+			assertEquals(getTriangles(new DelaunayTriangulation(points)),
+					getTriangles(dt));
+		}
+	}
+
+	@Test
+	public void hullPointsShouldNotBeDeleted() {
+		PointDt[] points = { new PointDt(0, 0), new PointDt(4, 0),
+				new PointDt(0, 4), new PointDt(1, 1) };
+		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		assertFalse(dt.deletePoint(points[1]));
+		assertEquals(4, dt.size());
+		assertTrue(dt.deletePoint(points[3]));
+		assertEquals(3, dt.size());
+		assertEquals(getTriangles(new DelaunayTriangulation(
+				new PointDt[] { points[0], points[1], points[2] })),
+				getTriangles(dt));
+	}
+
+	@Test
+	public void tooManyChangesShouldNotBeApplied() {
+		PointDt[] points = { new PointDt(0, 0), new PointDt(4, 0),
+				new PointDt(0, 4), new PointDt(1, 1), new PointDt(1, 2) };
+		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		points[3] = new PointDt(2, 0.5);
+		assertFalse(dt.update(points, 1));
+		assertEquals(5, dt.size());
+		assertTrue(dt.update(points, 2));
+		assertEquals(getTriangles(new DelaunayTriangulation(points)),
+				getTriangles(dt));
+	}
+
+	private static TreeSet<String> getTriangles(DelaunayTriangulation dt) {
+		TreeSet<String> triangles = new TreeSet<>();
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt triangle = it.next();
+			TreeSet<String> corners = new TreeSet<>();
+			for (int i = 0; i < 3; i++) {
+				if (triangle.getCorner(i) != null) {
+					corners.add(triangle.getCorner(i).toString());
+				}
+			}
+			triangles.add(corners.toString());
+		}
+		return triangles;
+	}
+}
@@ -1,6 +1,9 @@
 package org.geogebra.common.kernel.geos;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.geogebra.common.BaseUnitTest;
 import org.geogebra.common.kernel.StringTemplate;
@@ -23,4 +26,45 @@ public class GeoListTest extends BaseUnitTest {
 		assertEquals("\\left(\\begin{array}{rr}a&2\\\\a + 2&4\\\\ \\end{array}\\right)",
 				matrix.toLaTeXString(true, StringTemplate.latexTemplate));
 	}
+
+	@Test
+	public void numericValuesShouldBeSharedUntilListChanges() {
+		add("a=3");
+		GeoList list = add("l={a,1,2}");
+		double[] values = list.getNumericValues();
+		assertArrayEquals(new double[] {3, 1, 2}, values, 0);
+		assertSame(values, list.getNumericValues());
+		assertArrayEquals(new double[] {1, 2, 3},
+				list.getSortedNumericValues(), 0);
+		add("SetValue(a,0)");
+		assertArrayEquals(new double[] {0, 1, 2}, list.getNumericValues(), 0);
+		assertArrayEquals(new double[] {0, 1, 2},
+				list.getSortedNumericValues(), 0);
+		GeoList free = add("m={5,1}");
+		assertArrayEquals(new double[] {1, 5}, free.getSortedNumericValues(), 0);
+		add("SetValue(m,1,-1)");
+		assertArrayEquals(new double[] {-1, 1}, free.getSortedNumericValues(), 0);
+		add("SetValue(m,3,0)");
+		assertArrayEquals(new double[] {-1, 0, 1},
+				free.getSortedNumericValues(), 0);
+	}
+
+	@Test
+	public void numericValuesShouldBeNullForMixedLists() {
+		GeoList list = add("{1,(1,2)}");
+		assertNull(list.getNumericValues());
+		assertNull(list.getSortedNumericValues());
+		assertNull(list.getPointXValues());
+	}
+
+	@Test
+	public void pointValuesShouldFollowPoints() {
+		add("A=(1,2)");
+		GeoList list = add("{A,(3,-1)}");
+		assertArrayEquals(new double[] {1, 3}, list.getPointXValues(), 0);
+		assertArrayEquals(new double[] {2, -1}, list.getPointYValues(), 0);
+		add("SetCoords(A,5,6)");
+		assertArrayEquals(new double[] {5, 3}, list.getPointXValues(), 0);
+		assertArrayEquals(new double[] {6, -1}, list.getPointYValues(), 0);
+	}
 }
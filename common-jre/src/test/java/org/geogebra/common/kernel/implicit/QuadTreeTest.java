@@ -0,0 +1,71 @@
+package org.geogebra.common.kernel.implicit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.kernel.MyPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QuadTreeTest extends BaseUnitTest {
+
+	private EuclidianView view;
+	private GeoImplicitCurve curve;
+
+	@Before
+	public void setupCurve() {
+		view = getApp().getActiveEuclidianView();
+		view.setCoordSystem(400, 300, 50, 50);
+		curve = add("x^4 + y^4 - 3x y = 2");
+		curve.updatePath();
+	}
+
+	@Test
+	public void panShouldReuseCells() {
+		assertThat(curve.quadTree.getReusedCells(), is(0));
+		pan(23, 17);
+		assertThat(curve.quadTree.getReusedCells(), greaterThan(0));
+	}
+
+	@Test
+	public void reusedCellsShouldGiveSamePath() {
+		pan(23, 17);
+		pan(-23, -17);
+		ArrayList<MyPoint> reused = copyPoints();
+		curve.updatePath();
+		assertThat(curve.quadTree.getReusedCells(), is(0));
+		assertThat(copyPoints().toString(), is(reused.toString()));
+	}
+
+	@Test
+	public void changedCurveShouldNotReuseCells() {
+		add("a=2");
+		curve = add("x^4 + y^4 - 3x y = a");
+		pan(23, 17);
+		add("SetValue(a,5)");
+		assertThat(curve.quadTree.getReusedCells(), is(0));
+		ArrayList<MyPoint> changed = copyPoints();
+		pan(-23, -17);
+		pan(23, 17);
+		assertThat(copyPoints().toString(), is(changed.toString()));
+	}
+
+	private void pan(int dx, int dy) {
+		view.setCoordSystem(view.getXZero() + dx, view.getYZero() + dy,
+				view.getXscale(), view.getYscale());
+		curve.euclidianViewUpdate();
+	}
+
+	private ArrayList<MyPoint> copyPoints() {
+		ArrayList<MyPoint> copy = new ArrayList<>();
+		for (MyPoint pt : curve.getLocus().getPoints()) {
+			copy.add(new MyPoint(pt.x, pt.y, pt.getSegmentType()));
+		}
+		return copy;
+	}
+}
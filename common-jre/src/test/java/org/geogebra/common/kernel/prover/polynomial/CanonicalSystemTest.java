@@ -0,0 +1,83 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.geogebra.common.BaseUnitTest;
+import org.junit.Test;
+
+public class CanonicalSystemTest extends BaseUnitTest {
+
+	@Test
+	public void renamedSystemsShouldHaveSameStrings() {
+		PVariable a = new PVariable(getKernel());
+		PVariable b = new PVariable(getKernel());
+		PVariable c = new PVariable(getKernel());
+		// created later, like the variables of a recomputed statement
+		PVariable a2 = new PVariable(getKernel());
+		PVariable b2 = new PVariable(getKernel());
+		PVariable c2 = new PVariable(getKernel());
+
+		CanonicalSystem first = new CanonicalSystem(system(a, b, c));
+		PPolynomial[] polys = system(a2, b2, c2);
+		Collections.reverse(Arrays.asList(polys));
+		CanonicalSystem second = new CanonicalSystem(polys);
+
+		assertEquals("-1+v3*v2,-v2+v1^2", first.getPolys());
+		assertEquals(first.getPolys(), second.getPolys());
+		Set<PVariable> free = Collections.singleton(a);
+		assertEquals("v2,v3", first.getVars(false, free));
+		assertEquals("v1", first.getVars(true, free));
+		assertEquals("v1,v2,v3", second.getVars(null, free));
+	}
+
+	@Test
+	public void restoreNamesShouldUseOriginalVariables() {
+		PVariable a = new PVariable(getKernel());
+		PVariable b = new PVariable(getKernel());
+		PVariable c = new PVariable(getKernel());
+		CanonicalSystem system = new CanonicalSystem(system(a, b, c));
+		assertEquals("{{" + c + "*" + b + "-1,-" + a + "},ggbv1,v7,x}",
+				system.restoreNames("{{v3*v2-1,-v1},ggbv1,v7,x}"));
+	}
+
+	@Test
+	public void extraVariablesShouldBeNamed() {
+		PVariable a = new PVariable(getKernel());
+		PVariable b = new PVariable(getKernel());
+		PVariable c = new PVariable(getKernel());
+		PVariable curve = new PVariable(getKernel());
+		CanonicalSystem system = new CanonicalSystem(system(a, b, c), curve,
+				null);
+		assertEquals("v4", system.getName(curve));
+		assertEquals("v1,v2,v3", system.getVars(null,
+				Collections.<PVariable> emptySet()));
+	}
+
+	@Test
+	public void undefinedResultsShouldNotBeCached() {
+		CanonicalSystem.putResult(getKernel(), "program1", "?");
+		CanonicalSystem.putResult(getKernel(), "program2", "");
+		CanonicalSystem.putResult(getKernel(), "program3", "{1}");
+		assertNull(CanonicalSystem.getCachedResult(getKernel(), "program1"));
+		assertNull(CanonicalSystem.getCachedResult(getKernel(), "program2"));
+		assertEquals("{1}",
+				CanonicalSystem.getCachedResult(getKernel(), "program3"));
+	}
+
+	/**
+	 * @return a^2 - b, b c - 1
+	 */
+	private static PPolynomial[] system(PVariable a, PVariable b,
+			PVariable c) {
+		PPolynomial pa = new PPolynomial(a);
+		PPolynomial pb = new PPolynomial(b);
+		PPolynomial pc = new PPolynomial(c);
+		return new PPolynomial[] { pa.multiply(pa).subtract(pb),
+				pb.multiply(pc).subtract(new PPolynomial(1)) };
+	}
+}
@@ -0,0 +1,134 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+
+import org.geogebra.common.BaseUnitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PPolynomialTest extends BaseUnitTest {
+
+	private PVariable x;
+	private PVariable y;
+	private PVariable z;
+
+	@Before
+	public void setupVariables() {
+		x = new PVariable(getKernel());
+		y = new PVariable(getKernel());
+		z = new PVariable(getKernel());
+	}
+
+	@Test
+	public void termsShouldBePrintedInOrder() {
+		PPolynomial p = px().add(py().multiply(pz()))
+				.subtract(new PPolynomial(3)).add(px().multiply(px()));
+		assertEquals("-3+" + z + "*" + y + "+" + x + "+" + x + "^2",
+				p.toString());
+		assertEquals("-3", new PPolynomial(-3).toString());
+		assertEquals("0", new PPolynomial().toString());
+	}
+
+	@Test
+	public void coefficientsShouldNotOverflow() {
+		PPolynomial big = new PPolynomial(Long.MAX_VALUE).multiply(px());
+		PPolynomial square = big.multiply(big);
+		BigInteger expected = BigInteger.valueOf(Long.MAX_VALUE).pow(2);
+		assertEquals(expected, square.getCoefficient(0));
+		assertEquals(expected.shiftLeft(1),
+				square.add(square).getCoefficient(0));
+		assertTrue(square.subtract(square).isZero());
+
+		PPolynomial power = new PPolynomial(1);
+		for (int i = 0; i < 5; i++) {
+			power = power
+					.multiply(new PPolynomial(Integer.MAX_VALUE).add(px()));
+		}
+		assertEquals(BigInteger.valueOf(Integer.MAX_VALUE).pow(5),
+				power.getCoefficient(0));
+		assertEquals(BigInteger.valueOf(Integer.MAX_VALUE).pow(4)
+				.multiply(BigInteger.valueOf(5)), power.getCoefficient(1));
+	}
+
+	@Test
+	public void multiplyShouldCombineTerms() {
+		PPolynomial p = px().add(py());
+		PPolynomial q = px().subtract(py());
+		PPolynomial product = p.multiply(q);
+		assertEquals(px().multiply(px()).subtract(py().multiply(py())),
+				product);
+		assertEquals(2, product.getTermCount());
+		assertTrue(p.multiply(new PPolynomial()).isZero());
+	}
+
+	@Test
+	public void substituteShouldEvaluateVariables() {
+		// (x + 2 y)^2 z with x = -1, y = -2
+		PPolynomial p = px().add(new PPolynomial(2).multiply(py()));
+		p = p.multiply(p).multiply(pz());
+		HashMap<PVariable, BigInteger> values = new HashMap<>();
+		values.put(x, BigInteger.ONE.negate());
+		values.put(y, BigInteger.valueOf(-2));
+		assertEquals(new PPolynomial(25).multiply(pz()),
+				p.substitute(values));
+		values.put(z, BigInteger.ZERO);
+		assertTrue(p.substitute(values).isZero());
+	}
+
+	@Test
+	public void renameShouldSumCoefficients() {
+		PPolynomial p = new PPolynomial(2).multiply(px())
+				.add(new PPolynomial(3).multiply(py()));
+		assertEquals(new PPolynomial(5).multiply(py()), p.substitute(x, y));
+		assertEquals(px().multiply(px()), px().multiply(py())
+				.substitute(y, x));
+		assertEquals(p, p.substitute(z, x));
+		assertEquals(p, p.substitute(x, x));
+	}
+
+	@Test
+	public void associatesShouldDifferBySign() {
+		PPolynomial p = px().subtract(py().multiply(pz()));
+		assertTrue(PPolynomial.areAssociates1(p, p.negate()));
+		assertTrue(PPolynomial.areAssociates1(p, new PPolynomial(p)));
+		assertFalse(PPolynomial.areAssociates1(p, p.add(p)));
+	}
+
+	@Test
+	public void equalPolynomialsShouldHaveEqualHash() {
+		PPolynomial p = px().multiply(py()).add(new PPolynomial(Long.MAX_VALUE)
+				.multiply(new PPolynomial(Long.MAX_VALUE)));
+		PPolynomial q = new PPolynomial(Long.MAX_VALUE)
+				.multiply(new PPolynomial(Long.MAX_VALUE))
+				.add(py().multiply(px()));
+		assertEquals(p, q);
+		assertEquals(p.hashCode(), q.hashCode());
+		assertEquals(0, p.compareTo(q));
+		assertTrue(p.compareTo(p.add(pz())) < 0);
+	}
+
+	@Test
+	public void variablesShouldBeThosePresent() {
+		PPolynomial p = px().multiply(py()).subtract(py().multiply(px()))
+				.add(pz());
+		assertEquals(1, p.getVars().size());
+		assertTrue(p.getVars().contains(z));
+	}
+
+	private PPolynomial px() {
+		return new PPolynomial(x);
+	}
+
+	private PPolynomial py() {
+		return new PPolynomial(y);
+	}
+
+	private PPolynomial pz() {
+		return new PPolynomial(z);
+	}
+}
@@ -0,0 +1,56 @@
+package org.geogebra.common.kernel.statistics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DataTableParserTest {
+
+	@Test
+	public void shouldParseColumnsWithHeader() {
+		DataTable table = new DataTableParser(
+				"name,x,y\r\na,1,\"1,234\"\r\n\"b, c\",2.5,-3E2\r\n").parse();
+		assertEquals(2, table.getRowCount());
+		assertEquals(3, table.getColumnCount());
+		assertTrue(table.hasHeader());
+		assertEquals("x", table.getColumnName(1));
+		assertFalse(table.isNumeric(0));
+		assertTrue(table.isNumeric(1));
+		assertEquals("b, c", table.getText(1, 0));
+		assertArrayEquals(new double[] { 1, 2.5 }, table.getValues(1), 0);
+		assertArrayEquals(new double[] { 1234, -300 }, table.getValues(2), 0);
+	}
+
+	@Test
+	public void shouldParseTabsAndEmptyCells() {
+		DataTable table = new DataTableParser("1\t0,5\n\t\"say \"\"hi\"\"\"\n3")
+				.parse();
+		assertEquals(3, table.getRowCount());
+		assertFalse(table.hasHeader());
+		assertNull(table.getColumnName(0));
+		assertEquals(0.5, table.getValue(0, 1), 0);
+		assertTrue(Double.isNaN(table.getValue(1, 0)));
+		assertEquals("say \"hi\"", table.getText(1, 1));
+		assertTrue(Double.isNaN(table.getValue(2, 1)));
+	}
+
+	@Test
+	public void numbersShouldFollowSpreadsheetRules() {
+		assertEquals(1234567, parse("1,234,567"), 0);
+		assertEquals(-123566, parse("-123,566"), 0);
+		assertEquals(123.4567, parse("123,4567"), 0);
+		assertEquals(1.5, parse("1,5"), 0);
+		assertEquals(12.5, parse("1.25E1"), 0);
+		assertTrue(Double.isNaN(parse("1.2.3")));
+		assertTrue(Double.isNaN(parse("12%")));
+		assertTrue(Double.isNaN(parse("-")));
+	}
+
+	private static double parse(String s) {
+		return DataTableParser.parseNumber(s, 0, s.length());
+	}
+}
@@ -0,0 +1,106 @@
+package org.geogebra.common.kernel.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.algos.AlgoSum;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Test;
+
+public class ListStatisticsTest extends BaseUnitTest {
+
+	private void checkValue(String command, double expected) {
+		GeoNumeric result = add(command);
+		assertEquals(command, expected, result.getValue(), 1E-12);
+	}
+
+	@Test
+	public void statisticsShouldFollowListChanges() {
+		add("a=7");
+		add("l={4,a,1,3}");
+		GeoNumeric mean = add("Mean(l)");
+		GeoNumeric median = add("Median(l)");
+		GeoNumeric q1 = add("Q1(l)");
+		GeoNumeric q3 = add("Q3(l)");
+		GeoNumeric percentile = add("Percentile(l,0.3)");
+		assertEquals(3.75, mean.getValue(), 0);
+		assertEquals(3.5, median.getValue(), 0);
+		assertEquals(2, q1.getValue(), 0);
+		assertEquals(5.5, q3.getValue(), 0);
+		assertEquals(2, percentile.getValue(), 1E-12);
+		add("SetValue(a,0)");
+		assertEquals(2, mean.getValue(), 0);
+		assertEquals(2, median.getValue(), 0);
+		assertEquals(0.5, q1.getValue(), 0);
+		assertEquals(3.5, q3.getValue(), 0);
+		assertEquals(0.5, percentile.getValue(), 1E-12);
+	}
+
+	@Test
+	public void statisticsOfListsWithTextShouldBeUndefined() {
+		add("l={1,2,\"a\"}");
+		assertEquals(false, ((GeoNumeric) add("Mean(l)")).isDefined());
+		assertEquals(false, ((GeoNumeric) add("Median(l)")).isDefined());
+		assertEquals(false, ((GeoNumeric) add("Percentile(l,0.5)")).isDefined());
+		assertEquals(false, ((GeoNumeric) add("SXY(l,l)")).isDefined());
+	}
+
+	@Test
+	public void truncatedStatisticsShouldIgnoreTextAfterTheCut() {
+		// Sum command rejects such lists, so create the algorithm directly
+		GeoList list = add("l={1,2,\"a\"}");
+		GeoNumeric length = add("n=2");
+		GeoNumeric sum = new AlgoSum(getConstruction(), list, length)
+				.getResult();
+		assertEquals(3, sum.getValue(), 0);
+		add("SetValue(n,3)");
+		assertEquals(false, sum.isDefined());
+	}
+
+	@Test
+	public void statisticsOfElementsShouldFollowElements() {
+		add("a=1");
+		add("b=2");
+		GeoNumeric mean = add("Mean(a,b,6)");
+		assertEquals(3, mean.getValue(), 0);
+		add("SetValue(a,4)");
+		assertEquals(4, mean.getValue(), 0);
+	}
+
+	@Test
+	public void statisticsOfPointsShouldFollowPoints() {
+		add("A=(1,2)");
+		add("l={A,(2,3),(4,1)}");
+		checkValue("SXY(l)", -2);
+		checkValue("MeanX(l)", 7 / 3.0);
+		add("SetCoords(A,0,5)");
+		checkValue("SXY(l)", -8);
+		checkValue("MeanY(l)", 3);
+	}
+
+	@Test
+	public void sortedPercentileShouldMatchCommonsMath() {
+		Random random = new Random(42);
+		Percentile percentile = new Percentile();
+		for (int length = 1; length < 40; length++) {
+			double[] data = new double[length];
+			for (int i = 0; i < length; i++) {
+				data[i] = Math.round(random.nextGaussian() * 100) / 10.0;
+			}
+			double[] sorted = data.clone();
+			Arrays.sort(sorted);
+			percentile.setData(data);
+			for (double p = 0.01; p <= 1; p += 0.07) {
+				assertEquals(percentile.evaluate(p * 100),
+						AlgoPercentile.evaluateSorted(sorted, p), 1E-12);
+			}
+			assertEquals(percentile.evaluate(100),
+					AlgoPercentile.evaluateSorted(sorted, 1), 1E-12);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package org.geogebra.common.util.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+import org.junit.Test;
+
+public class PerformanceMetricsTest extends BaseUnitTest {
+
+	private PerformanceMetrics getMetrics() {
+		return getKernel().getMetrics();
+	}
+
+	private void addSegment() {
+		add("A=(1,1)");
+		add("B=(3,2)");
+		add("s=Segment(A,B)");
+		add("SetCoords(A,2,2)");
+	}
+
+	@Test
+	public void shouldNotRecordWhenDisabled() {
+		addSegment();
+		assertEquals(0, getMetrics().getTotal(MetricType.ALGO_COMPUTE)
+				.getCount());
+		assertEquals("{}", getMetrics().toJson());
+	}
+
+	@Test
+	public void shouldRecordComputePerAlgoClass() {
+		getMetrics().setEnabled(true);
+		addSegment();
+		add("SetCoords(B,4,4)");
+		MetricHistogram segment = getMetrics().getHistogram(
+				MetricType.ALGO_COMPUTE, AlgoJoinPointsSegment.class.getName());
+		assertEquals(2, segment.getCount());
+		assertTrue(segment.getMax() >= segment.getPercentile(0.5));
+		assertTrue(getMetrics().getTotal(MetricType.UPDATE_CASCADE)
+				.getCount() > 0);
+	}
+
+	@Test
+	public void shouldRecordUndoSizes() {
+		getMetrics().setEnabled(true);
+		getApp().setUndoActive(true);
+		addSegment();
+		getApp().storeUndoInfo();
+		MetricHistogram undo = getMetrics().getTotal(MetricType.UNDO_SIZE);
+		assertTrue(undo.getCount() > 0);
+		assertTrue(undo.getMax() > 100);
+	}
+
+	@Test
+	public void snapshotShouldContainAllSources() throws Exception {
+		getMetrics().setEnabled(true);
+		getMetrics().record(MetricType.CAS, "Solve", 3);
+		getMetrics().record(MetricType.CAS, "Solve", 5);
+		getMetrics().record(MetricType.CAS, "Factor", 1);
+		JSONObject cas = new JSONObject(getMetrics().toJson())
+				.getJSONObject("cas");
+		assertEquals("ms", cas.getString("unit"));
+		assertEquals(3, cas.getLong("count"));
+		JSONObject solve = cas.getJSONObject("sources")
+				.getJSONObject("Solve");
+		assertEquals(4, solve.getDouble("mean"), DELTA);
+		assertEquals(5, solve.getDouble("max"), DELTA);
+		getMetrics().reset();
+		assertEquals("{}", getMetrics().toJson());
+	}
+
+	@Test
+	public void listenersShouldReceiveMeasurements() {
+		List<String> received = new ArrayList<>();
+		getMetrics().addListener((type, source, value) -> received
+				.add(type.getKey() + ":" + source + ":" + value));
+		getMetrics().record(MetricType.DRAG, "test", 1);
+		getMetrics().setEnabled(true);
+		getMetrics().record(MetricType.DRAG, "test", 2);
+		assertEquals(1, received.size());
+		assertEquals("drag:test:2.0", received.get(0));
+	}
+}
@@ -0,0 +1,24 @@
+package org.geogebra.common.cas;
+
+/**
+ * Cache of Giac results, consulted before a translated input is sent to
+ * Giac. Implementations may be shared by several kernels and need to be
+ * thread safe.
+ */
+public interface CasResultCache {
+
+	/**
+	 * @param key
+	 *            Giac input together with the settings that affect the result
+	 * @return cached result, null if not available
+	 */
+	String get(String key);
+
+	/**
+	 * @param key
+	 *            Giac input together with the settings that affect the result
+	 * @param result
+	 *            CAS result
+	 */
+	void put(String key, String result);
+}
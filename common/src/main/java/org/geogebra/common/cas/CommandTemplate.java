@@ -0,0 +1,228 @@
+package org.geogebra.common.cas;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.util.StringUtil;
+
+/**
+ * Giac translation of a command signature (e.g. "Expand.1") split into
+ * parts once, so that filling in arguments does not need to scan the
+ * translation or rename its temporary variables with regular expressions.
+ *
+ * Translations may contain %0..%9 for arguments, %%0..%%9 for arguments in
+ * numeric mode and @0..@9 for arguments that are only used if they contain
+ * no brackets or commas. The temporary variables arg0 and arg1 get a suffix
+ * that is different for every use of the template.
+ */
+public final class CommandTemplate {
+
+	/**
+	 * Part of a template.
+	 */
+	public static final class Part {
+		/** literal text */
+		public static final int TEXT = 0;
+		/** %i or %%i */
+		public static final int ARGUMENT = 1;
+		/** @i */
+		public static final int SIMPLE_ARGUMENT = 2;
+		/** arg0 or arg1, needs a suffix */
+		public static final int TEMPORARY_VARIABLE = 3;
+
+		private final int type;
+		private final String text;
+		private final char index;
+		private final boolean numeric;
+
+		Part(int type, String text, char index, boolean numeric) {
+			this.type = type;
+			this.text = text;
+			this.index = index;
+			this.numeric = numeric;
+		}
+
+		/**
+		 * @return one of {@link #TEXT}, {@link #ARGUMENT},
+		 *         {@link #SIMPLE_ARGUMENT}, {@link #TEMPORARY_VARIABLE}
+		 */
+		public int getType() {
+			return type;
+		}
+
+		/**
+		 * @return literal text or name of temporary variable
+		 */
+		public String getText() {
+			return text;
+		}
+
+		/**
+		 * @return argument index, may be out of range for invalid templates
+		 */
+		public int getIndex() {
+			return index - '0';
+		}
+
+		/**
+		 * @return character after the % or @, used when the argument does not
+		 *         exist
+		 */
+		public char getIndexChar() {
+			return index;
+		}
+
+		/**
+		 * @return whether argument should be serialized in numeric mode (%%i)
+		 */
+		public boolean isNumeric() {
+			return numeric;
+		}
+	}
+
+	private static final String[] TEMPORARY_VARIABLES = { "arg0", "arg1" };
+
+	private final Part[] parts;
+	private final String translation;
+
+	private CommandTemplate(Part[] parts, String translation) {
+		this.parts = parts;
+		this.translation = translation;
+	}
+
+	/**
+	 * @param translation
+	 *            Giac translation of a command
+	 * @return template
+	 */
+	public static CommandTemplate parse(String translation) {
+		ArrayList<Part> parts = new ArrayList<>();
+		StringBuilder text = new StringBuilder();
+		int length = translation.length();
+		int i = 0;
+		while (i < length) {
+			char ch = translation.charAt(i);
+			if (ch == '%' && i + 1 < length) {
+				boolean numeric = translation.charAt(i + 1) == '%';
+				int indexPos = numeric ? i + 2 : i + 1;
+				if (indexPos < length) {
+					addText(parts, text);
+					parts.add(new Part(Part.ARGUMENT, null,
+							translation.charAt(indexPos), numeric));
+					i = indexPos + 1;
+					continue;
+				}
+			} else if (ch == '@' && i + 1 < length) {
+				addText(parts, text);
+				parts.add(new Part(Part.SIMPLE_ARGUMENT, null,
+						translation.charAt(i + 1), false));
+				i += 2;
+				continue;
+			}
+			String variable = temporaryVariableAt(translation, i);
+			if (variable != null) {
+				addText(parts, text);
+				parts.add(new Part(Part.TEMPORARY_VARIABLE, variable, '0',
+						false));
+				i += variable.length();
+				continue;
+			}
+			text.append(ch);
+			i++;
+		}
+		addText(parts, text);
+		return new CommandTemplate(parts.toArray(new Part[0]), translation);
+	}
+
+	private static String temporaryVariableAt(String translation, int i) {
+		for (String variable : TEMPORARY_VARIABLES) {
+			if (translation.startsWith(variable, i)) {
+				return variable;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the suffixes of temporary variables, so that translations of
+	 * the same input made at different times can be compared. Variables of
+	 * the user (with {@link Kernel#TMP_VARIABLE_PREFIX}) are kept as they are.
+	 * 
+	 * @param translated
+	 *            translated input
+	 * @return translation without suffixes of temporary variables
+	 */
+	public static String withoutSuffixes(String translated) {
+		StringBuilder sb = new StringBuilder(translated.length());
+		int length = translated.length();
+		int identifierStart = 0;
+		int i = 0;
+		while (i < length) {
+			char ch = translated.charAt(i);
+			String variable = temporaryVariableAt(translated, i);
+			if (variable != null && !translated
+					.startsWith(Kernel.TMP_VARIABLE_PREFIX, identifierStart)) {
+				sb.append(variable);
+				i += variable.length();
+				while (i < length && StringUtil.isDigit(translated.charAt(i))) {
+					i++;
+				}
+				continue;
+			}
+			if (!StringUtil.isLetterOrDigitOrUnderscore(ch)) {
+				identifierStart = i + 1;
+			}
+			sb.append(ch);
+			i++;
+		}
+		return sb.toString();
+	}
+
+	private static void addText(ArrayList<Part> parts, StringBuilder text) {
+		if (text.length() > 0) {
+			parts.add(new Part(Part.TEXT, text.toString(), '0', false));
+			text.setLength(0);
+		}
+	}
+
+	/**
+	 * @return parts of this template
+	 */
+	public Part[] getParts() {
+		return parts;
+	}
+
+	/**
+	 * @param suffix
+	 *            suffix for temporary variables
+	 * @return translation with renamed temporary variables and unchanged
+	 *         argument placeholders
+	 */
+	public String toString(int suffix) {
+		StringBuilder sb = new StringBuilder(translation.length() + 8);
+		for (Part part : parts) {
+			switch (part.type) {
+			case Part.ARGUMENT:
+				sb.append(part.numeric ? "%%" : "%");
+				sb.append(part.index);
+				break;
+			case Part.SIMPLE_ARGUMENT:
+				sb.append('@');
+				sb.append(part.index);
+				break;
+			case Part.TEMPORARY_VARIABLE:
+				sb.append(part.text);
+				sb.append(suffix);
+				break;
+			default:
+				sb.append(part.text);
+			}
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return translation;
+	}
+}
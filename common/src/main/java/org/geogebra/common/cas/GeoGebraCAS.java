@@ -1,6 +1,7 @@
 package org.geogebra.common.cas;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -43,6 +44,8 @@ import org.geogebra.common.main.MyError.Errors;
 import org.geogebra.common.main.error.ErrorHelper;
 import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.debug.Log;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 /**
  * This class provides an interface for GeoGebra to use an underlying computer
@@ -62,6 +65,9 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 	private StringBuilder getPolynomialCoeffsSB = new StringBuilder();
 	private StringBuilder sbPolyCoeffs = new StringBuilder();
 	private int counter = 1;
+	/** parsed translations by signature, null values for no translation */
+	private final HashMap<String, CommandTemplate> commandTemplates =
+			new HashMap<>();
 
 	/**
 	 * Creates new CAS interface
@@ -133,12 +139,18 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		}
 		String result = null;
 		CASException exception = null;
+		PerformanceMetrics metrics = app.getKernel().getMetrics();
+		double start = metrics.startTimer();
 		try {
 			result = getCurrentCAS().evaluateGeoGebraCAS(casInput, arbconst,
 					tpl, cell, kernel);
 		} catch (CASException ce) {
 			exception = ce;
 		}
+		if (start >= 0) {
+			metrics.recordTime(MetricType.CAS, getMetricSource(casInput),
+					start);
+		}
 
 		// check if keep input command was successful
 		// e.g. for KeepInput[Substitute[...]]
@@ -165,6 +177,32 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		return result;
 	}
 
+	@Override
+	public void startBatch(ValidExpression[] casInputs, Kernel kernel) {
+		if (!app.getSettings().getCasSettings().isEnabled()) {
+			return;
+		}
+		CASGenericInterface currentCAS = getCurrentCAS();
+		if (currentCAS instanceof CASgiac) {
+			((CASgiac) currentCAS).startBatch(casInputs, kernel);
+		}
+	}
+
+	@Override
+	public void endBatch() {
+		if (cas instanceof CASgiac) {
+			((CASgiac) cas).endBatch();
+		}
+	}
+
+	private static String getMetricSource(ValidExpression casInput) {
+		ExpressionValue unwrapped = casInput.unwrap();
+		if (unwrapped instanceof Command) {
+			return ((Command) unwrapped).getName();
+		}
+		return "Evaluate";
+	}
+
 	@Override
 	final public String evaluateGeoGebraCAS(String exp,
 			MyArbitraryConstant arbconst, StringTemplate tpl, Kernel kernel)
@@ -186,7 +224,11 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 	@Override
 	final public String evaluateRaw(String exp) throws Throwable {
 		if (app.getSettings().getCasSettings().isEnabled()) {
-			return getCurrentCAS().evaluateRaw(exp);
+			PerformanceMetrics metrics = app.getKernel().getMetrics();
+			double start = metrics.startTimer();
+			String result = getCurrentCAS().evaluateRaw(exp);
+			metrics.recordTime(MetricType.CAS, "Raw", start);
+			return result;
 		}
 		return "?";
 	}
@@ -199,7 +241,11 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 	 */
 	final public String evaluate(String exp) throws CASException {
 		if (app.getSettings().getCasSettings().isEnabled()) {
-			return getCurrentCAS().evaluateCAS(exp);
+			PerformanceMetrics metrics = app.getKernel().getMetrics();
+			double start = metrics.startTimer();
+			String result = getCurrentCAS().evaluateCAS(exp);
+			metrics.recordTime(MetricType.CAS, "Giac", start);
+			return result;
 		}
 		return "?";
 	}
@@ -515,26 +561,32 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		}
 
 		boolean outsourced = false;
-		String translation = null;
+		CommandTemplate template = null;
+		String variableSuffix = "";
 		// check if there is support in the outsourced CAS (now SingularWS) for
 		// this command:
 		if (allowOutsourcing && app.getSingularWS() != null
 				&& app.singularWSisAvailable()) {
-			translation = app
+			String translation = app
 					.singularWSgetTranslatedCASCommand(sbCASCommand.toString());
 			if (translation != null) {
 				outsourced = true;
+				template = CommandTemplate.parse(translation);
 			}
 		}
 
 		// get translation ggb -> Giac
 		if (!outsourced) {
-			translation = translateCommandSignature(sbCASCommand.toString());
+			template = getCommandTemplate(sbCASCommand.toString());
+			if (template != null) {
+				variableSuffix = String.valueOf(counter++);
+			}
 		}
 
 		// Try .N translation
-		if (translation == null) {
-			translation = getVarargTranslation(sbCASCommand, name, args, symbolic, tpl);
+		if (template == null) {
+			String translation = getVarargTranslation(sbCASCommand, name, args,
+					symbolic, tpl);
 			if (translation != null) {
 				return translation;
 			}
@@ -543,7 +595,7 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		sbCASCommand.setLength(0);
 
 		// use key as function name
-		if (translation == null) {
+		if (template == null) {
 			Kernel kern = app.getKernel();
 
 			// convert command names x, y, z to xcoord, ycoord, ycoord to
@@ -605,23 +657,18 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 					((Command) args.get(0).unwrap()).getName())) {
 				return toString(args.get(0), symbolic, tpl);
 			}
-			for (int i = 0; i < translation.length(); i++) {
-				char ch = translation.charAt(i);
-
+			for (CommandTemplate.Part part : template.getParts()) {
 				StringTemplate tplToUse = tpl;
 
-				if (ch == '%') {
+				if (part.getType() == CommandTemplate.Part.ARGUMENT) {
 
-					if (translation.charAt(i + 1) == '%') {
+					if (part.isNumeric()) {
 						// eg %%0
-						// numeric = true;
 						tplToUse = tpl.deriveNumericGiac();
-						i++;
 					}
 
 					// get number after %
-					i++;
-					int pos = translation.charAt(i) - '0';
+					int pos = part.getIndex();
 					ExpressionValue ev;
 					if ("Solve".equals(name)) {
 						// case we have assumptions in equation list
@@ -704,31 +751,30 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 						}
 					} else {
 						// failed
-						sbCASCommand.append(ch);
-						sbCASCommand.append(translation.charAt(i));
+						sbCASCommand.append('%');
+						sbCASCommand.append(part.getIndexChar());
 					}
 					// @ is a hack: only use the value if it does not contain ()
 					// to avoid (1,2)' in CAS
-				} else if (ch == '@') {
-					// get number after %
-					i++;
-					int pos = translation.charAt(i) - '0';
+				} else if (part
+						.getType() == CommandTemplate.Part.SIMPLE_ARGUMENT) {
+					int pos = part.getIndex();
 					if (pos >= 0 && pos < args.size()) {
 						// success: insert argument(pos)
-						ExpressionValue ev = args.get(pos);
-						if (toString(ev, symbolic, tplToUse).matches("[^(),]*")) {
-							sbCASCommand
-									.append(toString(ev, symbolic, tplToUse));
-						} else {
-							sbCASCommand.append("x");
-						}
+						String arg = toString(args.get(pos), symbolic,
+								tplToUse);
+						sbCASCommand.append(isSimpleArgument(arg) ? arg : "x");
 					} else {
 						// failed
-						sbCASCommand.append(ch);
-						sbCASCommand.append(translation.charAt(i));
+						sbCASCommand.append('@');
+						sbCASCommand.append(part.getIndexChar());
 					}
+				} else if (part
+						.getType() == CommandTemplate.Part.TEMPORARY_VARIABLE) {
+					sbCASCommand.append(part.getText());
+					sbCASCommand.append(variableSuffix);
 				} else {
-					sbCASCommand.append(ch);
+					sbCASCommand.append(part.getText());
 				}
 			}
 		}
@@ -943,13 +989,43 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 
 	@Override
 	public String translateCommandSignature(String string) {
-		String translation = casParser.getTranslatedCASCommand(string);
-		if (translation != null) {
-			translation = translation.replaceAll("arg0", "arg0" + counter);
-			translation = translation.replaceAll("arg1", "arg1" + counter);
-			counter++;
+		CommandTemplate template = getCommandTemplate(string);
+		if (template == null) {
+			return null;
+		}
+		return template.toString(counter++);
+	}
+
+	/**
+	 * @param signature
+	 *            command name and number of arguments, e.g. Expand.1
+	 * @return parsed translation, null if there is none
+	 */
+	private synchronized CommandTemplate getCommandTemplate(
+			String signature) {
+		CommandTemplate template = commandTemplates.get(signature);
+		if (template == null && !commandTemplates.containsKey(signature)) {
+			String translation = casParser.getTranslatedCASCommand(signature);
+			template = translation == null ? null
+					: CommandTemplate.parse(translation);
+			commandTemplates.put(signature, template);
+		}
+		return template;
+	}
+
+	/**
+	 * @param arg
+	 *            serialized argument
+	 * @return whether the argument has no brackets or commas
+	 */
+	private static boolean isSimpleArgument(String arg) {
+		for (int i = 0; i < arg.length(); i++) {
+			char ch = arg.charAt(i);
+			if (ch == '(' || ch == ')' || ch == ',') {
+				return false;
+			}
 		}
-		return translation;
+		return true;
 	}
 
 	private static boolean isLinear(ExpressionValue listElement,
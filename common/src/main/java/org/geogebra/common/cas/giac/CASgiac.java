@@ -10,6 +10,7 @@ import java.util.Map.Entry;
 import java.util.Random;
 
 import org.geogebra.common.cas.CASparser;
+import org.geogebra.common.cas.CommandTemplate;
 import org.geogebra.common.kernel.AsynchronousCommand;
 import org.geogebra.common.kernel.CASException;
 import org.geogebra.common.kernel.CASGenericInterface;
@@ -43,6 +44,8 @@ import org.geogebra.common.main.settings.CASSettings;
 import org.geogebra.common.plugin.Operation;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.debug.Log;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 import com.google.gwt.regexp.shared.MatchResult;
 import com.google.gwt.regexp.shared.RegExp;
@@ -293,6 +296,13 @@ public abstract class CASgiac implements CASGenericInterface {
 		 */
 		PRIM_POLY("primpoly", "primpoly(x):=begin local pps,ii; if (x==[0]) return [0]; pps:=[]; for ii from 0 to size(x)-1 do pps[ii]:=primpart(x[ii],lvar(x[ii])); od return pps end"),
 
+		/**
+		 * Convert an equation into a polynomial with integer coefficients:
+		 * lhs-rhs, multiplied by the lcm of the denominators of its
+		 * coefficients. Used by the prover for objects computed numerically.
+		 */
+		INTEGER_POLY("integerPoly", "integerPoly(ee):=begin local pp; pp:=lhs(ee)-rhs(ee); return expand(pp*lcm(denom(coeff(pp)))); end"),
+
 		/** version of inString() but returns "undef" not "-1" when not found */
 		GGB_IN_STRING("ggbinString",
 				"ggbinString(x,y):=begin local ret; ret := inString(x,y); if (ret == -1) return undef; else return ret; end"),
@@ -487,6 +497,10 @@ public abstract class CASgiac implements CASGenericInterface {
 	 * Timeout for CAS in milliseconds. This can be changed in the CAS options.
 	 */
 	public long timeoutMillis = 5000;
+
+	/** Giac results of the current batch by input */
+	private HashMap<String, String> batchResults;
+
 	final private static String EVALFA = "evalfa(";
 	private StringBuilder expSB = new StringBuilder(EVALFA);
 
@@ -654,8 +668,125 @@ public abstract class CASgiac implements CASGenericInterface {
 		if (result == null || result.isEmpty()) {
 			return null;
 		}
-		return toGeoGebraString(result, arbconst, tpl, kernel);
+		return parseResult(result, cmd, arbconst, tpl, kernel);
+
+	}
+
+	private String parseResult(String result, Command cmd,
+			MyArbitraryConstant arbconst, StringTemplate tpl, Kernel kernel) {
+		PerformanceMetrics metrics = kernel.getMetrics();
+		double start = metrics.startTimer();
+		String parsed = toGeoGebraString(result, arbconst, tpl, kernel);
+		metrics.recordTime(MetricType.CAS_PARSE, getMetricSource(cmd), start);
+		return parsed;
+	}
+
+	/**
+	 * Evaluates the inputs of several independent objects in one batch (see
+	 * {@link #evaluateCAS(String[])}) and keeps the Giac results until
+	 * {@link #endBatch()}. When one of these inputs is evaluated afterwards,
+	 * it takes its result from the batch instead of waiting for Giac again.
+	 * 
+	 * @param inputs
+	 *            inputs in GeoGebraCAS syntax
+	 * @param kernel
+	 *            kernel
+	 */
+	final public synchronized void startBatch(ValidExpression[] inputs,
+			Kernel kernel) {
+		String[] giacInputs = new String[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			Command cmd = inputs[i].getTopLevelCommand();
+			if (cmd != null && "Delete".equals(cmd.getName())) {
+				continue;
+			}
+			giacInputs[i] = casParser.translateToCAS(inputs[i],
+					StringTemplate.giacTemplate, this);
+			casParser.setNrOfVars(0);
+		}
+
+		PerformanceMetrics metrics = kernel.getMetrics();
+		double start = metrics.startTimer();
+		String[] results = evaluateCAS(giacInputs);
+		metrics.recordTime(MetricType.CAS_EVALUATE, "Batch", start);
+
+		batchResults = new HashMap<>();
+		for (int i = 0; i < inputs.length; i++) {
+			if (results[i] != null) {
+				batchResults.put(CommandTemplate.withoutSuffixes(giacInputs[i]),
+						results[i]);
+			}
+		}
+	}
 
+	/**
+	 * Drops the results of {@link #startBatch(ValidExpression[], Kernel)}
+	 * that were not used.
+	 */
+	final public synchronized void endBatch() {
+		batchResults = null;
+	}
+
+	private String evaluateInBatch(String giacInput) {
+		if (batchResults != null) {
+			String key = CommandTemplate.withoutSuffixes(giacInput);
+			String result = batchResults.remove(key);
+			if (result != null) {
+				return result;
+			}
+		}
+		return evaluateCAS(giacInput);
+	}
+
+	/**
+	 * Takes the result from the shared cache of the kernel if possible, the
+	 * Giac input is the key as it includes everything Giac is given.
+	 */
+	private String evaluateCached(String giacInput, Kernel kernel) {
+		// results of random commands must not be reused
+		boolean cacheable = !giacInput.contains("rand");
+		if (cacheable) {
+			String cached = kernel.getSharedCasResult(giacInput);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		String result = evaluateInBatch(giacInput);
+		if (cacheable) {
+			kernel.putSharedCasResult(giacInput, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluates independent Giac commands. Subclasses may send them to Giac
+	 * in a single call; this implementation evaluates one by one.
+	 * 
+	 * @param exps
+	 *            Giac commands, null entries are skipped
+	 * @return results, null for skipped and failed commands
+	 */
+	public String[] evaluateCAS(String[] exps) {
+		String[] results = new String[exps.length];
+		for (int i = 0; i < exps.length; i++) {
+			if (exps[i] != null) {
+				try {
+					results[i] = evaluateCAS(exps[i]);
+				} catch (CASException e) {
+					Log.debug("Batch item " + i + " failed: " + e.getMessage());
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @param cmd
+	 *            top level command
+	 * @return source name for performance metrics
+	 */
+	protected static String getMetricSource(Command cmd) {
+		return cmd == null ? "Evaluate" : cmd.getName();
 	}
 
 	private static ExpressionValue subst(ExpressionValue substArg,
@@ -712,12 +843,19 @@ public abstract class CASgiac implements CASGenericInterface {
 			return "true";
 		}
 		
+		PerformanceMetrics metrics = kernel.getMetrics();
+		String source = getMetricSource(cmd);
+		double start = metrics.startTimer();
+
 		// convert parsed input to Giac string
 		String giacInput = casParser.translateToCAS(casInput,
 				StringTemplate.giacTemplate, this);
+		metrics.recordTime(MetricType.CAS_TRANSLATE, source, start);
 
 		// evaluate in Giac
-		String plainResult = evaluateCAS(giacInput);
+		start = metrics.startTimer();
+		String plainResult = evaluateCached(giacInput, kernel);
+		metrics.recordTime(MetricType.CAS_EVALUATE, source, start);
 
 		// try again for undefined result
 		// eg Numeric(0.99999874^(16500))
@@ -728,15 +866,28 @@ public abstract class CASgiac implements CASGenericInterface {
 					StringTemplate.giacNumeric13, this);
 
 			// evaluate in Giac
-			plainResult = evaluateCAS(giacInput);
+			plainResult = evaluateCached(giacInput, kernel);
 
 		}
 
 		// get initial nr of vars
 		int nrOfVars = casParser.getNrOfVars();
+		// reset nrOfVars
+		casParser.setNrOfVars(0);
+		return selectSolutions(plainResult, nrOfVars);
+	}
+
+	/**
+	 * @param plainResult
+	 *            Giac result of Solve
+	 * @param nrOfVars
+	 *            number of variables the user asked for, 0 for all
+	 * @return result with solutions only for the asked variables
+	 */
+	private static String selectSolutions(String plainResult, int nrOfVars) {
 		StringBuilder newPlainResult = new StringBuilder();
 		// case we need to process the result
-		if (nrOfVars > 0) {
+		if (nrOfVars > 0 && plainResult != null) {
 			// get array of potential results
 			String[] partsOfResult = plainResult.split("},");
 			for (int i = 0; i < partsOfResult.length; i++) {
@@ -755,8 +906,6 @@ public abstract class CASgiac implements CASGenericInterface {
 			}
 			newPlainResult.setLength(newPlainResult.length() - 1);
 			newPlainResult.append("}");
-			// reset nrOfVars
-			casParser.setNrOfVars(0);
 			return newPlainResult.toString();
 		}
 		return plainResult;
@@ -1,6 +1,7 @@
 package org.geogebra.common.cas.giac;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.geogebra.common.cas.CASparser;
 import org.geogebra.common.cas.error.TimeoutException;
@@ -58,10 +59,24 @@ public abstract class CASgiacB extends CASgiac {
      * @return String from Giac
      */
     final String evalRaw(String exp0, long timeoutMilliseconds) {
+		return evalRaw(exp0, getCustomFunctions(exp0), timeoutMilliseconds);
+	}
+
+	/**
+	 * @param exp0
+	 *            String to send to Giac
+	 * @param customFunctions
+	 *            definitions of custom functions to load after reset
+	 * @param timeoutMilliseconds
+	 *            timeout in milliseconds
+	 * @return String from Giac
+	 */
+	final String evalRaw(String exp0, List<String> customFunctions,
+			long timeoutMilliseconds) {
         CASGiacBinding binding = createBinding();
         // #5439
         // reset Giac before each call
-        init(exp0, timeoutMilliseconds);
+		init(customFunctions, timeoutMilliseconds);
 
         String exp = wrapInevalfa(exp0);
 
@@ -91,11 +106,14 @@ public abstract class CASgiacB extends CASgiac {
 
 	}
 
-	private void init(String exp, long timeoutMilliseconds) {
-        CASGiacBinding binding = createBinding();
-        Gen g = binding.createGen(initString, context);
-        g.eval(1, context);
-
+	/**
+	 * @param exp
+	 *            Giac commands
+	 * @return definitions of the custom functions the commands need, in
+	 *         loading order
+	 */
+	private static ArrayList<String> getCustomFunctions(String exp) {
+		ArrayList<String> definitions = new ArrayList<>();
         CustomFunctions[] init = CustomFunctions.values();
 		CustomFunctions.setDependencies();
 
@@ -111,20 +129,31 @@ public abstract class CASgiacB extends CASgiac {
             if (function.functionName == null
 					|| (foundInInput = (exp
 							.indexOf(function.functionName) > -1))) {
-                g = binding.createGen(function.definitionString, context);
-                g.eval(1, context);
+				definitions.add(function.definitionString);
 				/* Some commands may require additional commands to load. */
 				if (foundInInput) {
 					ArrayList<CustomFunctions> dependencies = CustomFunctions
 							.prereqs(function);
 					for (CustomFunctions dep : dependencies) {
 						Log.debug(function + " implicitly loads " + dep);
-						g = binding.createGen(dep.definitionString, context);
-						g.eval(1, context);
+						definitions.add(dep.definitionString);
 					}
 				}
             }
         }
+		return definitions;
+	}
+
+	private void init(List<String> customFunctions,
+			long timeoutMilliseconds) {
+        CASGiacBinding binding = createBinding();
+        Gen g = binding.createGen(initString, context);
+        g.eval(1, context);
+
+		for (String definition : customFunctions) {
+			g = binding.createGen(definition, context);
+			g.eval(1, context);
+		}
 
         g = binding.createGen("\"timeout " + (timeoutMilliseconds / 1000) + "\"", context);
         g.eval(1, context);
@@ -151,6 +180,53 @@ public abstract class CASgiacB extends CASgiac {
         return null;
     }
 
+	/**
+	 * Evaluates all commands, resetting Giac before each of them (#5439).
+	 * The custom functions needed by the batch are selected only once.
+	 */
+	@Override
+	public String[] evaluateCAS(String[] exps) {
+		String[] results = new String[exps.length];
+		final ArrayList<String> customFunctions = getCustomFunctions(
+				join(exps));
+		for (int i = 0; i < exps.length; i++) {
+			if (exps[i] == null) {
+				continue;
+			}
+			final String exp = casParser.replaceIndices(exps[i], false);
+			try {
+				threadResult = null;
+				callEvaluateFunction(new Runnable() {
+					@Override
+					public void run() {
+						threadResult = evalRaw(exp, customFunctions,
+								timeoutMillis);
+					}
+				});
+				String ret = postProcess(threadResult);
+				if (ret.contains("user interruption")) {
+					Log.debug("Standard timeout from Giac");
+					continue;
+				}
+				results[i] = ret;
+			} catch (Throwable e) {
+				Log.debug("Batch item " + i + " failed: " + e.getMessage());
+			}
+		}
+		return results;
+	}
+
+	private static String join(String[] exps) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < exps.length; i++) {
+			if (exps[i] != null) {
+				sb.append(exps[i]);
+				sb.append(';');
+			}
+		}
+		return sb.toString();
+	}
+
     @Override
     protected String evaluate(final String exp, final long timeoutMillis0)
             throws Throwable {
@@ -219,6 +219,17 @@ public abstract class Drawable extends DrawableND {
 		return null;
 	}
 
+	/**
+	 * Screen area outside of which this Drawable is neither painted nor hit
+	 * (labels, strokes and hit threshold are added by the spatial index of the
+	 * view).
+	 * 
+	 * @return null when the area is unknown or infinite
+	 */
+	protected GRectangle getHitBounds() {
+		return null;
+	}
+
 	/**
 	 * Draws label of referenced geo
 	 * 
@@ -0,0 +1,388 @@
+package org.geogebra.common.euclidian;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.geogebra.common.awt.GRectangle;
+import org.geogebra.common.awt.GRectangle2D;
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Uniform grid of screen bounds of drawables in a {@link DrawableList}. Used
+ * for hit testing and culling so that only drawables close to the pointer or
+ * to the visible area need to be checked. Drawables without known bounds (see
+ * {@link Drawable#getHitBounds()}) are returned by every query.
+ *
+ * Bounds are refreshed when drawables are painted and, between repaints, for
+ * drawables that were invalidated by the view.
+ */
+class DrawableIndex {
+
+	/** size of grid cell in pixels */
+	static final int CELL_SIZE = 64;
+	/** added to bounds for strokes, decorations and hit threshold */
+	static final int MARGIN = 16;
+	/** drawables covering more cells are checked by every query */
+	private static final int MAX_CELLS = 256;
+	/** larger screen coordinates are clamped */
+	private static final int MAX_COORD = 1 << 20;
+
+	private final List<Drawable> list;
+	private final HashMap<Drawable, Entry> entries = new HashMap<>();
+	private final HashMap<Integer, ArrayList<Entry>> cells = new HashMap<>();
+	private final HashSet<Entry> unbounded = new HashSet<>();
+	private final ArrayList<Entry> dirty = new ArrayList<>();
+	private boolean allDirty;
+	/** incremented when all bounds are outdated */
+	private int generation;
+	private boolean orderValid;
+	private int stamp;
+
+	private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry a, Entry b) {
+			return a.order - b.order;
+		}
+	};
+
+	/**
+	 * Index entry of one drawable.
+	 */
+	private static class Entry {
+		final Drawable drawable;
+		/** position in the list */
+		int order;
+		boolean dirty;
+		/** generation of the index when bounds were updated */
+		int generation = -1;
+		/** whether the entry is in the grid or the unbounded set */
+		boolean linked;
+		boolean bounded;
+		boolean large;
+		int minX;
+		int minY;
+		int maxX;
+		int maxY;
+		int minCol;
+		int minRow;
+		int maxCol;
+		int maxRow;
+		int stamp;
+
+		Entry(Drawable drawable) {
+			this.drawable = drawable;
+		}
+	}
+
+	/**
+	 * @param list
+	 *            indexed list
+	 */
+	DrawableIndex(List<Drawable> list) {
+		this.list = list;
+	}
+
+	/**
+	 * @param d
+	 *            added drawable
+	 */
+	void add(Drawable d) {
+		Entry entry = new Entry(d);
+		entries.put(d, entry);
+		markDirty(entry);
+		orderValid = false;
+	}
+
+	/**
+	 * @param d
+	 *            removed drawable
+	 */
+	void remove(Drawable d) {
+		Entry entry = entries.remove(d);
+		if (entry != null) {
+			unlink(entry);
+			entry.dirty = false;
+			orderValid = false;
+		}
+	}
+
+	/**
+	 * Removes all drawables.
+	 */
+	void clear() {
+		entries.clear();
+		cells.clear();
+		unbounded.clear();
+		dirty.clear();
+		allDirty = false;
+		orderValid = false;
+	}
+
+	/**
+	 * Marks bounds of a drawable as outdated.
+	 *
+	 * @param d
+	 *            drawable
+	 */
+	void invalidate(Drawable d) {
+		Entry entry = entries.get(d);
+		if (entry != null) {
+			markDirty(entry);
+		}
+	}
+
+	/**
+	 * Marks bounds of all drawables as outdated.
+	 */
+	void invalidateAll() {
+		allDirty = true;
+		generation++;
+	}
+
+	/**
+	 * Called when order of the list changed.
+	 */
+	void invalidateOrder() {
+		orderValid = false;
+	}
+
+	private void markDirty(Entry entry) {
+		if (!entry.dirty) {
+			entry.dirty = true;
+			dirty.add(entry);
+		}
+	}
+
+	/**
+	 * Updates bounds of a drawable from its current state.
+	 *
+	 * @param d
+	 *            drawable
+	 */
+	void update(Drawable d) {
+		Entry entry = entries.get(d);
+		if (entry != null) {
+			update(entry);
+		}
+	}
+
+	/**
+	 * @param d
+	 *            drawable
+	 * @param area
+	 *            screen area
+	 * @return whether the drawable is known to be outside of the area
+	 */
+	boolean isOutside(Drawable d, GRectangle2D area) {
+		Entry entry = entries.get(d);
+		return entry != null && !entry.dirty
+				&& entry.generation == generation && entry.bounded
+				&& (entry.maxX < area.getMinX() || entry.minX > area.getMaxX()
+						|| entry.maxY < area.getMinY()
+						|| entry.minY > area.getMaxY());
+	}
+
+	/**
+	 * Finds drawables whose bounds intersect given area.
+	 *
+	 * @param minX
+	 *            left
+	 * @param minY
+	 *            top
+	 * @param maxX
+	 *            right
+	 * @param maxY
+	 *            bottom
+	 * @return drawables that may intersect the area, in list order
+	 */
+	ArrayList<Drawable> query(double minX, double minY, double maxX,
+			double maxY) {
+		flush();
+		if (!orderValid) {
+			for (int i = 0; i < list.size(); i++) {
+				Entry entry = entries.get(list.get(i));
+				if (entry != null) {
+					entry.order = i;
+				}
+			}
+			orderValid = true;
+		}
+		stamp++;
+		ArrayList<Entry> found = new ArrayList<>();
+		for (Entry entry : unbounded) {
+			if (!entry.bounded || intersects(entry, minX, minY, maxX, maxY)) {
+				entry.stamp = stamp;
+				found.add(entry);
+			}
+		}
+		int minCol = toCell(minX);
+		int maxCol = toCell(maxX);
+		int minRow = toCell(minY);
+		int maxRow = toCell(maxY);
+		for (int col = minCol; col <= maxCol; col++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				ArrayList<Entry> cell = cells.get(key(col, row));
+				if (cell == null) {
+					continue;
+				}
+				for (Entry entry : cell) {
+					if (entry.stamp != stamp
+							&& intersects(entry, minX, minY, maxX, maxY)) {
+						entry.stamp = stamp;
+						found.add(entry);
+					}
+				}
+			}
+		}
+		Collections.sort(found, ORDER);
+		ArrayList<Drawable> result = new ArrayList<>(found.size());
+		for (Entry entry : found) {
+			result.add(entry.drawable);
+		}
+		return result;
+	}
+
+	private static boolean intersects(Entry entry, double minX, double minY,
+			double maxX, double maxY) {
+		return entry.maxX >= minX && entry.minX <= maxX && entry.maxY >= minY
+				&& entry.minY <= maxY;
+	}
+
+	private void flush() {
+		if (allDirty) {
+			allDirty = false;
+			for (Entry entry : entries.values()) {
+				if (entry.dirty || entry.generation != generation) {
+					update(entry);
+				}
+			}
+		} else {
+			for (Entry entry : dirty) {
+				if (entry.dirty) {
+					update(entry);
+				}
+			}
+		}
+		dirty.clear();
+	}
+
+	private void update(Entry entry) {
+		entry.dirty = false;
+		entry.generation = generation;
+		Drawable d = entry.drawable;
+		GRectangle bounds = d.getHitBounds();
+		if (bounds == null) {
+			if (!entry.linked || entry.bounded || entry.large) {
+				unlink(entry);
+				entry.bounded = false;
+				entry.large = false;
+				link(entry);
+			}
+			return;
+		}
+		double minX = bounds.getMinX();
+		double minY = bounds.getMinY();
+		double maxX = bounds.getMaxX();
+		double maxY = bounds.getMaxY();
+		// label position changes on update, size on paint
+		GRectangle label = d.labelRectangle;
+		if (label != null && label.getWidth() > 0) {
+			minX = Math.min(minX, label.getMinX());
+			minY = Math.min(minY, label.getMinY());
+			maxX = Math.max(maxX, label.getMaxX());
+			maxY = Math.max(maxY, label.getMaxY());
+			if (d.labelDesc != null) {
+				minX = Math.min(minX, d.xLabel);
+				minY = Math.min(minY, d.yLabel - label.getHeight());
+				maxX = Math.max(maxX, d.xLabel + label.getWidth());
+				maxY = Math.max(maxY, d.yLabel + label.getHeight());
+			}
+		}
+		GeoElement geo = d.getGeoElement();
+		int margin = MARGIN + (geo == null ? 0 : 2 * geo.getLineThickness());
+		entry.minX = clamp(minX) - margin;
+		entry.minY = clamp(minY) - margin;
+		entry.maxX = clamp(maxX) + margin;
+		entry.maxY = clamp(maxY) + margin;
+		int minCol = toCell(entry.minX);
+		int maxCol = toCell(entry.maxX);
+		int minRow = toCell(entry.minY);
+		int maxRow = toCell(entry.maxY);
+		boolean large = (maxCol - minCol + 1)
+				* (maxRow - minRow + 1) > MAX_CELLS;
+		if (entry.linked && entry.bounded && entry.large == large
+				&& (large || (entry.minCol == minCol && entry.maxCol == maxCol
+						&& entry.minRow == minRow && entry.maxRow == maxRow))) {
+			return;
+		}
+		unlink(entry);
+		entry.bounded = true;
+		entry.large = large;
+		entry.minCol = minCol;
+		entry.maxCol = maxCol;
+		entry.minRow = minRow;
+		entry.maxRow = maxRow;
+		link(entry);
+	}
+
+	private void link(Entry entry) {
+		entry.linked = true;
+		if (!entry.bounded || entry.large) {
+			unbounded.add(entry);
+			return;
+		}
+		for (int col = entry.minCol; col <= entry.maxCol; col++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Integer key = key(col, row);
+				ArrayList<Entry> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<>(4);
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+	}
+
+	private void unlink(Entry entry) {
+		if (!entry.linked) {
+			return;
+		}
+		entry.linked = false;
+		if (!entry.bounded || entry.large) {
+			unbounded.remove(entry);
+			return;
+		}
+		for (int col = entry.minCol; col <= entry.maxCol; col++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Integer key = key(col, row);
+				ArrayList<Entry> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	private static int clamp(double coord) {
+		if (Double.isNaN(coord)) {
+			return 0;
+		}
+		return (int) Math.max(-MAX_COORD, Math.min(MAX_COORD, coord));
+	}
+
+	private static int toCell(double coord) {
+		return (int) Math.floor(clamp(coord) / (double) CELL_SIZE);
+	}
+
+	private static Integer key(int col, int row) {
+		return (col << 16) | (row & 0xFFFF);
+	}
+}
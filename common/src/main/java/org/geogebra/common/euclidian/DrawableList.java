@@ -15,18 +15,24 @@ package org.geogebra.common.euclidian;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 
 import org.geogebra.common.awt.GGraphics2D;
+import org.geogebra.common.awt.GRectangle2D;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoPriorityComparator;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 /**
- * List to store Drawable objects for fast drawing.
+ * List to store Drawable objects for fast drawing. Keeps a spatial index of
+ * the drawables for hit testing and culling.
  */
 public class DrawableList extends ArrayList<Drawable> {
 
 	private Comparator<Drawable> comparator;
+	private final DrawableIndex index = new DrawableIndex(this);
 
 	/**
 	 * Create a DrawableList with the given GeoPriorityComparator
@@ -55,6 +61,27 @@ public class DrawableList extends ArrayList<Drawable> {
 		return true;
 	}
 
+	@Override
+	public final void add(int i, Drawable d) {
+		super.add(i, d);
+		index.add(d);
+	}
+
+	@Override
+	public final boolean remove(Object d) {
+		if (super.remove(d)) {
+			index.remove((Drawable) d);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public final void clear() {
+		super.clear();
+		index.clear();
+	}
+
 	/**
 	 * Draws all drawables in the list.
 	 * 
@@ -62,13 +89,42 @@ public class DrawableList extends ArrayList<Drawable> {
 	 *            Graphic to be used
 	 */
 	public final void drawAll(GGraphics2D g2) {
+		drawAll(g2, null);
+	}
+
+	/**
+	 * Draws drawables in the list, skipping those that are known to be outside
+	 * of the visible area.
+	 * 
+	 * @param g2
+	 *            Graphic to be used
+	 * @param visibleArea
+	 *            visible area in screen coordinates, null to draw all
+	 */
+	public final void drawAll(GGraphics2D g2, GRectangle2D visibleArea) {
 		for (Drawable d : this) {
 			GeoElement geo = d.getGeoElement();
 			if (geo.isDefined()
 					&& !(geo.isGeoList() && ((GeoList) geo).drawAsComboBox())
 					&& !geo.isGeoInputBox() && !geo.isMask()) {
-				d.updateIfNeeded();
+				PerformanceMetrics metrics = d.getView().getKernel()
+						.getMetrics();
+				if (d.needsUpdate()) {
+					double start = metrics.startTimer();
+					d.updateIfNeeded();
+					metrics.recordTime(MetricType.DRAWABLE_UPDATE, d, start);
+				}
+				if (visibleArea != null) {
+					index.update(d);
+					if (index.isOutside(d, visibleArea)) {
+						continue;
+					}
+				}
+				double start = metrics.startTimer();
 				d.draw(g2);
+				metrics.recordTime(MetricType.DRAWABLE_DRAW, d, start);
+				// label size is only known after painting
+				index.update(d);
 			}
 		}
 	}
@@ -78,11 +134,63 @@ public class DrawableList extends ArrayList<Drawable> {
 	 */
 	public final void updateAll() {
 		for (Drawable d : this) {
+			PerformanceMetrics metrics = d.getView().getKernel().getMetrics();
+			double start = metrics.startTimer();
 			d.update();
+			metrics.recordTime(MetricType.DRAWABLE_UPDATE, d, start);
 		}
+		index.invalidateAll();
 	}
 
+	/**
+	 * Sorts the drawables by drawing priority.
+	 */
 	public void sort() {
 		Collections.sort(this, comparator);
+		index.invalidateOrder();
+	}
+
+	/**
+	 * Marks screen bounds of a drawable as outdated, needed after it was
+	 * updated outside of {@link #drawAll(GGraphics2D)}.
+	 * 
+	 * @param d
+	 *            drawable
+	 */
+	public void invalidate(Drawable d) {
+		index.invalidate(d);
+	}
+
+	/**
+	 * Marks screen bounds of all drawables as outdated, e.g. after the view
+	 * changed.
+	 */
+	public void invalidateAll() {
+		index.invalidateAll();
+	}
+
+	/**
+	 * @param x
+	 *            x-coord in screen coordinates
+	 * @param y
+	 *            y-coord in screen coordinates
+	 * @param distance
+	 *            distance in pixels
+	 * @return drawables that may be hit within given distance of the point, in
+	 *         drawing order
+	 */
+	public List<Drawable> getDrawablesNear(int x, int y, int distance) {
+		return index.query(x - distance, y - distance, x + distance,
+				y + distance);
+	}
+
+	/**
+	 * @param rect
+	 *            rectangle in screen coordinates
+	 * @return drawables that may intersect the rectangle, in drawing order
+	 */
+	public List<Drawable> getDrawablesIn(GRectangle2D rect) {
+		return index.query(rect.getMinX(), rect.getMinY(), rect.getMaxX(),
+				rect.getMaxY());
 	}
 }
@@ -52,6 +52,7 @@ import org.geogebra.common.kernel.algos.AlgoAngle;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.arithmetic.Function;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
+import org.geogebra.common.kernel.batch.WrappableView;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoCurveCartesian;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -92,6 +93,7 @@ import org.geogebra.common.util.NumberFormatAdapter;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.common.util.debug.crashlytics.CrashlyticsLogger;
+import org.geogebra.common.util.profiler.MetricType;
 
 import com.himamis.retex.editor.share.util.Unicode;
 
@@ -99,7 +101,7 @@ import com.himamis.retex.editor.share.util.Unicode;
  * View containing graphic representation of construction elements
  */
 public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
-		SetLabels {
+		SetLabels, WrappableView {
 
 	private boolean isCrashlyticsLoggingEnabled;
 
@@ -1728,6 +1730,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		for (Drawable d : bgImageList) {
 			d.updateForView();
 		}
+		allDrawableList.invalidateAll();
 		isCrashlyticsLoggingEnabled = false;
 
 		GeoElement focused = app.getSelectionManager().getFocusedGroupElement();
@@ -1889,6 +1892,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		Object d = drawableMap.get(geo);
 		if (d != null) {
 			((Drawable) d).update();
+			allDrawableList.invalidate((Drawable) d);
 			repaint();
 		}
 	}
@@ -1909,7 +1913,11 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			} else if (!needsSynchUpdate(geo, d.isTracing())) {
 				d.setNeedsUpdate(true);
 			} else {
+				double start = kernel.getMetrics().startTimer();
 				d.update();
+				kernel.getMetrics().recordTime(MetricType.DRAWABLE_UPDATE, d,
+						start);
+				allDrawableList.invalidate((Drawable) d);
 			}
 			if (geo == app.getSelectionManager().getFocusedGroupElement()
 					&& focusedGroupGeoBoundingBox != null) {
@@ -3449,8 +3457,10 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 *            graphics
 	 */
 	final private void drawGeometricObjects(GGraphics2D g2) {
-		// only draw drawables we need
-		allDrawableList.drawAll(g2);
+		// only draw drawables we need; exports may cover more than the view
+		allDrawableList.drawAll(g2, app.isExporting() ? null
+				: AwtFactory.getPrototype().newRectangle(getWidth(),
+						getHeight()));
 
 		if (getEuclidianController().isMultiSelection()) {
 			getEuclidianController()
@@ -4105,6 +4115,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			if (d.geo.isMask()) {
 				d.updateIfNeeded();
 				d.draw(g2);
+				allDrawableList.invalidate(d);
 			}
 		}
 	}
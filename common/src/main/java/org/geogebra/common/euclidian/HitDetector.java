@@ -39,7 +39,9 @@ public class HitDetector {
 		}
 		boolean hitMask = false;
 
-		for (Drawable d : view.getAllDrawableList()) {
+		// points are hit within twice the threshold in preview
+		for (Drawable d : view.getAllDrawableList().getDrawablesNear(p.x, p.y,
+				2 * hitThreshold)) {
 			if (d.isEuclidianVisible()) {
 				if (d.hit(p.x, p.y, hitThreshold)) {
 					GeoElement geo = d.getGeoElement();
@@ -167,7 +169,7 @@ public class HitDetector {
 			return;
 		}
 
-		for (Drawable d : view.getAllDrawableList()) {
+		for (Drawable d : view.getAllDrawableList().getDrawablesIn(rect)) {
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && geo.isSelectionAllowed(view)
 					&& filter.check(geo) && !hits.contains(geo)
@@ -198,7 +200,7 @@ public class HitDetector {
 			return;
 		}
 
-		for (Drawable d : view.getAllDrawableList()) {
+		for (Drawable d : view.getAllDrawableList().getDrawablesIn(rect)) {
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && d.isInside(rect)) {
 				hits.add(geo);
@@ -39,6 +39,7 @@ public final class DrawList extends Drawable implements RemoveNeeded {
 	private DrawListArray drawables;
 	/** whether this is visible */
 	boolean isVisible;
+	private int lastUpdateStamp = -1;
 
 	/**
 	 * Creates new drawable list
@@ -78,6 +79,9 @@ public final class DrawList extends Drawable implements RemoveNeeded {
 		int size = geoList.size();
 		drawables.ensureCapacity(size);
 		int oldDrawableSize = drawables.size();
+		// view or style changes don't count as updates of the list
+		int stamp = geoList.getUpdateStamp();
+		boolean allChanged = stamp == lastUpdateStamp;
 
 		int drawablePos = 0;
 		for (int i = 0; i < size; i++) {
@@ -86,6 +90,15 @@ public final class DrawList extends Drawable implements RemoveNeeded {
 				continue;
 			}
 
+			// keep drawables of elements the list didn't change
+			if (!allChanged && drawablePos < oldDrawableSize
+					&& drawables.get(drawablePos)
+							.getGeoElement() == listElement
+					&& !geoList.isElementChangedSince(i, lastUpdateStamp)) {
+				drawablePos++;
+				continue;
+			}
+
 			// add drawable for listElement
 			// if (addToDrawableList(listElement, drawablePos,
 			// oldDrawableSize))
@@ -101,6 +114,7 @@ public final class DrawList extends Drawable implements RemoveNeeded {
 			view.remove(drawables.get(i).getGeoElement());
 			drawables.remove(i);
 		}
+		lastUpdateStamp = stamp;
 
 		// draw trace
 		if (geoList.getTrace()) {
@@ -118,6 +132,12 @@ public final class DrawList extends Drawable implements RemoveNeeded {
 
 	}
 
+	@Override
+	public void updateForView() {
+		lastUpdateStamp = -1;
+		update();
+	}
+
 	/**
 	 * This method is necessary, for example when we set another construction
 	 * step, and the sub-drawables of this list should be removed as well
@@ -24,6 +24,7 @@ import org.geogebra.common.awt.GShape;
 import org.geogebra.common.euclidian.Drawable;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurveSampleCache;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.StringTemplate;
@@ -69,6 +70,7 @@ public class DrawParametricCurve extends Drawable {
 	private ExpressionNode dataExpression;
 	private FunctionVariable invFV;
 	private ExpressionNode invert;
+	private final CurveSampleCache sampleCache = new CurveSampleCache();
 
 	private static final Inspecting containsLog = new Inspecting() {
 		@Override
@@ -101,6 +103,19 @@ public class DrawParametricCurve extends Drawable {
 
 	@Override
 	final public void update() {
+		sampleCache.invalidate();
+		updateCurve();
+	}
+
+	/**
+	 * Only the view changed, so samples of the previous plot are still valid.
+	 */
+	@Override
+	final public void updateForView() {
+		updateCurve();
+	}
+
+	private void updateCurve() {
 		isVisible = geo.isEuclidianVisible();
 		if (!isVisible) {
 			return;
@@ -165,7 +180,7 @@ public class DrawParametricCurve extends Drawable {
 		} else {
 			labelPoint = CurvePlotter.plotCurve(toPlot, min, max, view, gp,
 					labelVisible, fillCurve ? CurvePlotter.Gap.CORNER
-							: CurvePlotter.Gap.MOVE_TO);
+							: CurvePlotter.Gap.MOVE_TO, sampleCache);
 		}
 
 		// gp on screen?
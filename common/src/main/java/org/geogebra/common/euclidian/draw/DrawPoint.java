@@ -562,6 +562,11 @@ public final class DrawPoint extends SetDrawable {
 				2 * selRadius, 2 * selRadius);
 	}
 
+	@Override
+	protected GRectangle getHitBounds() {
+		return getBounds();
+	}
+
 	@Override
 	public GeoElement getGeoElement() {
 		return geo;
@@ -380,6 +380,12 @@ public class DrawPolygon extends Drawable implements Previewable {
 		return gp.getBounds();
 	}
 
+	@Override
+	protected GRectangle getHitBounds() {
+		// inverse fill is painted and hit outside of the polygon
+		return geo.isInverseFill() ? null : getBounds();
+	}
+
 	@Override
 	public GArea getShape() {
 		if (super.getShape() != null) {
@@ -592,6 +592,11 @@ public class DrawSegment extends SetDrawable implements Previewable {
 		return AwtFactory.getPrototype().newRectangle(line.getBounds());
 	}
 
+	@Override
+	protected GRectangle getHitBounds() {
+		return getBounds();
+	}
+
 	/**
 	 * set visible
 	 */
@@ -8,6 +8,8 @@ import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.arithmetic.Function;
+import org.geogebra.common.kernel.geos.GeoFunction;
 import org.geogebra.common.kernel.kernelND.CurveEvaluable;
 import org.geogebra.common.kernel.matrix.CoordSys;
 import org.geogebra.common.util.DoubleUtil;
@@ -46,6 +48,11 @@ public class CurvePlotter {
 
 	private static final double MAX_JUMP = 5;
 
+	// a cached curve is plotted in at least this many chunks aligned to a
+	// power of two grid, so that pans hit the same parameter values again
+	private static final int MIN_CHUNKS = 8;
+	private static final int MIN_CHUNK_BISECTIONS = 10;
+
 	/** ways to overcome discontinuity */
 	public enum Gap {
 		/** draw a line */
@@ -88,12 +95,74 @@ public class CurvePlotter {
 			double t2, EuclidianView view, PathPlotter gp, boolean calcLabelPos,
 			Gap moveToAllowed) {
 
+		return plotCurve(curve, t1, t2, view, gp, calcLabelPos, moveToAllowed,
+				null);
+	}
+
+	/**
+	 * Draws a parametric curve (x(t), y(t)) for t in [t1, t2], reusing
+	 * samples of previous plots of the same curve. For increasing parameter
+	 * ranges, the range is plotted in chunks whose borders lie on a power of
+	 * two grid, so the parameter values evaluated only depend on the view
+	 * scale and not on the view position.
+	 * 
+	 * @param t1
+	 *            min value of parameter
+	 * @param t2
+	 *            max value of parameter
+	 * @param curve
+	 *            curve to be drawn
+	 * @param view
+	 *            Euclidian view to be used
+	 * @param gp
+	 *            generalpath that can be drawn afterwards
+	 * @param calcLabelPos
+	 *            whether label position should be calculated and returned
+	 * @param moveToAllowed
+	 *            whether moveTo() may be used for gp
+	 * @param cache
+	 *            samples of previous plots, may be null
+	 * @return label position as Point
+	 */
+	public static GPoint plotCurve(CurveEvaluable curve, double t1,
+			double t2, EuclidianView view, PathPlotter gp, boolean calcLabelPos,
+			Gap moveToAllowed, CurveSampleCache cache) {
+		if (cache != null) {
+			cache.startPlot(curve);
+		}
+		Function function = curve instanceof GeoFunction
+				? ((GeoFunction) curve).getFunction() : null;
+		if (function == null) {
+			return plotSamples(curve, t1, t2, view, gp, calcLabelPos,
+					moveToAllowed, cache);
+		}
+		// sample compiled expression
+		function.startCompiledEvaluation();
+		try {
+			return plotSamples(curve, t1, t2, view, gp, calcLabelPos,
+					moveToAllowed, cache);
+		} finally {
+			function.endCompiledEvaluation();
+		}
+	}
+
+	private static GPoint plotSamples(CurveEvaluable curve, double t1,
+			double t2, EuclidianView view, PathPlotter gp, boolean calcLabelPos,
+			Gap moveToAllowed, CurveSampleCache cache) {
 		// ensure MIN_PLOT_POINTS
 		double minSamplePoints = Math.max(MIN_SAMPLE_POINTS, view.getWidth() / 6);
 		double max_param_step = Math.abs(t2 - t1) / minSamplePoints;
-		// plot Interval [t1, t2]
-		GPoint labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
-				gp, calcLabelPos, moveToAllowed);
+		GPoint labelPoint;
+		double range = t2 - t1;
+		if (cache != null && range > 0 && !isUndefined(range)) {
+			labelPoint = plotChunks(curve, t1, t2, max_param_step, view, gp,
+					calcLabelPos, moveToAllowed, cache);
+		} else {
+			// plot Interval [t1, t2]
+			labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
+					gp, calcLabelPos, moveToAllowed, MAX_DEFINED_BISECTIONS,
+					cache);
+		}
 		if (moveToAllowed == Gap.CORNER) {
 			gp.corner();
 		}
@@ -101,6 +170,36 @@ public class CurvePlotter {
 		return labelPoint;
 	}
 
+	private static GPoint plotChunks(CurveEvaluable curve, double t1,
+			double t2, double max_param_step, EuclidianView view,
+			PathPlotter gp, boolean calcLabelPos, Gap moveToAllowed,
+			CurveSampleCache cache) {
+		int levels = (int) Math
+				.ceil(Math.log((t2 - t1) / MIN_CHUNKS) / Math.log(2));
+		double chunk = Math.pow(2, levels);
+		// keep the finest resolution of unchunked plotting
+		int bisections = Math.max(MIN_CHUNK_BISECTIONS,
+				MAX_DEFINED_BISECTIONS - (int) Math
+						.ceil(Math.log((t2 - t1) / chunk) / Math.log(2)));
+		GPoint labelPoint = null;
+		double left = t1;
+		while (left < t2) {
+			double right = (Math.floor(left / chunk) + 1) * chunk;
+			if (right <= left) {
+				right = left + chunk;
+			}
+			right = Math.min(right, t2);
+			GPoint chunkLabel = plotInterval(curve, left, right, 0,
+					max_param_step, view, gp, calcLabelPos && labelPoint == null,
+					moveToAllowed, bisections, cache);
+			if (labelPoint == null) {
+				labelPoint = chunkLabel;
+			}
+			left = right;
+		}
+		return labelPoint;
+	}
+
 	/**
 	 * Draws a parametric curve (x(t), y(t)) for t in [t1, t2].
 	 * 
@@ -112,13 +211,17 @@ public class CurvePlotter {
 	 *            whether label position should be calculated and returned
 	 * @param moveToAllowed
 	 *            whether moveTo() may be used for gp
+	 * @param maxBisections
+	 *            maximal bisection depth
+	 * @param cache
+	 *            sample cache, may be null
 	 * @return label position as Point
 	 * @author Markus Hohenwarter, based on an algori5thm by John Gillam
 	 */
 	private static GPoint plotInterval(CurveEvaluable curve, double t1,
 			double t2, int intervalDepth, double max_param_step,
 			EuclidianView view, PathPlotter gp, boolean calcLabelPos,
-			Gap moveToAllowed) {
+			Gap moveToAllowed, int maxBisections, CurveSampleCache cache) {
 		// plot interval for t in [t1, t2]
 		// If we run into a problem, i.e. an undefined point f(t), we bisect
 		// the interval and plot both intervals [left, (left + right)/2] and
@@ -138,20 +241,20 @@ public class CurvePlotter {
 		double[] eval0, eval1;
 
 		// evaluate for t1
-		curve.evaluateCurve(t1, eval);
+		evaluate(curve, t1, eval, cache);
 		if (isUndefined(eval)) {
 			return plotProblemInterval(curve, t1, t2, intervalDepth,
 					max_param_step, view, gp, calcLabelPos, moveToAllowed,
-					labelPoint);
+					labelPoint, maxBisections, cache);
 		}
 		eval0 = Cloner.clone(eval);
 
 		// evaluate for t2
-		curve.evaluateCurve(t2, eval);
+		evaluate(curve, t2, eval, cache);
 		if (isUndefined(eval)) {
 			return plotProblemInterval(curve, t1, t2, intervalDepth,
 					max_param_step, view, gp, calcLabelPos, moveToAllowed,
-					labelPoint);
+					labelPoint, maxBisections, cache);
 		}
 		boolean onScreen = view.isOnView(eval);
 		eval1 = Cloner.clone(eval);
@@ -161,7 +264,7 @@ public class CurvePlotter {
 
 		// TODO
 		// INIT plotting algorithm
-		int length = MAX_DEFINED_BISECTIONS + 1;
+		int length = maxBisections + 1;
 		int[] dyadicStack = new int[length];
 		int[] depthStack = new int[length];
 		double[][] posStack = new double[length][];
@@ -183,7 +286,7 @@ public class CurvePlotter {
 		int countDiffZeros = 0;
 
 		// init previous slope using (t1, t1 + min_step)
-		curve.evaluateCurve(t1 + divisors[length - 1], eval);
+		evaluate(curve, t1 + divisors[length - 1], eval, cache);
 		double[] prevDiff = view.getOnScreenDiff(eval0, eval);
 
 		int top = 1;
@@ -208,7 +311,7 @@ public class CurvePlotter {
 					? MAX_BEND_OFF_SCREEN : MAX_BEND);
 
 			// bisect interval as long as max bisection depth not reached & ...
-			while (depth < MAX_DEFINED_BISECTIONS
+			while (depth < maxBisections
 					// ... distance not ok or angle not ok or step too big
 					&& (!distanceOK || !angleOK
 							|| divisors[depth] > max_param_step)
@@ -226,20 +329,21 @@ public class CurvePlotter {
 				t = t1 + i * divisors[depth]; // t=t1+(t2-t1)*(i/2^depth)
 
 				// evaluate curve for parameter t
-				curve.evaluateCurve(t, eval);
+				evaluate(curve, t, eval, cache);
 				onScreen = view.isOnView(eval);
 				// check for singularity:
 				// c(t) undefined; c(t-eps) and c(t+eps) both defined
 				if (isUndefined(eval)) {
 					// check if c(t-eps) and c(t+eps) are both defined
 					boolean singularity = isContinuousAround(curve, t,
-							divisors[length - 1], view, eval);
+							divisors[length - 1], view, eval, cache);
 
 					// split interval: f(t+eps) or f(t-eps) not defined
 					if (!singularity) {
 						return plotProblemInterval(curve, left, t2,
 								intervalDepth, max_param_step, view, gp,
-								calcLabelPos, moveToAllowed, labelPoint);
+								calcLabelPos, moveToAllowed, labelPoint,
+								maxBisections, cache);
 					}
 					Log.debug("SINGULARITY AT" + t);
 				}
@@ -340,6 +444,15 @@ public class CurvePlotter {
 		return labelPoint;
 	}
 
+	private static void evaluate(CurveEvaluable curve, double t,
+			double[] eval, CurveSampleCache cache) {
+		if (cache == null) {
+			curve.evaluateCurve(t, eval);
+		} else {
+			cache.evaluateCurve(t, eval);
+		}
+	}
+
 	/**
 	 * Returns true when x is either NaN or infinite.
 	 */
@@ -365,7 +478,8 @@ public class CurvePlotter {
 	private static GPoint plotProblemInterval(CurveEvaluable curve, double t1,
 			double t2, int intervalDepth, double max_param_step,
 			EuclidianView view, PathPlotter gp, boolean calcLabelPos,
-			Gap moveToAllowed, GPoint labelPoint) {
+			Gap moveToAllowed, GPoint labelPoint, int maxBisections,
+			CurveSampleCache cache) {
 		boolean calcLabel = calcLabelPos;
 		// stop recursion for too many intervals
 		if (intervalDepth > MAX_PROBLEM_BISECTIONS || t1 == t2) {
@@ -387,12 +501,14 @@ public class CurvePlotter {
 			// bisect interval
 			calcLabel = calcLabel && labelPoint == null;
 			labelPoint1 = plotInterval(curve, t1, splitParam, intervalDepth + 1,
-					max_param_step, view, gp, calcLabel, moveToAllowed);
+					max_param_step, view, gp, calcLabel, moveToAllowed,
+					maxBisections, cache);
 
 			// plot interval [(t1+t2)/2, t2]
 			calcLabel = calcLabel && labelPoint1 == null;
 			labelPoint2 = plotInterval(curve, splitParam, t2, intervalDepth + 1,
-					max_param_step, view, gp, calcLabel, moveToAllowed);
+					max_param_step, view, gp, calcLabel, moveToAllowed,
+					maxBisections, cache);
 		} else {
 			// look at the end points of the intervals [t1, (t1+t2)/2] and
 			// [(t1+t2)/2, t2]
@@ -404,18 +520,18 @@ public class CurvePlotter {
 
 			// plot interval [t1, (t1+t2)/2]
 			double[] borders = new double[2];
-			getDefinedInterval(curve, t1, splitParam, borders);
+			getDefinedInterval(curve, t1, splitParam, borders, cache);
 			calcLabel = calcLabel && labelPoint == null;
 			labelPoint1 = plotInterval(curve, borders[0], borders[1],
 					intervalDepth + 1, max_param_step, view, gp, calcLabel,
-					moveToAllowed);
+					moveToAllowed, maxBisections, cache);
 
 			// plot interval [(t1+t2)/2, t2]
-			getDefinedInterval(curve, splitParam, t2, borders);
+			getDefinedInterval(curve, splitParam, t2, borders, cache);
 			calcLabel = calcLabel && labelPoint1 == null;
 			labelPoint2 = plotInterval(curve, borders[0], borders[1],
 					intervalDepth + 1, max_param_step, view, gp, calcLabel,
-					moveToAllowed);
+					moveToAllowed, maxBisections, cache);
 		}
 
 		if (labelPoint != null) {
@@ -431,16 +547,17 @@ public class CurvePlotter {
 	 * Returns whether curve is defined for c(t-eps) and c(t + eps).
 	 */
 	private static boolean isContinuousAround(CurveEvaluable curve, double t,
-			double eps, EuclidianView view, double[] evalT) {
+			double eps, EuclidianView view, double[] evalT,
+			CurveSampleCache cache) {
 		// check if c(t) is undefined
 		double[] eval = curve.newDoubleArray();
 
 		// c(t + eps)
-		curve.evaluateCurve(t + eps, eval);
+		evaluate(curve, t + eps, eval, cache);
 		double oldy = eval[1];
 		if (!isUndefined(eval)) {
 			// c(t - eps)
-			curve.evaluateCurve(t - eps, eval);
+			evaluate(curve, t - eps, eval, cache);
 			if (!isUndefined(eval)) {
 				// SINGULARITY for functions: c(t) undef, c(t-eps) and c(t+eps)
 				// defined and close
@@ -589,13 +706,13 @@ public class CurvePlotter {
 	 * Sets borders to a defined interval in [a, b] if possible.
 	 */
 	private static void getDefinedInterval(CurveEvaluable curve, double a,
-			double b, double[] borders) {
+			double b, double[] borders, CurveSampleCache cache) {
 		double[] eval = curve.newDoubleArray();
 
 		// check first and last point in interval
-		curve.evaluateCurve(a, eval);
+		evaluate(curve, a, eval, cache);
 		boolean aDef = !isUndefined(eval);
-		curve.evaluateCurve(b, eval);
+		evaluate(curve, b, eval, cache);
 		boolean bDef = !isUndefined(eval);
 
 		// both end points defined
@@ -0,0 +1,186 @@
+package org.geogebra.common.euclidian.plot;
+
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+
+/**
+ * Curve samples (t, c(t)) of the last two plots of a curve. Values of the
+ * curve do not depend on the view, so when the view is panned or zoomed the
+ * plotter can reuse all samples at parameters it already evaluated.
+ *
+ * Samples are kept in two generations: samples used by the current plot and
+ * samples of the previous plot, so memory stays bounded by two frames.
+ */
+public class CurveSampleCache {
+
+	/** maximal number of samples per generation */
+	private static final int MAX_SAMPLES = 1 << 15;
+	private static final int INITIAL_CAPACITY = 1 << 9;
+
+	private CurveEvaluable curve;
+	private int dimension;
+	private Generation current;
+	private Generation previous;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Starts new plot of given curve: samples of the previous plot stay
+	 * available, older samples are dropped.
+	 *
+	 * @param plotted
+	 *            plotted curve
+	 */
+	public void startPlot(CurveEvaluable plotted) {
+		if (plotted != curve || current == null) {
+			curve = plotted;
+			dimension = plotted.newDoubleArray().length;
+			current = new Generation(dimension);
+			previous = new Generation(dimension);
+			return;
+		}
+		Generation swap = previous;
+		previous = current;
+		current = swap;
+		current.clear();
+	}
+
+	/**
+	 * Drops all samples, needs to be called whenever the curve changes.
+	 */
+	public void invalidate() {
+		curve = null;
+		current = null;
+		previous = null;
+	}
+
+	/**
+	 * Evaluates the curve, using stored sample if possible.
+	 *
+	 * @param t
+	 *            parameter
+	 * @param out
+	 *            output array for curve coordinates
+	 */
+	public void evaluateCurve(double t, double[] out) {
+		if (current.get(t, out)) {
+			hits++;
+			return;
+		}
+		if (previous.get(t, out)) {
+			hits++;
+		} else {
+			misses++;
+			curve.evaluateCurve(t, out);
+		}
+		current.put(t, out);
+	}
+
+	/**
+	 * @return curve of the current plot
+	 */
+	public CurveEvaluable getCurve() {
+		return curve;
+	}
+
+	/**
+	 * @return number of evaluations answered from stored samples
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of evaluations of the curve
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Open addressing hash table from parameter to curve coordinates.
+	 */
+	private static class Generation {
+		private final int dimension;
+		private long[] keys;
+		private boolean[] used;
+		private double[] values;
+		private int size;
+
+		Generation(int dimension) {
+			this.dimension = dimension;
+			allocate(INITIAL_CAPACITY);
+		}
+
+		private void allocate(int capacity) {
+			keys = new long[capacity];
+			used = new boolean[capacity];
+			values = new double[capacity * dimension];
+			size = 0;
+		}
+
+		void clear() {
+			for (int i = 0; i < used.length; i++) {
+				used[i] = false;
+			}
+			size = 0;
+		}
+
+		private static int hash(long key) {
+			int h = (int) (key ^ (key >>> 32));
+			h *= 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+		private int find(long key) {
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			while (used[i] && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			return i;
+		}
+
+		boolean get(double t, double[] out) {
+			int i = find(Double.doubleToLongBits(t));
+			if (!used[i]) {
+				return false;
+			}
+			System.arraycopy(values, i * dimension, out, 0, dimension);
+			return true;
+		}
+
+		void put(double t, double[] eval) {
+			if (2 * (size + 1) > keys.length) {
+				if (keys.length >= 2 * MAX_SAMPLES) {
+					return;
+				}
+				grow();
+			}
+			long key = Double.doubleToLongBits(t);
+			int i = find(key);
+			if (!used[i]) {
+				used[i] = true;
+				keys[i] = key;
+				size++;
+			}
+			System.arraycopy(eval, 0, values, i * dimension, dimension);
+		}
+
+		private void grow() {
+			long[] oldKeys = keys;
+			boolean[] oldUsed = used;
+			double[] oldValues = values;
+			allocate(2 * oldKeys.length);
+			for (int j = 0; j < oldKeys.length; j++) {
+				if (oldUsed[j]) {
+					int i = find(oldKeys[j]);
+					used[i] = true;
+					keys[i] = oldKeys[j];
+					System.arraycopy(oldValues, j * dimension, values,
+							i * dimension, dimension);
+					size++;
+				}
+			}
+		}
+	}
+}
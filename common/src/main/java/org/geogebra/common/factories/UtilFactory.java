@@ -4,7 +4,6 @@ import org.geogebra.common.util.GTimer;
 import org.geogebra.common.util.GTimerListener;
 import org.geogebra.common.util.HttpRequest;
 import org.geogebra.common.util.Prover;
-import org.geogebra.common.util.Reflection;
 import org.geogebra.common.util.URLEncoder;
 import org.geogebra.common.util.debug.Log;
 
@@ -64,12 +63,6 @@ public abstract class UtilFactory {
 	 */
 	public abstract double getMillisecondTime();
 
-	/**
-	 * @param clazz parameter to reflect
-	 * @return new Reflection object
-	 */
-	public abstract Reflection newReflection(Class clazz);
-
 	/**
 	 * @param listener to notify when timer fires
 	 * @param delay delay to fire
@@ -62,6 +62,7 @@ import org.geogebra.common.geogebra3D.euclidian3D.draw.DrawText3D;
 import org.geogebra.common.geogebra3D.euclidian3D.draw.DrawVector3D;
 import org.geogebra.common.geogebra3D.euclidian3D.draw.Drawable3D;
 import org.geogebra.common.geogebra3D.euclidian3D.draw.Drawable3DListsForView;
+import org.geogebra.common.geogebra3D.euclidian3D.draw.SurfaceBatchEvaluator;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Manager.ScalerXYZ;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.PlotterCursor;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer;
@@ -316,6 +317,8 @@ public abstract class EuclidianView3D extends EuclidianView
 	private String arRatioUnit = "cm";
 	private int arRatioMetricSystem;
 
+	private SurfaceBatchEvaluator surfaceBatchEvaluator;
+
 	/**
 	 * common constructor
 	 *
@@ -526,6 +529,24 @@ public abstract class EuclidianView3D extends EuclidianView
 		return renderer;
 	}
 
+	/**
+	 * @return evaluator for samples of surfaces, null if surfaces evaluate
+	 *         each point when needed
+	 */
+	public SurfaceBatchEvaluator getSurfaceBatchEvaluator() {
+		return surfaceBatchEvaluator;
+	}
+
+	/**
+	 * @param surfaceBatchEvaluator
+	 *            evaluator for samples of surfaces, null if surfaces evaluate
+	 *            each point when needed
+	 */
+	public void setSurfaceBatchEvaluator(
+			SurfaceBatchEvaluator surfaceBatchEvaluator) {
+		this.surfaceBatchEvaluator = surfaceBatchEvaluator;
+	}
+
 	/**
 	 * adds a GeoElement3D to this view
 	 */
@@ -4696,9 +4717,7 @@ public abstract class EuclidianView3D extends EuclidianView
 			public void run() {
 				ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(EuclidianView3D.this,
 						renderer.getGeometryManager());
-				StringBuilder export = exportToPrinter.export(format);
-				getApplication().exportStringToFile(format.getExtension(),
-						export.toString());
+				getApplication().exportToFile3D(format, exportToPrinter);
 			}
 		});
 	}
@@ -9,6 +9,8 @@ import org.geogebra.common.geogebra3D.euclidian3D.draw.DrawPoint3D;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.PlotterBrush;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.RendererForExport;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportExecutor;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportSink;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportToPrinter3D;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.Format;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.Geometry3DGetterManager;
@@ -172,6 +174,54 @@ public class EuclidianView3DForExport extends EuclidianView3D {
 	 */
 	public StringBuilder export3D(final Format format,
 			final Export3dDialogInterface dialog) {
+		if (!prepareExport(format, dialog)) {
+			return null;
+		}
+		ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
+				renderer.getGeometryManager());
+		return exportToPrinter.export(format);
+	}
+
+	/**
+	 * Streams the 3D export to the sink, with no settings dialog.
+	 * 
+	 * @param format
+	 *            3D format
+	 * @param sink
+	 *            output
+	 * @param executor
+	 *            executor for encoding tasks, may be null
+	 */
+	public void export3D(Format format, ExportSink sink,
+			ExportExecutor executor) {
+		prepareExport(format, null);
+		ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
+				renderer.getGeometryManager());
+		exportToPrinter.export(format, sink, executor);
+	}
+
+	/**
+	 * Exports to a file with no settings dialog and detaches this view, see
+	 * {@link org.geogebra.common.main.App#exportToFile3D(Format, ExportToPrinter3D)}.
+	 * 
+	 * @param format
+	 *            3D format
+	 */
+	public void exportToFile(Format format) {
+		prepareExport(format, null);
+		ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
+				renderer.getGeometryManager());
+		getApplication().exportToFile3D(format, exportToPrinter);
+		getApplication().getKernel().detach(this);
+	}
+
+	/**
+	 * Updates the scene and sets the format scale and thickness.
+	 * 
+	 * @return false if the export is left to the dialog
+	 */
+	private boolean prepareExport(final Format format,
+			final Export3dDialogInterface dialog) {
 		settingsChanged(getSettings());
 		useSpecificThickness = false;
 		updateScene();
@@ -224,22 +274,18 @@ public class EuclidianView3DForExport extends EuclidianView3D {
 											renderer.getGeometryManager());
 									getApplication().getKernel().detach(
 											EuclidianView3DForExport.this);
-									getApplication().exportStringToFile(
-											format.getExtension(),
-											exportToPrinter.export(format)
-													.toString());
+									getApplication().exportToFile3D(format,
+											exportToPrinter);
 								}
 							});
-					return null;
+					return false;
 				}
 				setThicknessAndScale(format, thickness, scale, true);
 			} else {
 				format.setScale(10); // default value: 1unit = 10mm
 			}
 		}
-		ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
-				renderer.getGeometryManager());
-		return exportToPrinter.export(format);
+		return true;
 	}
 
 	/**
@@ -31,6 +31,7 @@ import org.geogebra.common.kernel.matrix.CoordsDouble3;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.debug.Log;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 /**
  * Class for drawing a 2-var function
@@ -61,6 +62,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 	private static final int MAX_SPLIT_IN_ONE_UPDATE_SPEED = 512;
 	private static final int MAX_SPLIT_IN_ONE_UPDATE_QUALITY = MAX_SPLIT_IN_ONE_UPDATE_SPEED
 			* 2;
+	// splits in one update are at least max / MIN_SPLIT_IN_ONE_UPDATE_RATIO,
+	// and up to max * MAX_SPLIT_IN_ONE_UPDATE_RATIO while time budget allows
+	private static final int MIN_SPLIT_IN_ONE_UPDATE_RATIO = 8;
+	private static final int MAX_SPLIT_IN_ONE_UPDATE_RATIO = 4;
+	// time budget for splits in one update (ms)
+	private static final double SPLIT_TIME_BUDGET_SPEED = 8;
+	private static final double SPLIT_TIME_BUDGET_QUALITY = 16;
+	// number of corners to split whose new points are evaluated in one batch
+	private static final int PREFETCH_CORNERS = 256;
 	final private static int HIT_SAMPLES = 10;
 	final private static double DELTA_SAMPLES = 1.0 / HIT_SAMPLES;
 
@@ -133,6 +143,14 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	private boolean splitsStartedNotFinished;
 	private boolean stillRoomLeft;
+	private double splitStartTime;
+
+	/** samples evaluated ahead of meshing, null when evaluated on demand */
+	private SurfaceSampleBatch prefetched;
+	private SurfaceBatchEvaluator batchEvaluator;
+	private SurfaceEvaluable[] concurrentCopies;
+	/** current split corners below this index have prefetched samples */
+	private int prefetchedSplitIndex;
 
 	private Coords boundsMin = new Coords(3);
 	private Coords boundsMax = new Coords(3);
@@ -361,6 +379,8 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 			initBounds();
 
+			initBatchEvaluation();
+
 			debug("\nmax distances = " + maxRWDistance + ", "
 					+ maxRWDistanceNoAngleCheck);
 
@@ -383,14 +403,17 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			cornerListIndex = 0;
 
 			try {
+				prefetchRootMesh();
 				firstCorner = createRootMesh();
 
 				// split root mesh as start
 				currentSplitIndex = 0;
 				currentSplitStoppedIndex = 0;
+				prefetchedSplitIndex = 0;
 				nextSplitIndex = 0;
 				drawListIndex = 0;
 				notDrawn = 0;
+				prefetchRootMeshSplits(firstCorner);
 				splitRootMesh(firstCorner);
 				debug("\nnot drawn after split root mesh: " + notDrawn);
 
@@ -411,18 +434,13 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 		// start recursive split
 		loopSplitIndex = 0;
-		// long time = System.currentTimeMillis();
+		splitStartTime = PerformanceMetrics.now();
 		try {
 			stillRoomLeft = split();
 		} catch (NotEnoughCornersException e) {
 			e.caught();
 		}
 
-		// time = System.currentTimeMillis() - time;
-		// if (time > 0){
-		// debug("split : "+time);
-		// }
-
 		debug("\ndraw size : " + drawListIndex + "\nnot drawn : " + notDrawn
 				+ "\nstill to split : "
 				+ (currentSplitIndex - currentSplitStoppedIndex)
@@ -919,10 +937,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			currentSplitIndex = nextSplitIndex;
 			nextSplitIndex = 0;
 			currentSplitStoppedIndex = 0;
+			prefetchedSplitIndex = 0;
 		}
 
 		while (currentSplitStoppedIndex < currentSplitIndex
-				&& loopSplitIndex < maxSplitsInOneUpdate) {
+				&& hasSplitBudget()) {
+			if (prefetched != null
+					&& currentSplitStoppedIndex >= prefetchedSplitIndex) {
+				prefetchSplits();
+			}
 			currentSplit[currentSplitStoppedIndex].split(false);
 			currentSplitStoppedIndex++;
 
@@ -939,7 +962,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 		// debug("nextSplitIndex = " + nextSplitIndex + " , drawListIndex = " +
 		// drawListIndex);
 
-		if (loopSplitIndex < maxSplitsInOneUpdate && nextSplitIndex > 0) {
+		if (nextSplitIndex > 0 && hasSplitBudget()) {
 			return split();
 		}
 
@@ -947,6 +970,113 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	}
 
+	/**
+	 * Splits in one update are limited by a time budget, so that slow
+	 * surfaces are refined over several frames instead of blocking the view.
+	 * 
+	 * @return whether more splits are allowed in current update
+	 */
+	private boolean hasSplitBudget() {
+		if (loopSplitIndex < maxSplitsInOneUpdate
+				/ MIN_SPLIT_IN_ONE_UPDATE_RATIO) {
+			return true;
+		}
+		if (loopSplitIndex >= maxSplitsInOneUpdate
+				* MAX_SPLIT_IN_ONE_UPDATE_RATIO) {
+			return false;
+		}
+		double budget = levelOfDetail == LevelOfDetail.SPEED
+				? SPLIT_TIME_BUDGET_SPEED : SPLIT_TIME_BUDGET_QUALITY;
+		return PerformanceMetrics.now()
+				- splitStartTime < budget;
+	}
+
+	/**
+	 * Creates copies of the surface for the batch evaluator of the view, if
+	 * any and if the surface can be evaluated concurrently.
+	 */
+	private void initBatchEvaluation() {
+		batchEvaluator = getView3D().getSurfaceBatchEvaluator();
+		prefetched = null;
+		concurrentCopies = null;
+		if (batchEvaluator == null) {
+			return;
+		}
+		SurfaceEvaluable[] copies = new SurfaceEvaluable[Math.max(1,
+				batchEvaluator.getParallelism())];
+		for (int i = 0; i < copies.length; i++) {
+			copies[i] = surfaceGeo.copyForConcurrentEvaluation();
+			if (copies[i] == null) {
+				return;
+			}
+		}
+		concurrentCopies = copies;
+		prefetched = new SurfaceSampleBatch();
+		prefetched.setScale(getView3D().getXscale(), getView3D().getYscale(),
+				getView3D().getZscale());
+	}
+
+	/**
+	 * Evaluates all points of the root mesh in one batch.
+	 */
+	private void prefetchRootMesh() {
+		if (prefetched == null) {
+			return;
+		}
+		prefetched.clear();
+		int uN = uParam.n;
+		int vN = vParam.n;
+		for (int j = -1; j < vN; j++) {
+			double v = j < 0 ? vParam.borderMax
+					: (j == vN - 1 ? vParam.borderMin
+							: vParam.max - (vParam.delta * j) / vN);
+			prefetched.add(uParam.borderMax, v);
+			for (int i = 0; i < uN - 1; i++) {
+				prefetched.add(uParam.max - (uParam.delta * i) / uN, v);
+			}
+			prefetched.add(uParam.borderMin, v);
+		}
+		batchEvaluator.evaluate(concurrentCopies, prefetched);
+	}
+
+	/**
+	 * Evaluates new points for splitting the root mesh in one batch; walks
+	 * the mesh like {@link #splitRootMesh(Corner)}.
+	 */
+	private void prefetchRootMeshSplits(Corner first) {
+		if (prefetched == null) {
+			return;
+		}
+		prefetched.clear();
+		Corner current = first;
+		while (current.a != null) {
+			Corner nextAbove = current.a;
+			while (current.l != null) {
+				Corner nextLeft = current.l;
+				if (nextLeft.a == null) {
+					nextLeft = nextLeft.l;
+				}
+				current.addSplitCandidates(prefetched);
+				current = nextLeft;
+			}
+			current = nextAbove;
+		}
+		batchEvaluator.evaluate(concurrentCopies, prefetched);
+	}
+
+	/**
+	 * Evaluates new points for the next corners to split in one batch.
+	 */
+	private void prefetchSplits() {
+		prefetched.clear();
+		prefetchedSplitIndex = Math.min(currentSplitIndex,
+				currentSplitStoppedIndex + PREFETCH_CORNERS);
+		for (int i = currentSplitStoppedIndex; i < prefetchedSplitIndex; i++) {
+			currentSplit[i].addSplitCandidates(prefetched);
+		}
+		batchEvaluator.evaluate(concurrentCopies, prefetched);
+	}
+
 	/**
 	 * 
 	 * @return new coords 3
@@ -981,10 +1111,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 	}
 
 	protected Coords3 evaluatePoint(double u, double v, Coords3 p) {
+		return evaluatePoint(u, v, p, -1);
+	}
+
+	private Coords3 evaluatePoint(double u, double v, Coords3 p,
+			int sample) {
 
 		// p is final value: use evaluatedPoint to compute
 		if (p == null || p.isFinalUndefined()) {
-			surfaceGeo.evaluatePoint(u, v, evaluatedPoint);
+			evaluateSurfacePoint(u, v, evaluatedPoint, sample);
 
 			if (!evaluatedPoint.isDefined()) {
 				return Coords3.UNDEFINED;
@@ -1001,7 +1136,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 		}
 
 		// p is not final value
-		surfaceGeo.evaluatePoint(u, v, p);
+		evaluateSurfacePoint(u, v, p, sample);
 
 		if (!p.isDefined()) {
 			return Coords3.UNDEFINED;
@@ -1019,11 +1154,16 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	protected Coords3 evaluateNormal(Coords3 p, double u, double v,
 			Coords3 normal) {
+		return evaluateNormal(p, u, v, normal, -1);
+	}
+
+	private Coords3 evaluateNormal(Coords3 p, double u, double v,
+			Coords3 normal, int sample) {
 
 		boolean defined;
 		// normal is final value: use evaluatedNormal to compute
 		if (normal == null || normal.isFinalUndefined()) {
-			defined = surfaceGeo.evaluateNormal(p, u, v, evaluatedNormal);
+			defined = evaluateSurfaceNormal(p, u, v, evaluatedNormal, sample);
 
 			if (!defined) {
 				return Coords3.UNDEFINED;
@@ -1034,7 +1174,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 		}
 
 		// normal is not final value
-		defined = surfaceGeo.evaluateNormal(p, u, v, normal);
+		defined = evaluateSurfaceNormal(p, u, v, normal, sample);
 
 		if (!defined) {
 			return Coords3.UNDEFINED;
@@ -1045,6 +1185,23 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	}
 
+	private void evaluateSurfacePoint(double u, double v, Coords3 p,
+			int sample) {
+		if (sample < 0) {
+			surfaceGeo.evaluatePoint(u, v, p);
+		} else {
+			prefetched.getPoint(sample, p);
+		}
+	}
+
+	private boolean evaluateSurfaceNormal(Coords3 p, double u, double v,
+			Coords3 normal, int sample) {
+		if (sample < 0) {
+			return surfaceGeo.evaluateNormal(p, u, v, normal);
+		}
+		return prefetched.getNormal(sample, normal);
+	}
+
 	class Corner {
 		Coords3 p;
 		Coords3 normal;
@@ -1067,11 +1224,12 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 		public void set(double u, double v) {
 			this.u = u;
 			this.v = v;
-			p = evaluatePoint(u, v, p);
+			int sample = prefetched == null ? -1 : prefetched.find(u, v);
+			p = evaluatePoint(u, v, p, sample);
 			if (p.isFinalUndefined()) {
 				normal = Coords3.UNDEFINED;
 			} else {
-				normal = evaluateNormal(p, u, v, normal);
+				normal = evaluateNormal(p, u, v, normal, sample);
 			}
 			isNotEnd = true;
 			a = null;
@@ -1231,6 +1389,37 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 		}
 
+		/**
+		 * Adds the parameters of new corners that
+		 * {@link #split(Corner, Corner, Corner, Corner)} would create now, if
+		 * this corner and its neighbors are defined.
+		 * 
+		 * @param batch
+		 *            samples to evaluate
+		 */
+		void addSplitCandidates(SurfaceSampleBatch batch) {
+			Corner left = l.a == null ? l.l : l;
+			Corner subLeft = l.a == null ? l : null;
+			Corner above = a.l == null ? a.a : a;
+			Corner subAbove = a.l == null ? a : null;
+			if (p.isFinalUndefined() || left.p.isFinalUndefined()
+					|| above.p.isFinalUndefined()
+					|| left.a.p.isFinalUndefined()) {
+				return;
+			}
+			double um = subLeft != null ? subLeft.u : (u + left.u) / 2;
+			double vm = subAbove != null ? subAbove.v : (v + above.v) / 2;
+			if (subAbove == null) {
+				batch.add(u, vm);
+			}
+			if (subLeft == null) {
+				batch.add(um, v);
+			}
+			batch.add(um, vm);
+			batch.add(um, above.v);
+			batch.add(left.u, vm);
+		}
+
 		public void split(boolean draw) throws NotEnoughCornersException {
 
 			Corner left, above, subLeft, subAbove;
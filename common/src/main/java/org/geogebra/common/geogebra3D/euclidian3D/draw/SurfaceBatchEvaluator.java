@@ -0,0 +1,32 @@
+package org.geogebra.common.geogebra3D.euclidian3D.draw;
+
+import org.geogebra.common.kernel.kernelND.SurfaceEvaluable;
+
+/**
+ * Strategy for evaluating samples of a surface ahead of meshing, see
+ * {@link org.geogebra.common.geogebra3D.euclidian3D.EuclidianView3D#setSurfaceBatchEvaluator}.
+ * Without it, {@link DrawSurface3D} evaluates each point when the mesh needs
+ * it.
+ */
+public interface SurfaceBatchEvaluator {
+
+	/**
+	 * @return number of surface copies passed to
+	 *         {@link #evaluate(SurfaceEvaluable[], SurfaceSampleBatch)}
+	 */
+	int getParallelism();
+
+	/**
+	 * Evaluates all samples of the batch; the result has to be the same as
+	 * calling {@link SurfaceSampleBatch#evaluate(SurfaceEvaluable, int, int)}
+	 * for the whole batch.
+	 *
+	 * @param copies
+	 *            copies of the surface, see
+	 *            {@link SurfaceEvaluable#copyForConcurrentEvaluation()}; each
+	 *            copy may only be used by one thread at a time
+	 * @param batch
+	 *            samples
+	 */
+	void evaluate(SurfaceEvaluable[] copies, SurfaceSampleBatch batch);
+}
@@ -0,0 +1,193 @@
+package org.geogebra.common.geogebra3D.euclidian3D.draw;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.kernelND.SurfaceEvaluable;
+import org.geogebra.common.kernel.matrix.Coords3;
+import org.geogebra.common.kernel.matrix.CoordsDouble3;
+
+/**
+ * Parameter pairs of a surface evaluated ahead of meshing, together with the
+ * resulting points and normals. Samples are found again by exact parameter
+ * values, so a sample is only used when the mesh asks for precisely the same
+ * (u, v) as was predicted.
+ */
+public class SurfaceSampleBatch {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private double[] uv = new double[2 * INITIAL_CAPACITY];
+	private double[] points = new double[3 * INITIAL_CAPACITY];
+	private double[] normals = new double[3 * INITIAL_CAPACITY];
+	private boolean[] normalDefined = new boolean[INITIAL_CAPACITY];
+	/** open addressing table of sample index + 1, 0 for empty slots */
+	private int[] table = new int[4 * INITIAL_CAPACITY];
+	private int size;
+	private double xScale = 1;
+	private double yScale = 1;
+	private double zScale = 1;
+
+	/**
+	 * Removes all samples.
+	 */
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(table, 0);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Set the scale of the view: normals are computed at scaled points, as
+	 * done by {@link DrawSurface3D}.
+	 *
+	 * @param x
+	 *            x scale
+	 * @param y
+	 *            y scale
+	 * @param z
+	 *            z scale
+	 */
+	public void setScale(double x, double y, double z) {
+		xScale = x;
+		yScale = y;
+		zScale = z;
+	}
+
+	/**
+	 * @return number of samples
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds parameters to evaluate, unless already present.
+	 *
+	 * @param u
+	 *            first parameter
+	 * @param v
+	 *            second parameter
+	 */
+	public void add(double u, double v) {
+		int slot = slot(u, v);
+		if (table[slot] != 0) {
+			return;
+		}
+		if (4 * (size + 1) > table.length) {
+			grow();
+			slot = slot(u, v);
+		}
+		uv[2 * size] = u;
+		uv[2 * size + 1] = v;
+		size++;
+		table[slot] = size;
+	}
+
+	/**
+	 * @param u
+	 *            first parameter
+	 * @param v
+	 *            second parameter
+	 * @return index of the sample, -1 if not present
+	 */
+	public int find(double u, double v) {
+		return table[slot(u, v)] - 1;
+	}
+
+	/**
+	 * @return slot containing (u, v) or the empty slot where it belongs
+	 */
+	private int slot(double u, double v) {
+		long bits = Double.doubleToLongBits(u) * 31
+				+ Double.doubleToLongBits(v);
+		int hash = (int) (bits ^ (bits >>> 32));
+		int mask = table.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (table[slot] != 0) {
+			int index = 2 * (table[slot] - 1);
+			if (uv[index] == u && uv[index + 1] == v) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		int capacity = 2 * normalDefined.length;
+		uv = Arrays.copyOf(uv, 2 * capacity);
+		points = Arrays.copyOf(points, 3 * capacity);
+		normals = Arrays.copyOf(normals, 3 * capacity);
+		normalDefined = new boolean[capacity];
+		table = new int[4 * capacity];
+		int oldSize = size;
+		size = 0;
+		for (int i = 0; i < oldSize; i++) {
+			table[slot(uv[2 * i], uv[2 * i + 1])] = i + 1;
+			size++;
+		}
+	}
+
+	/**
+	 * Evaluates samples from (inclusive) to (exclusive). Different ranges may
+	 * be evaluated concurrently with different copies of the surface.
+	 *
+	 * @param surface
+	 *            surface (or its copy)
+	 * @param from
+	 *            first sample
+	 * @param to
+	 *            end of range
+	 */
+	public void evaluate(SurfaceEvaluable surface, int from, int to) {
+		Coords3 point = new CoordsDouble3();
+		Coords3 scaled = new CoordsDouble3();
+		Coords3 normal = new CoordsDouble3();
+		for (int i = from; i < to; i++) {
+			double u = uv[2 * i];
+			double v = uv[2 * i + 1];
+			surface.evaluatePoint(u, v, point);
+			points[3 * i] = point.getXd();
+			points[3 * i + 1] = point.getYd();
+			points[3 * i + 2] = point.getZd();
+			normalDefined[i] = false;
+			if (point.isDefined()) {
+				scaled.set(point.getXd(), point.getYd(), point.getZd());
+				scaled.mulInside(xScale, yScale, zScale);
+				normalDefined[i] = surface.evaluateNormal(scaled, u, v,
+						normal);
+				normals[3 * i] = normal.getXd();
+				normals[3 * i + 1] = normal.getYd();
+				normals[3 * i + 2] = normal.getZd();
+			}
+		}
+	}
+
+	/**
+	 * @param index
+	 *            sample index
+	 * @param point
+	 *            output: point of the surface (not scaled)
+	 */
+	public void getPoint(int index, Coords3 point) {
+		point.set(points[3 * index], points[3 * index + 1],
+				points[3 * index + 2]);
+	}
+
+	/**
+	 * @param index
+	 *            sample index
+	 * @param normal
+	 *            output: normal at the scaled point (not normalized)
+	 * @return whether the normal is defined
+	 */
+	public boolean getNormal(int index, Coords3 normal) {
+		if (!normalDefined[index]) {
+			return false;
+		}
+		normal.set(normals[3 * index], normals[3 * index + 1],
+				normals[3 * index + 2]);
+		return true;
+	}
+}
@@ -0,0 +1,20 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.util.List;
+
+/**
+ * Strategy for running the encoding tasks of a streamed 3D export, see
+ * {@link ExportToPrinter3D#export(Format, ExportSink, ExportExecutor)}.
+ * Without it, tasks run one after another on the exporting thread.
+ */
+public interface ExportExecutor {
+
+	/**
+	 * Runs all the tasks and returns when they are finished. Tasks are
+	 * independent from each other and may run concurrently.
+	 * 
+	 * @param tasks
+	 *            tasks
+	 */
+	void runAll(List<? extends Runnable> tasks);
+}
@@ -0,0 +1,46 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+/**
+ * Destination of a streamed 3D export, see
+ * {@link ExportToPrinter3D#export(Format, ExportSink, ExportExecutor)}.
+ * Implementations are responsible for reporting write errors once the export
+ * is finished.
+ */
+public interface ExportSink {
+
+	/**
+	 * Writes text (encoded as UTF-8).
+	 * 
+	 * @param text
+	 *            text to write
+	 */
+	void write(StringBuilder text);
+
+	/**
+	 * Writes raw bytes.
+	 * 
+	 * @param data
+	 *            data
+	 * @param length
+	 *            number of bytes to write, starting from 0
+	 */
+	void write(byte[] data, int length);
+
+	/**
+	 * @return whether {@link #writeAt(long, byte[], int)} is supported
+	 */
+	boolean isSeekable();
+
+	/**
+	 * Overwrites bytes already written, without moving the end of the
+	 * output.
+	 * 
+	 * @param position
+	 *            position from the start of the export
+	 * @param data
+	 *            data
+	 * @param length
+	 *            number of bytes to write, starting from 0
+	 */
+	void writeAt(long position, byte[] data, int length);
+}
@@ -302,6 +302,7 @@ public class ExportToPrinter3D {
 
 				// end of polyhedron
 				format.getPolyhedronEnd(sb);
+				format.flush(sb, false);
 
 			}
 		}
@@ -518,6 +519,7 @@ public class ExportToPrinter3D {
 
 				// end of polyhedron
 				format.getPolyhedronEnd(sb);
+				format.flush(sb, false);
 
 			}
 
@@ -671,6 +673,7 @@ public class ExportToPrinter3D {
 
 				// end of polyhedron
 				format.getPolyhedronEnd(sb);
+				format.flush(sb, false);
 
 			} else {
 				int length = polygon.getPointsLength();
@@ -780,6 +783,7 @@ public class ExportToPrinter3D {
 
 				// end of polyhedron
 				format.getPolyhedronEnd(sb);
+				format.flush(sb, false);
 			}
 		}
 	}
@@ -897,6 +901,38 @@ public class ExportToPrinter3D {
 		return sb;
 	}
 
+	/**
+	 * Streams the export to the sink, writing the output collected so far
+	 * after each exported object instead of keeping the whole export in
+	 * memory.
+	 * 
+	 * @param format1
+	 *            export format
+	 * @param sink
+	 *            output
+	 * @param executor
+	 *            executor for encoding tasks, null to run them on this thread
+	 */
+	public void export(Format format1, ExportSink sink,
+			ExportExecutor executor) {
+		format1.setSink(sink, executor);
+		try {
+			if (format1.needsCountingPass()) {
+				// nothing is written while counting
+				format1.setSink(null, null);
+				format1.setCountingPass(true);
+				export(format1);
+				format1.setCountingPass(false);
+				format1.setSink(sink, executor);
+			}
+			export(format1);
+			format1.flush(sb, true);
+		} finally {
+			format1.setSink(null, null);
+			sb.setLength(0);
+		}
+	}
+
 	private void initSegmentsForThickness() {
 		if (segmentsForThickness == null) {
 			segmentsForThickness = new TreeSet<>();
@@ -1,5 +1,7 @@
 package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
 
+import java.util.List;
+
 import org.geogebra.common.awt.GColor;
 import org.geogebra.common.kernel.geos.GeoElement;
 
@@ -10,7 +12,12 @@ import org.geogebra.common.kernel.geos.GeoElement;
  */
 abstract public class Format {
 
+	/** output length from which text is written to the sink */
+	private static final int FLUSH_LENGTH = 1 << 16;
+
 	private String newline = ExportToPrinter3D.NEWLINE;
+	private ExportSink sink;
+	private ExportExecutor executor;
 
 	/**
 	 * @return file extension for this format
@@ -317,4 +324,75 @@ abstract public class Format {
 	 * @return true if exports lines and points
 	 */
 	abstract public boolean exportsPointsAndLines();
+
+	/**
+	 * Set where the export is streamed to; with no sink the whole export is
+	 * collected in the string builder passed to the format methods.
+	 * 
+	 * @param sink
+	 *            output sink (may be null)
+	 * @param executor
+	 *            executor for encoding tasks (may be null)
+	 */
+	public void setSink(ExportSink sink, ExportExecutor executor) {
+		this.sink = sink;
+		this.executor = executor;
+	}
+
+	/**
+	 * @return output sink, null when not streaming
+	 */
+	protected ExportSink getSink() {
+		return sink;
+	}
+
+	/**
+	 * Runs tasks with the executor, or sequentially if not set.
+	 * 
+	 * @param tasks
+	 *            encoding tasks
+	 */
+	protected void runAll(List<? extends Runnable> tasks) {
+		if (executor == null || tasks.size() < 2) {
+			for (Runnable task : tasks) {
+				task.run();
+			}
+		} else {
+			executor.runAll(tasks);
+		}
+	}
+
+	/**
+	 * Moves the output collected so far to the sink, if any. Called between
+	 * exported objects.
+	 * 
+	 * @param sb
+	 *            output builder
+	 * @param force
+	 *            whether to write the output even if it is short
+	 */
+	public void flush(StringBuilder sb, boolean force) {
+		if (sink != null && sb.length() > 0
+				&& (force || sb.length() >= FLUSH_LENGTH)) {
+			sink.write(sb);
+			sb.setLength(0);
+		}
+	}
+
+	/**
+	 * @return whether the export has to run twice, first with
+	 *         {@link #setCountingPass(boolean)} set, to write the current sink
+	 */
+	public boolean needsCountingPass() {
+		return false;
+	}
+
+	/**
+	 * @param flag
+	 *            whether the next export only collects statistics and writes
+	 *            nothing
+	 */
+	public void setCountingPass(boolean flag) {
+		// no counting needed by default
+	}
 }
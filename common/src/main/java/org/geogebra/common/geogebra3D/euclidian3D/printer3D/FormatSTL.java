@@ -1,5 +1,7 @@
 package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
 
+import java.util.ArrayList;
+
 import org.geogebra.common.awt.GColor;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.ReusableArrayList;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -10,6 +12,13 @@ import org.geogebra.common.kernel.matrix.Coords;
  */
 public class FormatSTL extends Format {
 
+	/** triangles per encoding task when streaming */
+	private static final int CHUNK_TRIANGLES = 2048;
+	/** encoding tasks collected before they are run and written */
+	private static final int MAX_PENDING_CHUNKS = 32;
+	/** doubles per triangle: normal and three vertices */
+	private static final int TRIANGLE_LENGTH = 12;
+
 	private ReusableArrayList<Double> verticesList = new ReusableArrayList<>();
 	private ReusableArrayList<Double> normalsList = new ReusableArrayList<>();
 
@@ -26,6 +35,80 @@ public class FormatSTL extends Format {
 
 	private FormatPolygonsHandler polygonHandler;
 
+	private ArrayList<TriangleChunk> chunks = new ArrayList<>();
+	private int fullChunks;
+	private int triangleCount;
+	private boolean countingPass;
+
+	/**
+	 * Triangles collected while streaming, encoded as a task of
+	 * {@link ExportExecutor} and then written to the sink.
+	 */
+	protected static class TriangleChunk implements Runnable {
+		private final FormatSTL format;
+		private final double[] data = new double[TRIANGLE_LENGTH
+				* CHUNK_TRIANGLES];
+		private int size;
+		/** encoded text */
+		protected final StringBuilder text = new StringBuilder();
+		/** encoded bytes */
+		protected byte[] bytes;
+
+		/**
+		 * @param format
+		 *            format used for encoding
+		 */
+		protected TriangleChunk(FormatSTL format) {
+			this.format = format;
+		}
+
+		/**
+		 * @return number of triangles
+		 */
+		protected int size() {
+			return size;
+		}
+
+		/**
+		 * @param index
+		 *            triangle index
+		 * @param coord
+		 *            0..2 for normal, 3..11 for vertices
+		 * @return coordinate of the triangle
+		 */
+		protected double get(int index, int coord) {
+			return data[TRIANGLE_LENGTH * index + coord];
+		}
+
+		private boolean isFull() {
+			return size == CHUNK_TRIANGLES;
+		}
+
+		private void add(double nx, double ny, double nz, double v1x,
+				double v1y, double v1z, double v2x, double v2y, double v2z,
+				double v3x, double v3y, double v3z) {
+			int i = TRIANGLE_LENGTH * size;
+			data[i] = nx;
+			data[i + 1] = ny;
+			data[i + 2] = nz;
+			data[i + 3] = v1x;
+			data[i + 4] = v1y;
+			data[i + 5] = v1z;
+			data[i + 6] = v2x;
+			data[i + 7] = v2y;
+			data[i + 8] = v2z;
+			data[i + 9] = v3x;
+			data[i + 10] = v3y;
+			data[i + 11] = v3z;
+			size++;
+		}
+
+		@Override
+		public void run() {
+			format.encode(this);
+		}
+	}
+
 	/**
 	 * constructor
 	 */
@@ -41,17 +124,63 @@ public class FormatSTL extends Format {
 
 	@Override
 	public void getScriptStart(StringBuilder sb) {
+		startTriangles();
 		sb.append("solid geogebra");
 	}
 
+	/**
+	 * Resets triangle count and collected polygons, called at script start.
+	 */
+	protected void startTriangles() {
+		triangleCount = 0;
+		fullChunks = 0;
+		for (TriangleChunk chunk : chunks) {
+			chunk.size = 0;
+		}
+		if (wantsFilledSolids()) {
+			polygonHandler = new FormatPolygonsHandler();
+		}
+	}
+
 	@Override
 	public void getScriptEnd(StringBuilder sb) {
+		writeTriangles(sb);
+		appendNewline(sb);
+		sb.append("endsolid geogebra");
+	}
+
+	/**
+	 * Writes the triangles of filled solids and any triangles still waiting
+	 * to be encoded, called at script end.
+	 * 
+	 * @param sb
+	 *            output builder
+	 */
+	protected void writeTriangles(StringBuilder sb) {
 		if (wantsFilledSolids()) {
 			polygonHandler.setOrientedNormals();
 			polygonHandler.getTriangles(sb, this);
 		}
-		appendNewline(sb);
-		sb.append("endsolid geogebra");
+		writeChunks(sb);
+	}
+
+	/**
+	 * @return number of triangles exported since script start
+	 */
+	public int getTriangleCount() {
+		return triangleCount;
+	}
+
+	@Override
+	public void setCountingPass(boolean flag) {
+		countingPass = flag;
+	}
+
+	/**
+	 * @return whether the current export only counts triangles
+	 */
+	protected boolean isCountingPass() {
+		return countingPass;
 	}
 
 	@Override
@@ -183,7 +312,8 @@ public class FormatSTL extends Format {
 	}
 
 	/**
-	 * write triangle to string builder
+	 * write triangle to string builder, or collect it for the sink when
+	 * streaming
 	 * 
 	 * @param sb
 	 *            string builder
@@ -216,6 +346,83 @@ public class FormatSTL extends Format {
 			double ny, double nz, double v1x, double v1y, double v1z,
 			double v2x, double v2y, double v2z, double v3x, double v3y,
 			double v3z) {
+		triangleCount++;
+		if (countingPass) {
+			return;
+		}
+		if (getSink() == null) {
+			appendTriangle(sb, nx, ny, nz, v1x, v1y, v1z, v2x, v2y, v2z, v3x,
+					v3y, v3z);
+			return;
+		}
+		if (fullChunks == chunks.size()) {
+			chunks.add(new TriangleChunk(this));
+		}
+		TriangleChunk chunk = chunks.get(fullChunks);
+		chunk.add(nx, ny, nz, v1x, v1y, v1z, v2x, v2y, v2z, v3x, v3y, v3z);
+		if (chunk.isFull()) {
+			fullChunks++;
+			if (fullChunks == MAX_PENDING_CHUNKS) {
+				writeChunks(sb);
+			}
+		}
+	}
+
+	/**
+	 * Encodes collected triangles, possibly in parallel, and writes them to
+	 * the sink in order.
+	 */
+	private void writeChunks(StringBuilder sb) {
+		int count = fullChunks;
+		if (count < chunks.size() && chunks.get(count).size > 0) {
+			count++;
+		}
+		if (count == 0) {
+			return;
+		}
+		// text written before the triangles
+		flush(sb, true);
+		runAll(chunks.subList(0, count));
+		for (int i = 0; i < count; i++) {
+			TriangleChunk chunk = chunks.get(i);
+			write(chunk);
+			chunk.size = 0;
+		}
+		fullChunks = 0;
+	}
+
+	/**
+	 * Encodes the triangles of the chunk; may be called concurrently for
+	 * different chunks.
+	 * 
+	 * @param chunk
+	 *            triangles
+	 */
+	protected void encode(TriangleChunk chunk) {
+		StringBuilder text = chunk.text;
+		text.setLength(0);
+		for (int i = 0; i < chunk.size(); i++) {
+			appendTriangle(text, chunk.get(i, 0), chunk.get(i, 1),
+					chunk.get(i, 2), chunk.get(i, 3), chunk.get(i, 4),
+					chunk.get(i, 5), chunk.get(i, 6), chunk.get(i, 7),
+					chunk.get(i, 8), chunk.get(i, 9), chunk.get(i, 10),
+					chunk.get(i, 11));
+		}
+	}
+
+	/**
+	 * Writes encoded triangles to the sink.
+	 * 
+	 * @param chunk
+	 *            encoded triangles
+	 */
+	protected void write(TriangleChunk chunk) {
+		getSink().write(chunk.text);
+	}
+
+	private void appendTriangle(StringBuilder sb, double nx, double ny,
+			double nz, double v1x, double v1y, double v1z, double v2x,
+			double v2y, double v2z, double v3x, double v3y, double v3z) {
 		appendNewline(sb);
 		sb.append("facet normal ");
 		appendValue(sb, nx);
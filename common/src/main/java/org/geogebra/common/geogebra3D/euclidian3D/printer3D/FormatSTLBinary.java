@@ -0,0 +1,83 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+/**
+ * Binary STL format: 80 bytes header, number of triangles and 50 bytes per
+ * triangle (little endian floats for normal and vertices, 2 bytes
+ * attribute). Only for streamed export, see
+ * {@link ExportToPrinter3D#export(Format, ExportSink, ExportExecutor)}.
+ */
+public class FormatSTLBinary extends FormatSTL {
+
+	private static final int HEADER_LENGTH = 80;
+	private static final int TRIANGLE_BYTES = 50;
+	private static final String HEADER = "GeoGebra binary STL";
+
+	private int countedTriangles;
+
+	@Override
+	public void getScriptStart(StringBuilder sb) {
+		startTriangles();
+		if (isCountingPass()) {
+			return;
+		}
+		if (getSink() == null) {
+			throw new IllegalStateException(
+					"binary STL can only be written to an ExportSink");
+		}
+		byte[] header = new byte[HEADER_LENGTH + 4];
+		for (int i = 0; i < HEADER_LENGTH; i++) {
+			header[i] = (byte) (i < HEADER.length() ? HEADER.charAt(i) : ' ');
+		}
+		putInt(header, HEADER_LENGTH, countedTriangles);
+		getSink().write(header, header.length);
+	}
+
+	@Override
+	public void getScriptEnd(StringBuilder sb) {
+		writeTriangles(sb);
+		if (isCountingPass()) {
+			countedTriangles = getTriangleCount();
+		} else if (getSink().isSeekable()
+				&& countedTriangles != getTriangleCount()) {
+			byte[] count = new byte[4];
+			putInt(count, 0, getTriangleCount());
+			getSink().writeAt(HEADER_LENGTH, count, count.length);
+		}
+	}
+
+	@Override
+	public boolean needsCountingPass() {
+		return getSink() != null && !getSink().isSeekable();
+	}
+
+	@Override
+	protected void encode(TriangleChunk chunk) {
+		int length = TRIANGLE_BYTES * chunk.size();
+		if (chunk.bytes == null || chunk.bytes.length < length) {
+			chunk.bytes = new byte[length];
+		}
+		byte[] bytes = chunk.bytes;
+		for (int i = 0; i < chunk.size(); i++) {
+			int offset = TRIANGLE_BYTES * i;
+			for (int coord = 0; coord < 12; coord++) {
+				putInt(bytes, offset + 4 * coord,
+						Float.floatToIntBits((float) chunk.get(i, coord)));
+			}
+			// attribute byte count
+			bytes[offset + 48] = 0;
+			bytes[offset + 49] = 0;
+		}
+	}
+
+	@Override
+	protected void write(TriangleChunk chunk) {
+		getSink().write(chunk.bytes, TRIANGLE_BYTES * chunk.size());
+	}
+
+	private static void putInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) value;
+		bytes[offset + 1] = (byte) (value >>> 8);
+		bytes[offset + 2] = (byte) (value >>> 16);
+		bytes[offset + 3] = (byte) (value >>> 24);
+	}
+}
@@ -98,6 +98,11 @@ public class AlgoLocus3D extends AlgoLocusND<MyPoint3D> {
 		}
 	}
 
+	@Override
+	protected double getMaxZdist(int i) {
+		return maxZdist[i];
+	}
+
 	@Override
 	protected void createStartPos(Construction cons1) {
 		startQPos = new GeoPoint3D(cons1);
@@ -193,7 +198,9 @@ public class AlgoLocus3D extends AlgoLocusND<MyPoint3D> {
 		insertPoint(coords.getX(), coords.getY(), coords.getZ(), lineTo);
 	}
 
-	private void insertPoint(double x, double y, double z, boolean lineTo) {
+	@Override
+	protected void insertPoint(double x, double y, double z,
+			boolean lineTo) {
 		pointCount++;
 
 		// Application.debug("insertPoint: " + x + ", " + y + ", lineto: " +
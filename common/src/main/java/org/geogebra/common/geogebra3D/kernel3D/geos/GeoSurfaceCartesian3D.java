@@ -95,6 +95,12 @@ public class GeoSurfaceCartesian3D extends GeoSurfaceCartesianND
 		set(surface);
 	}
 
+	@Override
+	public SurfaceEvaluable copyForConcurrentEvaluation() {
+		GeoSurfaceCartesian3D copy = new GeoSurfaceCartesian3D(cons);
+		return setFunctionsForConcurrentEvaluation(copy) ? copy : null;
+	}
+
 	@Override
 	public void evaluatePoint(double u, double v, Coords3 p) {
 		tmp[0] = u;
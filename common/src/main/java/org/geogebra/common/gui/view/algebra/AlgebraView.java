@@ -14,13 +14,14 @@ package org.geogebra.common.gui.view.algebra;
 
 import org.geogebra.common.gui.Editing;
 import org.geogebra.common.gui.SetLabels;
+import org.geogebra.common.kernel.batch.WrappableView;
 import org.geogebra.common.kernel.geos.GeoElement;
 
 /**
  * Algebra view -- shows algebraic representation of the objects either as
  * value, definition or command
  */
-public interface AlgebraView extends Editing, SetLabels {
+public interface AlgebraView extends Editing, SetLabels, WrappableView {
 	/**
 	 * Returns whether this view is currently visible
 	 * 
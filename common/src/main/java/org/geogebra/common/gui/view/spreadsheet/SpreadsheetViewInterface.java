@@ -1,12 +1,12 @@
 package org.geogebra.common.gui.view.spreadsheet;
 
-import org.geogebra.common.kernel.View;
+import org.geogebra.common.kernel.batch.WrappableView;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.main.App;
 
 import com.himamis.retex.editor.share.util.Unicode;
 
-public interface SpreadsheetViewInterface extends View {
+public interface SpreadsheetViewInterface extends WrappableView {
 
 	final static String LEFT_CLASS_RULE = Unicode.LESS_EQUAL + " x <";
 	final static String RIGHT_CLASS_RULE = "< x " + Unicode.LESS_EQUAL;
@@ -73,6 +73,8 @@ public abstract class MyXMLio {
 	protected Construction cons;
 	/** handler for GGB files */
 	protected MyXMLHandler handler;
+	private long lastParseTime;
+	private long lastUpdateTime;
 
 	/**
 	 * @param kernel
@@ -89,6 +91,22 @@ public abstract class MyXMLio {
 		handler = getGGBHandler();
 	}
 
+	/**
+	 * @return time spent parsing the last document and building its objects
+	 *         in milliseconds
+	 */
+	public long getLastParseTime() {
+		return lastParseTime;
+	}
+
+	/**
+	 * @return time of the construction update after the last document was
+	 *         loaded in milliseconds
+	 */
+	public long getLastUpdateTime() {
+		return lastUpdateTime;
+	}
+
 	/**
 	 * create XML parser
 	 */
@@ -377,6 +395,7 @@ public abstract class MyXMLio {
 
 		try {
 			kernel.setLoadingMode(true);
+			long parseStart = System.currentTimeMillis();
 			if (settingsBatch && !isGGTOrDefaults) {
 				try {
 					app.getSettings().beginBatch();
@@ -387,6 +406,7 @@ public abstract class MyXMLio {
 			} else {
 				parseXML(handler, stream);
 			}
+			lastParseTime = System.currentTimeMillis() - parseStart;
 			resetXMLParser();
 			kernel.setLoadingMode(false);
 
@@ -407,7 +427,9 @@ public abstract class MyXMLio {
 		} finally {
 			kernel.setUseInternalCommandNames(oldVal2);
 			if (!isGGTOrDefaults && mayZoom) {
+				long updateStart = System.currentTimeMillis();
 				kernel.updateConstruction(randomize, 1);
+				lastUpdateTime = System.currentTimeMillis() - updateStart;
 				kernel.setNotifyViewsActive(oldVal);
 			}
 
@@ -148,6 +148,8 @@ public class Construction {
 	private TreeSet<GeoElement> randomElements;
 	/** algo set currently updated by GeoElement.updateDependentObjects() */
 	private AlgorithmSet algoSetCurrentlyUpdated;
+	/** reused by notifyEuclidianViewCE, null while in use */
+	private AlgorithmSet viewUpdateSet = new AlgorithmSet();
 
 	private final TreeSet<String> casDummies = new TreeSet<>();
 
@@ -1103,7 +1105,7 @@ public class Construction {
 			boolean needsUpdateCascade = elem.euclidianViewUpdate();
 			if (needsUpdateCascade) {
 				if (updateSet == null) {
-					updateSet = new AlgorithmSet();
+					updateSet = borrowViewUpdateSet();
 				}
 				if (elem instanceof GeoElement) {
 					GeoElement geo = (GeoElement) elem;
@@ -1120,10 +1122,22 @@ public class Construction {
 		}
 		if (updateSet != null) {
 			updateSet.updateAll();
+			updateSet.clear();
+			viewUpdateSet = updateSet;
 		}
 		return didUpdate;
 	}
 
+	private AlgorithmSet borrowViewUpdateSet() {
+		AlgorithmSet set = viewUpdateSet;
+		// nested call: the shared set is in use
+		if (set == null) {
+			return new AlgorithmSet();
+		}
+		viewUpdateSet = null;
+		return set;
+	}
+
 	/**
 	 * Returns true iff there are any euclidian view construction elements in
 	 * this construction
@@ -1243,6 +1257,10 @@ public class Construction {
 			ArrayList<AlgoElement> tempList = new ArrayList<>(
 					algoList);
 
+			// evaluate the inputs of CAS cells together, independent objects
+			// including CAS cells are up to date at this point
+			kernel.startCasBatch(getCasCells(tempList, true));
+
 			// update all algorithms
 			for (int i = 0; i < size; ++i) {
 				AlgoElement algo = tempList.get(i);
@@ -1263,10 +1281,46 @@ public class Construction {
 				}
 			}
 		} finally {
+			kernel.endCasBatch();
 			updateConstructionRunning = false;
 		}
 	}
 
+	/**
+	 * @param elements
+	 *            construction elements
+	 * @param independentCellsUpdated
+	 *            whether independent CAS cells are already recomputed
+	 * @return CAS cells of the algorithms whose inputs are up to date
+	 */
+	private static ArrayList<GeoCasCell> getCasCells(
+			ArrayList<? extends ConstructionElement> elements,
+			boolean independentCellsUpdated) {
+		ArrayList<GeoCasCell> cells = new ArrayList<>();
+		for (ConstructionElement ce : elements) {
+			if (ce instanceof AlgoCasCellInterface && hasUpdatedInputs(
+					(AlgoElement) ce, independentCellsUpdated)) {
+				cells.add(((AlgoCasCellInterface) ce).getCasCell());
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Outputs of other algorithms are only updated after the CAS batch, so
+	 * evaluating a cell that uses them ahead would use stale values.
+	 */
+	private static boolean hasUpdatedInputs(AlgoElement algo,
+			boolean independentCellsUpdated) {
+		for (GeoElement input : algo.getInput()) {
+			if (!input.isIndependent() || (!independentCellsUpdated
+					&& input.isGeoCasCell())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Similar to updateConstruction, but only updates CAS cells
 	 */
@@ -1274,6 +1328,9 @@ public class Construction {
 		// collect notifyUpdate calls using xAxis as dummy geo
 		updateConstructionRunning = true;
 		try {
+			// evaluate the inputs of CAS cells together, except those that
+			// use cells recomputed below
+			kernel.startCasBatch(getCasCells(ceList, false));
 			// update all independent GeoElements
 			// check the size every time as Delete may change it
 			for (int i = 0; i < ceList.size(); ++i) {
@@ -1285,6 +1342,7 @@ public class Construction {
 				}
 			}
 		} finally {
+			kernel.endCasBatch();
 			updateConstructionRunning = false;
 		}
 	}
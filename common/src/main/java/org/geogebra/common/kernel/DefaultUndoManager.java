@@ -44,14 +44,26 @@ public class DefaultUndoManager extends UndoManager {
      *            string builder with construction XML
      */
     private synchronized void doStoreUndoInfo(final StringBuilder undoXML) {
-        AppState appStateToAdd = new StringAppState(undoXML.toString());
+        AppState appStateToAdd = createAppState(undoXML);
         UndoCommand command = createUndoCommand(appStateToAdd);
-        maybeStoreUndoCommand(command);
+        if (maybeStoreUndoCommand(command)) {
+            // same as the previous state, free the storage of the new one
+            appStateToAdd.delete();
+        }
         pruneStateList();
         app.getEventDispatcher().dispatchEvent(new Event(EventType.STOREUNDO));
         updateUndoActions();
     }
 
+    /**
+     * @param undoXML
+     *            string builder with construction XML
+     * @return state to be stored in the undo list
+     */
+    protected AppState createAppState(StringBuilder undoXML) {
+        return new StringAppState(undoXML.toString());
+    }
+
     protected UndoCommand createUndoCommand(AppState appState) {
     	return new UndoCommand(appState);
     }
@@ -0,0 +1,234 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import org.geogebra.common.GeoGebraConstants;
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.undoredo.DeltaAppState;
+import org.geogebra.common.kernel.undoredo.UndoXMLChunks;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Undo manager that stores per-element XML deltas against periodic full
+ * checkpoints. If undo or redo only changes properties of existing elements,
+ * just the changed elements are reloaded instead of rebuilding the whole
+ * construction.
+ */
+public class DeltaUndoManager extends DefaultUndoManager {
+
+	/** number of deltas stored before next full checkpoint */
+	public static final int CHECKPOINT_INTERVAL = 20;
+
+	private DeltaAppState lastCheckpoint;
+	private int deltasSinceCheckpoint;
+	private DeltaAppState lastDelta;
+
+	private long lastStoreTime;
+	private long lastRestoreTime;
+	private int partialRestores;
+	private int fullRestores;
+
+	/**
+	 * @param cons
+	 *            construction
+	 */
+	public DeltaUndoManager(Construction cons) {
+		super(cons);
+	}
+
+	@Override
+	protected AppState createAppState(StringBuilder undoXML) {
+		long start = System.currentTimeMillis();
+		UndoXMLChunks chunks = UndoXMLChunks.split(undoXML.toString());
+		AppState state;
+		updateLastStates();
+		if (chunks == null) {
+			state = super.createAppState(undoXML);
+		} else if (lastCheckpoint == null
+				|| deltasSinceCheckpoint >= CHECKPOINT_INTERVAL) {
+			state = newCheckpoint(chunks);
+		} else {
+			DeltaAppState delta = DeltaAppState.delta(lastCheckpoint, chunks);
+			// once deltas get big, a new checkpoint is cheaper
+			if (2 * delta.getStoredLength() > lastCheckpoint
+					.getStoredLength()) {
+				state = newCheckpoint(chunks);
+			} else {
+				lastDelta = delta;
+				state = delta;
+			}
+		}
+		lastStoreTime = System.currentTimeMillis() - start;
+		return state;
+	}
+
+	/**
+	 * Counts the last delta once it is known to be kept in the history and
+	 * forgets the last checkpoint if it was dropped as duplicate or pruned.
+	 */
+	private void updateLastStates() {
+		if (lastCheckpoint != null && lastCheckpoint.isDeleted()) {
+			lastCheckpoint = null;
+			deltasSinceCheckpoint = 0;
+		} else if (lastDelta != null && !lastDelta.isDeleted()) {
+			deltasSinceCheckpoint++;
+		}
+		lastDelta = null;
+	}
+
+	private DeltaAppState newCheckpoint(UndoXMLChunks chunks) {
+		lastCheckpoint = DeltaAppState.checkpoint(chunks);
+		deltasSinceCheckpoint = 0;
+		lastDelta = null;
+		return lastCheckpoint;
+	}
+
+	@Override
+	protected void loadUndoInfo(AppState state, String slideID) {
+		long start = System.currentTimeMillis();
+		if (!(state instanceof DeltaAppState)
+				|| !loadChangedElements(((DeltaAppState) state).getChunks())) {
+			fullRestores++;
+			super.loadUndoInfo(state, slideID);
+		}
+		lastRestoreTime = System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Reloads only elements that differ between current construction and
+	 * target state.
+	 *
+	 * @param target
+	 *            target state
+	 * @return false if the structure of construction changed and it needs to
+	 *         be rebuilt
+	 */
+	private boolean loadChangedElements(UndoXMLChunks target) {
+		UndoXMLChunks current = UndoXMLChunks
+				.split(construction.getCurrentUndoXML(true).toString());
+		if (current == null || !current.getHead().equals(target.getHead())
+				|| !current.getTail().equals(target.getTail())
+				|| !current.hasSameKeys(target)) {
+			return false;
+		}
+		StringBuilder sb = new StringBuilder();
+		ArrayList<String> labels = new ArrayList<>();
+		for (int i = 0; i < target.size(); i++) {
+			String chunk = target.getChunk(i);
+			if (!chunk.equals(current.getChunk(i))) {
+				String key = target.getKey(i);
+				if (!key.startsWith(UndoXMLChunks.ELEMENT_PREFIX)) {
+					return false;
+				}
+				labels.add(
+						key.substring(UndoXMLChunks.ELEMENT_PREFIX.length()));
+				sb.append(chunk);
+			}
+		}
+		if (labels.isEmpty()) {
+			partialRestores++;
+			return true;
+		}
+		try {
+			construction.setFileLoading(true);
+			construction.getXMLio().processXMLString(
+					"<geogebra format=\"" + GeoGebraConstants.XML_FILE_FORMAT
+							+ "\">\n<construction>\n" + sb
+							+ "</construction>\n</geogebra>",
+					false, false, true, false);
+		} catch (Exception e) {
+			Log.debug(e);
+			return false;
+		} finally {
+			construction.setFileLoading(false);
+		}
+		ArrayList<GeoElement> geos = new ArrayList<>();
+		for (String label : labels) {
+			GeoElement geo = construction.lookupLabel(label);
+			if (geo != null) {
+				geos.add(geo);
+			}
+		}
+		GeoElement.updateCascade(geos, new TreeSet<AlgoElement>(), true);
+		construction.getKernel().notifyRepaint();
+		partialRestores++;
+		return true;
+	}
+
+	/**
+	 * @return number of characters kept by all stored states
+	 */
+	public long getHistoryMemorySize() {
+		HashSet<DeltaAppState> counted = new HashSet<>();
+		long size = 0;
+		for (UndoCommand command : undoInfoList) {
+			AppState state = command.getAppState();
+			if (state instanceof DeltaAppState) {
+				DeltaAppState deltaState = (DeltaAppState) state;
+				if (counted.add(deltaState)) {
+					size += deltaState.getStoredLength();
+				}
+				if (counted.add(deltaState.getBase())) {
+					size += deltaState.getBase().getStoredLength();
+				}
+			} else if (state != null && state.getXml() != null) {
+				size += state.getXml().length();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return number of full checkpoints in the history
+	 */
+	public int getCheckpointCount() {
+		int count = 0;
+		for (UndoCommand command : undoInfoList) {
+			if (command.getAppState() instanceof DeltaAppState
+					&& ((DeltaAppState) command.getAppState())
+							.isCheckpoint()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return duration of last undo point creation in milliseconds
+	 */
+	public long getLastStoreTime() {
+		return lastStoreTime;
+	}
+
+	/**
+	 * @return duration of last undo or redo in milliseconds
+	 */
+	public long getLastRestoreTime() {
+		return lastRestoreTime;
+	}
+
+	/**
+	 * @return number of undo / redo steps that only reloaded changed elements
+	 */
+	public int getPartialRestoreCount() {
+		return partialRestores;
+	}
+
+	/**
+	 * @return number of undo / redo steps that rebuilt the construction
+	 */
+	public int getFullRestoreCount() {
+		return fullRestores;
+	}
+
+	@Override
+	public synchronized void clearUndoInfo() {
+		super.clearUndoInfo();
+		lastCheckpoint = null;
+		deltasSinceCheckpoint = 0;
+		lastDelta = null;
+	}
+}
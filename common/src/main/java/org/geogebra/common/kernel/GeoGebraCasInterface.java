@@ -127,6 +127,24 @@ public interface GeoGebraCasInterface {
 			MyArbitraryConstant arbConst, StringTemplate tpl, GeoCasCell cell,
 			Kernel kernel) throws CASException;
 
+	/**
+	 * Evaluates independent expressions with one batched CAS call. Their
+	 * results are used by the following calls of
+	 * {@link #evaluateGeoGebraCAS(ValidExpression, MyArbitraryConstant, StringTemplate, GeoCasCell, Kernel)}
+	 * for the same inputs, until {@link #endBatch()}.
+	 * 
+	 * @param exps
+	 *            inputs in GeoGebraCAS syntax
+	 * @param kernel
+	 *            kernel
+	 */
+	public void startBatch(ValidExpression[] exps, Kernel kernel);
+
+	/**
+	 * Drops unused results of {@link #startBatch(ValidExpression[], Kernel)}.
+	 */
+	public void endBatch();
+
 	/**
 	 * Returns the CAS command for the currently set CAS using the given key and
 	 * command arguments. For example, getCASCommand("Expand.1", {"3*(a+b)"})
@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.TreeSet;
 
 import org.geogebra.common.GeoGebraConstants;
+import org.geogebra.common.cas.CasResultCache;
 import org.geogebra.common.cas.GeoGebraCAS;
 import org.geogebra.common.euclidian.EmbedManager;
 import org.geogebra.common.euclidian.EuclidianView;
@@ -29,8 +30,10 @@ import org.geogebra.common.kernel.algos.AlgoIf;
 import org.geogebra.common.kernel.algos.AlgoMacro;
 import org.geogebra.common.kernel.algos.AlgoPointVector;
 import org.geogebra.common.kernel.algos.AlgoVectorPoint;
+import org.geogebra.common.kernel.algos.CascadeEvaluator;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.algos.DependentAlgo;
+import org.geogebra.common.kernel.algos.LocusEvaluator;
 import org.geogebra.common.kernel.arithmetic.ArithmeticFactory;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
@@ -42,6 +45,10 @@ import org.geogebra.common.kernel.arithmetic.MyDoubleDegreesMinutesSeconds;
 import org.geogebra.common.kernel.arithmetic.MySpecialDouble;
 import org.geogebra.common.kernel.arithmetic.SymbolicMode;
 import org.geogebra.common.kernel.arithmetic.Traversing;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.batch.BatchedUpdateWrapper;
+import org.geogebra.common.kernel.batch.ViewNotificationBus;
+import org.geogebra.common.kernel.batch.WrappableView;
 import org.geogebra.common.kernel.cas.AlgoUsingTempCASalgo;
 import org.geogebra.common.kernel.commands.AlgebraProcessor;
 import org.geogebra.common.kernel.geos.CasEvaluableFunction;
@@ -93,6 +100,7 @@ import org.geogebra.common.util.NumberFormatAdapter;
 import org.geogebra.common.util.ScientificFormatAdapter;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.debug.Log;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 import com.google.j2objc.annotations.Weak;
 import com.himamis.retex.editor.share.util.Unicode;
@@ -176,6 +184,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	// (add, remove, update)
 	/** List of attached views */
 	protected ArrayList<View> views = new ArrayList<>();
+	/** attached views or their wrappers, in the same order as views */
+	private ArrayList<View> notifiedViews = new ArrayList<>();
+	private ViewNotificationBus viewNotificationBus;
 	private boolean addingPolygon = false;
 	private GeoElement newPolygon;
 	private final ArrayList<GeoElement> deleteList;
@@ -185,6 +196,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	protected AlgebraProcessor algProcessor;
 	/** Evaluator for ExpressionNode */
 	protected ExpressionNodeEvaluator expressionNodeEvaluator;
+	private CascadeEvaluator cascadeEvaluator;
+	private LocusEvaluator locusEvaluator;
+	private final PerformanceMetrics metrics = new PerformanceMetrics();
 
 	/**
 	 * CAS variable handling
@@ -378,6 +392,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 
 	private boolean isSaving;
 	private MaxSizeHashMap<String, String> ggbCasCache;
+	private CasResultCache casResultCache;
 	/** min real world x for all views */
 	protected double[] xmin = new double[1];
 	/** max real world x for all views */
@@ -625,6 +640,43 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		return expressionNodeEvaluator;
 	}
 
+	/**
+	 * @return performance measurements of this kernel
+	 */
+	public PerformanceMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return evaluator for update cascades, null for sequential update
+	 */
+	public CascadeEvaluator getCascadeEvaluator() {
+		return cascadeEvaluator;
+	}
+
+	/**
+	 * @param cascadeEvaluator
+	 *            evaluator for update cascades, null for sequential update
+	 */
+	public void setCascadeEvaluator(CascadeEvaluator cascadeEvaluator) {
+		this.cascadeEvaluator = cascadeEvaluator;
+	}
+
+	/**
+	 * @return evaluator for sampling loci, null for sequential sampling
+	 */
+	public LocusEvaluator getLocusEvaluator() {
+		return locusEvaluator;
+	}
+
+	/**
+	 * @param locusEvaluator
+	 *            evaluator for sampling loci, null for sequential sampling
+	 */
+	public void setLocusEvaluator(LocusEvaluator locusEvaluator) {
+		this.locusEvaluator = locusEvaluator;
+	}
+
 	/**
 	 * 
 	 * @param precision
@@ -2831,6 +2883,63 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		getCasCache().put(exp, result);
 	}
 
+	/**
+	 * @param giacInput
+	 *            input translated to Giac
+	 * @return Giac result from the shared cache, null if not cached
+	 */
+	public String getSharedCasResult(String giacInput) {
+		CasResultCache sharedCache = getCasResultCache();
+		return sharedCache == null ? null
+				: sharedCache.get(getCasResultCacheKey(giacInput));
+	}
+
+	/**
+	 * @param giacInput
+	 *            input translated to Giac
+	 * @param result
+	 *            Giac result
+	 */
+	public void putSharedCasResult(String giacInput, String result) {
+		CasResultCache sharedCache = getCasResultCache();
+		if (sharedCache != null && result != null) {
+			sharedCache.put(getCasResultCacheKey(giacInput), result);
+		}
+	}
+
+	/**
+	 * @param giacInput
+	 *            input translated to Giac
+	 * @return key for the shared cache, includes the settings that may change
+	 *         the Giac result
+	 */
+	private String getCasResultCacheKey(String giacInput) {
+		StringBuilder sb = new StringBuilder(giacInput.length() + 16);
+		sb.append(getAngleUnit());
+		sb.append(',');
+		sb.append(app.getSettings().getCasSettings().getTimeoutMilliseconds());
+		sb.append('|');
+		sb.append(giacInput);
+		return sb.toString();
+	}
+
+	/**
+	 * @return cache for Giac results consulted before Giac is called, null if
+	 *         none
+	 */
+	public CasResultCache getCasResultCache() {
+		return casResultCache;
+	}
+
+	/**
+	 * @param casResultCache
+	 *            cache for Giac results consulted before Giac is called; may
+	 *            be shared by several kernels, null to disable
+	 */
+	public void setCasResultCache(CasResultCache casResultCache) {
+		this.casResultCache = casResultCache;
+	}
+
 	/**
 	 * @deprecated AlgebraSettings.setStyle should be used instead.
 	 *
@@ -3541,7 +3650,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public final void notifyRepaint() {
 		if (notifyRepaint && notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.repaintView();
 			}
 		}
@@ -3590,7 +3699,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	final public void notifyReset() {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.reset();
 			}
 		}
@@ -3600,7 +3709,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 * Clears all views, even if notifyViewsActive is false
 	 */
 	protected final void notifyClearView() {
-		for (View view : views) {
+		for (View view : notifiedViews) {
 			view.clearView();
 		}
 
@@ -3687,6 +3796,20 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		return lastAttachedEV;
 	}
 
+	/**
+	 * Makes views attached from now on that implement {@link WrappableView}
+	 * receive merged notifications once per frame of the bus. No bus is set
+	 * by default: code that reads drawables right after a change, like
+	 * exports, hit tests or the API, expects views to be notified at once.
+	 * 
+	 * @param bus
+	 *            bus delivering view notifications, null to notify views
+	 *            directly
+	 */
+	public void setViewNotificationBus(ViewNotificationBus bus) {
+		this.viewNotificationBus = bus;
+	}
+
 	/**
 	 * Attach view (view will receive events)
 	 * 
@@ -3696,6 +3819,10 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public void attach(View view) {
 		if (!views.contains(view)) {
 			views.add(view);
+			notifiedViews.add(viewNotificationBus != null
+					&& view instanceof WrappableView
+							? viewNotificationBus.wrap((WrappableView) view)
+							: view);
 		}
 
 		if (view instanceof EuclidianView) {
@@ -3734,7 +3861,14 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 *            view
 	 */
 	public void detach(View view) {
-		views.remove(view);
+		int index = views.indexOf(view);
+		if (index >= 0) {
+			views.remove(index);
+			View notified = notifiedViews.remove(index);
+			if (notified instanceof BatchedUpdateWrapper) {
+				viewNotificationBus.unwrap((BatchedUpdateWrapper) notified);
+			}
+		}
 		printAttachedViews();
 
 	}
@@ -3891,7 +4025,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 				}
 
 			}
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				if ((view.getViewID() != App.VIEW_CONSTRUCTION_PROTOCOL)
 						|| isNotifyConstructionProtocolViewAboutAddRemoveActive()) {
 					view.add(geo);
@@ -3944,7 +4078,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 			if (geo.isLabelSet()) {
 				this.deleteList.add(geo);
 			}
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				if ((view.getViewID() != App.VIEW_CONSTRUCTION_PROTOCOL)
 						|| isNotifyConstructionProtocolViewAboutAddRemoveActive()) {
 					// needed for GGB-808
@@ -4006,7 +4140,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdate(GeoElement geo) {
 		// event dispatcher should not collect calls to stay compatible with 4.0
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.update(geo);
 			}
 		}
@@ -4021,7 +4155,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdateLocation(GeoElement geo) {
 		// event dispatcher should not collect calls to stay compatible with 4.0
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				// we already told event dispatcher
 				if (view instanceof UpdateLocationView) {
 					((UpdateLocationView) view).updateLocation(geo);
@@ -4042,7 +4176,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public final void notifyUpdateVisualStyle(GeoElement geo, GProperty prop) {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.updateVisualStyle(geo, prop);
 			}
 		}
@@ -4056,7 +4190,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public final void notifyUpdateHightlight(GeoElement geo) {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.updateHighlight(geo);
 			}
 		}
@@ -4070,7 +4204,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public final void notifyUpdateAuxiliaryObject(GeoElement geo) {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.updateAuxiliaryObject(geo);
 			}
 		}
@@ -4084,7 +4218,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public final void notifyRename(GeoElement geo) {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.rename(geo);
 			}
 		}
@@ -4100,7 +4234,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public final void notifyTypeChanged(GeoElement geo) {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				if (view.getViewID() == App.VIEW_ALGEBRA) {
 					view.rename(geo);
 				}
@@ -4943,6 +5077,40 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		}
 	}
 
+	/**
+	 * Sends the CAS inputs of the given objects to the CAS in one batch, so
+	 * that computing their outputs one by one afterwards does not wait for
+	 * the CAS each time. Does nothing if the CAS is not initialized yet. Must
+	 * be followed by {@link #endCasBatch()}.
+	 * 
+	 * @param symbolics
+	 *            CAS cells or symbolic objects that are computed next
+	 */
+	void startCasBatch(List<? extends GeoSymbolicI> symbolics) {
+		if (!isGeoGebraCASready() || symbolics.size() < 2) {
+			return;
+		}
+		ArrayList<ValidExpression> inputs = new ArrayList<>();
+		for (GeoSymbolicI symbolic : symbolics) {
+			ValidExpression input = symbolic.prepareCasInput();
+			if (input != null) {
+				inputs.add(input);
+			}
+		}
+		if (inputs.size() > 1) {
+			ggbCAS.startBatch(inputs.toArray(new ValidExpression[0]), this);
+		}
+	}
+
+	/**
+	 * Drops unused results of {@link #startCasBatch(List)}.
+	 */
+	void endCasBatch() {
+		if (ggbCAS != null) {
+			ggbCAS.endBatch();
+		}
+	}
+
 	/**
 	 * Recompute CAS algos. Used by web once CAS is loaded.
 	 */
@@ -4950,6 +5118,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		clearCasCache();
 
 		ArrayList<GeoElement> geosToUpdate = new ArrayList<>();
+		ArrayList<GeoSymbolicI> freeSymbolics = new ArrayList<>();
 		for (GeoElement geo : cons.getGeoSetWithCasCellsConstructionOrder()) {
 			AlgoElement parent = geo.getParentAlgorithm();
 			if (geo instanceof CasEvaluableFunction) {
@@ -4959,10 +5128,18 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 					geosToUpdate.add(geo);
 				}
 			} else if (geo instanceof GeoSymbolicI && parent == null) {
-				((GeoSymbolicI) geo).computeOutput();
+				freeSymbolics.add((GeoSymbolicI) geo);
 				geosToUpdate.add(geo);
 			}
 		}
+		startCasBatch(freeSymbolics);
+		try {
+			for (GeoSymbolicI symbolic : freeSymbolics) {
+				symbolic.computeOutput();
+			}
+		} finally {
+			endCasBatch();
+		}
 		CasAlgoChecker checker = new CasAlgoChecker();
 		for (AlgoElement algo : cons.getAlgoList()) {
 			if (algo instanceof AlgoCasBase) {
@@ -5147,7 +5324,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public void notifyBatchUpdate() {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.startBatchUpdate();
 			}
 		}
@@ -5158,7 +5335,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	 */
 	public void notifyEndBatchUpdate() {
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.endBatchUpdate();
 			}
 		}
@@ -5341,7 +5518,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdatePreviewFromInputBar(GeoElement[] geos) {
 		// event dispatcher should not collect calls to stay compatible with 4.0
 		if (notifyViewsActive) {
-			for (View view : views) {
+			for (View view : notifiedViews) {
 				view.updatePreviewFromInputBar(geos);
 			}
 		}
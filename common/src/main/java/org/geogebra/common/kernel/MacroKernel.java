@@ -14,6 +14,7 @@ package org.geogebra.common.kernel;
 
 import java.util.LinkedHashMap;
 
+import org.geogebra.common.cas.CasResultCache;
 import org.geogebra.common.io.MyXMLHandler;
 import org.geogebra.common.kernel.algos.AlgoDispatcher;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeEvaluator;
@@ -229,6 +230,11 @@ public class MacroKernel extends Kernel {
 		return parentKernel.hasCasCache();
 	}
 
+	@Override
+	public CasResultCache getCasResultCache() {
+		return parentKernel.getCasResultCache();
+	}
+
 	@Override
 	protected AlgoDispatcher newAlgoDispatcher(Construction cons1) {
 		return this.parentKernel.newAlgoDispatcher(cons1);
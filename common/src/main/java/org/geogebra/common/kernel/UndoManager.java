@@ -11,6 +11,8 @@ import org.geogebra.common.kernel.undoredo.UndoInfoStoredListener;
 import org.geogebra.common.main.App;
 import org.geogebra.common.plugin.EventType;
 import org.geogebra.common.util.debug.Log;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 import com.google.j2objc.annotations.Weak;
 
@@ -280,7 +282,13 @@ public abstract class UndoManager {
 	 *            true to restore current
 	 */
 	final public void storeUndoInfo(final boolean refresh) {
-		storeUndoInfo(construction.getCurrentUndoXML(true), refresh);
+		StringBuilder undoXML = construction.getCurrentUndoXML(true);
+		PerformanceMetrics metrics = construction.getKernel().getMetrics();
+		if (metrics.isEnabled()) {
+			metrics.record(MetricType.UNDO_SIZE, "UndoManager",
+					undoXML.length());
+		}
+		storeUndoInfo(undoXML, refresh);
 		storeUndoInfoNeededForProperties = false;
 	}
 
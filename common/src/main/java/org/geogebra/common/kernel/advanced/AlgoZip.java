@@ -38,6 +38,8 @@ public class AlgoZip extends AlgoElement {
 	private GeoList list; // output
 
 	private int last_length = 0;
+	private int[] lastOverStamps;
+	private int lastExpressionCount;
 	private boolean expIsFunctionOrCurve;
 	private boolean isEmpty;
 	private AlgoElement expressionParentAlgo;
@@ -153,6 +155,8 @@ public class AlgoZip extends AlgoElement {
 			return;
 		}
 		updateRunning = true;
+		boolean wasDefined = list.isDefined();
+		list.setUnchangedElements(0);
 		// only set undefined when some *input list* is undefined
 		for (int i = 2; i < input.length; i += 2) {
 			if (!input[i].isDefined()) {
@@ -178,22 +182,104 @@ public class AlgoZip extends AlgoElement {
 		// setValues does not work for functions
 		setValuesOnly = setValuesOnly && !expIsFunctionOrCurve;
 
+		// elements computed from unchanged elements of the input lists keep
+		// their values
+		int unchanged = wasDefined ? countUnchangedElements() : 0;
+
 		// avoid label creation, might happen e.g. in
 		boolean oldSuppressLabels = cons.isSuppressLabelsActive();
 		cons.setSuppressLabelCreation(true);
 
 		// update list
-		if (setValuesOnly) {
+		if (unchanged > 0) {
+			resizeList(unchanged);
+		} else if (setValuesOnly) {
 			updateListItems();
 		} else {
 			createNewList();
 		}
+		rememberInput();
 
 		// revert label creation setting
 		cons.setSuppressLabelCreation(oldSuppressLabels);
 		updateRunning = false;
 	}
 
+	private void rememberInput() {
+		if (lastOverStamps == null) {
+			lastOverStamps = new int[listCount];
+		}
+		for (int i = 0; i < listCount; i++) {
+			lastOverStamps[i] = over[i].getUpdateStamp();
+		}
+		lastExpressionCount = getExpressionCount();
+	}
+
+	private int getExpressionCount() {
+		return expressionParentAlgo == null ? 0
+				: expressionParentAlgo.getComputeCount();
+	}
+
+	/**
+	 * @return number of elements at the start of the list whose input
+	 *         elements were not changed since the last update
+	 */
+	private int countUnchangedElements() {
+		if (lastOverStamps == null || expIsFunctionOrCurve
+				|| expressionParentAlgo == null
+				|| getExpressionCount() != lastExpressionCount) {
+			return 0;
+		}
+		int unchanged = Math.min(list.size(), minOverSize());
+		for (int i = 0; i < listCount; i++) {
+			for (int k = 0; k < unchanged; k++) {
+				if (over[i].isElementChangedSince(k, lastOverStamps[i])) {
+					unchanged = k;
+					break;
+				}
+			}
+		}
+		return unchanged;
+	}
+
+	private void resizeList(int unchanged) {
+		int oldListSize = list.size();
+		int length = minOverSize();
+
+		// the list got shorter
+		for (int k = oldListSize - 1; k >= length; k--) {
+			GeoElement oldElement = list.get(k);
+			list.remove(k);
+			oldElement.setUndefined();
+			oldElement.update();
+		}
+
+		// changed elements
+		for (int k = unchanged; k < list.size(); k++) {
+			updateLocalVar(k);
+			setElementValue(list.get(k));
+		}
+
+		// the list got longer
+		for (int k = list.size(); k < length; k++) {
+			if (kernel.getApplication().freeMemoryIsCritical()) {
+				long mem = kernel.getApplication().freeMemory();
+				list.clearCache();
+				kernel.initUndoInfo(); // clear all undo info
+				Log.debug("AlgoZip aborted: free memory reached " + mem);
+				// the list is incomplete: report all elements as changed and
+				// grow it again in the next update
+				list.setUnchangedElements(0);
+				last_length = list.size();
+				return;
+			}
+			updateLocalVar(k);
+			addElement(k);
+		}
+		list.setUnchangedElements(unchanged);
+		last_length = length;
+	}
+
 	private void createNewList() {
 		// clear list if defined
 		int i = 0;
@@ -319,25 +405,27 @@ public class AlgoZip extends AlgoElement {
 
 			// set local var value
 			updateLocalVar(currentVal);
+			setElementValue(listElement);
+
+			currentVal += 1;
+		}
+	}
 
-			// copy expression value to listElement
-			// if it's undefined, just copy the undefined property
-			if (expression.isDefined()) {
-				listElement.set(expression);
-				if (listElement.isGeoList()) {
-					for (int j = 0; j < varCount; j++) {
-						((GeoList) listElement)
-								.replaceChildrenByValues(vars[j]);
-					}
+	private void setElementValue(GeoElement listElement) {
+		// copy expression value to listElement
+		// if it's undefined, just copy the undefined property
+		if (expression.isDefined()) {
+			listElement.set(expression);
+			if (listElement.isGeoList()) {
+				for (int j = 0; j < varCount; j++) {
+					((GeoList) listElement).replaceChildrenByValues(vars[j]);
 				}
-			} else {
-				listElement.setUndefined();
 			}
-			copyDrawAlgo(listElement);
-			listElement.update();
-
-			currentVal += 1;
+		} else {
+			listElement.setUndefined();
 		}
+		copyDrawAlgo(listElement);
+		listElement.update();
 	}
 
 	private void copyDrawAlgo(GeoElement listElement) {
@@ -126,13 +126,13 @@ public class AlgoAppend extends AlgoElement {
 		outputList.clear();
 
 		if (order == ADD_OBJECT_AT_START) {
-			outputList.add(geo.copyInternal(cons));
+			outputList.addReusedCopy(geo);
 		}
 		for (int i = 0; i < size; i++) {
-			outputList.add(inputList.get(i).copyInternal(cons));
+			outputList.addReusedCopy(inputList.get(i));
 		}
 		if (order == ADD_OBJECT_AT_END) {
-			outputList.add(geo.copyInternal(cons));
+			outputList.addReusedCopy(geo);
 		}
 	}
 
@@ -68,6 +68,11 @@ public class AlgoDistancePoints extends AlgoElement
 		return Commands.Distance;
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public int getRelatedModeID() {
 		return EuclidianConstants.MODE_DISTANCE;
@@ -44,6 +44,8 @@ import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 /**
  * AlgoElement is the superclass of all algorithms.
@@ -78,6 +80,7 @@ public abstract class AlgoElement extends ConstructionElement
 	 */
 	private List<OutputHandler<?>> outputHandler;
 	private boolean mayHaveRandomAncestors = true;
+	private int computeCount;
 	/** string builder */
 	protected StringBuilder sbAE = new StringBuilder();
 	/** flag stating whether remove() on this algo was already called */
@@ -578,10 +581,6 @@ public abstract class AlgoElement extends ConstructionElement
 		return false;
 	}
 
-	// public static double startTime, endTime;
-	// public static double computeTime, updateTime;
-	// public static double counter;
-
 	@Override
 	public void update() {
 		if (stopUpdateCascade) {
@@ -590,20 +589,71 @@ public abstract class AlgoElement extends ConstructionElement
 
 		updateUnlabeledRandomGeos();
 
-		// counter++;
-		// startTime = System.currentTimeMillis();
-
 		// compute output from input
+		computeMeasured();
+
+		updateDependentGeos();
+	}
+
+	/**
+	 * Calls compute(), recording its duration if performance metrics are
+	 * enabled.
+	 */
+	private void computeMeasured() {
+		PerformanceMetrics metrics = kernel.getMetrics();
+		double start = metrics.startTimer();
 		compute();
+		computeCount++;
+		metrics.recordTime(MetricType.ALGO_COMPUTE, this, start);
+	}
 
-		// endTime = System.currentTimeMillis();
-		// computeTime += (endTime - startTime);
-		// startTime = System.currentTimeMillis();
+	/**
+	 * Algos that only need to redo part of their work can compare this
+	 * between two updates to find out whether one of their inputs was
+	 * recomputed in the meantime.
+	 * 
+	 * @return number of times the output was computed by an update
+	 */
+	public int getComputeCount() {
+		return computeCount;
+	}
 
-		updateDependentGeos();
+	/**
+	 * Whether compute() only reads the input and writes the output of this
+	 * algo, so that it may run on a worker thread concurrently with algos
+	 * that do not depend on it. Such algos must not override update().
+	 * 
+	 * @return whether compute() may run on a worker thread
+	 */
+	public boolean isComputeThreadSafe() {
+		return false;
+	}
+
+	/**
+	 * First part of {@link #update()} for algos that are
+	 * {@link #isComputeThreadSafe()}: computes the output without notifying
+	 * anyone. May be called from a worker thread, must be followed by
+	 * {@link #notifyOutput()}.
+	 */
+	public final void computeOutput() {
+		if (!stopUpdateCascade && !mayHaveRandomAncestors) {
+			computeMeasured();
+		}
+	}
 
-		// endTime = System.currentTimeMillis();
-		// updateTime += (endTime - startTime );
+	/**
+	 * Second part of {@link #update()} after {@link #computeOutput()}:
+	 * updates the output objects. Must be called from the kernel thread.
+	 */
+	public final void notifyOutput() {
+		if (stopUpdateCascade) {
+			return;
+		}
+		if (mayHaveRandomAncestors) {
+			updateUnlabeledRandomGeos();
+			computeMeasured();
+		}
+		updateDependentGeos();
 	}
 
 	/**
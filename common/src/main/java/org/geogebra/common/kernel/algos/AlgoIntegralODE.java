@@ -3,21 +3,16 @@ package org.geogebra.common.kernel.algos;
 import java.util.ArrayList;
 
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
-import org.apache.commons.math3.ode.FirstOrderIntegrator;
 import org.apache.commons.math3.ode.nonstiff.ClassicalRungeKuttaIntegrator;
-import org.apache.commons.math3.ode.sampling.StepHandler;
-import org.apache.commons.math3.ode.sampling.StepInterpolator;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
-import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoFunction;
 import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.geos.GeoPoint;
-import org.geogebra.common.util.debug.Log;
 
 /**
  * 
@@ -41,7 +36,15 @@ public class AlgoIntegralODE extends AlgoElement {
 	private FunctionalNVar den;
 
 	private boolean quotient;
-	private ArrayList<MyPoint> al;
+	private ArrayList<MyPoint> al = new ArrayList<>();
+
+	// integration state, kept so that zooming only extends the solutions
+	private FirstOrderDifferentialEquations ode;
+	private ODESolution forward;
+	private ODESolution backward;
+	private double[] initialState;
+	private boolean forwardDrawn;
+	private int backwardStart;
 
 	final private static double step = 0.02;
 	final private static int n = 20;
@@ -83,6 +86,19 @@ public class AlgoIntegralODE extends AlgoElement {
 
 		quotient = num.isDefined() && den.isDefined();
 
+		if (!quotient) {
+			ode = new ODE(f0);
+			initialState = new double[1];
+		} else {
+			ode = new ODE2(num, den);
+			initialState = new double[2];
+		}
+		int dim = initialState.length;
+		forward = new ODESolution(new ClassicalRungeKuttaIntegrator(step),
+				dim);
+		backward = new ODESolution(new ClassicalRungeKuttaIntegrator(step),
+				dim);
+
 		locus = new GeoLocus(cons);
 		setInputOutput(); // for AlgoElement
 		compute();
@@ -158,105 +174,83 @@ public class AlgoIntegralODE extends AlgoElement {
 			}
 		}
 
-		if (al == null) {
-			al = new ArrayList<>();
-		} else {
-			al.clear();
-		}
-
-		FirstOrderIntegrator integrator = new ClassicalRungeKuttaIntegrator(
-				step);
-		FirstOrderDifferentialEquations ode;
-
+		FunctionalNVar[] functions = quotient
+				? new FunctionalNVar[] { num, den }
+				: new FunctionalNVar[] { f0 };
+		boolean sameEquations = forward
+				.updateEquations((GeoElement) f0);
+		double t0;
+		double forwardEnd;
+		double backwardEnd;
+		int xComponent;
+		int yComponent;
 		if (!quotient) {
-			ode = new ODE(f0);
+			t0 = p.inhomX;
+			initialState[0] = p.inhomY;
+			forwardEnd = xmax;
+			backwardEnd = xmin;
+			xComponent = -1;
+			yComponent = 0;
 		} else {
-			ode = new ODE2(num, den);
+			t0 = 0;
+			initialState[0] = p.inhomX;
+			initialState[1] = p.inhomY;
+			forwardEnd = n;
+			backwardEnd = -n;
+			xComponent = 0;
+			yComponent = 1;
 		}
 
-		integrator.addStepHandler(stepHandler);
-
-		al.add(new MyPoint(p.inhomX, p.inhomY, SegmentType.MOVE_TO));
-
-		double[] yy = new double[] { p.inhomY }; // initial state
-		double[] yy2 = new double[] { p.inhomX, p.inhomY }; // initial state
-		double[] yya = new double[] { p.inhomY }; // initial state
-		double[] yy2a = new double[] { p.inhomX, p.inhomY }; // initial state
-		if (!quotient) {
-
-			if (p.inhomX < xmax) {
+		// points of unchanged samples are kept, the rest are overwritten
+		int pos = 0;
+		ODESolution.startCompiledEvaluation(functions);
+		try {
+			boolean drawForward = quotient || p.inhomX < xmax;
+			if (drawForward) {
 				// draw forwards
-				try {
-					integrator.integrate(ode, p.inhomX, yy, xmax, yy);
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-
-				al.add(new MyPoint(p.inhomX, p.inhomY, SegmentType.MOVE_TO));
+				int from = integrate(forward, t0, forwardEnd, sameEquations);
+				from = forwardDrawn ? Math.min(from, al.size()) : 0;
+				pos = forward.writePoints(al, from, from, xComponent,
+						yComponent);
 			}
-
-			if (p.inhomX > xmin) {
+			forwardDrawn = drawForward;
+			if (quotient || p.inhomX > xmin) {
 				// draw backwards
-				try {
-					integrator.integrate(ode, p.inhomX, yya, xmin, yya);
-				} catch (Exception e) {
-					e.printStackTrace();
+				int from = integrate(backward, t0, backwardEnd, sameEquations);
+				if (pos != backwardStart) {
+					backwardStart = pos;
+					from = 0;
 				}
-
-			}
-		} else {
-
-			// draw forwards
-			try {
-				integrator.integrate(ode, 0.0, yy2, n, yy2);
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-			// draw backwards
-			al.add(new MyPoint(p.inhomX, p.inhomY, SegmentType.MOVE_TO));
-			try {
-				integrator.integrate(ode, 0.0, yy2a, -n, yy2a);
-			} catch (Exception e) {
-				e.printStackTrace();
+				from = Math.max(0, Math.min(from, al.size() - pos));
+				pos = backward.writePoints(al, pos + from, from, xComponent,
+						yComponent);
 			}
+		} finally {
+			ODESolution.endCompiledEvaluation(functions);
 		}
+		ODESolution.trimPoints(al, pos);
 
 		locus.setPoints(al);
 		locus.setDefined(true);
 
 	}
 
-	private StepHandler stepHandler = new StepHandler() {
-		// @Override
-		// public void reset() {
-		// //
-		// }
-		//
-		// @Override
-		// public boolean requiresDenseOutput() {
-		// return false;
-		// }
-
-		@Override
-		public void handleStep(StepInterpolator interpolator, boolean isLast) {
-			double t = interpolator.getCurrentTime();
-			double[] y = interpolator.getInterpolatedState();
-			// System.out.println(t + " " + y[0]);
-
-			addMyPoint(t, y);
-
-		}
-
-		@Override
-		public void init(double t0, double[] y0, double t) {
-			Log.error("unimplemented");
-
+	private int integrate(ODESolution solution, double t0, double end,
+			boolean sameEquations) {
+		try {
+			return solution.integrate(ode, t0, initialState, end,
+					sameEquations);
+		} catch (Exception e) {
+			// keep the part computed so far
+			e.printStackTrace();
+			return 0;
 		}
-	};
+	}
 
 	private static class ODE implements FirstOrderDifferentialEquations {
 
 		FunctionalNVar f;
+		private double[] input = new double[2];
 
 		public ODE(FunctionalNVar f) {
 			this.f = f;
@@ -270,7 +264,8 @@ public class AlgoIntegralODE extends AlgoElement {
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
 
-			double[] input = { t, y[0] };
+			input[0] = t;
+			input[1] = y[0];
 
 			// special case for f(y)= (substitute y not x)
 			// eg SolveODE[y, x(A), y(A), 5, 0.1]
@@ -287,6 +282,7 @@ public class AlgoIntegralODE extends AlgoElement {
 
 		FunctionalNVar y0;
 		FunctionalNVar y1;
+		private double[] input = new double[2];
 
 		public ODE2(FunctionalNVar y, FunctionalNVar x) {
 			this.y0 = y;
@@ -301,7 +297,8 @@ public class AlgoIntegralODE extends AlgoElement {
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
 
-			double[] input = { y[0], y[1] };
+			input[0] = y[0];
+			input[1] = y[1];
 
 			// special case for f(y)= (substitute y not x)
 			// eg SolveODE[-y, x, x(A), y(A), 5, 0.1]
@@ -336,18 +333,4 @@ public class AlgoIntegralODE extends AlgoElement {
 		}
 	}
 
-	/**
-	 * @param t
-	 *            time
-	 * @param y
-	 *            interpolator values
-	 */
-	protected void addMyPoint(double t, double[] y) {
-		if (!quotient) {
-			al.add(new MyPoint(t, y[0], SegmentType.LINE_TO));
-		} else {
-			al.add(new MyPoint(y[0], y[1], SegmentType.LINE_TO));
-		}
-	}
-
 }
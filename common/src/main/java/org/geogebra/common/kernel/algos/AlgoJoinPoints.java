@@ -99,6 +99,11 @@ public class AlgoJoinPoints extends AlgoElement
 		return Commands.Line;
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public int getRelatedModeID() {
 		return EuclidianConstants.MODE_JOIN;
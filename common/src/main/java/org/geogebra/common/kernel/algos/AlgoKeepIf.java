@@ -112,7 +112,7 @@ public class AlgoKeepIf extends AlgoElement {
 				if (geo.isGeoNumeric()) {
 					if (boolFun
 							.evaluateBoolean(((GeoNumeric) geo).getValue())) {
-						outputList.add(geo.copyInternal(cons));
+						outputList.addReusedCopy(geo);
 					}
 				} else {
 					ExpressionNode ex = boolFun.getFunction().getExpression()
@@ -123,7 +123,7 @@ public class AlgoKeepIf extends AlgoElement {
 					if (((MyBoolean) ex
 							.evaluate(StringTemplate.defaultTemplate))
 									.getBoolean()) {
-						outputList.add(geo.copyInternal(cons));
+						outputList.addReusedCopy(geo);
 					}
 				}
 
@@ -63,6 +63,11 @@ public class AlgoLineBisector extends AlgoElement
 		return Commands.LineBisector;
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public int getRelatedModeID() {
 		return EuclidianConstants.MODE_LINE_BISECTOR;
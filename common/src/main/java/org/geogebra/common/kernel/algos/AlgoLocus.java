@@ -121,6 +121,11 @@ public class AlgoLocus extends AlgoLocusND<MyPoint> {
 				lineTo);
 	}
 
+	@Override
+	protected void insertPoint(double x, double y, double z, boolean lineTo) {
+		insertPoint(x, y, lineTo);
+	}
+
 	private void insertPoint(double x, double y, boolean lineTo) {
 		pointCount++;
 
@@ -34,6 +34,7 @@ import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoLocusND;
 import org.geogebra.common.kernel.implicit.GeoImplicit;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.util.AsyncOperation;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -50,6 +51,9 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	/** maximum time for the computation of one locus point in millis **/
 	public static final int MAX_TIME_FOR_ONE_STEP = 500;
 
+	/** maximum number of segments sampled in parallel */
+	public static final int MAX_PARALLEL_SEGMENTS = 16;
+
 	private int minStepsInstance = PathMover.MIN_STEPS;
 
 	protected static final int MAX_X_PIXEL_DIST = 5;
@@ -98,6 +102,14 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	// list with all original elements used for the macro construction
 	private TreeSet<ConstructionElement> locusConsOrigElements;
 	private TreeSet<GeoElement> Qin;
+	private String locusConsXML;
+
+	// copies of the macro construction for parallel sampling
+	private LocusSampler[] samplers;
+	private LocusSegment[] segments;
+	private boolean samplersFailed;
+	private double[] segmentEnd = new double[3];
+	private AsyncOperation<LocusSegment> segmentConsumer;
 
 	private int views = 1;
 	protected boolean[] visibleEV = { false, false, false };
@@ -364,25 +376,11 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	private void buildLocusMacroConstruction(
 			TreeSet<ConstructionElement> locusConsElements) {
 		// build macro construction
-		macroKernel = kernel.newMacroKernel();
-		macroKernel.setGlobalVariableLookup(true);
-
-		// tell the macro construction about reserved names:
-		// these names will not be looked up in the parent
-		// construction
-		Iterator<ConstructionElement> it = locusConsElements.iterator();
-		while (it.hasNext()) {
-			ConstructionElement ce = it.next();
-			if (ce.isGeoElement()) {
-				GeoElement geo = (GeoElement) ce;
-				macroKernel.addReservedLabel(
-						geo.getLabel(StringTemplate.defaultTemplate));
-			}
-		}
+		macroKernel = newLocusMacroKernel(locusConsElements);
 
 		try {
 			// get XML for macro construction of P -> Q
-			String locusConsXML = Macro.buildMacroXML(kernel, locusConsElements)
+			locusConsXML = Macro.buildMacroXML(kernel, locusConsElements)
 					.toString();
 			macroKernel.loadXML(locusConsXML);
 
@@ -427,11 +425,34 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 		// //Application.debug("Q == Qcopy: " + (Q == Qcopy));
 	}
 
+	private MacroKernel newLocusMacroKernel(
+			TreeSet<ConstructionElement> locusConsElements) {
+		MacroKernel newKernel = kernel.newMacroKernel();
+		newKernel.setGlobalVariableLookup(true);
+
+		// tell the macro construction about reserved names:
+		// these names will not be looked up in the parent
+		// construction
+		Iterator<ConstructionElement> it = locusConsElements.iterator();
+		while (it.hasNext()) {
+			ConstructionElement ce = it.next();
+			if (ce.isGeoElement()) {
+				GeoElement geo = (GeoElement) ce;
+				newKernel.addReservedLabel(
+						geo.getLabel(StringTemplate.defaultTemplate));
+			}
+		}
+		return newKernel;
+	}
+
 	/**
 	 * Set all elements in locusConsElements to the current values of the main
 	 * construction
+	 * 
+	 * @param copyCons
+	 *            copy of the locus construction
 	 */
-	private void resetMacroConstruction() {
+	private void resetMacroConstruction(Construction copyCons) {
 		Iterator<ConstructionElement> it = locusConsOrigElements.iterator();
 		while (it.hasNext()) {
 			ConstructionElement ce = it.next();
@@ -440,7 +461,7 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 				// do not copy functions, their expressions already
 				// include references to the correct other geos
 				if (!geoOrig.isGeoFunction()) {
-					GeoElement geoCopy = macroCons
+					GeoElement geoCopy = copyCons
 							.lookupLabel(geoOrig.getLabelSimple());
 					if (geoCopy != null) {
 						try {
@@ -483,8 +504,16 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 		continuous = kernel.isContinuous();
 		macroKernel.setContinuous(continuous);
 
+		// continuous constructions depend on the order of the steps
+		LocusEvaluator evaluator = kernel.getLocusEvaluator();
+		if (evaluator != null && !continuous
+				&& evaluator.getParallelism() > 1
+				&& computeInParallel(evaluator)) {
+			return;
+		}
+
 		// update macro construction with current values of global vars
-		resetMacroConstruction();
+		resetMacroConstruction(macroCons);
 		macroCons.updateConstruction(false);
 
 		// lines: start from startpoint to avoid inf. problems.
@@ -663,6 +692,193 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 		// ", cache used: " + useCache);
 	}
 
+	/**
+	 * Samples the path parameter range in segments, each with its own copy of
+	 * the macro construction, and inserts the points in order.
+	 * 
+	 * @param evaluator
+	 *            evaluator running the samplers
+	 * @return false if the construction can't be copied for sampling
+	 */
+	private boolean computeInParallel(LocusEvaluator evaluator) {
+		int parts = Math.min(evaluator.getParallelism(),
+				MAX_PARALLEL_SEGMENTS);
+		if (!initSamplers(parts)) {
+			return false;
+		}
+		for (LocusSampler sampler : samplers) {
+			((GeoElement) sampler.getPath()).set(path.toGeoElement());
+			resetMacroConstruction(sampler.getConstruction());
+			sampler.getConstruction().updateConstruction(false);
+		}
+		initSegments();
+		if (segmentConsumer == null) {
+			segmentConsumer = new AsyncOperation<LocusSegment>() {
+				@Override
+				public void callback(LocusSegment segment) {
+					insertSegment(segment);
+				}
+			};
+		}
+		evaluator.sample(samplers, segments, segmentConsumer);
+		locus.setDefined(foundDefined);
+		return true;
+	}
+
+	private boolean initSamplers(int parts) {
+		if (samplersFailed) {
+			return false;
+		}
+		if (samplers != null && samplers.length == parts) {
+			return true;
+		}
+		LocusSampler[] newSamplers = new LocusSampler[parts];
+		for (int i = 0; i < parts; i++) {
+			newSamplers[i] = samplers != null && i < samplers.length
+					? samplers[i] : createSampler();
+			if (newSamplers[i] == null) {
+				samplersFailed = true;
+				samplers = null;
+				return false;
+			}
+		}
+		samplers = newSamplers;
+		segments = new LocusSegment[parts];
+		for (int i = 0; i < parts; i++) {
+			segments[i] = new LocusSegment();
+		}
+		return true;
+	}
+
+	/**
+	 * @return sampler with a new copy of the macro construction, null if the
+	 *         copy may not be updated on a worker thread
+	 */
+	private LocusSampler createSampler() {
+		GeoElement pathGeo = path.toGeoElement();
+		if (locusConsXML == null || !isSafeToShare(pathGeo)) {
+			return null;
+		}
+		MacroKernel samplerKernel = newLocusMacroKernel(
+				locusConsOrigElements);
+		try {
+			samplerKernel.loadXML(locusConsXML);
+		} catch (Exception e) {
+			Log.debug("AlgoLocus: can't copy construction " + e.getMessage());
+			return null;
+		}
+		samplerKernel.setContinuous(false);
+		Construction samplerCons = samplerKernel.getConstruction();
+		GeoElement pCopy = samplerCons
+				.lookupLabel(((GeoElement) movingPoint).getLabelSimple());
+		GeoElement qCopy = samplerCons
+				.lookupLabel(((GeoElement) locusPoint).getLabelSimple());
+		if (!(pCopy instanceof GeoPointND) || !(qCopy instanceof GeoPointND)) {
+			return null;
+		}
+		// elements of the main construction are read by all samplers
+		// at the same time, evaluating functions would change them
+		for (GeoElement geo : samplerCons.getGeoSetConstructionOrder()) {
+			AlgoElement algo = geo.getParentAlgorithm();
+			if (algo != null) {
+				for (GeoElement input : algo.getInput()) {
+					if (input.getConstruction() != samplerCons
+							&& !isSafeToShare(input)) {
+						return null;
+					}
+				}
+			}
+		}
+		// private copy of the path: pathChanged may use temporary fields
+		GeoElement pathCopy = pathGeo.copy();
+		if (!(pathCopy instanceof Path)) {
+			return null;
+		}
+		pCopy.setFixed(false);
+		((GeoPointND) pCopy).setPath((Path) pathCopy);
+		return new LocusSampler(samplerCons, (GeoPointND) pCopy,
+				(GeoPointND) qCopy, (Path) pathCopy);
+	}
+
+	/**
+	 * @param geo
+	 *            element of the main construction
+	 * @return whether reading the element from several threads is safe
+	 */
+	private static boolean isSafeToShare(GeoElement geo) {
+		return geo.isGeoPoint() || geo.isGeoVector() || geo.isGeoNumeric()
+				|| geo.isGeoBoolean() || geo.isGeoLine() || geo.isGeoSegment()
+				|| geo.isGeoRay() || geo.isGeoConic() || geo.isGeoPolygon();
+	}
+
+	private void initSegments() {
+		int viewCount = 0;
+		for (int i = 0; i < visibleEV.length
+				&& i < kernel.getXmaxLength(); i++) {
+			if (visibleEV[i]) {
+				viewCount++;
+			}
+		}
+		double[] maxDist = new double[3 * viewCount];
+		double[] farBounds = new double[4 * viewCount];
+		int v = 0;
+		for (int i = 0; i < visibleEV.length
+				&& i < kernel.getXmaxLength(); i++) {
+			if (visibleEV[i]) {
+				maxDist[3 * v] = maxXdist[i];
+				maxDist[3 * v + 1] = maxYdist[i];
+				maxDist[3 * v + 2] = getMaxZdist(i);
+				farBounds[4 * v] = farXmin[i];
+				farBounds[4 * v + 1] = farXmax[i];
+				farBounds[4 * v + 2] = farYmin[i];
+				farBounds[4 * v + 3] = farYmax[i];
+				v++;
+			}
+		}
+		int parts = segments.length;
+		int steps = (minStepsInstance + parts - 1) / parts;
+		int maxPoints = PathMover.MAX_POINTS * views / parts;
+		for (int i = 0; i < parts; i++) {
+			segments[i].setRange(i / (double) parts, (i + 1) / (double) parts,
+					steps, maxPoints);
+			segments[i].setResolution(maxDist, farBounds, viewCount);
+		}
+	}
+
+	/**
+	 * Inserts the points of a segment; its first point is skipped if it is
+	 * the last point of the previous segment.
+	 * 
+	 * @param segment
+	 *            sampled segment
+	 */
+	protected void insertSegment(LocusSegment segment) {
+		if (segment.isTimedOut()) {
+			Log.debug("AlgoLocus: max time exceeded in segment "
+					+ segment.getFrom());
+		}
+		for (int i = 0; i < segment.size(); i++) {
+			double x = segment.getX(i);
+			double y = segment.getY(i);
+			double z = segment.getZ(i);
+			if (i == 0 && foundDefined && x == segmentEnd[0]
+					&& y == segmentEnd[1] && z == segmentEnd[2]) {
+				continue;
+			}
+			insertPoint(x, y, z, foundDefined && segment.isLineTo(i));
+			foundDefined = true;
+		}
+		int last = segment.size() - 1;
+		if (last >= 0) {
+			segmentEnd[0] = segment.getX(last);
+			segmentEnd[1] = segment.getY(last);
+			segmentEnd[2] = segment.getZ(last);
+		} else {
+			// no point in the whole segment: don't join the next one
+			segmentEnd[0] = Double.NaN;
+		}
+	}
+
 	/**
 	 * 
 	 * @param point
@@ -819,6 +1035,30 @@ public abstract class AlgoLocusND<T extends MyPoint> extends AlgoElement {
 	 */
 	abstract protected void insertPoint(GeoPointND point, boolean lineTo);
 
+	/**
+	 * insert point
+	 * 
+	 * @param x
+	 *            x-coord
+	 * @param y
+	 *            y-coord
+	 * @param z
+	 *            z-coord, ignored for 2D loci
+	 * @param lineTo
+	 *            if line to
+	 */
+	abstract protected void insertPoint(double x, double y, double z,
+			boolean lineTo);
+
+	/**
+	 * @param i
+	 *            view index
+	 * @return max z distance of connected points for this view
+	 */
+	protected double getMaxZdist(int i) {
+		return Double.POSITIVE_INFINITY;
+	}
+
 	/**
 	 * 
 	 * @param point
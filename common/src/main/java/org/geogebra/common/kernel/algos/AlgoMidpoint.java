@@ -60,6 +60,11 @@ public class AlgoMidpoint extends AlgoMidpointND
 		return new GeoPoint(cons1);
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public GeoPoint getPoint() {
 		return (GeoPoint) super.getPoint();
@@ -3,15 +3,10 @@ package org.geogebra.common.kernel.algos;
 import java.util.ArrayList;
 
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
-import org.apache.commons.math3.ode.FirstOrderIntegrator;
 import org.apache.commons.math3.ode.nonstiff.DormandPrince54Integrator;
-import org.apache.commons.math3.ode.sampling.StepHandler;
-import org.apache.commons.math3.ode.sampling.StepInterpolator;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
-import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
-import org.geogebra.common.kernel.arithmetic.MyDouble;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
@@ -37,6 +32,8 @@ public class AlgoNSolveODE extends AlgoElement {
 	private double[] y0;
 	/** dimension (number of functions) */
 	protected int dim;
+	private ODESolution solution;
+	private ODEN ode;
 
 	/**
 	 * @param cons
@@ -64,6 +61,14 @@ public class AlgoNSolveODE extends AlgoElement {
 
 		dim = fun.size();
 		y0 = new double[dim];
+		solution = new ODESolution(
+				new DormandPrince54Integrator(0.001, 0.01, 0.000001, 0.0001),
+				dim);
+		ode = new ODEN(fun);
+		al = new ArrayList<>(dim);
+		for (int i = 0; i < dim; i++) {
+			al.add(new ArrayList<MyPoint>());
+		}
 		setInputOutput();
 		compute();
 		LabelManager.setLabels(labels, out);
@@ -117,33 +122,29 @@ public class AlgoNSolveODE extends AlgoElement {
 			y0[i] = ((GeoNumeric) startY.get(i)).getDouble();
 		}
 
-		al = new ArrayList<>(dim);
-
-		for (int i = 0; i < dim; i++) {
-			al.add(new ArrayList<MyPoint>());
-		}
-
-		FirstOrderIntegrator integrator = new DormandPrince54Integrator(0.001,
-				0.01, 0.000001, 0.0001);
-		FirstOrderDifferentialEquations ode = new ODEN(fun);
-
-		integrator.addStepHandler(stepHandler);
-
-		for (int i = 0; i < dim; i++) {
-			al.get(i).add(new MyPoint(startX.getDouble(), y0[i],
-					SegmentType.MOVE_TO));
-		}
+		boolean sameEquations = solution.updateEquations(fun);
+		FunctionalNVar[] functions = ODESolution.getFunctions(fun);
+		int firstChanged;
+		ODESolution.startCompiledEvaluation(functions);
 		try {
-			integrator.integrate(ode, t0, y0, endX.getDouble(), y0);
+			firstChanged = solution.integrate(ode, t0, y0, endX.getDouble(),
+					sameEquations);
 		} catch (RuntimeException e) {
 			// catches ArithmeticException, IllegalStateException and
 			// ArithmeticException
 			setUndefined();
 			return;
+		} finally {
+			ODESolution.endCompiledEvaluation(functions);
 		}
 
+		// rewrite only the samples that changed, reusing the points
 		for (int i = 0; i < dim; i++) {
-			out[i].setPoints(al.get(i));
+			ArrayList<MyPoint> points = al.get(i);
+			int from = Math.min(firstChanged, points.size());
+			ODESolution.trimPoints(points,
+					solution.writePoints(points, from, from, -1, i));
+			out[i].setPoints(points);
 			out[i].setDefined(true);
 		}
 	}
@@ -154,32 +155,13 @@ public class AlgoNSolveODE extends AlgoElement {
 		}
 	}
 
-	private StepHandler stepHandler = new StepHandler() {
-
-		@Override
-		public void init(double ts0, double[] ys0, double t) {
-			//this.
-		}
-
-		@Override
-		public void handleStep(StepInterpolator interpolator, boolean isLast) {
-			double t = interpolator.getCurrentTime();
-			if (!MyDouble.isFinite(t)) {
-				throw new IllegalArgumentException(
-						"Invalid value of time:" + t);
-			}
-			double[] y1 = interpolator.getInterpolatedState();
-			for (int i = 0; i < y1.length; i++) {
-				al.get(i).add(new MyPoint(t, y1[i], SegmentType.LINE_TO));
-			}
-		}
-	};
-
 	private class ODEN implements FirstOrderDifferentialEquations {
 		private GeoList fun1;
+		private double[] input1;
 
 		public ODEN(GeoList fun) {
 			this.fun1 = fun;
+			this.input1 = new double[dim + 1];
 		}
 
 		@Override
@@ -189,7 +171,6 @@ public class AlgoNSolveODE extends AlgoElement {
 
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
-			double[] input1 = new double[dim + 1];
 			input1[0] = t;
 			for (int i = 0; i < dim; i++) {
 				input1[i + 1] = y[i];
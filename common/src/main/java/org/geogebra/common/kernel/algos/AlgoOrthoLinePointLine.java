@@ -97,6 +97,11 @@ public class AlgoOrthoLinePointLine extends AlgoElement
 		return Commands.OrthogonalLine;
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public int getRelatedModeID() {
 		return EuclidianConstants.MODE_ORTHOGONAL;
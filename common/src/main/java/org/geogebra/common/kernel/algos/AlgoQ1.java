@@ -12,8 +12,6 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.algos;
 
-import java.util.Arrays;
-
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
@@ -106,22 +104,12 @@ public class AlgoQ1 extends AlgoElement {
 		// ========================================
 
 		if (freqList == null) {
-			double[] sortList = new double[size];
-
-			// copy inputList into an array
-			for (int i = 0; i < size; i++) {
-				GeoElement geo = inputList.get(i);
-				if (geo instanceof NumberValue) {
-					sortList[i] = geo.evaluateDouble();
-				} else {
-					Q1.setUndefined();
-					return;
-				}
+			double[] sortList = inputList.getSortedNumericValues();
+			if (sortList == null) {
+				Q1.setUndefined();
+				return;
 			}
 
-			// do the sorting
-			Arrays.sort(sortList);
-
 			switch (size % 4) {
 			case 0:
 				Q1.setValue((sortList[(size) / 4 - 1]
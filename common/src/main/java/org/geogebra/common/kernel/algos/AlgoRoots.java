@@ -331,6 +331,16 @@ public class AlgoRoots extends AlgoGeoPointsFunction {
 	 */
 	public static final double[] findRoots(Function f, double l, double r,
 			int samples) {
+		f.startCompiledEvaluation();
+		try {
+			return sampleRoots(f, l, r, samples);
+		} finally {
+			f.endCompiledEvaluation();
+		}
+	}
+
+	private static double[] sampleRoots(Function f, double l, double r,
+			int samples) {
 		if (DoubleUtil.isEqual(l, r)) {
 			return DoubleUtil.isZero(f.value(l)) ? new double[] { l }
 					: new double[0];
@@ -48,6 +48,8 @@ public class AlgoSequence extends AlgoElement {
 	private double last_from = Double.MIN_VALUE;
 	private double last_to = Double.MIN_VALUE;
 	private double last_step = Double.MIN_VALUE;
+	private int lastSize = -1;
+	private int lastExpressionCount;
 	private boolean expIsFunctionOrCurve;
 	private boolean isEmpty;
 	private AlgoElement expressionParentAlgo;
@@ -187,6 +189,8 @@ public class AlgoSequence extends AlgoElement {
 		}
 
 		updateRunning = true;
+		boolean wasDefined = list.isDefined();
+		list.setUnchangedElements(0);
 		for (int i = 1; i < input.length; i++) {
 			if (input[i] != var && !input[i].isDefined()) { // don't check the
 															// var itself (maybe
@@ -218,6 +222,11 @@ public class AlgoSequence extends AlgoElement {
 		// setValues does not work for functions
 		setValuesOnly = setValuesOnly && !expIsFunctionOrCurve;
 
+		// only the upper bound changed: elements for values of var that are
+		// still in range keep their values
+		boolean resizeOnly = !setValuesOnly && wasDefined
+				&& canKeepElements(from, to, step);
+
 		// avoid label creation, might happen e.g. in
 		boolean oldSuppressLabels = cons.isSuppressLabelsActive();
 		cons.setSuppressLabelCreation(true);
@@ -225,15 +234,89 @@ public class AlgoSequence extends AlgoElement {
 		// update list
 		if (setValuesOnly) {
 			updateListItems(from, to, step);
+		} else if (resizeOnly) {
+			resizeList(from, to, step);
 		} else {
 			createNewList(from, to, step);
 		}
+		lastSize = list.size();
+		lastExpressionCount = getExpressionCount();
 
 		// revert label creation setting
 		cons.setSuppressLabelCreation(oldSuppressLabels);
 		updateRunning = false;
 	}
 
+	private boolean canKeepElements(double from, double to, double step) {
+		return from == last_from && step == last_step && !expIsFunctionOrCurve
+				&& list.size() == lastSize
+				&& !Double.isInfinite((to - from) / step)
+				// values of a free expression can't be tracked
+				&& (expressionParentAlgo != null || expression == var)
+				// expression wasn't recomputed since the last update
+				&& getExpressionCount() == lastExpressionCount;
+	}
+
+	private int getExpressionCount() {
+		return expressionParentAlgo == null ? 0
+				: expressionParentAlgo.getComputeCount();
+	}
+
+	private void resizeList(double from, double to, double step) {
+		int oldListSize = list.size();
+		int i = 0;
+		double currentVal = from;
+		if (!isEmpty) {
+			while (i < oldListSize && isInRange(currentVal, to, step)) {
+				currentVal = nextValue(currentVal, step);
+				i++;
+			}
+		}
+		int unchanged = i;
+
+		// the list got shorter
+		for (int k = oldListSize - 1; k >= unchanged; k--) {
+			GeoElement oldElement = list.get(k);
+			list.remove(k);
+			oldElement.setUndefined();
+			oldElement.update();
+		}
+
+		// the list got longer
+		if (!isEmpty) {
+			while (isInRange(currentVal, to, step)) {
+				if (kernel.getApplication().freeMemoryIsCritical()) {
+					long mem = kernel.getApplication().freeMemory();
+					list.clearCache();
+					kernel.initUndoInfo(); // clear all undo info
+					Log.debug(
+							"AlgoSequence aborted: free memory reached " + mem);
+					return;
+				}
+				updateLocalVar(currentVal);
+				addElement(i);
+				currentVal = nextValue(currentVal, step);
+				i++;
+			}
+		}
+		list.setUnchangedElements(unchanged);
+		last_to = to;
+	}
+
+	private static boolean isInRange(double currentVal, double to,
+			double step) {
+		return (step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
+				|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION);
+	}
+
+	private static double nextValue(double currentVal, double step) {
+		double next = currentVal + step;
+		if (DoubleUtil.isInteger(next)) {
+			return Math.round(next);
+		}
+		return next;
+	}
+
 	private void createNewList(double from, double to, double step) {
 		// clear list if defined
 		int i = 0;
@@ -251,8 +334,7 @@ public class AlgoSequence extends AlgoElement {
 
 			// create the sequence
 			double currentVal = from;
-			while ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
-					|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION)) {
+			while (isInRange(currentVal, to, step)) {
 
 				// check we haven't run out of memory
 				if (kernel.getApplication().freeMemoryIsCritical()) {
@@ -267,10 +349,7 @@ public class AlgoSequence extends AlgoElement {
 				// set local var value
 				updateLocalVar(currentVal);
 				addElement(i);
-				currentVal += step;
-				if (DoubleUtil.isInteger(currentVal)) {
-					currentVal = Math.round(currentVal);
-				}
+				currentVal = nextValue(currentVal, step);
 				i++;
 			}
 		}
@@ -368,8 +447,7 @@ public class AlgoSequence extends AlgoElement {
 		double currentVal = from;
 		int i = 0;
 
-		while ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
-				|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION)) {
+		while (isInRange(currentVal, to, step)) {
 			GeoElement listElement = list.get(i);
 
 			// check we haven't run out of memory
@@ -397,10 +475,7 @@ public class AlgoSequence extends AlgoElement {
 			copyDrawAlgo(listElement);
 			listElement.update();
 
-			currentVal += step;
-			if (DoubleUtil.isInteger(currentVal)) {
-				currentVal = Math.round(currentVal);
-			}
+			currentVal = nextValue(currentVal, step);
 			i++;
 		}
 	}
@@ -194,17 +194,22 @@ public abstract class AlgoStats1D extends AlgoElement {
 		// list of numbers only, no frequencies
 		if (geoList2 == null) {
 			double val;
+			// null if some element is not a number, maybe after the truncation
+			double[] values = geoList.getNumericValues();
 			for (int i = 0; i < size; i++) {
-				geo = geoList.get(i);
-				if (geo instanceof NumberValue) {
-					val = geo.evaluateDouble();
-					sumVal += val;
-					sumSquares += val * val;
-					product *= val;
+				if (values != null) {
+					val = values[i];
 				} else {
-					result.setUndefined();
-					return;
+					geo = geoList.get(i);
+					if (!(geo instanceof NumberValue)) {
+						result.setUndefined();
+						return;
+					}
+					val = geo.evaluateDouble();
 				}
+				sumVal += val;
+				sumSquares += val * val;
+				product *= val;
 			}
 
 			n = size;
@@ -13,20 +13,22 @@ the Free Software Foundation.
 package org.geogebra.common.kernel.algos;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Set;
 
 /**
- * Set to store AlgoElement objects for updating.
+ * Set to store AlgoElement objects for updating. Algos are kept in updating
+ * order in an array; membership is checked with an open addressing hash
+ * table keyed by algo ID, so neither lookups nor appends allocate.
  */
 public class AlgorithmSet implements Iterable<AlgoElement> {
 
-	private Set<AlgoElement> set;
+	private static final int INITIAL_CAPACITY = 4;
 
-	private Link head;
-	private Link tail;
+	/** algos in updating order */
+	private AlgoElement[] algos;
+	/** hash table with linear probing, length is a power of two */
+	private AlgoElement[] table;
 	private int size;
 
 	/**
@@ -68,10 +70,6 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 			return false;
 		}
 
-		if (addToEmpty(algo)) {
-			return true;
-		}
-
 		/*
 		 * Usually we can just add an algorithm at the end of the list to have
 		 * it at the right place for updating. However, in certain cases an
@@ -85,15 +83,12 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 		AlgoElement parentAlgo = algo.getUpdateAfterAlgo();
 
 		// Standard case: insert at end of list
-		if (parentAlgo == null || parentAlgo == tail.algo || !contains(parentAlgo)) {
-			addToEnd(algo);
+		if (parentAlgo == null || size == 0
+				|| parentAlgo == algos[size - 1] || !contains(parentAlgo)) {
+			insertAt(size, algo);
 		} else { // Special case: insert in the middle, right after parentAlgo
-			insertAfterParentAlgo(algo, parentAlgo);
+			insertAt(indexOf(parentAlgo) + 1, algo);
 		}
-
-		set.add(algo);
-		size++;
-
 		return true;
 	}
 
@@ -102,75 +97,56 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 			return false;
 		}
 
-		if (addToEmpty(algo)) {
-			return true;
-		}
-
-		/*
-		 * Usually we can just add an algorithm at the end of the list to have
-		 * it at the right place for updating. However, in certain cases an
-		 * algorithm needs to be inserted at an earlier place right after a
-		 * certain parentAlgo. For example, in a regular polygon, new segments
-		 * can be created later that need to be inserted directly after the
-		 * parent polygon.
-		 */
-
-		// check if algo needs to be inserted right after a certain parentAlgo
+		// see add(AlgoElement) for the parentAlgo special case
 		AlgoElement parentAlgo = algo.getUpdateAfterAlgo();
 
-		// Standard case: insert at end of list
-		if (parentAlgo == tail.algo) {
-			addToEnd(algo);
+		if (size == 0 || parentAlgo == algos[size - 1]) {
+			insertAt(size, algo);
 		} else if (parentAlgo == null || !contains(parentAlgo)) {
-			Link cur = getHead();
 			long id = algo.getID();
-			if (cur.algo.getID() > algo.getID()) {
-				head = new Link(algo, head);
+			if (algos[size - 1].getID() < id) {
+				insertAt(size, algo);
+			} else if (algos[0].getID() > id) {
+				insertAt(0, algo);
 			} else {
-				while (cur.next != null && cur.next.algo.getID() < id) {
-					cur = cur.next;
+				// insert before the first algo with greater ID
+				int pos = 1;
+				while (pos < size && algos[pos].getID() < id) {
+					pos++;
 				}
-				cur.next = new Link(algo, cur.next);
+				insertAt(pos, algo);
 			}
 		} else { // Special case: insert in the middle, right after parentAlgo
-			insertAfterParentAlgo(algo, parentAlgo);
+			insertAt(indexOf(parentAlgo) + 1, algo);
 		}
-
-		set.add(algo);
-		size++;
-
 		return true;
 	}
 
-	private boolean addToEmpty(AlgoElement algo) {
-		if (getHead() == null) {
-			if (set == null) {
-				set = new HashSet<>();
-			}
-			set.add(algo);
-
-			setHead(new Link(algo, null));
-			tail = getHead();
-			size++;
-			return true;
+	private void insertAt(int pos, AlgoElement algo) {
+		if (algos == null) {
+			algos = new AlgoElement[INITIAL_CAPACITY];
+			table = new AlgoElement[2 * INITIAL_CAPACITY];
+		} else if (size == algos.length) {
+			AlgoElement[] grown = new AlgoElement[2 * size];
+			System.arraycopy(algos, 0, grown, 0, size);
+			algos = grown;
+			rehash(4 * size);
 		}
-		return false;
-	}
-
-	private void addToEnd(AlgoElement algo) {
-		tail.next = new Link(algo, null);
-		tail = tail.next;
+		if (pos < size) {
+			System.arraycopy(algos, pos, algos, pos + 1, size - pos);
+		}
+		algos[pos] = algo;
+		size++;
+		addToTable(algo);
 	}
 
-	private void insertAfterParentAlgo(AlgoElement algo, AlgoElement parentAlgo) {
-		// search for parentAlgo
-		Link cur = getHead();
-		while (cur.algo != parentAlgo) {
-			cur = cur.next;
+	private int indexOf(AlgoElement algo) {
+		for (int i = 0; i < size; i++) {
+			if (algos[i] == algo) {
+				return i;
+			}
 		}
-
-		// now cur.algo == parentAlgo, insert right afterwards
-		cur.next = new Link(algo, cur.next);
+		return -1;
 	}
 
 	/**
@@ -180,10 +156,8 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 *            set of algos to be added
 	 */
 	public void addAll(AlgorithmSet algoSet) {
-		Link cur = algoSet.getHead();
-		while (cur != null) {
-			add(cur.algo);
-			cur = cur.next;
+		for (int i = 0; i < algoSet.size; i++) {
+			add(algoSet.algos[i]);
 		}
 	}
 
@@ -194,10 +168,8 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 *            set of algos to be added
 	 */
 	public void addAllSorted(AlgorithmSet algoSet) {
-		Link cur = algoSet.getHead();
-		while (cur != null) {
-			addSorted(cur.algo);
-			cur = cur.next;
+		for (int i = 0; i < algoSet.size; i++) {
+			addSorted(algoSet.algos[i]);
 		}
 	}
 
@@ -212,8 +184,13 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 		if (size == 0 || algo == null) {
 			return false;
 		}
-
-		return set.contains(algo);
+		int mask = table.length - 1;
+		for (int i = hash(algo) & mask; table[i] != null; i = (i + 1) & mask) {
+			if (table[i] == algo) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -224,52 +201,105 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 *            algo to be removed
 	 */
 	final public boolean remove(AlgoElement algo) {
-		if (set == null) {
+		if (!contains(algo)) {
 			return false;
 		}
+		int pos = indexOf(algo);
+		System.arraycopy(algos, pos + 1, algos, pos, size - pos - 1);
+		size--;
+		algos[size] = null;
+		removeFromTable(algo);
+		return true;
+	}
 
-		if (!set.remove(algo)) {
-			return false;
+	/**
+	 * Removes all algos, keeps the allocated arrays for reuse.
+	 */
+	final public void clear() {
+		for (int i = 0; i < size; i++) {
+			algos[i] = null;
 		}
-
-		Link prev = null;
-		Link cur = getHead();
-		while (cur != null) {
-			// found algo to remove
-			if (cur.algo == algo) {
-				if (prev == null) { // remove from head
-					setHead(cur.next);
-					if (getHead() == null) {
-						tail = null;
-					}
-				} else { // standard case
-					prev.next = cur.next;
-					if (prev.next == null) {
-						tail = prev;
-					}
-				}
-				size--;
-				return true;
+		if (table != null) {
+			for (int i = 0; i < table.length; i++) {
+				table[i] = null;
 			}
-			// not yet found
-			prev = cur;
-			cur = cur.next;
 		}
+		size = 0;
+	}
 
-		return false;
+	private static int hash(AlgoElement algo) {
+		long id = algo.getID();
+		int h = (int) (id ^ (id >>> 32));
+		// IDs are consecutive, spread them over the table
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private void addToTable(AlgoElement algo) {
+		int mask = table.length - 1;
+		int i = hash(algo) & mask;
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+		table[i] = algo;
+	}
+
+	private void rehash(int capacity) {
+		table = new AlgoElement[capacity];
+		for (int i = 0; i < size; i++) {
+			addToTable(algos[i]);
+		}
+	}
+
+	/**
+	 * Removes algo from the hash table, shifting back following entries of
+	 * the same cluster so that no tombstones are needed.
+	 */
+	private void removeFromTable(AlgoElement algo) {
+		int mask = table.length - 1;
+		int i = hash(algo) & mask;
+		while (table[i] != algo) {
+			i = (i + 1) & mask;
+		}
+		table[i] = null;
+		int j = (i + 1) & mask;
+		while (table[j] != null) {
+			int home = hash(table[j]) & mask;
+			// move entry j to the gap i unless its home lies in (i, j]
+			if (((j - home) & mask) >= ((j - i) & mask)) {
+				table[i] = table[j];
+				table[j] = null;
+				i = j;
+			}
+			j = (j + 1) & mask;
+		}
 	}
 
 	/**
 	 * Updates all algorithms of this set.
 	 */
 	final public void updateAll() {
-		Link cur = getHead();
-		while (cur != null) {
-			cur.algo.update();
-			cur = cur.next;
+		for (int i = 0; i < size; i++) {
+			i = update(i);
 		}
 	}
 
+	/**
+	 * Updates algo at given position; this set may be changed by the update.
+	 * 
+	 * @return position of the updated algo after the update
+	 */
+	private int update(int i) {
+		AlgoElement algo = algos[i];
+		algo.update();
+		if (i < size && algos[i] == algo) {
+			return i;
+		}
+		int pos = indexOf(algo);
+		// algo was removed: next algo is at position i now
+		return pos < 0 ? i - 1 : pos;
+	}
+
 	/**
 	 * Updates all algorithms of this set until the given algorithm is reached.
 	 * 
@@ -277,14 +307,12 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 *            last algorithm to update
 	 */
 	final public void updateAllUntil(AlgoElement lastAlgoToUpdate) {
-		Link cur = getHead();
-		while (cur != null) {
-			cur.algo.update();
-
-			if (cur.algo == lastAlgoToUpdate) {
+		for (int i = 0; i < size; i++) {
+			boolean last = algos[i] == lastAlgoToUpdate;
+			i = update(i);
+			if (last) {
 				return;
 			}
-			cur = cur.next;
 		}
 	}
 
@@ -295,10 +323,8 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 *            collection of algorithms
 	 */
 	final public void addAllToCollection(Collection<AlgoElement> collection) {
-		Link cur = getHead();
-		while (cur != null) {
-			collection.add(cur.algo);
-			cur = cur.next;
+		for (int i = 0; i < size; i++) {
+			collection.add(algos[i]);
 		}
 	}
 
@@ -310,10 +336,8 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 */
 	final public void removeAllFromCollection(
 			Collection<AlgoElement> collection) {
-		Link cur = getHead();
-		while (cur != null) {
-			collection.remove(cur.algo);
-			cur = cur.next;
+		for (int i = 0; i < size; i++) {
+			collection.remove(algos[i]);
 		}
 	}
 
@@ -322,28 +346,16 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 		StringBuilder sb = new StringBuilder();
 		sb.append("AlgorithmSet[");
 
-		Link cur = getHead();
-		while (cur != null) {
+		for (int i = 0; i < size; i++) {
 			sb.append("\n\t");
-			sb.append(cur.algo + ", constIndex: "
-					+ cur.algo.getConstructionIndex() + ", ceID: "
-					+ cur.algo.getID());
-			cur = cur.next;
+			sb.append(algos[i] + ", constIndex: "
+					+ algos[i].getConstructionIndex() + ", ceID: "
+					+ algos[i].getID());
 		}
 		sb.append("]");
 		return sb.toString();
 	}
 
-	private static class Link {
-		AlgoElement algo;
-		Link next;
-
-		Link(AlgoElement a, Link n) {
-			algo = a;
-			next = n;
-		}
-	}
-
 	/**
 	 * Returns iterator for this set
 	 * 
@@ -353,46 +365,32 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 		return new AlgorithmSetIterator();
 	}
 
-	/**
-	 * @return the head
-	 */
-	public Link getHead() {
-		return head;
-	}
-
-	/**
-	 * @param head
-	 *            the head to set
-	 */
-	public void setHead(Link head) {
-		this.head = head;
-	}
-
 	/**
 	 * Iterator for this set
 	 */
 	public class AlgorithmSetIterator implements Iterator<AlgoElement> {
-		private Link cur = getHead();
+		private int next = 0;
 
 		@Override
 		public void remove() {
-			AlgorithmSet.this.remove(cur.algo);
-			cur = cur.next;
+			if (next == 0) {
+				throw new IllegalStateException();
+			}
+			next--;
+			AlgorithmSet.this.remove(algos[next]);
 		}
 
 		@Override
 		public boolean hasNext() {
-			return cur != null;
+			return next < size;
 		}
 
 		@Override
 		public AlgoElement next() {
-			if (cur == null) {
+			if (next >= size) {
 				throw new NoSuchElementException();
 			}
-			AlgoElement ret = cur.algo;
-			cur = cur.next;
-			return ret;
+			return algos[next++];
 		}
 	}
 
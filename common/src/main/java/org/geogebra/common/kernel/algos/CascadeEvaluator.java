@@ -0,0 +1,17 @@
+package org.geogebra.common.kernel.algos;
+
+/**
+ * Strategy for updating the algorithms of an update cascade, see
+ * {@link org.geogebra.common.kernel.Kernel#setCascadeEvaluator}.
+ */
+public interface CascadeEvaluator {
+
+	/**
+	 * Updates all given algorithms; the result has to be the same as calling
+	 * {@link AlgoElement#update()} for each of them in the given order.
+	 * 
+	 * @param algos
+	 *            algorithms sorted topologically
+	 */
+	void updateAll(Iterable<AlgoElement> algos);
+}
@@ -0,0 +1,31 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.common.util.AsyncOperation;
+
+/**
+ * Strategy for sampling the segments of a locus concurrently, see
+ * {@link org.geogebra.common.kernel.Kernel#setLocusEvaluator}.
+ */
+public interface LocusEvaluator {
+
+	/**
+	 * @return number of segments that can be sampled at the same time
+	 */
+	int getParallelism();
+
+	/**
+	 * Samples segment i with sampler i and passes the segments to the
+	 * consumer on the calling thread, in order, each as soon as it and all
+	 * previous segments are sampled. Must not return before all samplers are
+	 * done.
+	 *
+	 * @param samplers
+	 *            samplers, each with its own copy of the locus construction
+	 * @param segments
+	 *            segments, same length as samplers
+	 * @param consumer
+	 *            consumer of sampled segments
+	 */
+	void sample(LocusSampler[] samplers, LocusSegment[] segments,
+			AsyncOperation<LocusSegment> consumer);
+}
@@ -0,0 +1,208 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Path;
+import org.geogebra.common.kernel.PathMover;
+import org.geogebra.common.kernel.PathNormalizer;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.kernel.matrix.Coords;
+
+/**
+ * Samples parts of a locus with a private copy of the locus construction, so
+ * that several samplers of one locus may run on different threads.
+ *
+ * The path parameter range is normalized to [0, 1]; infinite ends are
+ * compressed like in {@link org.geogebra.common.kernel.PathMoverGeneric}.
+ * Each segment is sampled with equal steps first, then steps are halved where
+ * consecutive points are further apart than the view resolution.
+ */
+public class LocusSampler {
+
+	/** maximum number of times a step is halved */
+	public static final int MAX_REFINE_DEPTH = 10;
+
+	private final Construction macroCons;
+	private final GeoPointND copyP;
+	private final GeoPointND copyQ;
+	private final Path copyPath;
+
+	private double qx;
+	private double qy;
+	private double qz;
+	private double lastX;
+	private double lastY;
+	private double lastZ;
+	private boolean connected;
+	private boolean stopped;
+
+	/**
+	 * @param macroCons
+	 *            copy of the locus construction
+	 * @param copyP
+	 *            copy of the moving point
+	 * @param copyQ
+	 *            copy of the locus point
+	 * @param copyPath
+	 *            private copy of the path, must be the path of copyP
+	 */
+	public LocusSampler(Construction macroCons, GeoPointND copyP,
+			GeoPointND copyQ, Path copyPath) {
+		this.macroCons = macroCons;
+		this.copyP = copyP;
+		this.copyQ = copyQ;
+		this.copyPath = copyPath;
+	}
+
+	/**
+	 * @return copy of the locus construction
+	 */
+	public Construction getConstruction() {
+		return macroCons;
+	}
+
+	/**
+	 * @return path of the moving point, private to this sampler
+	 */
+	public Path getPath() {
+		return copyPath;
+	}
+
+	/**
+	 * Samples the range of the segment and replaces its points.
+	 *
+	 * @param segment
+	 *            segment
+	 */
+	public void sample(LocusSegment segment) {
+		segment.clear();
+		connected = false;
+		stopped = false;
+		double from = segment.getFrom();
+		double to = segment.getTo();
+		int steps = segment.getSteps();
+
+		double uA = from;
+		boolean definedA = evaluate(uA, segment);
+		double ax = qx;
+		double ay = qy;
+		double az = qz;
+		if (definedA) {
+			add(segment, ax, ay, az);
+		}
+		for (int k = 1; k <= steps && !stopped; k++) {
+			double uB = k == steps ? to : from + (to - from) * k / steps;
+			boolean definedB = evaluate(uB, segment);
+			double bx = qx;
+			double by = qy;
+			double bz = qz;
+			if (definedA && definedB) {
+				refine(segment, uA, ax, ay, az, uB, bx, by, bz, 0);
+			}
+			if (definedB && !stopped) {
+				add(segment, bx, by, bz);
+			} else {
+				connected = false;
+			}
+			uA = uB;
+			definedA = definedB;
+			ax = bx;
+			ay = by;
+			az = bz;
+		}
+	}
+
+	/**
+	 * Adds points between A and B (both already evaluated, A already added)
+	 * until they are close enough.
+	 */
+	private void refine(LocusSegment segment, double uA, double ax,
+			double ay, double az, double uB, double bx, double by, double bz,
+			int depth) {
+		if (stopped || depth >= MAX_REFINE_DEPTH
+				|| uB - uA < PathMover.MIN_STEP_WIDTH
+				|| !segment.needsRefinement(ax, ay, az, bx, by, bz)) {
+			return;
+		}
+		double uM = (uA + uB) / 2;
+		if (!evaluate(uM, segment)) {
+			// gap: don't connect B
+			connected = false;
+			return;
+		}
+		double mx = qx;
+		double my = qy;
+		double mz = qz;
+		refine(segment, uA, ax, ay, az, uM, mx, my, mz, depth + 1);
+		if (stopped) {
+			return;
+		}
+		add(segment, mx, my, mz);
+		refine(segment, uM, mx, my, mz, uB, bx, by, bz, depth + 1);
+	}
+
+	private void add(LocusSegment segment, double x, double y, double z) {
+		if (segment.isFull()) {
+			stopped = true;
+			return;
+		}
+		segment.add(x, y, z, connected
+				&& segment.isClose(lastX, lastY, lastZ, x, y, z));
+		lastX = x;
+		lastY = y;
+		lastZ = z;
+		connected = true;
+	}
+
+	/**
+	 * Moves the copy of P and updates the copy of Q.
+	 *
+	 * @return whether Q is defined and finite; its coords are stored in qx,
+	 *         qy, qz
+	 */
+	private boolean evaluate(double u, LocusSegment segment) {
+		long startTime = System.currentTimeMillis();
+		copyP.getPathParameter().setT(toPathParameter(u,
+				copyPath.getMinParameter(), copyPath.getMaxParameter()));
+		copyPath.pathChanged(copyP);
+		copyP.updateCoords();
+		copyP.updateCascade();
+		if (System.currentTimeMillis()
+				- startTime > AlgoLocusND.MAX_TIME_FOR_ONE_STEP) {
+			segment.setTimedOut();
+			stopped = true;
+		}
+		if (!copyQ.isDefined() || copyQ.isInfinite()) {
+			return false;
+		}
+		Coords coords = copyQ.getInhomCoordsInD3();
+		qx = coords.getX();
+		qy = coords.getY();
+		qz = coords.getZ();
+		return true;
+	}
+
+	/**
+	 * @param u
+	 *            normalized parameter in [0, 1]
+	 * @param min
+	 *            min parameter of the path
+	 * @param max
+	 *            max parameter of the path
+	 * @return path parameter
+	 */
+	public static double toPathParameter(double u, double min, double max) {
+		double offset = PathMover.OPEN_BORDER_OFFSET;
+		if (min == Double.NEGATIVE_INFINITY) {
+			if (max == Double.POSITIVE_INFINITY) {
+				return PathNormalizer
+						.infFunction(-1 + offset + u * (2 - 2 * offset));
+			}
+			return max + PathNormalizer
+					.infFunction(-1 + offset + u * (1 - offset));
+		}
+		if (max == Double.POSITIVE_INFINITY) {
+			return min + PathNormalizer.infFunction(u * (1 - offset));
+		}
+		return min + u * (max - min);
+	}
+}
@@ -0,0 +1,247 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.common.util.MyMath;
+
+/**
+ * Part of the path parameter range of a locus together with the points
+ * sampled for it. Filled by a {@link LocusSampler}, possibly on a worker
+ * thread, and read by the locus algo afterwards.
+ */
+public class LocusSegment {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private double from;
+	private double to;
+	private int steps;
+	private int maxPoints;
+
+	// per view: max x, y and z distance of connected points
+	private double[] maxDist;
+	// per view: xmin, xmax, ymin, ymax of the area around the screen
+	private double[] farBounds;
+	private int views;
+
+	private double[] coords = new double[3 * INITIAL_CAPACITY];
+	private boolean[] lineTo = new boolean[INITIAL_CAPACITY];
+	private int size;
+	private boolean timedOut;
+
+	/**
+	 * @param from
+	 *            start of the range, normalized to [0, 1]
+	 * @param to
+	 *            end of the range, normalized to [0, 1]
+	 * @param steps
+	 *            number of steps before refinement
+	 * @param maxPoints
+	 *            maximum number of points
+	 */
+	public void setRange(double from, double to, int steps, int maxPoints) {
+		this.from = from;
+		this.to = to;
+		this.steps = Math.max(1, steps);
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * Sets the resolution of the visible views. The arrays are not copied and
+	 * may be shared by all segments of a locus.
+	 *
+	 * @param maxDist
+	 *            max x, y and z distance of connected points for each view
+	 * @param farBounds
+	 *            xmin, xmax, ymin, ymax of the area around each view
+	 * @param views
+	 *            number of views
+	 */
+	public void setResolution(double[] maxDist, double[] farBounds,
+			int views) {
+		this.maxDist = maxDist;
+		this.farBounds = farBounds;
+		this.views = views;
+	}
+
+	/**
+	 * Removes all points.
+	 */
+	public void clear() {
+		size = 0;
+		timedOut = false;
+	}
+
+	/**
+	 * @param x
+	 *            x-coord
+	 * @param y
+	 *            y-coord
+	 * @param z
+	 *            z-coord
+	 * @param connect
+	 *            whether the point should be connected to the previous one
+	 */
+	public void add(double x, double y, double z, boolean connect) {
+		if (size == lineTo.length) {
+			double[] newCoords = new double[coords.length * 2];
+			System.arraycopy(coords, 0, newCoords, 0, coords.length);
+			coords = newCoords;
+			boolean[] newLineTo = new boolean[lineTo.length * 2];
+			System.arraycopy(lineTo, 0, newLineTo, 0, lineTo.length);
+			lineTo = newLineTo;
+		}
+		coords[3 * size] = x;
+		coords[3 * size + 1] = y;
+		coords[3 * size + 2] = z;
+		lineTo[size] = connect;
+		size++;
+	}
+
+	/**
+	 * @param x1
+	 *            x-coord of first point
+	 * @param y1
+	 *            y-coord of first point
+	 * @param z1
+	 *            z-coord of first point
+	 * @param x2
+	 *            x-coord of second point
+	 * @param y2
+	 *            y-coord of second point
+	 * @param z2
+	 *            z-coord of second point
+	 * @return whether the points are close in at least one view
+	 */
+	public boolean isClose(double x1, double y1, double z1, double x2,
+			double y2, double z2) {
+		for (int v = 0; v < views; v++) {
+			if (isClose(v, x1, y1, z1, x2, y2, z2)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param x1
+	 *            x-coord of first point
+	 * @param y1
+	 *            y-coord of first point
+	 * @param z1
+	 *            z-coord of first point
+	 * @param x2
+	 *            x-coord of second point
+	 * @param y2
+	 *            y-coord of second point
+	 * @param z2
+	 *            z-coord of second point
+	 * @return whether the points are too far apart in some view where the
+	 *         line between them may be visible
+	 */
+	public boolean needsRefinement(double x1, double y1, double z1,
+			double x2, double y2, double z2) {
+		for (int v = 0; v < views; v++) {
+			if (!isClose(v, x1, y1, z1, x2, y2, z2)
+					&& MyMath.intervalsIntersect(Math.min(x1, x2),
+							Math.max(x1, x2), farBounds[4 * v],
+							farBounds[4 * v + 1])
+					&& MyMath.intervalsIntersect(Math.min(y1, y2),
+							Math.max(y1, y2), farBounds[4 * v + 2],
+							farBounds[4 * v + 3])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isClose(int v, double x1, double y1, double z1,
+			double x2, double y2, double z2) {
+		return Math.abs(x1 - x2) < maxDist[3 * v]
+				&& Math.abs(y1 - y2) < maxDist[3 * v + 1]
+				&& !(Math.abs(z1 - z2) >= maxDist[3 * v + 2]);
+	}
+
+	/**
+	 * @return start of the range, normalized to [0, 1]
+	 */
+	public double getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return end of the range, normalized to [0, 1]
+	 */
+	public double getTo() {
+		return to;
+	}
+
+	/**
+	 * @return number of steps before refinement
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * @return whether no more points can be added
+	 */
+	public boolean isFull() {
+		return size >= maxPoints;
+	}
+
+	/**
+	 * @return number of points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return x-coord of i-th point
+	 */
+	public double getX(int i) {
+		return coords[3 * i];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return y-coord of i-th point
+	 */
+	public double getY(int i) {
+		return coords[3 * i + 1];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return z-coord of i-th point
+	 */
+	public double getZ(int i) {
+		return coords[3 * i + 2];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return whether i-th point is connected to the previous one
+	 */
+	public boolean isLineTo(int i) {
+		return lineTo[i];
+	}
+
+	/**
+	 * Marks this segment as incomplete because one step took too long.
+	 */
+	public void setTimedOut() {
+		timedOut = true;
+	}
+
+	/**
+	 * @return whether sampling stopped because one step took too long
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+}
@@ -0,0 +1,313 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.ArrayList;
+
+import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math3.ode.FirstOrderIntegrator;
+import org.apache.commons.math3.ode.sampling.StepHandler;
+import org.apache.commons.math3.ode.sampling.StepInterpolator;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.FunctionNVar;
+import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.kernel.geos.GeoList;
+
+/**
+ * Solution of a system of ODEs sampled at the steps of an integrator. The
+ * integrator and the samples are kept between updates of an algo, so that
+ * moving only the end time continues the previous integration (or cuts it
+ * off) instead of integrating again from the start.
+ */
+public class ODESolution implements StepHandler {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final FirstOrderIntegrator integrator;
+	private final int dim;
+	private final double[] state;
+	private double[] times = new double[INITIAL_CAPACITY];
+	private double[] states;
+	private int size;
+	private double end;
+	private boolean complete;
+
+	// state of the functions defining the equations
+	private GeoElement[] functions;
+	private int[] computeCounts;
+	private String[] values;
+
+	/**
+	 * @param integrator
+	 *            integrator, this is added as its step handler
+	 * @param dim
+	 *            dimension of the system
+	 */
+	public ODESolution(FirstOrderIntegrator integrator, int dim) {
+		this.integrator = integrator;
+		this.dim = dim;
+		this.state = new double[dim];
+		this.states = new double[INITIAL_CAPACITY * dim];
+		integrator.addStepHandler(this);
+	}
+
+	/**
+	 * Remembers the state of the elements defining the equations: dependent
+	 * ones by the compute count of their parent algo, free ones by value.
+	 *
+	 * @param geos
+	 *            functions or lists of functions
+	 * @return whether they are the same as in the previous call
+	 */
+	public boolean updateEquations(GeoElement... geos) {
+		boolean same = functions != null && functions.length == geos.length;
+		if (!same) {
+			functions = new GeoElement[geos.length];
+			computeCounts = new int[geos.length];
+			values = new String[geos.length];
+		}
+		for (int i = 0; i < geos.length; i++) {
+			AlgoElement parent = geos[i].getParentAlgorithm();
+			int count = parent == null ? -1 : parent.getComputeCount();
+			String value = parent == null
+					? geos[i].toValueString(StringTemplate.maxPrecision)
+					: null;
+			same = same && functions[i] == geos[i]
+					&& computeCounts[i] == count
+					&& (value == null || value.equals(values[i]));
+			functions[i] = geos[i];
+			computeCounts[i] = count;
+			values[i] = value;
+		}
+		return same;
+	}
+
+	/**
+	 * Integrates from (t0, y0) to end. If the equations and the initial values
+	 * did not change, samples before the new end are kept and the integration
+	 * continues from the last of them. If the integrator fails, the samples
+	 * computed so far are kept and the exception is passed on.
+	 *
+	 * @param ode
+	 *            equations
+	 * @param t0
+	 *            initial time
+	 * @param y0
+	 *            initial state, not changed
+	 * @param end
+	 *            end time
+	 * @param sameEquations
+	 *            whether the equations are the same as in the previous call
+	 * @return index of the first new sample, samples before it did not change
+	 */
+	public int integrate(FirstOrderDifferentialEquations ode, double t0,
+			double[] y0, double end, boolean sameEquations) {
+		boolean sameStart = sameEquations && isSameStart(t0, y0, end);
+		if (sameStart && end == this.end) {
+			return size;
+		}
+		int keep = sameStart ? countSamplesBefore(end) : 0;
+		size = keep;
+		if (size == 0) {
+			addSample(t0, y0);
+		}
+		double start = times[size - 1];
+		System.arraycopy(states, (size - 1) * dim, state, 0, dim);
+		complete = false;
+		if (start != end) {
+			integrator.integrate(ode, start, state, end, state);
+		}
+		this.end = end;
+		complete = true;
+		return keep;
+	}
+
+	private boolean isSameStart(double t0, double[] y0, double end1) {
+		if (!complete || times[0] != t0 || (end1 >= t0) != (end >= t0)) {
+			return false;
+		}
+		for (int k = 0; k < dim; k++) {
+			if (states[k] != y0[k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of samples that are strictly between the start and the
+	 *         new end; the last sample is dropped as it was cut off at the old
+	 *         end
+	 */
+	private int countSamplesBefore(double end1) {
+		boolean forward = end1 >= times[0];
+		int keep = size - 1;
+		while (keep > 1 && (forward ? times[keep - 1] >= end1
+				: times[keep - 1] <= end1)) {
+			keep--;
+		}
+		return keep;
+	}
+
+	private void addSample(double t, double[] y) {
+		if (size == times.length) {
+			double[] newTimes = new double[times.length * 2];
+			System.arraycopy(times, 0, newTimes, 0, size);
+			times = newTimes;
+			double[] newStates = new double[states.length * 2];
+			System.arraycopy(states, 0, newStates, 0, size * dim);
+			states = newStates;
+		}
+		times[size] = t;
+		System.arraycopy(y, 0, states, size * dim, dim);
+		size++;
+	}
+
+	@Override
+	public void init(double t0, double[] y0, double t) {
+		// samples are managed by integrate()
+	}
+
+	@Override
+	public void handleStep(StepInterpolator interpolator, boolean isLast) {
+		double t = interpolator.getCurrentTime();
+		if (!MyDouble.isFinite(t)) {
+			throw new IllegalArgumentException("Invalid value of time:" + t);
+		}
+		addSample(t, interpolator.getInterpolatedState());
+	}
+
+	/**
+	 * @return number of samples, including the initial state
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i
+	 *            sample index
+	 * @return time of the sample
+	 */
+	public double getTime(int i) {
+		return times[i];
+	}
+
+	/**
+	 * @param i
+	 *            sample index
+	 * @param k
+	 *            component
+	 * @return component of the state of the sample
+	 */
+	public double getState(int i, int k) {
+		return states[i * dim + k];
+	}
+
+	/**
+	 * Writes samples to a list of points, reusing the point objects that are
+	 * already there. The first sample starts a new segment.
+	 *
+	 * @param points
+	 *            points
+	 * @param pos
+	 *            position of the point for the first sample
+	 * @param from
+	 *            index of the first sample to write
+	 * @param xComponent
+	 *            component for x-coords, -1 for time
+	 * @param yComponent
+	 *            component for y-coords
+	 * @return position after the last written point
+	 */
+	public int writePoints(ArrayList<MyPoint> points, int pos, int from,
+			int xComponent, int yComponent) {
+		int p = pos;
+		for (int i = from; i < size; i++) {
+			double x = xComponent < 0 ? times[i] : getState(i, xComponent);
+			double y = getState(i, yComponent);
+			if (p < points.size()) {
+				MyPoint pt = points.get(p);
+				pt.setX(x);
+				pt.setY(y);
+				pt.setLineTo(i > 0);
+			} else {
+				points.add(new MyPoint(x, y,
+						i > 0 ? SegmentType.LINE_TO : SegmentType.MOVE_TO));
+			}
+			p++;
+		}
+		return p;
+	}
+
+	/**
+	 * @param points
+	 *            points
+	 * @param size
+	 *            new number of points
+	 */
+	public static void trimPoints(ArrayList<MyPoint> points, int size) {
+		if (size < points.size()) {
+			points.subList(size, points.size()).clear();
+		}
+	}
+
+	/**
+	 * Starts compiled evaluation of the functions (see
+	 * {@link FunctionNVar#startCompiledEvaluation()}), must be followed by
+	 * {@link #endCompiledEvaluation(FunctionalNVar...)}.
+	 *
+	 * @param fns
+	 *            right hand sides, may contain null
+	 */
+	public static void startCompiledEvaluation(FunctionalNVar... fns) {
+		for (FunctionalNVar fn : fns) {
+			FunctionNVar fun = getFunction(fn);
+			if (fun != null) {
+				fun.startCompiledEvaluation();
+			}
+		}
+	}
+
+	/**
+	 * @param fns
+	 *            right hand sides, may contain null
+	 */
+	public static void endCompiledEvaluation(FunctionalNVar... fns) {
+		for (FunctionalNVar fn : fns) {
+			FunctionNVar fun = getFunction(fn);
+			if (fun != null) {
+				fun.endCompiledEvaluation();
+			}
+		}
+	}
+
+	/**
+	 * @param list
+	 *            list of functions
+	 * @return functions of the list
+	 */
+	public static FunctionalNVar[] getFunctions(GeoList list) {
+		FunctionalNVar[] fns = new FunctionalNVar[list.size()];
+		for (int i = 0; i < fns.length; i++) {
+			if (list.get(i) instanceof FunctionalNVar) {
+				fns[i] = (FunctionalNVar) list.get(i);
+			}
+		}
+		return fns;
+	}
+
+	private static FunctionNVar getFunction(FunctionalNVar fn) {
+		if (fn instanceof GeoFunction) {
+			return ((GeoFunction) fn).getFunction();
+		}
+		if (fn instanceof GeoFunctionNVar) {
+			return ((GeoFunctionNVar) fn).getFunction();
+		}
+		return null;
+	}
+}
@@ -63,6 +63,13 @@ public class ExpressionNodeEvaluator implements ExpressionNodeConstants {
 		this.filter = filter;
 	}
 
+	/**
+	 * @return whether operations are restricted by an argument filter
+	 */
+	public boolean hasArgumentFilter() {
+		return filter != null;
+	}
+
 	/**
 	 * Evaluates the ExpressionNode described by the parameters
 	 * 
@@ -0,0 +1,551 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoDummyVariable;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.MyMath;
+
+/**
+ * Expression of a function lowered to a flat list of instructions over an
+ * array of double registers. Evaluation of the program gives the same value as
+ * {@link ExpressionNode#evaluateDouble()} without walking the tree or
+ * allocating intermediate numbers; constant subexpressions are folded.
+ * Subexpressions that cannot be compiled (commands, lists, nested functions,
+ * ...) are evaluated by the tree walker.
+ *
+ * Numbers in the tree are treated as constants, so a program is only valid
+ * while the expression does not change; see
+ * {@link FunctionNVar#startCompiledEvaluation()}.
+ */
+public final class ExpressionProgram {
+
+	/** instruction: opcode, target, left operand, right operand, reference */
+	private static final int WIDTH = 5;
+
+	// operations of ExpressionNode.evaluateDouble()
+	private static final int PLUS = 0;
+	private static final int MINUS = 1;
+	private static final int MULTIPLY = 2;
+	private static final int MULTIPLY_OR_TREE = 3;
+	private static final int DIVIDE = 4;
+	private static final int POWER_FAST = 5;
+	private static final int SIN_FAST = 6;
+	private static final int COS_FAST = 7;
+	private static final int SQRT = 8;
+	private static final int VALUE = 9;
+	// operations of ExpressionNodeEvaluator
+	private static final int POWER = 10;
+	private static final int SIN = 11;
+	private static final int COS = 12;
+	private static final int TAN = 13;
+	private static final int EXP = 14;
+	private static final int LOG = 15;
+	private static final int LOG10 = 16;
+	private static final int LOG2 = 17;
+	private static final int ABS = 18;
+	private static final int SGN = 19;
+	private static final int CBRT = 20;
+	private static final int SINH = 21;
+	private static final int COSH = 22;
+	private static final int TANH = 23;
+	private static final int ARCSIN = 24;
+	private static final int ARCCOS = 25;
+	private static final int ARCTAN = 26;
+
+	private final FunctionVariable[] vars;
+	private final int[] code;
+	private final ExpressionValue[] refs;
+	private final double[] registers;
+	private final int result;
+	private final int fallbacks;
+
+	private ExpressionProgram(FunctionVariable[] vars, Compiler compiler,
+			int result) {
+		this.vars = vars;
+		this.code = new int[compiler.code.size()];
+		for (int i = 0; i < code.length; i++) {
+			code[i] = compiler.code.get(i);
+		}
+		this.refs = compiler.refs.toArray(new ExpressionValue[0]);
+		this.registers = new double[compiler.constants.size()];
+		for (int i = 0; i < registers.length; i++) {
+			Double constant = compiler.constants.get(i);
+			registers[i] = constant == null ? 0 : constant;
+		}
+		this.result = result;
+		this.fallbacks = compiler.fallbacks;
+	}
+
+	/**
+	 * @param expression
+	 *            numeric expression
+	 * @param vars
+	 *            function variables
+	 * @return program or null if the expression cannot be compiled at all
+	 */
+	public static ExpressionProgram compile(ExpressionNode expression,
+			FunctionVariable[] vars) {
+		if (expression == null || vars == null) {
+			return null;
+		}
+		Compiler compiler = new Compiler(expression.getKernel(), vars);
+		int result = compiler.compileFast(expression);
+		if (compiler.fallbacks == 1 && compiler.code.size() == WIDTH) {
+			// whole expression would be evaluated by the tree walker
+			return null;
+		}
+		return new ExpressionProgram(vars, compiler, result);
+	}
+
+	/**
+	 * @param x
+	 *            value of the variable
+	 * @return value of the expression
+	 */
+	public double evaluate(double x) {
+		vars[0].set(x);
+		registers[0] = x;
+		return run();
+	}
+
+	/**
+	 * @param x
+	 *            value of the first variable
+	 * @param y
+	 *            value of the second variable
+	 * @return value of the expression
+	 */
+	public double evaluate(double x, double y) {
+		vars[0].set(x);
+		vars[1].set(y);
+		registers[0] = x;
+		registers[1] = y;
+		return run();
+	}
+
+	/**
+	 * @param vals
+	 *            values of the variables
+	 * @return value of the expression
+	 */
+	public double evaluate(double[] vals) {
+		for (int i = 0; i < vars.length; i++) {
+			// needed by subexpressions evaluated by the tree walker
+			vars[i].set(vals[i]);
+			registers[i] = vals[i];
+		}
+		return run();
+	}
+
+	private double run() {
+		final double[] r = registers;
+		final int[] c = code;
+		for (int pc = 0; pc < c.length; pc += WIDTH) {
+			int ref = c[pc + 4];
+			r[c[pc + 1]] = execute(c[pc], r[c[pc + 2]], r[c[pc + 3]],
+					ref < 0 ? null : refs[ref]);
+		}
+		return r[result];
+	}
+
+	/**
+	 * @return number of instructions
+	 */
+	public int getLength() {
+		return code.length / WIDTH;
+	}
+
+	/**
+	 * @return number of subexpressions evaluated by the tree walker
+	 */
+	public int getFallbackCount() {
+		return fallbacks;
+	}
+
+	private static double execute(int op, double a, double b,
+			ExpressionValue ref) {
+		switch (op) {
+		case PLUS:
+			return a + b;
+		case MINUS:
+			return a - b;
+		case MULTIPLY:
+			return a * b;
+		case MULTIPLY_OR_TREE:
+			// as in ExpressionNode.evaluateMultiplyDouble
+			double product = a * b;
+			return Double.isNaN(product) ? evaluateFull(ref) : product;
+		case DIVIDE:
+			return a / b;
+		case POWER_FAST:
+			if (a < 0 && ref != null) {
+				return ExpressionNodeEvaluator.negPower(a, ref);
+			}
+			return Math.pow(a, b);
+		case SIN_FAST:
+			return Math.sin(a);
+		case COS_FAST:
+			return Math.cos(a);
+		case SQRT:
+			return Math.sqrt(a);
+		case VALUE:
+			return ref.evaluateDouble();
+		case POWER:
+			if (MyDouble.exactEqual(a, Math.E)) {
+				return Math.exp(b);
+			}
+			if (a < 0 && ref != null) {
+				return ExpressionNodeEvaluator.negPower(a, ref);
+			}
+			return MyDouble.pow(a, b);
+		case SIN:
+			return Math.abs(a) > 0.1 ? checkZero(Math.sin(a)) : Math.sin(a);
+		case COS:
+			return checkZero(Math.cos(a));
+		case TAN:
+			if (DoubleUtil.isEqual(Math.abs(a) % Math.PI, Kernel.PI_HALF)) {
+				return Double.NaN;
+			}
+			return Math.abs(a) > 0.1 ? checkZero(Math.tan(a)) : Math.tan(a);
+		case EXP:
+			return Math.exp(a);
+		case LOG:
+			return Math.log(a);
+		case LOG10:
+			return Math.log(a) / MyMath.LOG10;
+		case LOG2:
+			return Math.log(a) / MyMath.LOG2;
+		case ABS:
+			return Math.abs(a);
+		case SGN:
+			return MyMath.sgn(a);
+		case CBRT:
+			return MyMath.cbrt(a);
+		case SINH:
+			return MyMath.sinh(a);
+		case COSH:
+			return MyMath.cosh(a);
+		case TANH:
+			return MyMath.tanh(a);
+		case ARCSIN:
+			return MyMath.asin(a);
+		case ARCCOS:
+			return MyMath.acos(a);
+		case ARCTAN:
+			return Math.atan(a);
+		default:
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Same as MyDouble.checkZero
+	 */
+	private static double checkZero(double val) {
+		return DoubleUtil.isZero(val) ? 0 : val;
+	}
+
+	/**
+	 * Same as ValidExpression.evaluateDouble
+	 */
+	private static double evaluateFull(ExpressionValue node) {
+		ExpressionValue ev;
+		try {
+			ev = node.evaluate(StringTemplate.defaultTemplate);
+		} catch (Exception ex) {
+			return Double.NaN;
+		}
+		if (ev instanceof NumberValue) {
+			return ((NumberValue) ev).getDouble();
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * Lowers the tree. Expressions are compiled in two modes: as evaluated by
+	 * {@link ExpressionNode#evaluateDouble()} (fast) and as evaluated by
+	 * {@link ExpressionNodeEvaluator} (full), which differ in rounding of
+	 * trigonometric functions and special cases of powers.
+	 */
+	private static class Compiler {
+		private final boolean filtered;
+		private final FunctionVariable[] vars;
+		final ArrayList<Integer> code = new ArrayList<>();
+		final ArrayList<ExpressionValue> refs = new ArrayList<>();
+		/** value of constant registers, null for computed ones */
+		final ArrayList<Double> constants = new ArrayList<>();
+		int fallbacks;
+
+		Compiler(Kernel kernel, FunctionVariable[] vars) {
+			this.filtered = kernel.getExpressionNodeEvaluator()
+					.hasArgumentFilter();
+			this.vars = vars;
+			for (int i = 0; i < vars.length; i++) {
+				constants.add(null);
+			}
+		}
+
+		/**
+		 * @return register with value of ev.evaluateDouble()
+		 */
+		int compileFast(ExpressionValue ev) {
+			if (!(ev instanceof ExpressionNode)) {
+				return compileLeaf(ev, true);
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			ExpressionValue left = node.getLeft();
+			ExpressionValue right = node.getRight();
+			if (node.isLeaf()) {
+				return compileFast(left);
+			}
+			switch (node.getOperation()) {
+			case PLUS:
+				return emit(PLUS, compileFast(left), compileFast(right), null);
+			case MINUS:
+				return emit(MINUS, compileFast(left), compileFast(right),
+						null);
+			case DIVIDE:
+				return emit(DIVIDE, compileFast(left), compileFast(right),
+						null);
+			case SIN:
+				return emit(SIN_FAST, compileFast(left), 0, null);
+			case COS:
+				return emit(COS_FAST, compileFast(left), 0, null);
+			case SQRT:
+				return emit(SQRT, compileFast(left), 0, null);
+			case MULTIPLY:
+				int a = compileFast(left);
+				int b = compileFast(right);
+				if (isNumeric(left) && isNumeric(right)) {
+					return emit(MULTIPLY, a, b, null);
+				}
+				return emit(MULTIPLY_OR_TREE, a, b, node);
+			case POWER:
+				if (!isNumeric(left)) {
+					return fallback(node);
+				}
+				return emit(POWER_FAST, compileFast(left), compileFast(right),
+						fractionOrNull(right));
+			default:
+				if (canCompileFull(node)) {
+					return compileFull(node);
+				}
+				return fallback(node);
+			}
+		}
+
+		/**
+		 * @return register with value of ev.evaluate(), only for expressions
+		 *         accepted by canCompileFull
+		 */
+		private int compileFull(ExpressionValue ev) {
+			if (!(ev instanceof ExpressionNode)) {
+				return compileLeaf(ev, false);
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			ExpressionValue left = node.getLeft();
+			ExpressionValue right = node.getRight();
+			if (node.isLeaf()) {
+				return compileFull(left);
+			}
+			Operation operation = node.getOperation();
+			int op = fullOperation(operation);
+			int a = compileFull(left);
+			if (isBinary(operation)) {
+				return emit(op, a, compileFull(right),
+						op == POWER ? fractionOrNull(right) : null);
+			}
+			return emit(op, a, 0, null);
+		}
+
+		private boolean canCompileFull(ExpressionValue ev) {
+			if (!(ev instanceof ExpressionNode)) {
+				return isVariable(ev) || isNumber(ev);
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			if (node.isLeaf()) {
+				return canCompileFull(node.getLeft());
+			}
+			Operation operation = node.getOperation();
+			if (fullOperation(operation) < 0 || filtered
+					|| !canCompileFull(node.getLeft())) {
+				return false;
+			}
+			return !isBinary(operation) || canCompileFull(node.getRight());
+		}
+
+		private static boolean isBinary(Operation operation) {
+			switch (operation) {
+			case PLUS:
+			case MINUS:
+			case MULTIPLY:
+			case DIVIDE:
+			case POWER:
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		private static int fullOperation(Operation operation) {
+			switch (operation) {
+			case PLUS:
+				return PLUS;
+			case MINUS:
+				return MINUS;
+			case MULTIPLY:
+				return MULTIPLY;
+			case DIVIDE:
+				return DIVIDE;
+			case POWER:
+				return POWER;
+			case SIN:
+				return SIN;
+			case COS:
+				return COS;
+			case TAN:
+				return TAN;
+			case EXP:
+				return EXP;
+			case LOG:
+				return LOG;
+			case LOG10:
+				return LOG10;
+			case LOG2:
+				return LOG2;
+			case SQRT:
+			case SQRT_SHORT:
+				return SQRT;
+			case ABS:
+				return ABS;
+			case SGN:
+				return SGN;
+			case CBRT:
+				return CBRT;
+			case SINH:
+				return SINH;
+			case COSH:
+				return COSH;
+			case TANH:
+				return TANH;
+			case ARCSIN:
+			case ARCSIND:
+				return ARCSIN;
+			case ARCCOS:
+			case ARCCOSD:
+				return ARCCOS;
+			case ARCTAN:
+			case ARCTAND:
+				return ARCTAN;
+			default:
+				return -1;
+			}
+		}
+
+		/**
+		 * @return whether the value is a number compiled without tree walker
+		 */
+		private boolean isNumeric(ExpressionValue ev) {
+			if (ev instanceof ExpressionNode) {
+				ExpressionNode node = (ExpressionNode) ev;
+				if (node.isLeaf()) {
+					return isNumeric(node.getLeft());
+				}
+				switch (node.getOperation()) {
+				case PLUS:
+				case MINUS:
+				case MULTIPLY:
+				case DIVIDE:
+					return isNumeric(node.getLeft())
+							&& isNumeric(node.getRight());
+				case SIN:
+				case COS:
+				case SQRT:
+				case POWER:
+					return isNumeric(node.getLeft());
+				default:
+					return canCompileFull(node);
+				}
+			}
+			return isVariable(ev) || isNumber(ev);
+		}
+
+		private int compileLeaf(ExpressionValue ev, boolean fast) {
+			for (int i = 0; i < vars.length; i++) {
+				if (ev == vars[i]) {
+					return i;
+				}
+			}
+			if (ev instanceof MyDouble && !(ev instanceof FunctionVariable)) {
+				return constant(((MyDouble) ev).getDouble());
+			}
+			if (isVariable(ev)) {
+				return emit(VALUE, 0, 0, ev);
+			}
+			// full mode only accepts numbers and variables
+			return fast ? fallback(ev) : -1;
+		}
+
+		private boolean isNumber(ExpressionValue ev) {
+			return ev instanceof MyDouble && !(ev instanceof FunctionVariable);
+		}
+
+		/**
+		 * @return whether ev is a function variable or a numeric object
+		 */
+		private boolean isVariable(ExpressionValue ev) {
+			for (FunctionVariable var : vars) {
+				if (ev == var) {
+					return true;
+				}
+			}
+			return ev instanceof GeoNumeric
+					&& !(ev instanceof GeoDummyVariable);
+		}
+
+		private static ExpressionValue fractionOrNull(ExpressionValue right) {
+			return right.isExpressionNode() && ((ExpressionNode) right)
+					.getOperation() == Operation.DIVIDE ? right : null;
+		}
+
+		private int fallback(ExpressionValue ev) {
+			fallbacks++;
+			return emit(VALUE, 0, 0, ev);
+		}
+
+		private int constant(double value) {
+			constants.add(value);
+			return constants.size() - 1;
+		}
+
+		private int emit(int op, int a, int b, ExpressionValue ref) {
+			if (op != VALUE && op != MULTIPLY_OR_TREE && isConstant(a)
+					&& isConstant(b)) {
+				return constant(execute(op, constants.get(a),
+						constants.get(b), ref));
+			}
+			constants.add(null);
+			int target = constants.size() - 1;
+			code.add(op);
+			code.add(target);
+			code.add(a);
+			code.add(b);
+			if (ref == null) {
+				code.add(-1);
+			} else {
+				refs.add(ref);
+				code.add(refs.size() - 1);
+			}
+			return target;
+		}
+
+		private boolean isConstant(int register) {
+			return constants.get(register) != null;
+		}
+	}
+}
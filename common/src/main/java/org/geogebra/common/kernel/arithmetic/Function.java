@@ -214,6 +214,10 @@ public class Function extends FunctionNVar
 			return evaluateBoolean(x) ? 1 : 0;
 		}
 		// NumberValue
+		ExpressionProgram compiled = getProgram();
+		if (compiled != null) {
+			return compiled.evaluate(x);
+		}
 		fVars[0].set(x);
 		return expression.evaluateDouble();
 
@@ -72,6 +72,13 @@ public class FunctionNVar extends ValidExpression
 
 	private static ArrayList<ExpressionNode> undecided = new ArrayList<>();
 
+	/** number of nested compiled evaluation scopes */
+	private int compiledScopes = 0;
+	private ExpressionProgram program;
+	/** expression and variables the program was compiled from */
+	private ExpressionNode programExpression;
+	private FunctionVariable[] programVars;
+
 	private final static class RandomCheck implements Inspecting {
 		protected RandomCheck() {
 			// make this visible
@@ -500,6 +507,10 @@ public class FunctionNVar extends ValidExpression
 			return evaluateBoolean(vals) ? 1 : 0;
 		}
 		// NumberValue
+		ExpressionProgram compiled = getProgram();
+		if (compiled != null) {
+			return compiled.evaluate(vals);
+		}
 		if (fVars != null) {
 			for (int i = 0; i < fVars.length; i++) {
 				fVars[i].set(vals[i]);
@@ -515,6 +526,10 @@ public class FunctionNVar extends ValidExpression
 			return evaluateBoolean(x, y) ? 1 : 0;
 		}
 		// NumberValue
+		ExpressionProgram compiled = getProgram();
+		if (compiled != null) {
+			return compiled.evaluate(x, y);
+		}
 
 		fVars[0].set(x);
 		fVars[1].set(y);
@@ -522,6 +537,76 @@ public class FunctionNVar extends ValidExpression
 		return expression.evaluateDouble();
 	}
 
+	/**
+	 * Starts a scope in which numeric values of this function are computed by
+	 * an {@link ExpressionProgram}, e.g. while sampling it for plotting. The
+	 * expression must not be changed (other than values of dependent numbers)
+	 * until {@link #endCompiledEvaluation()} is called.
+	 */
+	public void startCompiledEvaluation() {
+		compiledScopes++;
+	}
+
+	/**
+	 * Ends scope started by {@link #startCompiledEvaluation()}.
+	 */
+	public void endCompiledEvaluation() {
+		if (compiledScopes > 0) {
+			compiledScopes--;
+		}
+		if (compiledScopes == 0) {
+			program = null;
+			programExpression = null;
+			programVars = null;
+		}
+	}
+
+	/**
+	 * @return compiled expression if compiled evaluation is active and the
+	 *         expression can be compiled, null otherwise
+	 */
+	protected ExpressionProgram getProgram() {
+		if (compiledScopes == 0 || isBooleanFunction) {
+			return null;
+		}
+		if (programExpression != expression || programVars != fVars) {
+			programExpression = expression;
+			programVars = fVars;
+			program = ExpressionProgram.compile(expression, fVars);
+		}
+		return program;
+	}
+
+	/**
+	 * Creates a copy with its own function variables that is evaluated by a
+	 * compiled program. The copy can be evaluated on another thread as long
+	 * as this function and the numbers it depends on are not changed.
+	 *
+	 * @return copy or null if the expression needs the tree walker for some
+	 *         part (e.g. commands, lists or function calls)
+	 */
+	public FunctionNVar copyForConcurrentEvaluation() {
+		if (isBooleanFunction || fVars == null) {
+			return null;
+		}
+		ExpressionProgram check = ExpressionProgram.compile(expression, fVars);
+		if (check == null || check.getFallbackCount() > 0) {
+			return null;
+		}
+		FunctionVariable[] vars = new FunctionVariable[fVars.length];
+		ExpressionValue copy = expression.getCopy(kernel);
+		for (int i = 0; i < fVars.length; i++) {
+			vars[i] = new FunctionVariable(kernel, fVars[i].getSetVarString());
+			copy = copy.traverse(
+					Traversing.Replacer.getReplacer(fVars[i], vars[i]));
+		}
+		FunctionNVar ret = new FunctionNVar(copy.wrap(), vars);
+		ret.startCompiledEvaluation();
+		// compile now rather than on the evaluating thread
+		ret.getProgram();
+		return ret;
+	}
+
 	/**
 	 * Returns this function's value at position vals. (Note: use this method if
 	 * isBooleanFunction() returns true.
@@ -1,7 +1,5 @@
 package org.geogebra.common.kernel.batch;
 
-import java.util.Iterator;
-
 import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.CheckBeforeUpdateView;
 import org.geogebra.common.kernel.ModeSetter;
@@ -9,104 +7,104 @@ import org.geogebra.common.kernel.View;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
-import org.geogebra.common.util.GTimer;
-import org.geogebra.common.util.GTimerListener;
-import org.geogebra.common.util.Reflection;
-import org.geogebra.common.util.debug.Log;
 
 /**
- * This class can wrap a view, and post the notifications
- * in a batch every DELAY seconds.
+ * This class can wrap a view, and post the notifications in a batch once per
+ * frame of a {@link ViewNotificationBus}. Repeated changes of an element
+ * within a frame result in a single call. Showing views get added and removed
+ * elements immediately, after the changes collected before.
  */
-public class BatchedUpdateWrapper
-		implements CheckBeforeUpdateView, GTimerListener {
-
-	private static final int DELAY = 80;
+public class BatchedUpdateWrapper implements View {
 
-	private final CheckBeforeUpdateView wrappedView;
-	private final Reflection reflection;
-	private final EventOptimizedList pendingEvents;
-	private final GTimer timer;
+	private final WrappableView wrappedView;
+	private final ViewNotificationBus bus;
+	private PendingNotifications pendingEvents = new PendingNotifications();
+	private PendingNotifications dispatchedEvents = new PendingNotifications();
+	private boolean dispatching;
 
 	/**
-	 * Create a wrapper around View.
+	 * Create a wrapper around View, notified by its own bus.
 	 *
 	 * @param wrappedView view to wrap
 	 * @param factory factory
 	 */
 	public BatchedUpdateWrapper(WrappableView wrappedView,
 			UtilFactory factory) {
-		this.wrappedView = wrappedView;
-		wrappedView.setIsWrapped(true);
-		this.reflection = factory.newReflection(View.class);
-
-		pendingEvents = new EventOptimizedList();
-		timer = factory.newTimer(this, DELAY);
-	}
-
-	private void addEvent(String name) {
-		addEvent(name, new Object[] {});
+		this(wrappedView, new ViewNotificationBus(factory));
 	}
 
-	private void addEvent(String name, GeoElement parameter) {
-		if (show(parameter)) {
-			Event event = new Event(name, new Object[] { parameter });
-			addEvent(event);
-		}
-	}
-
-	private void addEvent(String name, Object[] parameters) {
-		Event event = new Event(name, parameters);
-		addEvent(event);
-	}
-
-	private void addEvent(Event event) {
-		pendingEvents.add(event);
-		if (!timer.isRunning()) {
-			timer.start();
-		}
+	/**
+	 * Create a wrapper around View.
+	 *
+	 * @param wrappedView view to wrap
+	 * @param bus bus that delivers the notifications
+	 */
+	BatchedUpdateWrapper(WrappableView wrappedView, ViewNotificationBus bus) {
+		this.wrappedView = wrappedView;
+		this.bus = bus;
+		bus.register(this);
 	}
 
 	@Override
 	public void add(GeoElement geo) {
-		addEvent("add", geo);
+		if (show(geo)) {
+			pendingEvents.add(geo);
+			dispatchIfShowing();
+		}
 	}
 
 	@Override
 	public void remove(GeoElement geo) {
-		addEvent("remove", geo);
+		if (show(geo)) {
+			pendingEvents.remove(geo);
+			dispatchIfShowing();
+		}
 	}
 
 	@Override
 	public void rename(GeoElement geo) {
-		addEvent("rename", geo);
+		if (show(geo)) {
+			pendingEvents.rename(geo);
+			bus.schedule();
+		}
 	}
 
 	@Override
 	public void update(GeoElement geo) {
-		addEvent("update", geo);
+		if (show(geo)) {
+			pendingEvents.update(geo);
+			bus.schedule();
+		}
 	}
 
 	@Override
 	public void updateVisualStyle(GeoElement geo, GProperty prop) {
 		if (needsUpdateVisualstyle(prop) && show(geo)) {
-			addEvent("updateVisualStyle", new Object[] { geo, prop });
+			pendingEvents.updateVisualStyle(geo, prop);
+			bus.schedule();
 		}
 	}
 
 	@Override
 	public void updateHighlight(GeoElementND geo) {
-		addEvent("updateHighlight", (GeoElement) geo);
+		if (show((GeoElement) geo)) {
+			pendingEvents.updateHighlight((GeoElement) geo);
+			bus.schedule();
+		}
 	}
 
 	@Override
 	public void updateAuxiliaryObject(GeoElement geo) {
-		addEvent("updateAuxiliaryObject", geo);
+		if (show(geo)) {
+			pendingEvents.updateAuxiliaryObject(geo);
+			bus.schedule();
+		}
 	}
 
 	@Override
 	public void repaintView() {
-		addEvent("repaintView");
+		pendingEvents.repaint();
+		bus.schedule();
 	}
 
 	@Override
@@ -152,38 +150,77 @@ public class BatchedUpdateWrapper
 
 	@Override
 	public void updatePreviewFromInputBar(GeoElement[] geos) {
-		addEvent("updatePreviewFromInputBar", new Object[] { geos });
+		pendingEvents.updatePreview(geos);
+		dispatchIfShowing();
 	}
 
-	@Override
-	public void onRun() {
-		EventOptimizedList copiedEvents = pendingEvents.copy();
-		pendingEvents.clear();
+	private void dispatchIfShowing() {
+		if (wrappedView.isShowing() && !dispatching) {
+			bus.countCalls(dispatch());
+		} else {
+			bus.schedule();
+		}
+	}
 
+	/**
+	 * Delivers pending notifications to the wrapped view.
+	 *
+	 * @return number of view calls
+	 */
+	int dispatch() {
+		if (pendingEvents.isEmpty()) {
+			return 0;
+		}
+		// view may cause new notifications while being notified
+		PendingNotifications events = pendingEvents;
+		pendingEvents = dispatchedEvents;
+		dispatchedEvents = events;
+		dispatching = true;
 		wrappedView.startBatchUpdate();
-
-		Iterator<Event> iterator = copiedEvents.iterator();
-		while (iterator.hasNext()) {
-			Event event = iterator.next();
-			String name = event.getName();
-			Object[] parameters = event.getParameters();
-			try {
-				reflection.call(wrappedView, name, parameters);
-			} catch (Exception e) {
-				Log.debug(e);
-			}
-			iterator.remove();
+		try {
+			return events.dispatch(wrappedView);
+		} finally {
+			wrappedView.endBatchUpdate();
+			dispatching = false;
 		}
-		wrappedView.endBatchUpdate();
 	}
 
-	@Override
-	public boolean needsUpdateVisualstyle(GProperty property) {
-		return wrappedView.needsUpdateVisualstyle(property);
+	/**
+	 * Delivers pending notifications of all views of the bus.
+	 */
+	public void onRun() {
+		bus.flush();
 	}
 
-	@Override
-	public boolean show(GeoElement geo) {
-		return wrappedView.show(geo);
+	/**
+	 * @return whether there are notifications waiting for the next frame
+	 */
+	boolean hasPending() {
+		return !pendingEvents.isEmpty();
+	}
+
+	/**
+	 * @return whether the wrapped view is showing
+	 */
+	boolean isShowing() {
+		return wrappedView.isShowing();
+	}
+
+	/**
+	 * @return number of calls saved by merging notifications
+	 */
+	public int getMergedCount() {
+		return pendingEvents.getMerged() + dispatchedEvents.getMerged();
+	}
+
+	private boolean needsUpdateVisualstyle(GProperty property) {
+		return !(wrappedView instanceof CheckBeforeUpdateView)
+				|| ((CheckBeforeUpdateView) wrappedView)
+						.needsUpdateVisualstyle(property);
+	}
+
+	private boolean show(GeoElement geo) {
+		return !(wrappedView instanceof CheckBeforeUpdateView)
+				|| ((CheckBeforeUpdateView) wrappedView).show(geo);
 	}
 }
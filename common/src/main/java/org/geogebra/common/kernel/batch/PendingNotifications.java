@@ -0,0 +1,219 @@
+package org.geogebra.common.kernel.batch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.geogebra.common.kernel.View;
+import org.geogebra.common.kernel.geos.GProperty;
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Notifications of one view collected during a frame, in the order the kernel
+ * sent them. Repeated changes of one element between two add, remove or
+ * preview calls are merged into a single call per kind of change.
+ */
+class PendingNotifications {
+
+	private static final int UPDATE = 1;
+	private static final int RENAME = 2;
+	private static final int HIGHLIGHT = 4;
+	private static final int AUXILIARY = 8;
+	private static final int VISUAL_STYLE = 16;
+
+	private static final int ADD = 0;
+	private static final int REMOVE = 1;
+	private static final int PREVIEW = 2;
+	private static final int CHANGES = 3;
+
+	/** add, remove, preview calls and blocks of changes in order */
+	private final ArrayList<Integer> types = new ArrayList<>();
+	private final ArrayList<Object> args = new ArrayList<>();
+	/** pending changes per element since the last add, remove or preview */
+	private LinkedHashMap<GeoElement, Changes> changes;
+	private boolean repaint;
+	private int merged;
+
+	/**
+	 * Changes of one element.
+	 */
+	private static class Changes {
+		int flags;
+		ArrayList<GProperty> properties;
+
+		void addProperty(GProperty prop) {
+			if (properties == null) {
+				properties = new ArrayList<>(2);
+			}
+			if (!properties.contains(prop)) {
+				properties.add(prop);
+			}
+		}
+	}
+
+	void add(GeoElement geo) {
+		addStructural(ADD, geo);
+	}
+
+	@SuppressWarnings("unchecked")
+	void remove(GeoElement geo) {
+		// earlier calls for removed element are pointless
+		for (int i = types.size() - 1; i >= 0; i--) {
+			Object arg = args.get(i);
+			if (types.get(i) == CHANGES) {
+				if (((Map<GeoElement, Changes>) arg).remove(geo) != null) {
+					merged++;
+				}
+			} else if (arg == geo) {
+				types.remove(i);
+				args.remove(i);
+				merged++;
+			}
+		}
+		addStructural(REMOVE, geo);
+	}
+
+	void updatePreview(GeoElement[] geos) {
+		addStructural(PREVIEW, geos);
+	}
+
+	private void addStructural(int type, Object arg) {
+		types.add(type);
+		args.add(arg);
+		// later changes must be sent after this call
+		changes = null;
+	}
+
+	void update(GeoElement geo) {
+		addChange(geo, UPDATE);
+	}
+
+	void rename(GeoElement geo) {
+		addChange(geo, RENAME);
+	}
+
+	void updateHighlight(GeoElement geo) {
+		addChange(geo, HIGHLIGHT);
+	}
+
+	void updateAuxiliaryObject(GeoElement geo) {
+		addChange(geo, AUXILIARY);
+	}
+
+	void updateVisualStyle(GeoElement geo, GProperty prop) {
+		addChange(geo, VISUAL_STYLE).addProperty(prop);
+	}
+
+	private Changes addChange(GeoElement geo, int flag) {
+		if (changes == null) {
+			changes = new LinkedHashMap<>();
+			types.add(CHANGES);
+			args.add(changes);
+		}
+		Changes change = changes.get(geo);
+		if (change == null) {
+			change = new Changes();
+			changes.put(geo, change);
+		} else if ((change.flags & flag) != 0 && flag != VISUAL_STYLE) {
+			merged++;
+		}
+		change.flags |= flag;
+		return change;
+	}
+
+	void repaint() {
+		if (repaint) {
+			merged++;
+		}
+		repaint = true;
+	}
+
+	boolean isEmpty() {
+		return types.isEmpty() && !repaint;
+	}
+
+	void clear() {
+		types.clear();
+		args.clear();
+		changes = null;
+		repaint = false;
+	}
+
+	/**
+	 * @return number of calls saved by merging
+	 */
+	int getMerged() {
+		return merged;
+	}
+
+	/**
+	 * Calls the view in the order the notifications arrived, repaint last.
+	 *
+	 * @param view
+	 *            view
+	 * @return number of calls
+	 */
+	@SuppressWarnings("unchecked")
+	int dispatch(View view) {
+		int calls = 0;
+		for (int i = 0; i < types.size(); i++) {
+			Object arg = args.get(i);
+			switch (types.get(i)) {
+			case ADD:
+				view.add((GeoElement) arg);
+				calls++;
+				break;
+			case REMOVE:
+				view.remove((GeoElement) arg);
+				calls++;
+				break;
+			case PREVIEW:
+				view.updatePreviewFromInputBar((GeoElement[]) arg);
+				calls++;
+				break;
+			default:
+				calls += dispatchChanges(view,
+						(Map<GeoElement, Changes>) arg);
+			}
+		}
+		if (repaint) {
+			view.repaintView();
+			calls++;
+		}
+		clear();
+		return calls;
+	}
+
+	private static int dispatchChanges(View view,
+			Map<GeoElement, Changes> elementChanges) {
+		int calls = 0;
+		for (Map.Entry<GeoElement, Changes> entry : elementChanges
+				.entrySet()) {
+			GeoElement geo = entry.getKey();
+			Changes change = entry.getValue();
+			if ((change.flags & RENAME) != 0) {
+				view.rename(geo);
+				calls++;
+			}
+			if ((change.flags & UPDATE) != 0) {
+				view.update(geo);
+				calls++;
+			}
+			if ((change.flags & VISUAL_STYLE) != 0) {
+				for (GProperty prop : change.properties) {
+					view.updateVisualStyle(geo, prop);
+					calls++;
+				}
+			}
+			if ((change.flags & AUXILIARY) != 0) {
+				view.updateAuxiliaryObject(geo);
+				calls++;
+			}
+			if ((change.flags & HIGHLIGHT) != 0) {
+				view.updateHighlight(geo);
+				calls++;
+			}
+		}
+		return calls;
+	}
+}
@@ -0,0 +1,125 @@
+package org.geogebra.common.kernel.batch;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.util.GTimer;
+import org.geogebra.common.util.GTimerListener;
+
+/**
+ * Delivers batched view notifications once per frame. When the kernel has a
+ * bus, it notifies attached views that implement {@link WrappableView}
+ * through wrappers created by {@link #wrap(WrappableView)}. Views that are
+ * showing are notified first; hidden views keep collecting (merged)
+ * notifications and are only notified every {@link #DEFERRED_FRAMES} frames
+ * or on {@link #flush()}.
+ */
+public class ViewNotificationBus implements GTimerListener {
+
+	/** delay between frames in milliseconds (one frame at 60 Hz) */
+	public static final int FRAME_DELAY = 16;
+	/** hidden views are notified once per this number of frames */
+	public static final int DEFERRED_FRAMES = 10;
+
+	private final ArrayList<BatchedUpdateWrapper> wrappers = new ArrayList<>();
+	private final GTimer timer;
+	private int frame;
+	private long calls;
+
+	/**
+	 * @param factory
+	 *            factory for the frame timer
+	 */
+	public ViewNotificationBus(UtilFactory factory) {
+		timer = factory.newTimer(this, FRAME_DELAY);
+	}
+
+	/**
+	 * @param view
+	 *            view
+	 * @return wrapper to be notified instead of the view
+	 */
+	public BatchedUpdateWrapper wrap(WrappableView view) {
+		return new BatchedUpdateWrapper(view, this);
+	}
+
+	/**
+	 * @param wrapper
+	 *            wrapper of this bus
+	 */
+	void register(BatchedUpdateWrapper wrapper) {
+		wrappers.add(wrapper);
+	}
+
+	/**
+	 * Stops notifying the view of a wrapper.
+	 *
+	 * @param wrapper
+	 *            wrapper of this bus
+	 */
+	public void unwrap(BatchedUpdateWrapper wrapper) {
+		wrappers.remove(wrapper);
+	}
+
+	/**
+	 * Makes sure there is a frame scheduled.
+	 */
+	void schedule() {
+		if (!timer.isRunning()) {
+			timer.start();
+		}
+	}
+
+	@Override
+	public void onRun() {
+		frame++;
+		dispatch(frame % DEFERRED_FRAMES == 0);
+	}
+
+	/**
+	 * Notifies all views, including hidden ones, immediately.
+	 */
+	public void flush() {
+		dispatch(true);
+	}
+
+	private void dispatch(boolean includeHidden) {
+		// copy: views may be wrapped or unwrapped while being notified
+		ArrayList<BatchedUpdateWrapper> current = new ArrayList<>(wrappers);
+		for (BatchedUpdateWrapper wrapper : current) {
+			if (wrapper.isShowing()) {
+				calls += wrapper.dispatch();
+			}
+		}
+		for (BatchedUpdateWrapper wrapper : current) {
+			if (!wrapper.isShowing() && includeHidden) {
+				calls += wrapper.dispatch();
+			}
+		}
+		boolean pending = false;
+		for (BatchedUpdateWrapper wrapper : wrappers) {
+			pending |= wrapper.hasPending();
+		}
+		// do not wake up every frame when there is nothing to do
+		if (pending) {
+			schedule();
+		} else {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * @param count
+	 *            number of view calls made outside of a frame
+	 */
+	void countCalls(int count) {
+		calls += count;
+	}
+
+	/**
+	 * @return number of view calls made by this bus
+	 */
+	public long getCalls() {
+		return calls;
+	}
+}
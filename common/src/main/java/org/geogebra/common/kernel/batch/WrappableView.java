@@ -1,23 +1,15 @@
 package org.geogebra.common.kernel.batch;
 
-import org.geogebra.common.kernel.CheckBeforeUpdateView;
+import org.geogebra.common.kernel.View;
 
 /**
  * Interface for views that can be wrapped in BatchedUpdateWrapper
  */
-public interface WrappableView extends CheckBeforeUpdateView {
+public interface WrappableView extends View {
 
 	/**
-	 * set if the view is currently wrapped
-	 * 
-	 * @param flag
-	 *            flag
+	 * @return whether the view is currently visible; hidden views are
+	 *         notified less often
 	 */
-	void setIsWrapped(boolean flag);
-
-	/**
-	 * 
-	 * @return if the view is currently wrapped
-	 */
-	boolean getIsWrapped();
+	boolean isShowing();
 }
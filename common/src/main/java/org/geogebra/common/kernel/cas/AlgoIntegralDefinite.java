@@ -908,10 +908,25 @@ public class AlgoIntegralDefinite extends AlgoUsingTempCASalgo
 		}
 
 		adaptiveGaussQuadCounter = 0;
-		if (a > b) {
-			return -doAdaptiveGaussQuad(ad, b, a, maxMultiplier);
+		Function compiled = null;
+		if (ad instanceof GeoFunction) {
+			compiled = ((GeoFunction) ad).getFunction();
+		} else if (ad instanceof Function) {
+			compiled = (Function) ad;
+		}
+		if (compiled != null) {
+			compiled.startCompiledEvaluation();
+		}
+		try {
+			if (a > b) {
+				return -doAdaptiveGaussQuad(ad, b, a, maxMultiplier);
+			}
+			return doAdaptiveGaussQuad(ad, a, b, maxMultiplier);
+		} finally {
+			if (compiled != null) {
+				compiled.endCompiledEvaluation();
+			}
 		}
-		return doAdaptiveGaussQuad(ad, a, b, maxMultiplier);
 
 		// System.out.println("calls: " + adaptiveGaussQuadCounter);
 
@@ -3,15 +3,12 @@ package org.geogebra.common.kernel.cas;
 import java.util.ArrayList;
 
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
-import org.apache.commons.math3.ode.FirstOrderIntegrator;
 import org.apache.commons.math3.ode.nonstiff.ClassicalRungeKuttaIntegrator;
-import org.apache.commons.math3.ode.sampling.StepHandler;
-import org.apache.commons.math3.ode.sampling.StepInterpolator;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
-import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoNumeratorDenominatorFun;
+import org.geogebra.common.kernel.algos.ODESolution;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
@@ -22,7 +19,6 @@ import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.util.DoubleUtil;
-import org.geogebra.common.util.debug.Log;
 
 /**
  * eg SolveODE[x/y,x(A),y(A),5,0.1]
@@ -40,7 +36,7 @@ public class AlgoSolveODE extends AlgoElement {
 	private GeoNumeric step; // input
 	private GeoLocus locus; // output
 	/** integral line points */
-	ArrayList<MyPoint> al;
+	ArrayList<MyPoint> al = new ArrayList<>();
 	private AlgoNumeratorDenominatorFun numAlgo;
 	private AlgoNumeratorDenominatorFun denAlgo;
 	private FunctionalNVar num;
@@ -48,6 +44,12 @@ public class AlgoSolveODE extends AlgoElement {
 	/** whether expression is in the form f/g */
 	boolean quotient;
 
+	// integration state, kept so that changing the end extends the solution
+	private FirstOrderDifferentialEquations ode;
+	private double[] initialState;
+	private ODESolution solution;
+	private double solutionStep;
+
 	/**
 	 * @param cons
 	 *            cons
@@ -105,6 +107,14 @@ public class AlgoSolveODE extends AlgoElement {
 			quotient = true;
 		}
 
+		if (!quotient) {
+			ode = new ODE(f0);
+			initialState = new double[1];
+		} else {
+			ode = new ODE2(num, den);
+			initialState = new double[2];
+		}
+
 		// g = new GeoList(cons);
 		locus = new GeoLocus(cons);
 		setInputOutput(); // for AlgoElement
@@ -157,44 +167,49 @@ public class AlgoSolveODE extends AlgoElement {
 			return;
 		}
 
-		// g.clear();
-		if (al == null) {
-			al = new ArrayList<>();
-		} else {
-			al.clear();
-		}
-
 		// FirstOrderIntegrator integrator = new
 		// DormandPrince853Integrator(1.0e-8, 100.0, 1.0e-10, 1.0e-10);
-		FirstOrderIntegrator integrator = new ClassicalRungeKuttaIntegrator(
-				step.getDouble());
-		FirstOrderDifferentialEquations ode;
-
+		boolean sameEquations;
+		if (solution == null || solutionStep != step.getDouble()) {
+			solutionStep = step.getDouble();
+			solution = new ODESolution(
+					new ClassicalRungeKuttaIntegrator(solutionStep),
+					initialState.length);
+		}
+		FunctionalNVar[] functions;
+		double t0;
 		if (!quotient) {
-			ode = new ODE(f0);
+			sameEquations = solution.updateEquations((GeoElement) f0);
+			functions = new FunctionalNVar[] { f0 };
+			t0 = x.getDouble();
+			initialState[0] = y.getDouble();
 		} else {
-			ode = new ODE2(num, den);
+			sameEquations = solution.updateEquations((GeoElement) num,
+					(GeoElement) den);
+			functions = new FunctionalNVar[] { num, den };
+			t0 = 0;
+			initialState[0] = x.getDouble();
+			initialState[1] = y.getDouble();
 		}
-		integrator.addStepHandler(stepHandler);
-
-		al.add(new MyPoint(x.getDouble(), y.getDouble(), SegmentType.MOVE_TO));
 
-		double[] yy = new double[] { y.getDouble() }; // initial state
-		double[] yy2 = new double[] { x.getDouble(), y.getDouble() }; // initial
-																		// state
+		int from = 0;
+		ODESolution.startCompiledEvaluation(functions);
 		try {
-			if (!quotient) {
-				integrator.integrate(ode, x.getDouble(), yy, end.getDouble(),
-						yy);
-			} else {
-				integrator.integrate(ode, 0.0, yy2, end.getDouble(), yy2);
-			}
+			from = solution.integrate(ode, t0, initialState, end.getDouble(),
+					sameEquations);
 		} catch (RuntimeException e) {
 			// catches ArithmeticException, IllegalStateException and
 			// ArithmeticException
 			e.printStackTrace();
 			locus.setDefined(false);
-		} // now y contains final state at time t=16.0
+		} finally {
+			ODESolution.endCompiledEvaluation(functions);
+		}
+
+		// points of unchanged samples are kept, the rest are overwritten
+		from = Math.min(from, al.size());
+		ODESolution.trimPoints(al, solution.writePoints(al, from, from,
+				quotient ? 0 : -1, quotient ? 1 : 0));
 
 		// g.setDefined(true);
 		locus.setPoints(al);
@@ -202,35 +217,10 @@ public class AlgoSolveODE extends AlgoElement {
 
 	}
 
-	private StepHandler stepHandler = new StepHandler() {
-
-		@Override
-		public void handleStep(StepInterpolator interpolator, boolean isLast)
-				throws IllegalArgumentException {
-			double t = interpolator.getCurrentTime();
-			double[] y1 = interpolator.getInterpolatedState();
-			// System.out.println(t + " " + y[0]);
-
-			if (!quotient) {
-				al.add(new MyPoint(t, y1[0], SegmentType.LINE_TO));
-			} else {
-				al.add(new MyPoint(y1[0], y1[1], SegmentType.LINE_TO));
-			}
-
-		}
-
-		@Override
-		public void init(double t0, double[] y0, double t) {
-			Log.error("unimplemented");
-
-		}
-	};
-
-	// integrator.addStepHandler(stepHandler);
-
 	private static class ODE implements FirstOrderDifferentialEquations {
 
 		FunctionalNVar f;
+		private double[] input = new double[2];
 
 		public ODE(FunctionalNVar f) {
 			this.f = f;
@@ -244,7 +234,8 @@ public class AlgoSolveODE extends AlgoElement {
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
 
-			double[] input = { t, y[0] };
+			input[0] = t;
+			input[1] = y[0];
 
 			// special case for f(y)= (substitute y not x)
 			// eg SolveODE[y, x(A), y(A), 5, 0.1]
@@ -262,6 +253,7 @@ public class AlgoSolveODE extends AlgoElement {
 
 		FunctionalNVar y0;
 		FunctionalNVar y1;
+		private double[] input = new double[2];
 
 		public ODE2(FunctionalNVar y, FunctionalNVar x) {
 			this.y0 = y;
@@ -276,7 +268,8 @@ public class AlgoSolveODE extends AlgoElement {
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
 
-			double[] input = { y[0], y[1] };
+			input[0] = y[0];
+			input[1] = y[1];
 
 			// special case for f(y)= (substitute y not x)
 			// eg SolveODE[-y, x, x(A), y(A), 5, 0.1]
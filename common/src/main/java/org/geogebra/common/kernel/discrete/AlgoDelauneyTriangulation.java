@@ -1,11 +1,8 @@
 package org.geogebra.common.kernel.discrete;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Iterator;
-import java.util.TreeSet;
 
-import org.geogebra.common.awt.GPoint2D;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
@@ -16,14 +13,18 @@ import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
-import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.debug.Log;
 
 /**
  * DelauneyTriangulation command
  */
 public class AlgoDelauneyTriangulation extends AlgoDiscrete {
-	private static Comparator<MyLine> lineComparator;
+	/**
+	 * rebuild the triangulation if more than length / MAX_CHANGES_DIVISOR
+	 * points were deleted or inserted
+	 */
+	private static final int MAX_CHANGES_DIVISOR = 4;
+	private DelaunayTriangulation dt;
 
 	/**
 	 * @param cons
@@ -54,7 +55,9 @@ public class AlgoDelauneyTriangulation extends AlgoDiscrete {
 
 			double[] inhom = new double[2];
 
+			// defined points first, the rest is null
 			PointDt[] points = new PointDt[size];
+			int length = 0;
 
 			for (int i = 0; i < size; i++) {
 				GeoElement geo = inputList.get(i);
@@ -62,12 +65,12 @@ public class AlgoDelauneyTriangulation extends AlgoDiscrete {
 					GeoPointND p = (GeoPointND) geo;
 					p.getInhomCoords(inhom);
 
-					points[i] = new PointDt(inhom[0], inhom[1]);
+					points[length++] = new PointDt(inhom[0], inhom[1]);
 
 				}
 			}
 
-			DelaunayTriangulation dt = new DelaunayTriangulation(points);
+			dt = updateTriangulation(dt, points, length);
 
 			if (dt.allCollinear) {
 				locus.setUndefined();
@@ -82,42 +85,23 @@ public class AlgoDelauneyTriangulation extends AlgoDiscrete {
 				al.clear();
 			}
 
-			// add to TreeSet to remove duplicates (from touching triangles)
-			TreeSet<MyLine> tree = new TreeSet<>(getComparator());
-
 			while (it.hasNext()) {
 				TriangleDt triangle = it.next();
 
-				tree.add(new MyLine(
-						new GPoint2D(triangle.p1().x(),
-								triangle.p1().y()),
-						new GPoint2D(triangle.p2().x(),
-								triangle.p2().y())));
-				if (triangle.p3() != null) {
-					tree.add(new MyLine(
-							new GPoint2D(triangle.p2().x(),
-									triangle.p2().y()),
-							new GPoint2D(triangle.p3().x(),
-									triangle.p3().y())));
-					tree.add(new MyLine(
-							new GPoint2D(triangle.p3().x(),
-									triangle.p3().y()),
-							new GPoint2D(triangle.p1().x(),
-									triangle.p1().y())));
+				if (triangle.isHalfplane()) {
+					// edge of the convex hull
+					addEdge(al, triangle.p1(), triangle.p2());
+				} else {
+					addOwnEdge(triangle.p1(), triangle.p2(),
+							triangle.next_12());
+					addOwnEdge(triangle.p2(), triangle.p3(),
+							triangle.next_23());
+					addOwnEdge(triangle.p3(), triangle.p1(),
+							triangle.next_31());
 				}
 
 			}
 
-			Iterator<MyLine> it2 = tree.iterator();
-
-			while (it2.hasNext()) {
-				MyLine line = it2.next();
-				al.add(new MyPoint(line.p1.getX(), line.p1.getY(),
-						SegmentType.MOVE_TO));
-				al.add(new MyPoint(line.p2.getX(), line.p2.getY(),
-						SegmentType.LINE_TO));
-			}
-
 			locus.setPoints(al);
 			locus.setDefined(true);
 		} catch (Exception e) {
@@ -126,50 +110,66 @@ public class AlgoDelauneyTriangulation extends AlgoDiscrete {
 		}
 	}
 
+	private void addOwnEdge(PointDt a, PointDt b, TriangleDt neighbor) {
+		if (isOwnEdge(a, b, neighbor)) {
+			addEdge(al, a, b);
+		}
+	}
+
 	/**
-	 * @return comparator used to eliminate duplicate objects (TreeSet deletes
-	 *         duplicates ie those that return 0)
+	 * Updates the triangulation of the previous points if only a few of them
+	 * were moved, otherwise (or if the update fails) builds a new one.
+	 * 
+	 * @param dt
+	 *            triangulation of the previous points or null
+	 * @param points
+	 *            current points, followed by nulls
+	 * @param length
+	 *            number of points
+	 * @return triangulation of the current points
 	 */
-	public static Comparator<MyLine> getComparator() {
-		if (lineComparator == null) {
-			lineComparator = new Comparator<MyLine>() {
-				@Override
-				public int compare(MyLine itemA, MyLine itemB) {
-
-					GPoint2D p1A = itemA.p1;
-					GPoint2D p2A = itemA.p2;
-					GPoint2D p1B = itemB.p1;
-					GPoint2D p2B = itemB.p2;
-
-					// return 0 if endpoints the same
-					// so no duplicates in the TreeMap
-					if (DoubleUtil.isEqual(p1A.getX(), p2B.getX())
-							&& DoubleUtil.isEqual(p1A.getY(), p2B.getY())
-							&& DoubleUtil.isEqual(p2A.getX(), p1B.getX())
-							&& DoubleUtil.isEqual(p2A.getY(), p1B.getY())) {
-						// Application.debug("equal2");
-						return 0;
-					}
-					// check this one second (doesn't occur in practice)
-					if (DoubleUtil.isEqual(p1A.getX(), p1B.getX())
-							&& DoubleUtil.isEqual(p1A.getY(), p1B.getY())
-							&& DoubleUtil.isEqual(p2A.getX(), p2B.getX())
-							&& DoubleUtil.isEqual(p2A.getY(), p2B.getY())) {
-						// Application.debug("equal1");
-						return 0;
-					}
-
-					// need to return something sensible, otherwise tree doesn't
-					// work
-					return itemA.lengthSquared() > itemB.lengthSquared() ? -1
-							: 1;
-
-				}
-			};
-
+	static DelaunayTriangulation updateTriangulation(DelaunayTriangulation dt,
+			PointDt[] points, int length) {
+		try {
+			if (dt != null
+					&& dt.update(points, length / MAX_CHANGES_DIVISOR)) {
+				return dt;
+			}
+		} catch (RuntimeException e) {
+			Log.debug(e);
 		}
+		return new DelaunayTriangulation(points);
+	}
+
+	/**
+	 * An edge between two triangles is in both of them, in opposite directions
+	 * as they are counterclockwise. Only one of them owns it, so that it is
+	 * drawn once; edges of the convex hull belong to the half planes.
+	 * 
+	 * @param a
+	 *            start of the edge
+	 * @param b
+	 *            end of the edge
+	 * @param neighbor
+	 *            triangle on the other side of the edge
+	 * @return whether the edge from a to b belongs to its triangle
+	 */
+	static boolean isOwnEdge(PointDt a, PointDt b, TriangleDt neighbor) {
+		return !neighbor.isHalfplane()
+				&& (a.x() < b.x() || (a.x() == b.x() && a.y() < b.y()));
+	}
 
-		return lineComparator;
+	/**
+	 * @param al
+	 *            locus points
+	 * @param a
+	 *            start point
+	 * @param b
+	 *            end point
+	 */
+	static void addEdge(ArrayList<MyPoint> al, PointDt a, PointDt b) {
+		al.add(new MyPoint(a.x(), a.y(), SegmentType.MOVE_TO));
+		al.add(new MyPoint(b.x(), b.y(), SegmentType.LINE_TO));
 	}
 
 }
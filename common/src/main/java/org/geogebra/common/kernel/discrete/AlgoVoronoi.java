@@ -2,13 +2,12 @@ package org.geogebra.common.kernel.discrete;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.TreeSet;
 
 import org.geogebra.common.awt.GPoint2D;
 import org.geogebra.common.kernel.Construction;
-import org.geogebra.common.kernel.MyPoint;
-import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
 import org.geogebra.common.kernel.discrete.delaunay.PointDt;
@@ -23,6 +22,7 @@ import org.geogebra.common.util.DoubleUtil;
  */
 public class AlgoVoronoi extends AlgoDiscrete {
 	private static Comparator<GPoint2D> pointComparator;
+	private DelaunayTriangulation dt;
 
 	/**
 	 * @param cons
@@ -52,8 +52,8 @@ public class AlgoVoronoi extends AlgoDiscrete {
 
 		double[] inhom = new double[2];
 
-		ArrayList<Double> xcoords = new ArrayList<>();
-		ArrayList<Double> ycoords = new ArrayList<>();
+		HashSet<Double> xcoords = new HashSet<>();
+		HashSet<Double> ycoords = new HashSet<>();
 
 		final double delta = 0.0000001;
 
@@ -98,7 +98,8 @@ public class AlgoVoronoi extends AlgoDiscrete {
 
 		}
 
-		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		dt = AlgoDelauneyTriangulation.updateTriangulation(dt, points,
+				points.length);
 
 		if (dt.allCollinear) {
 			locus.setUndefined();
@@ -113,56 +114,40 @@ public class AlgoVoronoi extends AlgoDiscrete {
 			al.clear();
 		}
 
-		// add to TreeSet to remove duplicates (from touching triangles)
-		TreeSet<MyLine> tree = new TreeSet<>(
-				AlgoDelauneyTriangulation.getComparator());
-
+		// each edge of the diagram is dual to an edge of the triangulation
 		while (it.hasNext()) {
 			TriangleDt triangle = it.next();
 
-			for (int index = 0; index < 3; index++) {
-
-				PointDt corner = triangle.getCorner(index);
-
-				if (corner != null) {
-
-					PointDt[] voronoiCell = dt.calcVoronoiCell(triangle,
-							corner);
-
-					if (voronoiCell != null) {
-						for (int i = 0; i < voronoiCell.length - 1; i++) {
-							tree.add(new MyLine(
-									new GPoint2D(voronoiCell[i].x(),
-											voronoiCell[i].y()),
-									new GPoint2D(
-											voronoiCell[(i + 1)
-													% voronoiCell.length].x(),
-											voronoiCell[(i + 1)
-													% voronoiCell.length]
-															.y())));
-
-						}
-					}
+			if (triangle.isHalfplane()) {
+				// ray from the circumcenter of the neighbor triangle
+				PointDt[] ray = dt.calcVoronoiCell(triangle, triangle.p1());
+				if (ray != null) {
+					AlgoDelauneyTriangulation.addEdge(al, ray[0], ray[1]);
 				}
+			} else {
+				addOwnEdge(triangle, triangle.p1(), triangle.p2(),
+						triangle.next_12());
+				addOwnEdge(triangle, triangle.p2(), triangle.p3(),
+						triangle.next_23());
+				addOwnEdge(triangle, triangle.p3(), triangle.p1(),
+						triangle.next_31());
 			}
 
 		}
 
-		Iterator<MyLine> it2 = tree.iterator();
-
-		while (it2.hasNext()) {
-			MyLine line = it2.next();
-			al.add(new MyPoint(line.p1.getX(), line.p1.getY(),
-					SegmentType.MOVE_TO));
-			al.add(new MyPoint(line.p2.getX(), line.p2.getY(),
-					SegmentType.LINE_TO));
-		}
-
 		locus.setPoints(al);
 		locus.setDefined(true);
 
 	}
 
+	private void addOwnEdge(TriangleDt triangle, PointDt a, PointDt b,
+			TriangleDt neighbor) {
+		if (AlgoDelauneyTriangulation.isOwnEdge(a, b, neighbor)) {
+			AlgoDelauneyTriangulation.addEdge(al, triangle.circumcenter(),
+					neighbor.circumcenter());
+		}
+	}
+
 	/**
 	 * @return comparator used to eliminate duplicate objects (TreeSet deletes
 	 *         duplicates ie those that return 0)
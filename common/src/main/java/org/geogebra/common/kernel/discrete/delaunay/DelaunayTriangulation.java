@@ -1,5 +1,6 @@
 package org.geogebra.common.kernel.discrete.delaunay;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -173,22 +174,31 @@ public class DelaunayTriangulation {
 	 *            algorithm (2002).
 	 * 
 	 *            By Eyal Roth &amp; Doron Ganel (2009).
+	 * @return whether the point was deleted; points on the convex hull can't
+	 *         be deleted
 	 */
-	public void deletePoint(PointDt pointToDelete) {
+	public boolean deletePoint(PointDt pointToDelete) {
 
 		// Finding the triangles to delete.
 		Vector<PointDt> pointsVec = findConnectedVertices(pointToDelete, true);
 		if (pointsVec == null) {
-			return;
+			return false;
 		}
 
 		while (pointsVec.size() >= 3) {
 			// Getting a triangle to add, and saving it.
 			TriangleDt triangle = findTriangle(pointsVec, pointToDelete);
-			addedTriangles.add(triangle);
 
 			// Finding the point on the diagonal (pointToDelete,p)
-			PointDt p = findDiagonal(triangle, pointToDelete);
+			PointDt p = triangle == null ? null
+					: findDiagonal(triangle, pointToDelete);
+			if (p == null) {
+				// nothing was changed yet
+				addedTriangles.removeAllElements();
+				deletedTriangles.removeAllElements();
+				return false;
+			}
+			addedTriangles.add(triangle);
 
 			for (PointDt tmpP : pointsVec) {
 				if (tmpP.equals(p)) {
@@ -208,9 +218,61 @@ public class DelaunayTriangulation {
 		_triangles.removeAll(deletedTriangles);
 		_triangles.addAll(addedTriangles);
 		_vertices.remove(pointToDelete);
-		nPoints = nPoints + addedTriangles.size() - deletedTriangles.size();
+		nPoints--;
+		_modCount++;
 		addedTriangles.removeAllElements();
 		deletedTriangles.removeAllElements();
+		return true;
+	}
+
+	/**
+	 * Updates this triangulation to the given points: deletes the vertices
+	 * that are not among them and inserts the new ones. When only a few points
+	 * were moved, this is much faster than building a new triangulation.
+	 * 
+	 * @param ps
+	 *            the new points, the first null ends the array (like in the
+	 *            constructor)
+	 * @param maxChanges
+	 *            maximal number of deleted and inserted points
+	 * @return whether the vertices of this triangulation are the given points
+	 *         now; if false, a new triangulation should be built as this one
+	 *         may have been partially updated
+	 */
+	public boolean update(PointDt[] ps, int maxChanges) {
+		if (allCollinear) {
+			return false;
+		}
+		TreeSet<PointDt> points = new TreeSet<>(PointDt.getComparator());
+		for (int i = 0; i < ps.length && ps[i] != null; i++) {
+			points.add(ps[i]);
+		}
+		ArrayList<PointDt> deleted = new ArrayList<>();
+		for (PointDt p : _vertices) {
+			if (!points.contains(p)) {
+				deleted.add(p);
+			}
+		}
+		ArrayList<PointDt> inserted = new ArrayList<>();
+		for (PointDt p : points) {
+			if (!_vertices.contains(p)) {
+				inserted.add(p);
+			}
+		}
+		if (deleted.size() + inserted.size() > maxChanges) {
+			return false;
+		}
+		// insert first: this can only enlarge the convex hull, so that more
+		// of the old points are inside it and can be deleted
+		for (PointDt p : inserted) {
+			insertPoint(p);
+		}
+		for (PointDt p : deleted) {
+			if (!deletePoint(p)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -1202,6 +1264,10 @@ public class DelaunayTriangulation {
 		TriangleDt triangle = find(point);
 
 		// Validating find result.
+		if (triangle.isHalfplane()) {
+			// the point is on the perimeter
+			return null;
+		}
 		if (!triangle.isCorner(point)) {
 			Log.error(
 					"findConnectedVertices: Could not find connected vertices since"
@@ -1211,9 +1277,17 @@ public class DelaunayTriangulation {
 
 		triangles = findTriangleNeighborhood(triangle, point);
 		if (triangles == null) {
-			Log.error("Error: can't delete a point on the perimeter");
+			// can't delete a point on the perimeter
 			return null;
 		}
+		for (TriangleDt tmpTriangle : triangles) {
+			// the walk turns back at half planes instead of failing
+			if (isPerimeter(tmpTriangle.abnext, point)
+					|| isPerimeter(tmpTriangle.bcnext, point)
+					|| isPerimeter(tmpTriangle.canext, point)) {
+				return null;
+			}
+		}
 		if (saveTriangles) {
 			deletedTriangles = triangles;
 		}
@@ -1242,6 +1316,11 @@ public class DelaunayTriangulation {
 		return pointsVec;
 	}
 
+	private static boolean isPerimeter(TriangleDt halfplane, PointDt point) {
+		return halfplane.isHalfplane() && (halfplane.p1().equals(point)
+				|| halfplane.p2().equals(point));
+	}
+
 	/**
 	 * Walks on a consistent side of triangles until a cycle is achieved.
 	 * 
@@ -231,6 +231,13 @@ public class TriangleDt {
 		return circum;
 	}
 
+	/**
+	 * @return center of the circumscribed circle (null for half planes)
+	 */
+	public PointDt circumcenter() {
+		return circum == null ? null : circum.center();
+	}
+
 	boolean circumcircleContains(PointDt p) {
 
 		return circum.radius() > circum.center().distance2(p);
@@ -2213,100 +2213,7 @@ public class GeoCasCell extends GeoElement
 
 				boolean isSubstitute = isSubstitute();
 
-				// wrap in Evaluate if it's an expression rather than a command
-				// needed for Giac (for simplifying x+x to 2x)
-				evalVE = wrapEvaluate(evalVE,
-						isSubstitute && !isKeepInputUsed());
-
-				// wrap in PointList if the top level command is Solutions
-				// and the assignment variable is defined
-				if (isAssignmentVariableDefined()) {
-					adjustPointList(true);
-				}
-
-				expandedEvalVE = pointList ? wrapPointList(evalVE) : evalVE;
-				if (expandedEvalVE.isTopLevelCommand()
-						&& !expandedEvalVE.isTopLevelCommand("Evaluate")
-						&& ((Command) expandedEvalVE
-								.unwrap()).getArgumentNumber() != 1
-						&& ((Command) expandedEvalVE
-								.unwrap()).getArgument(0) != null) {
-					ExpressionNode node = ((Command) expandedEvalVE.unwrap())
-							.getArgument(0);
-					if (!(node.getLeft() instanceof GeoSurfaceCartesianND)
-							&& !(node.getRight() instanceof MyList)) {
-						// needed for GGB-494
-						// replace GeoSurfaceCartesian3D geos with MyVect3D with
-						// expressions of surface
-						expandedEvalVE = (ValidExpression) expandedEvalVE
-								.traverse(GeoSurfaceReplacer.getInstance());
-					}
-				}
-
-				if (!expandedEvalVE.isTopLevelCommand("Delete")
-						&& !this.getNSolveCmdNeeded()) {
-					FunctionExpander fex = FunctionExpander.getCollector();
-					expandedEvalVE = (ValidExpression) expandedEvalVE.wrap()
-							.getCopy(kernel).traverse(fex);
-					expandedEvalVE = processSolveCommand(expandedEvalVE);
-					// needed for GGB-955
-					expandedEvalVE = processSolutionCommand(expandedEvalVE);
-				}
-
-				// make work NSolve with cell input
-				if (expandedEvalVE.isTopLevelCommand("NSolve")
-						&& ((Command) expandedEvalVE.unwrap()).getArgument(0)
-										.getLeft() instanceof GeoCasCell) {
-					GeoCasCell cellArg = ((GeoCasCell) ((Command) expandedEvalVE
-							.unwrap()).getArgument(0).getLeft());
-					ExpressionNode inputVEofGeoCasCell = (ExpressionNode) cellArg
-							.getInputVE();
-					((Command) expandedEvalVE.unwrap()).setArgument(0,
-							inputVEofGeoCasCell);
-				}
-
-				// hack needed for GGB-494
-				// Solve command with list of equs and list of vars
-				if (expandedEvalVE instanceof ExpressionNode
-						&& ((ExpressionNode) expandedEvalVE)
-								.getLeft() instanceof Command
-						&& "Solve"
-								.equals(((Command) ((ExpressionNode) expandedEvalVE)
-										.getLeft()).getName())
-						&& ((Command) ((ExpressionNode) expandedEvalVE)
-								.getLeft()).getArgumentNumber() == 2) {
-					// get list of equations
-					ExpressionValue equListV = ((Command) ((ExpressionNode) expandedEvalVE)
-							.getLeft()).getArgument(0).unwrap();
-					if (equListV instanceof MyList) {
-						MyList equList = (MyList) equListV;
-						// "x" geoDummy instead of functionVariable
-						GeoDummyVariable x = new GeoDummyVariable(cons, "x");
-						// "y" geoDummy instead of functionVariable
-						GeoDummyVariable y = new GeoDummyVariable(cons, "y");
-						for (int i = 0; i < equList.size(); i++) {
-							if (equList
-									.getListElement(i) instanceof ExpressionNode
-									&& equList.getListElement(i)
-											.unwrap() instanceof Equation) {
-								// set Equation in list of equs instead of
-								// ExpressionNode that contains Equation
-								equList.setListElement(i,
-										equList.getListElement(i).unwrap());
-								// Equation contains "x" functionVariable
-								// replace with simple GeoDummyVariable
-								equList.getListElement(i)
-										.traverse(GeoDummyReplacer
-												.getReplacer("x", x, true));
-								// Equation contains "y" functionVariable
-								// replace with simple GeoDummyVariable
-								equList.getListElement(i)
-										.traverse(GeoDummyReplacer
-												.getReplacer("y", y, true));
-							}
-						}
-					}
-				}
+				expandEvalVE(isSubstitute);
 
 				// we need the row number of this row
 				// to store the arbitrary constant in construction
@@ -2456,6 +2363,121 @@ public class GeoCasCell extends GeoElement
 				allowFunction);
 	}
 
+	@Override
+	public ValidExpression prepareCasInput() {
+		if (useAsText || getEvalVE() == null || isCircularDefinition
+				|| useGeoGebraFallback || input.contains("Surface")
+				|| (inputVE != null
+						&& getAssignmentType() == AssignmentType.DELAYED)) {
+			return null;
+		}
+		expandEvalVE(isSubstitute());
+		return expandedEvalVE;
+	}
+
+	/**
+	 * Prepares {@link #expandedEvalVE}, the input sent to the CAS.
+	 * 
+	 * @param isSubstitute
+	 *            whether top level command is Substitute
+	 */
+	private void expandEvalVE(boolean isSubstitute) {
+		// wrap in Evaluate if it's an expression rather than a command
+		// needed for Giac (for simplifying x+x to 2x)
+		evalVE = wrapEvaluate(evalVE,
+				isSubstitute && !isKeepInputUsed());
+
+		// wrap in PointList if the top level command is Solutions
+		// and the assignment variable is defined
+		if (isAssignmentVariableDefined()) {
+			adjustPointList(true);
+		}
+
+		expandedEvalVE = pointList ? wrapPointList(evalVE) : evalVE;
+		if (expandedEvalVE.isTopLevelCommand()
+				&& !expandedEvalVE.isTopLevelCommand("Evaluate")
+				&& ((Command) expandedEvalVE
+						.unwrap()).getArgumentNumber() != 1
+				&& ((Command) expandedEvalVE
+						.unwrap()).getArgument(0) != null) {
+			ExpressionNode node = ((Command) expandedEvalVE.unwrap())
+					.getArgument(0);
+			if (!(node.getLeft() instanceof GeoSurfaceCartesianND)
+					&& !(node.getRight() instanceof MyList)) {
+				// needed for GGB-494
+				// replace GeoSurfaceCartesian3D geos with MyVect3D with
+				// expressions of surface
+				expandedEvalVE = (ValidExpression) expandedEvalVE
+						.traverse(GeoSurfaceReplacer.getInstance());
+			}
+		}
+
+		if (!expandedEvalVE.isTopLevelCommand("Delete")
+				&& !this.getNSolveCmdNeeded()) {
+			FunctionExpander fex = FunctionExpander.getCollector();
+			expandedEvalVE = (ValidExpression) expandedEvalVE.wrap()
+					.getCopy(kernel).traverse(fex);
+			expandedEvalVE = processSolveCommand(expandedEvalVE);
+			// needed for GGB-955
+			expandedEvalVE = processSolutionCommand(expandedEvalVE);
+		}
+
+		// make work NSolve with cell input
+		if (expandedEvalVE.isTopLevelCommand("NSolve")
+				&& ((Command) expandedEvalVE.unwrap()).getArgument(0)
+								.getLeft() instanceof GeoCasCell) {
+			GeoCasCell cellArg = ((GeoCasCell) ((Command) expandedEvalVE
+					.unwrap()).getArgument(0).getLeft());
+			ExpressionNode inputVEofGeoCasCell = (ExpressionNode) cellArg
+					.getInputVE();
+			((Command) expandedEvalVE.unwrap()).setArgument(0,
+					inputVEofGeoCasCell);
+		}
+
+		// hack needed for GGB-494
+		// Solve command with list of equs and list of vars
+		if (expandedEvalVE instanceof ExpressionNode
+				&& ((ExpressionNode) expandedEvalVE)
+						.getLeft() instanceof Command
+				&& "Solve"
+						.equals(((Command) ((ExpressionNode) expandedEvalVE)
+								.getLeft()).getName())
+				&& ((Command) ((ExpressionNode) expandedEvalVE)
+						.getLeft()).getArgumentNumber() == 2) {
+			// get list of equations
+			ExpressionValue equListV = ((Command) ((ExpressionNode) expandedEvalVE)
+					.getLeft()).getArgument(0).unwrap();
+			if (equListV instanceof MyList) {
+				MyList equList = (MyList) equListV;
+				// "x" geoDummy instead of functionVariable
+				GeoDummyVariable x = new GeoDummyVariable(cons, "x");
+				// "y" geoDummy instead of functionVariable
+				GeoDummyVariable y = new GeoDummyVariable(cons, "y");
+				for (int i = 0; i < equList.size(); i++) {
+					if (equList
+							.getListElement(i) instanceof ExpressionNode
+							&& equList.getListElement(i)
+									.unwrap() instanceof Equation) {
+						// set Equation in list of equs instead of
+						// ExpressionNode that contains Equation
+						equList.setListElement(i,
+								equList.getListElement(i).unwrap());
+						// Equation contains "x" functionVariable
+						// replace with simple GeoDummyVariable
+						equList.getListElement(i)
+								.traverse(GeoDummyReplacer
+										.getReplacer("x", x, true));
+						// Equation contains "y" functionVariable
+						// replace with simple GeoDummyVariable
+						equList.getListElement(i)
+								.traverse(GeoDummyReplacer
+										.getReplacer("y", y, true));
+					}
+				}
+			}
+		}
+	}
+
 	// replace in Solutions[{h(s)=g(t)},{s,t}] vector nodes with equations
 	private ValidExpression processSolutionCommand(ValidExpression ve) {
 		if (ve.isTopLevelCommand("Solutions")) {
@@ -63,6 +63,7 @@ import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
 import org.geogebra.common.kernel.algos.AlgoName;
 import org.geogebra.common.kernel.algos.AlgorithmSet;
 import org.geogebra.common.kernel.algos.Algos;
+import org.geogebra.common.kernel.algos.CascadeEvaluator;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.algos.DrawInformationAlgo;
 import org.geogebra.common.kernel.algos.TableAlgo;
@@ -110,9 +111,10 @@ import org.geogebra.common.util.MyMath;
 import org.geogebra.common.util.NumberFormatAdapter;
 import org.geogebra.common.util.SpreadsheetTraceSettings;
 import org.geogebra.common.util.StringUtil;
-import org.geogebra.common.util.debug.GeoGebraProfiler;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.common.util.lang.Language;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 import com.google.j2objc.annotations.Weak;
 import com.google.j2objc.annotations.ZeroingWeak;
@@ -3187,11 +3189,12 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 	 *            whether this was triggered by drag
 	 */
 	public void updateCascade(boolean dragging) {
-		long l = System.currentTimeMillis();
+		PerformanceMetrics metrics = kernel.getMetrics();
+		double start = metrics.startTimer();
 		kernel.notifyBatchUpdate();
 		update(dragging);
 		updateDependentObjects();
-		GeoGebraProfiler.addUpdateCascade(System.currentTimeMillis() - l);
+		metrics.recordTime(MetricType.UPDATE_CASCADE, "GeoElement", start);
 		kernel.notifyEndBatchUpdate();
 	}
 
@@ -3206,7 +3209,12 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 		} else if (algoUpdateSet != null) {
 			// update all algorithms in the algorithm set of this GeoElement
 			cons.setAlgoSetCurrentlyUpdated(algoUpdateSet);
-			algoUpdateSet.updateAll();
+			CascadeEvaluator evaluator = kernel.getCascadeEvaluator();
+			if (evaluator == null) {
+				algoUpdateSet.updateAll();
+			} else {
+				evaluator.updateAll(algoUpdateSet);
+			}
 			cons.setAlgoSetCurrentlyUpdated(null);
 		}
 	}
@@ -3310,8 +3318,14 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 
 		// now we have one nice algorithm set that we can update
 		if (tempSet1.size() > 0) {
-			for (AlgoElement algo : tempSet1) {
-				algo.update();
+			CascadeEvaluator evaluator = geos.get(0).getKernel()
+					.getCascadeEvaluator();
+			if (evaluator != null) {
+				evaluator.updateAll(tempSet1);
+			} else {
+				for (AlgoElement algo : tempSet1) {
+					algo.update();
+				}
 			}
 		}
 
@@ -2849,6 +2849,11 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		// TODO Auto-generated method stub
 	}
 
+	@Override
+	public SurfaceEvaluable copyForConcurrentEvaluation() {
+		return null;
+	}
+
 	@Override
 	public LevelOfDetail getLevelOfDetail() {
 		// TODO Auto-generated method stub
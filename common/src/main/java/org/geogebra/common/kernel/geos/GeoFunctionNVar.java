@@ -280,6 +280,30 @@ public class GeoFunctionNVar extends GeoElement
 		fun1 = null;
 	}
 
+	@Override
+	public SurfaceEvaluable copyForConcurrentEvaluation() {
+		if (fun == null || getVarNumber() != 2) {
+			return null;
+		}
+		setDerivatives();
+		GeoFunctionNVar copy = new GeoFunctionNVar(cons);
+		copy.fun = fun.copyForConcurrentEvaluation();
+		if (copy.fun == null) {
+			return null;
+		}
+		copy.fun1 = new FunctionNVar[fun1.length];
+		for (int i = 0; i < fun1.length; i++) {
+			copy.fun1[i] = fun1[i].copyForConcurrentEvaluation();
+			if (copy.fun1[i] == null) {
+				return null;
+			}
+		}
+		copy.shortLHS = shortLHS;
+		copy.from = from;
+		copy.to = to;
+		return copy;
+	}
+
 	@Override
 	final public FunctionNVar getFunction() {
 		return fun;
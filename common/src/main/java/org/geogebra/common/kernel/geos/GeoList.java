@@ -131,6 +131,11 @@ public class GeoList extends GeoElement
 	private int totalHeight = 0;
 
 	private boolean wasDefinedWithCurlyBrackets = true;
+	private ListValueCache valueCache;
+	private int updateStamp;
+	private int allChangedStamp;
+	private int[] elementStamps;
+	private int unchangedElements = -1;
 
 	/**
 	 * Creates new GeoList, size defaults to 20
@@ -255,6 +260,7 @@ public class GeoList extends GeoElement
 		final int otherListSize = otherList.size();
 		ensureCapacity(otherListSize);
 		elements.clear();
+		invalidateValues();
 
 		for (int i = 0; i < otherListSize; i++) {
 			final GeoElement otherElement = otherList.get(i);
@@ -642,6 +648,7 @@ public class GeoList extends GeoElement
 	 */
 	public final void clear() {
 		elements.clear();
+		invalidateValues();
 	}
 
 	/**
@@ -670,6 +677,7 @@ public class GeoList extends GeoElement
 	public final void add(final GeoElementND geo) {
 		// add geo to end of list
 		elements.add(geo.toGeoElement());
+		invalidateValues();
 
 		if (elements.size() == 1) {
 			setTypeStringForXML(geo.getXMLtypeString());
@@ -717,6 +725,29 @@ public class GeoList extends GeoElement
 		}
 	}
 
+	/**
+	 * Adds a copy of an element, even if it has a label. Like
+	 * {@link #set(GeoElementND)}, reuses the unlabeled element that was at
+	 * the same position before if it has the same type, so that views keep
+	 * their drawables for it.
+	 *
+	 * @param geo
+	 *            element to be copied
+	 */
+	public final void addReusedCopy(final GeoElement geo) {
+		final int pos = elements.size();
+		if (pos < cacheList.size()) {
+			final GeoElementND cachedGeo = cacheList.get(pos);
+			if (!cachedGeo.isLabelSet()
+					&& cachedGeo.getGeoClassType() == geo.getGeoClassType()) {
+				cachedGeo.set(geo);
+				add(cachedGeo);
+				return;
+			}
+		}
+		add(geo.copyInternal(cons));
+	}
+
 	private void updateDrawableFlag(GeoElementND geo) {
 		isDrawable = isDrawable && geo.isDrawable() && !geo.isGeoButton()
 				&& !(geo instanceof GeoBoolean) && !(geo instanceof GeoNumeric
@@ -732,6 +763,7 @@ public class GeoList extends GeoElement
 	 */
 	public final void remove(final GeoElement geo) {
 		elements.remove(geo);
+		invalidateValues();
 
 	}
 
@@ -758,6 +790,7 @@ public class GeoList extends GeoElement
 	 */
 	public final void remove(final int index) {
 		elements.remove(index);
+		invalidateValues();
 
 	}
 
@@ -1058,6 +1091,14 @@ public class GeoList extends GeoElement
 	 */
 	@Override
 	public void update(boolean drag) {
+		invalidateValues();
+		updateStamp++;
+		if (unchangedElements < 0) {
+			allChangedStamp = updateStamp;
+		} else {
+			stampElements(unchangedElements);
+			unchangedElements = -1;
+		}
 		super.update(drag);
 
 		// update information on whether this path is fit for AlgoLocus
@@ -1136,6 +1177,7 @@ public class GeoList extends GeoElement
 	@Override
 	public void setZero() {
 		elements.clear();
+		invalidateValues();
 	}
 
 	@Override
@@ -3120,6 +3162,7 @@ public class GeoList extends GeoElement
 	 */
 	public void setListElement(int i, GeoElement element) {
 		this.elements.set(i, element);
+		invalidateValues();
 		this.applyVisualStyle(element);
 		// this.elementType = element.getGeoClassType();
 		isDrawable = true;
@@ -3337,6 +3380,117 @@ public class GeoList extends GeoElement
 		return wasDefinedWithCurlyBrackets;
 	}
 
+	private void invalidateValues() {
+		if (valueCache != null) {
+			valueCache.invalidate();
+		}
+	}
+
+	private ListValueCache getValueCache() {
+		if (valueCache == null) {
+			valueCache = new ListValueCache(this);
+		} else if (!wasDefinedWithCurlyBrackets) {
+			// elements of Mean(a, b, c) change without updating the list
+			valueCache.invalidate();
+		}
+		return valueCache;
+	}
+
+	/**
+	 * Values of all elements, computed once per change of the list. The
+	 * array is shared and must not be modified.
+	 *
+	 * @return values of the elements, null if any element is not a number
+	 */
+	public double[] getNumericValues() {
+		return getValueCache().getValues();
+	}
+
+	/**
+	 * Values of all elements in ascending order, computed once per change of
+	 * the list. The array is shared and must not be modified.
+	 *
+	 * @return sorted values, null if any element is not a number
+	 */
+	public double[] getSortedNumericValues() {
+		return getValueCache().getSortedValues();
+	}
+
+	/**
+	 * Inhomogeneous x-coordinates of all elements, computed once per change
+	 * of the list. The array is shared and must not be modified.
+	 *
+	 * @return x-coordinates, null if any element is not a point
+	 */
+	public double[] getPointXValues() {
+		return getValueCache().getXValues();
+	}
+
+	/**
+	 * Inhomogeneous y-coordinates of all elements, computed once per change
+	 * of the list. The array is shared and must not be modified.
+	 *
+	 * @return y-coordinates, null if any element is not a point
+	 */
+	public double[] getPointYValues() {
+		return getValueCache().getYValues();
+	}
+
+	private void stampElements(int from) {
+		int size = size();
+		if (elementStamps == null || elementStamps.length < size) {
+			int[] stamps = new int[Math.max(size, 16)];
+			if (elementStamps != null) {
+				System.arraycopy(elementStamps, 0, stamps, 0,
+						elementStamps.length);
+			}
+			elementStamps = stamps;
+		}
+		for (int i = from; i < size; i++) {
+			elementStamps[i] = updateStamp;
+		}
+	}
+
+	/**
+	 * Tells the next update of this list that the first elements kept both
+	 * their objects and their values, so that views only need to refresh the
+	 * remaining ones. Without this call every update changes all elements.
+	 *
+	 * @param count
+	 *            number of unchanged elements at the start of the list
+	 */
+	public void setUnchangedElements(int count) {
+		unchangedElements = count;
+	}
+
+	/**
+	 * @return number of updates of this list so far, to be passed to
+	 *         {@link #isElementChangedSince(int, int)} later
+	 */
+	public int getUpdateStamp() {
+		return updateStamp;
+	}
+
+	/**
+	 * @param index
+	 *            element index
+	 * @param stamp
+	 *            value of {@link #getUpdateStamp()} when the caller last
+	 *            looked at the element
+	 * @return whether the element may have changed since then
+	 */
+	public boolean isElementChangedSince(int index, int stamp) {
+		return allChangedStamp > stamp || getColorFunction() != null
+				|| elementStamps == null || index >= elementStamps.length
+				|| elementStamps[index] > stamp;
+	}
+
+	@Override
+	public void updateVisualStyle(GProperty prop) {
+		allChangedStamp = ++updateStamp;
+		super.updateVisualStyle(prop);
+	}
+
 	/**
 	 * @return new array with elements
 	 */
@@ -23,6 +23,7 @@ import org.geogebra.common.kernel.arithmetic.MyArbitraryConstant;
 import org.geogebra.common.kernel.arithmetic.MyList;
 import org.geogebra.common.kernel.arithmetic.MyVecNDNode;
 import org.geogebra.common.kernel.arithmetic.Traversing;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
 import org.geogebra.common.kernel.arithmetic.ValueType;
 import org.geogebra.common.kernel.arithmetic.variable.Variable;
 import org.geogebra.common.kernel.commands.AlgebraProcessor;
@@ -191,6 +192,12 @@ public class GeoSymbolic extends GeoElement implements GeoSymbolicI, VarString,
 		isEuclidianShowable = shouldBeEuclidianVisible(casInput);
 	}
 
+	@Override
+	public ValidExpression prepareCasInput() {
+		return getCasInput(getDefinition().deepCopy(kernel)
+				.traverse(FunctionExpander.getCollector())).wrap();
+	}
+
 	private Command getCasInput(ExpressionValue casInputArg) {
 		Command casInput;
 		if (casInputArg.unwrap() instanceof  Command) {
@@ -2,6 +2,7 @@ package org.geogebra.common.kernel.geos;
 
 import org.geogebra.common.kernel.arithmetic.AssignmentType;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
 
 /**
  * Common interface for CAS cells and symbolic geos in AV
@@ -29,6 +30,12 @@ public interface GeoSymbolicI {
 	 */
 	void computeOutput();
 
+	/**
+	 * @return input that {@link #computeOutput()} sends to the CAS, null if
+	 *         the output is not computed by the CAS
+	 */
+	ValidExpression prepareCasInput();
+
 	/**
 	 * @return computed expression
 	 */
@@ -0,0 +1,127 @@
+package org.geogebra.common.kernel.geos;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.arithmetic.NumberValue;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.kernel.matrix.Coords;
+
+/**
+ * Primitive arrays with the values of list elements, shared by all
+ * algorithms reading the same list. Each array is built on first use and
+ * kept until the list changes, see {@link GeoList#getNumericValues()}.
+ */
+final class ListValueCache {
+
+	private final GeoList list;
+
+	private boolean valuesValid;
+	private double[] values;
+	private boolean sortedValid;
+	private double[] sorted;
+	private boolean pointsValid;
+	private double[] xValues;
+	private double[] yValues;
+
+	/**
+	 * @param list
+	 *            list
+	 */
+	ListValueCache(GeoList list) {
+		this.list = list;
+	}
+
+	/**
+	 * Drops all arrays.
+	 */
+	void invalidate() {
+		valuesValid = false;
+		sortedValid = false;
+		pointsValid = false;
+	}
+
+	/**
+	 * @return values of all elements, null if any is not a number
+	 */
+	double[] getValues() {
+		if (!valuesValid) {
+			values = computeValues();
+			valuesValid = true;
+		}
+		return values;
+	}
+
+	private double[] computeValues() {
+		int size = list.size();
+		double[] ret = values == null || values.length != size
+				? new double[size] : values;
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = list.get(i);
+			if (!(geo instanceof NumberValue)) {
+				return null;
+			}
+			ret[i] = geo.evaluateDouble();
+		}
+		return ret;
+	}
+
+	/**
+	 * @return values of all elements in ascending order, null if any is not
+	 *         a number
+	 */
+	double[] getSortedValues() {
+		if (!sortedValid) {
+			double[] unsorted = getValues();
+			if (unsorted == null) {
+				sorted = null;
+			} else {
+				if (sorted == null || sorted.length != unsorted.length) {
+					sorted = new double[unsorted.length];
+				}
+				System.arraycopy(unsorted, 0, sorted, 0, unsorted.length);
+				Arrays.sort(sorted);
+			}
+			sortedValid = true;
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return x-coordinates of all elements, null if any is not a point
+	 */
+	double[] getXValues() {
+		updatePoints();
+		return xValues;
+	}
+
+	/**
+	 * @return y-coordinates of all elements, null if any is not a point
+	 */
+	double[] getYValues() {
+		updatePoints();
+		return yValues;
+	}
+
+	private void updatePoints() {
+		if (pointsValid) {
+			return;
+		}
+		pointsValid = true;
+		int size = list.size();
+		if (xValues == null || xValues.length != size) {
+			xValues = new double[size];
+			yValues = new double[size];
+		}
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = list.get(i);
+			if (!geo.isGeoPoint()) {
+				xValues = null;
+				yValues = null;
+				return;
+			}
+			Coords coords = ((GeoPointND) geo).getInhomCoordsInD3();
+			xValues[i] = coords.getX();
+			yValues[i] = coords.getY();
+		}
+	}
+}
@@ -13,6 +13,7 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.EuclidianViewCE;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.PathMover;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.StringTemplate;
@@ -734,6 +735,15 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	 * Updates the path of the curve.
 	 */
 	synchronized public void updatePath() {
+		quadTree.invalidate();
+		updatePathForView();
+	}
+
+	/**
+	 * Updates the path of the curve when only the view changed, reusing the
+	 * grid of the previous path where possible.
+	 */
+	private synchronized void updatePathForView() {
 		if (!calcPath) {
 			return;
 		}
@@ -811,7 +821,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	@Override
 	public boolean euclidianViewUpdate() {
 		if (isDefined()) {
-			updatePath();
+			updatePathForView();
 			return true;
 		}
 		return false;
@@ -1674,19 +1684,34 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	private class WebExperimentalQuadTree extends QuadTree {
 		private static final int RES_COARSE = 8;
 		private static final int MAX_SPLIT = 40;
+		private static final int CHANGE_PROBES = 2;
 		private int plotDepth;
 		private int segmentCheckDepth;
 		private int sw;
 		private int sh;
 		private Rect[][] grid;
 		private Timer timer = Timer.newTimer();
+		/** grids of previous path, one per factor */
+		private GridCache[] caches;
+		private boolean recording;
+		private ArrayList<Double> cellSegments = new ArrayList<>();
+		private int cellMarks;
 
 		public WebExperimentalQuadTree() {
 			super(GeoImplicitCurve.this);
 		}
 
+		@Override
+		public void invalidate() {
+			caches = null;
+		}
+
 		@Override
 		public void updatePath() {
+			reusedCells = 0;
+			if (caches == null || caches.length != factorLength()) {
+				caches = new GridCache[factorLength()];
+			}
 			for (int factor = 0; factor < factorLength(); ++factor) {
 				try {
 					evaluateImplicitCurve(0, 0, factor);
@@ -1699,27 +1724,32 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 					return;
 				}
 
-				this.grid = new Rect[sh][sw];
-
 				double frx = w / sw;
 				double fry = h / sh;
 
-				double[] vertices = new double[sw + 1];
+				// align vertices to multiples of the cell size so that a
+				// panned view shares them with the previous one
+				long gx0 = (long) Math.floor(x / frx);
+				long gy0 = (long) Math.floor(y / fry);
+				this.sw = (int) (Math.ceil((x + w) / frx) - gx0);
+				this.sh = (int) (Math.ceil((y + h) / fry) - gy0);
+
+				GridCache old = caches[factor];
+				if (old != null && !old.hasCellSize(frx, fry)) {
+					old = null;
+				}
+				GridCache current = new GridCache(frx, fry, gx0, gy0, sw, sh);
+				this.grid = new Rect[sh][sw];
+
 				double[] xcoords = new double[sw + 1];
 				double[] ycoords = new double[sh + 1];
-				double cur, prev;
 
 				for (int i = 0; i <= sw; i++) {
-					xcoords[i] = x + i * frx;
+					xcoords[i] = (gx0 + i) * frx;
 				}
 
 				for (int i = 0; i <= sh; i++) {
-					ycoords[i] = y + i * fry;
-				}
-
-				for (int i = 0; i <= sw; i++) {
-					vertices[i] = evaluateImplicitCurve(xcoords[i], ycoords[0],
-							factor);
+					ycoords[i] = (gy0 + i) * fry;
 				}
 
 				// initialize grid configuration at the search depth
@@ -1727,34 +1757,36 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 				double dx, dy, fx, fy;
 				// debug = true;
 				timer.reset();
+				old = evaluateVertices(current, old, xcoords, ycoords, factor);
+				double[][] vertices = current.vertices;
 				for (i = 1; i <= sh; i++) {
-					prev = evaluateImplicitCurve(xcoords[0], ycoords[i],
-							factor);
 					fy = ycoords[i] - 0.5 * fry;
 					for (j = 1; j <= sw; j++) {
-						cur = evaluateImplicitCurve(xcoords[j], ycoords[i],
-								factor);
 						Rect rect = new Rect(j - 1, i - 1, frx, fry, false);
 						rect.coords.val[0] = xcoords[j - 1];
 						rect.coords.val[1] = ycoords[i - 1];
-						rect.evals[0] = vertices[j - 1];
-						rect.evals[1] = vertices[j];
-						rect.evals[2] = cur;
-						rect.evals[3] = prev;
+						rect.evals[0] = vertices[i - 1][j - 1];
+						rect.evals[1] = vertices[i - 1][j];
+						rect.evals[2] = vertices[i][j];
+						rect.evals[3] = vertices[i][j - 1];
 						rect.status = edgeConfig(rect);
 						rect.shares = 0xff;
-						fx = xcoords[j] - 0.5 * frx;
-						dx = derivativeX(fx, fy);
-						dy = derivativeY(fx, fy);
-						dx = Math.abs(dx) + Math.abs(dy);
-						if (DoubleUtil.isZero(dx, 0.001)) {
-							rect.singular = true;
+						long gx = gx0 + j - 1;
+						long gy = gy0 + i - 1;
+						if (old != null && old.hasCell(gx, gy)) {
+							rect.singular = old.isSingular(gx, gy);
+						} else {
+							fx = xcoords[j] - 0.5 * frx;
+							dx = derivativeX(fx, fy);
+							dy = derivativeY(fx, fy);
+							dx = Math.abs(dx) + Math.abs(dy);
+							if (DoubleUtil.isZero(dx, 0.001)) {
+								rect.singular = true;
+							}
 						}
+						current.singular[i - 1][j - 1] = rect.singular;
 						this.grid[i - 1][j - 1] = rect;
-						vertices[j - 1] = prev;
-						prev = cur;
 					}
-					vertices[sw] = prev;
 				}
 
 				timer.record();
@@ -1770,14 +1802,21 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 					segmentCheckDepth = 1;
 					LIST_THRESHOLD = 24;
 				}
+				current.plotDepth = plotDepth;
+				current.segmentCheckDepth = segmentCheckDepth;
+				if (old != null && (old.plotDepth != plotDepth
+						|| old.segmentCheckDepth != segmentCheckDepth)) {
+					old = null;
+				}
 
 				for (i = 0; i < sh; i++) {
 					for (j = 0; j < sw; j++) {
 						if (grid[i][j].status != EMPTY) {
-							plot(grid[i][j], 0, factor);
+							plotCell(current, old, i, j, factor);
 						}
 					}
 				}
+				caches[factor] = current;
 
 				timer.record();
 
@@ -1793,6 +1832,86 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			}
 		}
 
+		/**
+		 * Fills vertex values of the current grid, taking them from the
+		 * previous grid where possible. The first reused values are evaluated
+		 * again to detect changes of the curve that were not announced by
+		 * {@link #invalidate()}.
+		 * 
+		 * @return previous grid or null if it is outdated
+		 */
+		private GridCache evaluateVertices(GridCache current, GridCache old,
+				double[] xcoords, double[] ycoords, int factor) {
+			GridCache previous = old;
+			int probes = 0;
+			for (int i = 0; i <= sh; i++) {
+				for (int j = 0; j <= sw; j++) {
+					long gx = current.gx0 + j;
+					long gy = current.gy0 + i;
+					if (previous != null && previous.hasVertex(gx, gy)
+							&& probes >= CHANGE_PROBES) {
+						current.vertices[i][j] = previous.getVertex(gx, gy);
+						continue;
+					}
+					double value = evaluateImplicitCurve(xcoords[j],
+							ycoords[i], factor);
+					if (previous != null && previous.hasVertex(gx, gy)) {
+						probes++;
+						if (Double.compare(value,
+								previous.getVertex(gx, gy)) != 0) {
+							previous = null;
+						}
+					}
+					current.vertices[i][j] = value;
+				}
+			}
+			return previous;
+		}
+
+		private void plotCell(GridCache current, GridCache old, int i, int j,
+				int factor) {
+			long gx = current.gx0 + j;
+			long gy = current.gy0 + i;
+			double[] segments = old != null && old.hasCell(gx, gy)
+					? old.getSegments(gx, gy) : null;
+			if (segments != null) {
+				reusedCells++;
+				for (int k = 0; k < segments.length; k += 4) {
+					insertSegment(
+							new MyPoint(segments[k], segments[k + 1],
+									SegmentType.MOVE_TO),
+							new MyPoint(segments[k + 2], segments[k + 3],
+									SegmentType.LINE_TO));
+				}
+				markNeighbours(grid[i][j], old.getMarks(gx, gy));
+				current.segments[i][j] = segments;
+				current.marks[i][j] = old.getMarks(gx, gy);
+				return;
+			}
+			cellSegments.clear();
+			cellMarks = 0;
+			recording = true;
+			plot(grid[i][j], 0, factor);
+			recording = false;
+			segments = new double[cellSegments.size()];
+			for (int k = 0; k < segments.length; k++) {
+				segments[k] = cellSegments.get(k);
+			}
+			current.segments[i][j] = segments;
+			current.marks[i][j] = cellMarks;
+		}
+
+		@Override
+		protected void insertSegment(MyPoint start, MyPoint end) {
+			if (recording) {
+				cellSegments.add(start.x);
+				cellSegments.add(start.y);
+				cellSegments.add(end.x);
+				cellSegments.add(end.y);
+			}
+			super.insertSegment(start, end);
+		}
+
 		public void createTree(Rect r, int depth, int factor) {
 			Rect[] n = r.split(GeoImplicitCurve.this, factor);
 			plot(n[0], depth, factor);
@@ -1813,25 +1932,42 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 						createTree(r, depth + 1, factor);
 						return;
 					}
-					if (r.x != 0 && (e & r.shares & 0x1) != 0) {
-						nonempty(r.y, r.x - 1);
-
+					int marks = 0;
+					if ((e & r.shares & 0x1) != 0) {
+						marks |= GridCache.LEFT;
 					}
-					if (r.x + 1 != sw && (e & r.shares & 0x4) != 0) {
-						nonempty(r.y, r.x + 1);
+					if ((e & r.shares & 0x4) != 0) {
+						marks |= GridCache.RIGHT;
 					}
-					if (r.y != 0 && (e & r.shares & 0x8) != 0) {
-						nonempty(r.y - 1, r.x);
+					if ((e & r.shares & 0x8) != 0) {
+						marks |= GridCache.UP;
 					}
-					if (r.y + 1 != sh && (e & r.shares & 0x2) != 0) {
-						nonempty(r.y + 1, r.x);
+					if ((e & r.shares & 0x2) != 0) {
+						marks |= GridCache.DOWN;
 					}
+					cellMarks |= marks;
+					markNeighbours(r, marks);
 				} else {
 					createTree(r, depth + 1, factor);
 				}
 			}
 		}
 
+		private void markNeighbours(Rect r, int marks) {
+			if (r.x != 0 && (marks & GridCache.LEFT) != 0) {
+				nonempty(r.y, r.x - 1);
+			}
+			if (r.x + 1 != sw && (marks & GridCache.RIGHT) != 0) {
+				nonempty(r.y, r.x + 1);
+			}
+			if (r.y != 0 && (marks & GridCache.UP) != 0) {
+				nonempty(r.y - 1, r.x);
+			}
+			if (r.y + 1 != sh && (marks & GridCache.DOWN) != 0) {
+				nonempty(r.y + 1, r.x);
+			}
+		}
+
 		private void nonempty(int ry, int rx) {
 			if (grid[ry][rx].status == EMPTY) {
 				grid[ry][rx].status = 1;
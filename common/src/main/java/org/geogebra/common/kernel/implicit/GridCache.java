@@ -0,0 +1,139 @@
+package org.geogebra.common.kernel.implicit;
+
+/**
+ * Coarse quadtree grid of one factor of an implicit curve from the previous
+ * frame. Grid vertices lie on a lattice of multiples of the cell size, so a
+ * panned view with the same scale shares most vertices and cells with the
+ * previous one.
+ */
+class GridCache {
+	/** neighbour to the left was marked non-empty */
+	static final int LEFT = 1;
+	/** neighbour to the right was marked non-empty */
+	static final int RIGHT = 2;
+	/** neighbour above was marked non-empty */
+	static final int UP = 4;
+	/** neighbour below was marked non-empty */
+	static final int DOWN = 8;
+
+	final double frx;
+	final double fry;
+	final long gx0;
+	final long gy0;
+	final int sw;
+	final int sh;
+	/** function values at grid vertices, (sh + 1) x (sw + 1) */
+	final double[][] vertices;
+	/** singular flags of cells */
+	final boolean[][] singular;
+	/** segments of each plotted cell as x1, y1, x2, y2, ... */
+	final double[][][] segments;
+	/** neighbour marks of each plotted cell */
+	final int[][] marks;
+	int plotDepth;
+	int segmentCheckDepth;
+
+	/**
+	 * @param frx
+	 *            cell width
+	 * @param fry
+	 *            cell height
+	 * @param gx0
+	 *            lattice index of first vertex column
+	 * @param gy0
+	 *            lattice index of first vertex row
+	 * @param sw
+	 *            number of columns
+	 * @param sh
+	 *            number of rows
+	 */
+	GridCache(double frx, double fry, long gx0, long gy0, int sw, int sh) {
+		this.frx = frx;
+		this.fry = fry;
+		this.gx0 = gx0;
+		this.gy0 = gy0;
+		this.sw = sw;
+		this.sh = sh;
+		vertices = new double[sh + 1][sw + 1];
+		singular = new boolean[sh][sw];
+		segments = new double[sh][sw][];
+		marks = new int[sh][sw];
+	}
+
+	/**
+	 * @param cellWidth
+	 *            cell width
+	 * @param cellHeight
+	 *            cell height
+	 * @return whether this grid uses the same lattice
+	 */
+	boolean hasCellSize(double cellWidth, double cellHeight) {
+		return frx == cellWidth && fry == cellHeight;
+	}
+
+	/**
+	 * @param gx
+	 *            lattice column
+	 * @param gy
+	 *            lattice row
+	 * @return whether vertex was evaluated
+	 */
+	boolean hasVertex(long gx, long gy) {
+		return gx >= gx0 && gx <= gx0 + sw && gy >= gy0 && gy <= gy0 + sh;
+	}
+
+	/**
+	 * @param gx
+	 *            lattice column
+	 * @param gy
+	 *            lattice row
+	 * @return value at vertex
+	 */
+	double getVertex(long gx, long gy) {
+		return vertices[(int) (gy - gy0)][(int) (gx - gx0)];
+	}
+
+	/**
+	 * @param gx
+	 *            lattice column of top left vertex
+	 * @param gy
+	 *            lattice row of top left vertex
+	 * @return whether cell is part of this grid
+	 */
+	boolean hasCell(long gx, long gy) {
+		return gx >= gx0 && gx < gx0 + sw && gy >= gy0 && gy < gy0 + sh;
+	}
+
+	/**
+	 * @param gx
+	 *            lattice column of top left vertex
+	 * @param gy
+	 *            lattice row of top left vertex
+	 * @return whether cell is singular
+	 */
+	boolean isSingular(long gx, long gy) {
+		return singular[(int) (gy - gy0)][(int) (gx - gx0)];
+	}
+
+	/**
+	 * @param gx
+	 *            lattice column of top left vertex
+	 * @param gy
+	 *            lattice row of top left vertex
+	 * @return segments of a plotted cell, null if cell was not plotted
+	 */
+	double[] getSegments(long gx, long gy) {
+		return segments[(int) (gy - gy0)][(int) (gx - gx0)];
+	}
+
+	/**
+	 * @param gx
+	 *            lattice column of top left vertex
+	 * @param gy
+	 *            lattice row of top left vertex
+	 * @return neighbour marks of a plotted cell
+	 */
+	int getMarks(long gx, long gy) {
+		return marks[(int) (gy - gy0)][(int) (gx - gx0)];
+	}
+}
@@ -86,6 +86,8 @@ abstract class QuadTree {
 	private MyPoint temp;
 	private ListIterator<PointList> itr1;
 	private ListIterator<PointList> itr2;
+	/** number of cells taken from the previous path in the last update */
+	protected int reusedCells;
 
 	public QuadTree(GeoImplicitCurve geoImplicitCurve) {
 		this.geoImplicitCurve = geoImplicitCurve;
@@ -136,45 +138,60 @@ abstract class QuadTree {
 	public int addSegment(Rect r, int factor) {
 		int status = createSegment(r, factor);
 		if (status == VALID) {
-			if (pts[0].x > pts[1].x) {
-				temp = pts[0];
-				pts[0] = pts[1];
-				pts[1] = temp;
-			}
-			itr1 = openList.listIterator();
-			itr2 = openList.listIterator();
-			boolean flag1 = false, flag2 = false;
-			while (itr1.hasNext()) {
-				p1 = itr1.next();
-				if (equal(pts[1], p1.start)) {
-					flag1 = true;
-					break;
-				}
-			}
+			insertSegment(pts[0], pts[1]);
+		}
+		return status;
+	}
 
-			while (itr2.hasNext()) {
-				p2 = itr2.next();
-				if (equal(pts[0], p2.end)) {
-					flag2 = true;
-					break;
-				}
+	/**
+	 * Adds segment to the open point lists, joining it with lists that end
+	 * in one of its points.
+	 * 
+	 * @param start
+	 *            start point
+	 * @param end
+	 *            end point
+	 */
+	protected void insertSegment(MyPoint start, MyPoint end) {
+		pts[0] = start;
+		pts[1] = end;
+		if (pts[0].x > pts[1].x) {
+			temp = pts[0];
+			pts[0] = pts[1];
+			pts[1] = temp;
+		}
+		itr1 = openList.listIterator();
+		itr2 = openList.listIterator();
+		boolean flag1 = false, flag2 = false;
+		while (itr1.hasNext()) {
+			p1 = itr1.next();
+			if (equal(pts[1], p1.start)) {
+				flag1 = true;
+				break;
 			}
+		}
 
-			if (flag1 && flag2) {
-				itr1.remove();
-				p2.mergeTo(p1);
-			} else if (flag1) {
-				p1.extendBack(pts[0]);
-			} else if (flag2) {
-				p2.extendFront(pts[1]);
-			} else {
-				openList.addFirst(new PointList(pts[0], pts[1]));
-			}
-			if (openList.size() > LIST_THRESHOLD) {
-				abortList();
+		while (itr2.hasNext()) {
+			p2 = itr2.next();
+			if (equal(pts[0], p2.end)) {
+				flag2 = true;
+				break;
 			}
 		}
-		return status;
+
+		if (flag1 && flag2) {
+			itr1.remove();
+			p2.mergeTo(p1);
+		} else if (flag1) {
+			p1.extendBack(pts[0]);
+		} else if (flag2) {
+			p2.extendFront(pts[1]);
+		} else {
+			openList.addFirst(new PointList(pts[0], pts[1]));
+		}
+		if (openList.size() > LIST_THRESHOLD) {
+			abortList();
+		}
 	}
 
 	public int createSegment(Rect r, int factor) {
@@ -296,6 +313,21 @@ abstract class QuadTree {
 		this.abortList();
 	}
 
+	/**
+	 * Forgets data kept from previous paths; needs to be called whenever the
+	 * curve changes.
+	 */
+	public void invalidate() {
+		// nothing kept by default
+	}
+
+	/**
+	 * @return number of cells taken from the previous path in the last update
+	 */
+	int getReusedCells() {
+		return reusedCells;
+	}
+
 	/**
 	 * @param pt
 	 *            point to be polished
@@ -179,6 +179,46 @@ public abstract class GeoSurfaceCartesianND extends GeoElement
 		fun2 = null;
 	}
 
+	@Override
+	public SurfaceEvaluable copyForConcurrentEvaluation() {
+		return null;
+	}
+
+	/**
+	 * Sets copies of the coordinate functions and their first derivatives
+	 * that can be evaluated on another thread, see
+	 * {@link FunctionNVar#copyForConcurrentEvaluation()}.
+	 *
+	 * @param copy
+	 *            surface receiving the functions
+	 * @return whether all functions could be copied
+	 */
+	protected boolean setFunctionsForConcurrentEvaluation(
+			GeoSurfaceCartesianND copy) {
+		setDerivatives();
+		if (fun == null || fun1 == null) {
+			return false;
+		}
+		copy.fun = new FunctionNVar[fun.length];
+		for (int i = 0; i < fun.length; i++) {
+			copy.fun[i] = fun[i].copyForConcurrentEvaluation();
+			if (copy.fun[i] == null) {
+				return false;
+			}
+		}
+		copy.fun1 = new FunctionNVar[fun1.length][];
+		for (int j = 0; j < fun1.length; j++) {
+			copy.fun1[j] = new FunctionNVar[fun1[j].length];
+			for (int i = 0; i < fun1[j].length; i++) {
+				copy.fun1[j][i] = fun1[j][i].copyForConcurrentEvaluation();
+				if (copy.fun1[j][i] == null) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Replaces geo and all its dependent geos in this function's expression by
 	 * copies of their values.
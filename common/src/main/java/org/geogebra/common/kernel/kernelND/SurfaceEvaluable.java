@@ -92,4 +92,13 @@ public interface SurfaceEvaluable {
 	 * @return whether this is defined
 	 */
 	public boolean isDefined();
+
+	/**
+	 * Creates a copy for evaluating points and normals on another thread; the
+	 * copy stays valid as long as this surface is not changed.
+	 *
+	 * @return copy or null if evaluation may have side effects (e.g. uses
+	 *         commands)
+	 */
+	public SurfaceEvaluable copyForConcurrentEvaluation();
 }
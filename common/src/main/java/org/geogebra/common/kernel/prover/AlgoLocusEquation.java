@@ -21,6 +21,7 @@ import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoPoint;
 import org.geogebra.common.kernel.implicit.GeoImplicit;
 import org.geogebra.common.kernel.prover.ProverBotanasMethod.AlgebraicStatement;
+import org.geogebra.common.kernel.prover.polynomial.CanonicalSystem;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -490,16 +491,30 @@ public class AlgoLocusEquation extends AlgoElement implements UsesCAS {
 			return result;
 		}
 
-		/* Otherwise use Giac. */
-		sb.append(CustomFunctions.LOCUS_EQU).append("([").append(polys)
-				.append("],[").append(elimVars).append("],").append(PRECISION)
-				.append(",").append(",").append(as.curveVars[0]).append(",")
-				.append(as.curveVars[1]).append(")");
-
+		/*
+		 * Otherwise use Giac. The program is built from the canonical form of
+		 * the hypotheses, so the result can be taken from the cache if the
+		 * same system was eliminated before.
+		 */
+		CanonicalSystem system = as.getCanonicalSystem();
+		sb.append(CustomFunctions.LOCUS_EQU).append("([")
+				.append(system.getPolys()).append("],[")
+				.append(system.getVars(false, as.getFreeVariables()))
+				.append("],").append(PRECISION).append(",").append(",")
+				.append(system.getName(as.curveVars[0])).append(",")
+				.append(system.getName(as.curveVars[1])).append(")");
+
+		String program = sb.toString();
+		String result = CanonicalSystem.getCachedResult(kernel, program);
+		if (result != null) {
+			Log.trace("Cached output from giac: " + result);
+			return result;
+		}
 		GeoGebraCAS cas = (GeoGebraCAS) kernel.getGeoGebraCAS();
 		try {
-			String result = cas.getCurrentCAS().evaluateRaw(sb.toString());
+			result = cas.getCurrentCAS().evaluateRaw(program);
 			Log.trace("Output from giac: " + result);
+			CanonicalSystem.putResult(kernel, program, result);
 			return result;
 		} catch (Throwable ex) {
 			Log.error("Error on running Giac code");
@@ -9,7 +9,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.geogebra.common.kernel.Kernel;
@@ -21,7 +20,6 @@ import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.prover.polynomial.PPolynomial;
-import org.geogebra.common.kernel.prover.polynomial.PTerm;
 import org.geogebra.common.kernel.prover.polynomial.PVariable;
 import org.geogebra.common.util.Prover;
 import org.geogebra.common.util.Prover.NDGCondition;
@@ -35,7 +33,7 @@ import org.geogebra.common.util.debug.Log;
  */
 public class NDGDetector {
 
-	private HashMap<String, NDGCondition> lookupTable;
+	private HashMap<PPolynomial, NDGCondition> lookupTable;
 	private Prover prover;
 	private HashMap<PVariable, BigInteger> substitutions;
 	private Set<PVariable> freeVariables;
@@ -83,10 +81,9 @@ public class NDGDetector {
 		 * twice.
 		 */
 		NDGCondition ndgc = null;
-		String keyString = p.substitute(substitutions).toString();
-		ndgc = lookupTable.get(keyString);
-		if (lookupTable.containsKey(keyString)) {
-			ndgc = lookupTable.get(keyString);
+		PPolynomial key = p.substitute(substitutions);
+		if (lookupTable.containsKey(key)) {
+			ndgc = lookupTable.get(key);
 			if (ndgc != null
 					&& ndgc.getReadability() == Double.POSITIVE_INFINITY) {
 				return null;
@@ -117,37 +114,35 @@ public class NDGDetector {
 				boolean qFormula = true;
 				Kernel kernel = statement.getKernel();
 
-				TreeMap<PTerm, BigInteger> tm1 = p.getTerms();
 				ExpressionNode lhs = new ExpressionNode(kernel, 0);
 				ExpressionNode rhs = new ExpressionNode(kernel, 0);
 				/* are there any expressions on boths sides? */
 				boolean lt = false;
 				boolean rt = false;
 
-				outerloop: for (Entry<PTerm, BigInteger> entry : tm1
-						.entrySet()) { // e.g. 5*v1^3*v2
-					BigInteger coeff = entry.getValue(); // e.g. 5
+				outerloop: for (int term = 0; term < p
+						.getTermCount(); term++) { // e.g. 5*v1^3*v2
+					BigInteger coeff = p.getCoefficient(term); // e.g. 5
 			
 					/* always use the absolute value */
 					ExpressionNode c = new ExpressionNode(kernel,
 							coeff.abs().longValue()); // FIXME
 					
-					TreeMap<PVariable, Integer> tm2 = entry.getKey().getTerm();
 					ExpressionNode en = new ExpressionNode(kernel, 1);
 					/* e.g. v1->3, v2->1 */
 
 					TreeSet<GeoElement> geoSet = new TreeSet<>();
 					HashMap<GeoElement, ExpressionNode> bases = new HashMap<>();
-					for (Entry<PVariable, Integer> entry0 : tm2.entrySet()) { // e.g.
-																				// v1
-						PVariable t2 = entry0.getKey();
+					for (int k = 0; k < p.getVariableCount(term); k++) { // e.g.
+																			// v1
+						PVariable t2 = p.getVariable(term, k);
 						if (!geos.containsKey(t2)) {
 							qFormula = false;
 							break outerloop;
 						}
 						GeoElement g = geos.get(t2);
 						ExpressionValue t = g.toValidExpression();
-						int exponent = entry0.getValue();
+						int exponent = p.getExponent(term, k);
 						ExpressionNode base = new ExpressionNode(kernel, t);
 						if (exponent > 1) {
 							base = base.power(exponent);
@@ -241,7 +236,7 @@ public class NDGDetector {
 				ndgc.setGeos(points);
 				Arrays.sort(ndgc.getGeos());
 				ndgc.setCondition("AreCollinear");
-				lookupTable.put(keyString, ndgc);
+				lookupTable.put(key, ndgc);
 				return ndgc;
 			}
 		}
@@ -283,7 +278,7 @@ public class NDGDetector {
 				Arrays.sort(ndgc.getGeos());
 				ndgc.setCondition("AreEqual");
 				ndgc.setReadability(0.5);
-				lookupTable.put(keyString, ndgc);
+				lookupTable.put(key, ndgc);
 				return ndgc;
 			}
 		}
@@ -348,7 +343,7 @@ public class NDGDetector {
 				ndgc.setReadability(Double.POSITIVE_INFINITY); // we don't want
 																// this
 																// condition
-				lookupTable.put(keyString, ndgc);
+				lookupTable.put(key, ndgc);
 				return ndgc;
 			}
 		}
@@ -380,7 +375,7 @@ public class NDGDetector {
 				ndgc.setReadability(Double.POSITIVE_INFINITY); // we don't want
 																// this
 																// condition
-				lookupTable.put(keyString, ndgc);
+				lookupTable.put(key, ndgc);
 				return ndgc;
 			}
 		}
@@ -441,7 +436,7 @@ public class NDGDetector {
 					ndgc.setGeos(points);
 					ndgc.setCondition("ArePerpendicular");
 					ndgc.setReadability(0.75);
-					lookupTable.put(keyString, ndgc);
+					lookupTable.put(key, ndgc);
 					return ndgc;
 				}
 				// Creating the polynomial for parallelism:
@@ -456,7 +451,7 @@ public class NDGDetector {
 					ndgc.setGeos(points);
 					ndgc.setCondition("AreParallel");
 					ndgc.setReadability(0.75);
-					lookupTable.put(keyString, ndgc);
+					lookupTable.put(key, ndgc);
 					return ndgc;
 				}
 				// Creating the polynomial for congruence:
@@ -471,7 +466,7 @@ public class NDGDetector {
 					ndgc.setGeos(points);
 					ndgc.setCondition("AreCongruent");
 					ndgc.setReadability(0.75);
-					lookupTable.put(keyString, ndgc);
+					lookupTable.put(key, ndgc);
 					return ndgc;
 				}
 			}
@@ -479,7 +474,7 @@ public class NDGDetector {
 
 		// Unsuccessful run:
 		Log.debug("No human readable geometrical meaning found for " + p);
-		lookupTable.put(keyString, null);
+		lookupTable.put(key, null);
 
 		return null;
 	}
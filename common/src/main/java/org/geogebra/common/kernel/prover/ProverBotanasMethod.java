@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import org.geogebra.common.cas.GeoGebraCAS;
+import org.geogebra.common.cas.giac.CASgiac.CustomFunctions;
 import org.geogebra.common.cas.singularws.SingularWebService;
 import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.Kernel;
@@ -43,6 +44,7 @@ import org.geogebra.common.kernel.geos.GeoSegment;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.kernel.prover.adapters.DependentNumberAdapter;
+import org.geogebra.common.kernel.prover.polynomial.CanonicalSystem;
 import org.geogebra.common.kernel.prover.polynomial.PPolynomial;
 import org.geogebra.common.kernel.prover.polynomial.PVariable;
 import org.geogebra.common.main.ProverSettings;
@@ -342,6 +344,7 @@ public class ProverBotanasMethod {
 		private boolean disallowFixSecondPoint = false;
 
 		private String polys, elimVars, freeVars;
+		private PPolynomial[] substitutedSystem;
 
 		private PPolynomial[] thesisFactors;
 		private HashMap<GeoElement, PPolynomial[]> geoPolys = new HashMap<>();
@@ -439,6 +442,18 @@ public class ProverBotanasMethod {
 			return elimVars;
 		}
 
+		/**
+		 * Return the substituted polynomials in canonical form, see
+		 * {@link CanonicalSystem}. The curve variables are named even if they
+		 * do not appear in the polynomials. Use computeStrings() before using
+		 * this method.
+		 * 
+		 * @return canonical form of the polynomials
+		 */
+		public CanonicalSystem getCanonicalSystem() {
+			return new CanonicalSystem(substitutedSystem, curveVars);
+		}
+
 		/**
 		 * Return the free variables of the algebraic structure as a String. Use
 		 * computeStrings() before using this method.
@@ -566,6 +581,7 @@ public class ProverBotanasMethod {
 					"Eliminating system in " + variables.size() + " variables ("
 							+ dependentVariables.size() + " dependent)");
 
+			this.substitutedSystem = eqSystemSubstituted;
 			this.polys = PPolynomial
 					.getPolysAsCommaSeparatedString(eqSystemSubstituted);
 			this.elimVars = PPolynomial.getVarsAsCommaSeparatedString(
@@ -871,26 +887,23 @@ public class ProverBotanasMethod {
 					String strForGiac = getFormulaString(numerical);
 					// kernel.setPrintDecimals(decimals);
 					GeoGebraCAS cas = (GeoGebraCAS) kernel.getGeoGebraCAS();
-					String giacOutput4 = "";
+					/*
+					 * Create a poly with integer coeffs instead of the
+					 * equation in one Giac call. The result depends only on
+					 * the equation, so it is cached: it does not change when
+					 * other objects are dragged.
+					 */
+					String giacProgram = CustomFunctions.INTEGER_POLY + "("
+							+ strForGiac + ")";
+					String giacOutput4 = CanonicalSystem
+							.getCachedResult(kernel, giacProgram);
 					try {
-						String giacOutput = cas.getCurrentCAS()
-								.evaluateRaw(strForGiac);
-						// create a poly instead of equation
-						String strForGiac2 = "lhs(" + giacOutput + ")-rhs("
-								+ giacOutput + ")";
-						String giacOutput2 = cas.getCurrentCAS()
-								.evaluateRaw(strForGiac2);
-						// create a poly with integer coeffs: lcm of
-						// denominators
-						String strForGiac3 = "lcm(denom(coeff(" + giacOutput2
-								+ ")))";
-						String giacOutput3 = cas.getCurrentCAS()
-								.evaluateRaw(strForGiac3);
-						// multiply with the lcm
-						String strForGiac4 = "expand((" + giacOutput2 + ") * "
-								+ giacOutput3 + ")";
-						giacOutput4 = cas.getCurrentCAS()
-								.evaluateRaw(strForGiac4);
+						if (giacOutput4 == null) {
+							giacOutput4 = cas.getCurrentCAS()
+									.evaluateRaw(giacProgram);
+							CanonicalSystem.putResult(kernel, giacProgram,
+									giacOutput4);
+						}
 					} catch (Throwable t) {
 						Log.debug("Problem on running Giac (maybe uninitialized?)");
 						result = ProofResult.UNKNOWN;
@@ -0,0 +1,178 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.geogebra.common.kernel.Kernel;
+
+/**
+ * A system of polynomials with its variables renamed to v1, v2, ... by
+ * increasing id. The prover creates some variables again for each
+ * computation and collects the polynomials in hash sets, so the same
+ * hypotheses may be written with other variable names or in another order
+ * each time. In canonical form they are written as the same strings, hence
+ * CAS programs built from them can be cached by their text.
+ */
+public class CanonicalSystem {
+
+	private final PPolynomial[] polys;
+	private final HashSet<PVariable> systemVariables;
+	private final PVariable[] sortedVariables;
+	private final HashMap<PVariable, String> names = new HashMap<>();
+	private final HashMap<String, PVariable> variables = new HashMap<>();
+
+	/**
+	 * @param polys
+	 *            polynomials
+	 * @param extraVars
+	 *            variables to be named even if they are not in the
+	 *            polynomials, may contain null
+	 */
+	public CanonicalSystem(PPolynomial[] polys, PVariable... extraVars) {
+		this.polys = polys;
+		systemVariables = PPolynomial.getVars(polys);
+		HashSet<PVariable> allVariables = new HashSet<>(systemVariables);
+		for (PVariable extraVar : extraVars) {
+			if (extraVar != null) {
+				allVariables.add(extraVar);
+			}
+		}
+		sortedVariables = allVariables
+				.toArray(new PVariable[allVariables.size()]);
+		// PVariable.compareTo() orders by decreasing id
+		Arrays.sort(sortedVariables, Collections.reverseOrder());
+		for (int i = 0; i < sortedVariables.length; i++) {
+			String name = "v" + (i + 1);
+			names.put(sortedVariables[i], name);
+			variables.put(name, sortedVariables[i]);
+		}
+	}
+
+	/**
+	 * @param variable
+	 *            variable
+	 * @return canonical name of the variable
+	 */
+	public String getName(PVariable variable) {
+		return names.get(variable);
+	}
+
+	/**
+	 * Creates a sorted, comma separated list of the nonzero polynomials, like
+	 * {@link PPolynomial#getPolysAsCommaSeparatedString(PPolynomial[])}.
+	 *
+	 * @return the polynomials with canonical variable names
+	 */
+	public String getPolys() {
+		String[] strings = new String[polys.length];
+		int length = 0;
+		for (PPolynomial poly : polys) {
+			if (!poly.isZero()) { // avoid sending 0 to Giac's eliminate
+				strings[length++] = poly.toString(names);
+			}
+		}
+		Arrays.sort(strings, 0, length);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(strings[i]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Creates a comma separated list of the variables of the polynomials by
+	 * increasing id, like
+	 * {@link PPolynomial#getVarsAsCommaSeparatedString(PPolynomial[], HashSet, Boolean, Set)}.
+	 *
+	 * @param free
+	 *            true for the free variables only, false for the dependent
+	 *            ones, null for all
+	 * @param freeVariables
+	 *            free variables
+	 * @return the variables with canonical names
+	 */
+	public String getVars(Boolean free, Set<PVariable> freeVariables) {
+		StringBuilder sb = new StringBuilder();
+		for (PVariable variable : sortedVariables) {
+			if (systemVariables.contains(variable) && (free == null
+					|| free == freeVariables.contains(variable))) {
+				if (sb.length() > 0) {
+					sb.append(',');
+				}
+				sb.append(names.get(variable));
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param result
+	 *            CAS output for a program using the canonical names
+	 * @return the output with the original names of the variables
+	 */
+	public String restoreNames(String result) {
+		StringBuilder sb = new StringBuilder(result.length());
+		int i = 0;
+		while (i < result.length()) {
+			int end = i + 1;
+			if (result.charAt(i) == 'v'
+					&& (i == 0 || !isNameChar(result.charAt(i - 1)))) {
+				while (end < result.length()
+						&& Character.isDigit(result.charAt(end))) {
+					end++;
+				}
+			}
+			String token = result.substring(i, end);
+			PVariable variable = end > i + 1
+					&& (end == result.length()
+							|| !isNameChar(result.charAt(end)))
+									? variables.get(token) : null;
+			sb.append(variable == null ? token : variable.getName());
+			i = end;
+		}
+		return sb.toString();
+	}
+
+	private static boolean isNameChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_';
+	}
+
+	/**
+	 * @param kernel
+	 *            kernel
+	 * @param program
+	 *            CAS program
+	 * @return result of the program from the CAS cache of the kernel, null if
+	 *         it is not cached
+	 */
+	public static String getCachedResult(Kernel kernel, String program) {
+		if (!kernel.hasCasCache()) {
+			return null;
+		}
+		return kernel.getCasCache().get(program);
+	}
+
+	/**
+	 * Puts the result of a program to the CAS cache of the kernel. Undefined
+	 * and empty results are not cached, they may come from a timeout.
+	 *
+	 * @param kernel
+	 *            kernel
+	 * @param program
+	 *            CAS program
+	 * @param result
+	 *            result of the program
+	 */
+	public static void putResult(Kernel kernel, String program,
+			String result) {
+		if (result != null && !result.isEmpty() && !"?".equals(result)) {
+			kernel.putToCasCache(program, result);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+/**
+ * Static helpers for monomials packed into long arrays, as used by
+ * {@link PPolynomial}.
+ *
+ * Each factor v^e of a monomial is packed into one long: the high 32 bits
+ * store the variable id (complemented, so that variables with lower id give
+ * greater keys), the low 32 bits the exponent. Factors are stored by
+ * increasing variable id, i.e. by decreasing key. Comparing two monomials
+ * key by key then gives the same (lexicographic) order as
+ * {@link PTerm#compareTo(PTerm)}.
+ */
+final class PMonomial {
+
+	private PMonomial() {
+		// utility class
+	}
+
+	/**
+	 * @param id
+	 *            variable id
+	 * @param exponent
+	 *            exponent, positive
+	 * @return packed factor
+	 */
+	static long pack(int id, int exponent) {
+		return ((long) (Integer.MAX_VALUE - id) << 32) | exponent;
+	}
+
+	/**
+	 * @param factor
+	 *            packed factor
+	 * @return variable id
+	 */
+	static int getId(long factor) {
+		return Integer.MAX_VALUE - (int) (factor >>> 32);
+	}
+
+	/**
+	 * @param factor
+	 *            packed factor
+	 * @return exponent
+	 */
+	static int getExponent(long factor) {
+		return (int) factor;
+	}
+
+	/**
+	 * Compares monomials a[aFrom..aTo) and b[bFrom..bTo).
+	 *
+	 * @param a
+	 *            first array
+	 * @param aFrom
+	 *            start of first monomial
+	 * @param aTo
+	 *            end of first monomial
+	 * @param b
+	 *            second array
+	 * @param bFrom
+	 *            start of second monomial
+	 * @param bTo
+	 *            end of second monomial
+	 * @return negative, zero or positive as the first monomial is less than,
+	 *         equal to or greater than the second
+	 */
+	static int compare(long[] a, int aFrom, int aTo, long[] b, int bFrom,
+			int bTo) {
+		int i = aFrom;
+		int j = bFrom;
+		while (i < aTo && j < bTo) {
+			if (a[i] != b[j]) {
+				return a[i] < b[j] ? -1 : 1;
+			}
+			i++;
+			j++;
+		}
+		if (i < aTo) {
+			return 1;
+		}
+		return j < bTo ? -1 : 0;
+	}
+
+	/**
+	 * Writes the product of monomials a[aFrom..aTo) and b[bFrom..bTo) to dest.
+	 *
+	 * @param a
+	 *            first array
+	 * @param aFrom
+	 *            start of first monomial
+	 * @param aTo
+	 *            end of first monomial
+	 * @param b
+	 *            second array
+	 * @param bFrom
+	 *            start of second monomial
+	 * @param bTo
+	 *            end of second monomial
+	 * @param dest
+	 *            destination, must have space for both monomials
+	 * @param destFrom
+	 *            start of the product in dest
+	 * @return end of the product in dest
+	 */
+	static int multiply(long[] a, int aFrom, int aTo, long[] b, int bFrom,
+			int bTo, long[] dest, int destFrom) {
+		int i = aFrom;
+		int j = bFrom;
+		int k = destFrom;
+		while (i < aTo && j < bTo) {
+			long varA = a[i] >>> 32;
+			long varB = b[j] >>> 32;
+			if (varA == varB) {
+				dest[k++] = a[i++] + getExponent(b[j++]);
+			} else if (varA > varB) {
+				dest[k++] = a[i++];
+			} else {
+				dest[k++] = b[j++];
+			}
+		}
+		while (i < aTo) {
+			dest[k++] = a[i++];
+		}
+		while (j < bTo) {
+			dest[k++] = b[j++];
+		}
+		return k;
+	}
+
+	/**
+	 * @param a
+	 *            array
+	 * @param from
+	 *            start of monomial
+	 * @param to
+	 *            end of monomial
+	 * @return hash code of the monomial
+	 */
+	static int hashCode(long[] a, int from, int to) {
+		int hash = 1;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + (int) (a[i] ^ (a[i] >>> 32));
+		}
+		return hash;
+	}
+}
@@ -1,14 +1,14 @@
 package org.geogebra.common.kernel.prover.polynomial;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.geogebra.common.cas.GeoGebraCAS;
@@ -21,47 +21,67 @@ import org.geogebra.common.util.debug.Log;
 /**
  * This is a simple polynomial class for polynomials with arbitrary many
  * variables.
- * 
+ *
+ * Terms are kept in sorted primitive arrays (see {@link PMonomial} for the
+ * packing of monomials), in the order given by {@link PTerm#compareTo(PTerm)}.
+ * Coefficients that fit in 32 bits are stored as longs, so that sums and
+ * products of them need no BigInteger arithmetic; larger ones are stored as
+ * BigIntegers. Polynomials are immutable.
+ *
  * @author Simon Weitzhofer
- * 
+ *
  */
 public class PPolynomial implements Comparable<PPolynomial> {
-	private TreeMap<PTerm, BigInteger> terms;
+	/** coefficients with at most this many bits (plus sign) are small */
+	private static final int SMALL_BITS = 31;
+	/** sums of products of small coefficients are moved to BigIntegers here */
+	private static final long SPILL = 1L << 62;
+	private static final PVariable[] NO_VARIABLES = new PVariable[0];
+
+	private int size;
+	// term i is factors[start[i]..start[i+1]) with coefficient coeffs[i], or
+	// bigCoeffs[i] if that is not null (bigCoeffs is null if all are small)
+	private int[] start;
+	private long[] factors;
+	private long[] coeffs;
+	private BigInteger[] bigCoeffs;
+	// sorted by id, contains at least the variables of the terms
+	private PVariable[] variables;
 
 	/**
 	 * Creates the 0 polynomial
 	 */
 	public PPolynomial() {
-		terms = new TreeMap<>();
+		this(new TermBuilder(0, 0), NO_VARIABLES);
 	}
 
 	/**
 	 * Copies a polynomial
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial to copy
 	 */
 	public PPolynomial(final PPolynomial poly) {
-		terms = new TreeMap<>(poly.getTerms());
+		size = poly.size;
+		start = poly.start;
+		factors = poly.factors;
+		coeffs = poly.coeffs;
+		bigCoeffs = poly.bigCoeffs;
+		variables = poly.variables;
 	}
 
-	private PPolynomial(final TreeMap<PTerm, BigInteger> terms) {
-		this.terms = terms;
-	}
-
-	/**
-	 * Getter for the map which contains the terms and the according
-	 * coefficients.
-	 * 
-	 * @return the map
-	 */
-	public TreeMap<PTerm, BigInteger> getTerms() {
-		return terms;
+	private PPolynomial(TermBuilder terms, PVariable[] variables) {
+		size = terms.size;
+		start = terms.start;
+		factors = terms.factors;
+		coeffs = terms.coeffs;
+		bigCoeffs = terms.bigCoeffs;
+		this.variables = variables;
 	}
 
 	/**
 	 * Creates a constant polynomial.
-	 * 
+	 *
 	 * @param coeff
 	 *            the constant
 	 */
@@ -71,42 +91,39 @@ public class PPolynomial implements Comparable<PPolynomial> {
 
 	/**
 	 * Creates a constant polynomial.
-	 * 
+	 *
 	 * @param coeff
 	 *            the constant
 	 */
 	public PPolynomial(final long coeff) {
-		this(new BigInteger(Long.toString(coeff)), new PTerm());
+		this(BigInteger.valueOf(coeff), new PTerm());
 	}
-	
+
 	/**
 	 * Creates a polynomial which contains only one variable
-	 * 
+	 *
 	 * @param fv
 	 *            the variable
 	 */
 	public PPolynomial(final PVariable fv) {
-		this();
-		terms.put(new PTerm(fv), BigInteger.ONE);
+		this(BigInteger.ONE, fv, 1);
 	}
 
 	/**
 	 * Creates the polynomial coeff*variable
-	 * 
+	 *
 	 * @param coeff
 	 *            the coefficient
 	 * @param variable
 	 *            the variable
 	 */
 	public PPolynomial(final BigInteger coeff, final PVariable variable) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(new PTerm(variable), coeff);
+		this(coeff, variable, 1);
 	}
 
 	/**
 	 * Creates the polynomial coeff*(variable^power)
-	 * 
+	 *
 	 * @param coeff
 	 *            The coefficient
 	 * @param variable
@@ -116,219 +133,487 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 */
 	public PPolynomial(final BigInteger coeff, final PVariable variable,
 			final int power) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(new PTerm(variable, power), coeff);
+		this(TermBuilder.single(coeff,
+				power > 0
+						? new long[] { PMonomial.pack(variable.getId(), power) }
+						: new long[0]),
+				new PVariable[] { variable });
 	}
 
 	/**
 	 * Creates the polynomial which contains only one term
-	 * 
+	 *
 	 * @param t
 	 *            the term
 	 */
 	public PPolynomial(final PTerm t) {
-		this();
-		terms.put(t, BigInteger.ONE);
+		this(BigInteger.ONE, t);
 	}
 
 	/**
 	 * Creates the polynomial coeff*t
-	 * 
+	 *
 	 * @param coeff
 	 *            the coefficient
 	 * @param t
 	 *            the term
 	 */
 	public PPolynomial(final BigInteger coeff, final PTerm t) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(t, coeff);
+		this(TermBuilder.single(coeff, pack(t)), getVariables(t));
+	}
+
+	private static long[] pack(PTerm t) {
+		// the term is sorted by decreasing id
+		long[] monomial = new long[t.getTerm().size()];
+		int i = monomial.length;
+		for (Entry<PVariable, Integer> entry : t.getTerm().entrySet()) {
+			if (entry.getValue() > 0) {
+				monomial[--i] = PMonomial.pack(entry.getKey().getId(),
+						entry.getValue());
+			}
+		}
+		return i == 0 ? monomial
+				: Arrays.copyOfRange(monomial, i, monomial.length);
+	}
+
+	private static PVariable[] getVariables(PTerm t) {
+		PVariable[] vars = new PVariable[t.getTerm().size()];
+		int i = vars.length;
+		for (PVariable variable : t.getTerm().keySet()) {
+			vars[--i] = variable;
+		}
+		return vars;
+	}
+
+	/**
+	 * @return number of (nonzero) terms
+	 */
+	public int getTermCount() {
+		return size;
+	}
+
+	/**
+	 * @param term
+	 *            term index, terms are sorted increasingly
+	 * @return coefficient of the term
+	 */
+	public BigInteger getCoefficient(int term) {
+		BigInteger big = getBigCoefficient(term);
+		return big == null ? BigInteger.valueOf(coeffs[term]) : big;
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @return number of variables in the term
+	 */
+	public int getVariableCount(int term) {
+		return start[term + 1] - start[term];
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @param k
+	 *            index of the variable in the term, variables are sorted by
+	 *            increasing id
+	 * @return variable
+	 */
+	public PVariable getVariable(int term, int k) {
+		return variables[indexOfVariable(
+				PMonomial.getId(factors[start[term] + k]))];
+	}
+
+	/**
+	 * @param term
+	 *            term index
+	 * @param k
+	 *            index of the variable in the term
+	 * @return exponent of the variable
+	 */
+	public int getExponent(int term, int k) {
+		return PMonomial.getExponent(factors[start[term] + k]);
+	}
+
+	private BigInteger getBigCoefficient(int term) {
+		return bigCoeffs == null ? null : bigCoeffs[term];
+	}
+
+	/**
+	 * @return small part of the coefficient (0 if it is big)
+	 */
+	private long getSmallCoefficient(int term) {
+		return getBigCoefficient(term) == null ? coeffs[term] : 0;
+	}
+
+	private int indexOfVariable(int id) {
+		int low = 0;
+		int high = variables.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = variables[mid].getId();
+			if (midId < id) {
+				low = mid + 1;
+			} else if (midId > id) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private int maxTermLength() {
+		int max = 0;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, start[i + 1] - start[i]);
+		}
+		return max;
+	}
+
+	private int compareTerms(int i, PPolynomial poly, int j) {
+		return PMonomial.compare(factors, start[i], start[i + 1],
+				poly.factors, poly.start[j], poly.start[j + 1]);
+	}
+
+	private void copyTerm(TermBuilder result, int i, boolean negate) {
+		BigInteger big = getBigCoefficient(i);
+		if (negate) {
+			result.add(factors, start[i], start[i + 1], -coeffs[i],
+					big == null ? null : big.negate());
+		} else {
+			result.add(factors, start[i], start[i + 1], coeffs[i], big);
+		}
 	}
 
 	/**
 	 * Returns the sum of the polynomial plus another polynomial.
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial to add
 	 * @return the sum
 	 */
 	public PPolynomial add(final PPolynomial poly) {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>(terms);
-		TreeMap<PTerm, BigInteger> terms2 = poly.getTerms();
-		Iterator<Entry<PTerm, BigInteger>> it = terms2.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			if (terms.containsKey(t)) {
-				BigInteger coefficient = terms.get(t).add(terms2.get(t));
-				if (coefficient == BigInteger.ZERO) {
-					result.remove(t);
-				} else {
-					result.put(t, terms.get(t).add(entry.getValue()));
+		return add(poly, false);
+	}
+
+	/**
+	 * Merges the sorted terms of both polynomials.
+	 */
+	private PPolynomial add(final PPolynomial poly, boolean negate) {
+		if (poly.size == 0) {
+			return this;
+		}
+		TermBuilder result = new TermBuilder(size + poly.size,
+				factors.length + poly.factors.length);
+		int i = 0;
+		int j = 0;
+		while (i < size && j < poly.size) {
+			int compare = compareTerms(i, poly, j);
+			if (compare < 0) {
+				copyTerm(result, i++, false);
+			} else if (compare > 0) {
+				poly.copyTerm(result, j++, negate);
+			} else {
+				BigInteger big = getBigCoefficient(i);
+				BigInteger big2 = poly.getBigCoefficient(j);
+				if (big2 != null && negate) {
+					big2 = big2.negate();
+				}
+				long small = getSmallCoefficient(i)
+						+ (negate ? -poly.getSmallCoefficient(j)
+								: poly.getSmallCoefficient(j));
+				result.add(factors, start[i], start[i + 1], small,
+						big == null ? big2 : big2 == null ? big : big.add(big2));
+				i++;
+				j++;
+			}
+		}
+		while (i < size) {
+			copyTerm(result, i++, false);
+		}
+		while (j < poly.size) {
+			poly.copyTerm(result, j++, negate);
+		}
+		return new PPolynomial(result, union(variables, poly.variables));
+	}
+
+	private static PVariable[] union(PVariable[] vars1, PVariable[] vars2) {
+		if (vars1 == vars2 || vars2.length == 0) {
+			return vars1;
+		}
+		if (vars1.length == 0) {
+			return vars2;
+		}
+		PVariable[] result = new PVariable[vars1.length + vars2.length];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < vars1.length && j < vars2.length) {
+			int id1 = vars1[i].getId();
+			int id2 = vars2[j].getId();
+			if (id1 <= id2) {
+				result[k++] = vars1[i++];
+				if (id1 == id2) {
+					j++;
 				}
 			} else {
-				result.put(t, entry.getValue());
+				result[k++] = vars2[j++];
 			}
 		}
-		return new PPolynomial(result);
+		while (i < vars1.length) {
+			result[k++] = vars1[i++];
+		}
+		while (j < vars2.length) {
+			result[k++] = vars2[j++];
+		}
+		if (k == vars1.length) {
+			return vars1;
+		}
+		return k == result.length ? result : Arrays.copyOf(result, k);
 	}
 
 	/**
 	 * Calculates the additive inverse of the polynomial
-	 * 
+	 *
 	 * @return the negation of the polynomial
 	 */
 	public PPolynomial negate() {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			result.put(t, BigInteger.ZERO.subtract(entry.getValue()));
+		TermBuilder result = new TermBuilder(size, factors.length);
+		for (int i = 0; i < size; i++) {
+			copyTerm(result, i, true);
 		}
-		return new PPolynomial(result);
+		return new PPolynomial(result, variables);
 	}
 
 	/**
 	 * Subtracts another polynomial
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial which is subtracted
 	 * @return the difference
 	 */
 	public PPolynomial subtract(final PPolynomial poly) {
-		return add(poly.negate());
+		return add(poly, true);
 	}
 
 	/**
-	 * Multiplies the polynomial with another polynomial
-	 * 
+	 * Multiplies the polynomial with another polynomial. The products of the
+	 * terms are merged with a heap that has one entry per term of the shorter
+	 * polynomial, so the result is produced in order and no intermediate
+	 * polynomials are created.
+	 *
 	 * @param poly
 	 *            the polynomial which is multiplied
 	 * @return the product
 	 */
 	public PPolynomial multiply(final PPolynomial poly) {
-
-		/*
-		if (AbstractApplication.singularWS != null && AbstractApplication.singularWS.isAvailable()) {
-			if (poly.toString().length()>100 && this.toString().length()>100) {
-				String singularMultiplicationProgram = getSingularMultiplication("rr", poly, this);
-				AbstractApplication.trace(singularMultiplicationProgram.length() + " bytes -> singular");
-				String singularMultiplication = AbstractApplication.singularWS.directCommand(singularMultiplicationProgram);
-				return new Polynomial(singularMultiplication);
-			}
+		if (size == 0 || poly.size == 0) {
+			return new PPolynomial();
 		}
-		*/
-		
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		TreeMap<PTerm, BigInteger> terms2 = poly.getTerms();
-		Iterator<Entry<PTerm, BigInteger>> it1 = terms.entrySet().iterator();
-		while (it1.hasNext()) {
-			Entry<PTerm, BigInteger> entry1 = it1.next();
-			PTerm t1 = entry1.getKey();
-			Iterator<Entry<PTerm, BigInteger>> it2 = terms2.entrySet()
-					.iterator();
-			while (it2.hasNext()) {
-				Entry<PTerm, BigInteger> entry2 = it2.next();
-				PTerm t2 = entry2.getKey();
-				PTerm product = t1.times(t2);
-				BigInteger productCoefficient = entry1.getValue()
-						.multiply(entry2.getValue());
-				if (result.containsKey(product)) {
-					BigInteger sum = result.get(product).add(productCoefficient);
-					if (sum == BigInteger.ZERO) {
-						result.remove(product);
-					} else {
-						result.put(product, result.get(product).add(productCoefficient));
-					}
-				} else {
-					result.put(product, productCoefficient);
+		PPolynomial rows = size <= poly.size ? this : poly;
+		PPolynomial cols = rows == this ? poly : this;
+		int n = rows.size;
+		int width = rows.maxTermLength() + cols.maxTermLength();
+		// products[i * width..productEnd[i]) is rows[i] * cols[col[i]]
+		long[] products = new long[n * width];
+		int[] productEnd = new int[n];
+		int[] col = new int[n];
+		// min-heap of rows, ordered by their current product; rows times the
+		// first column are increasing, so they form a heap already
+		int[] heap = new int[n];
+		for (int i = 0; i < n; i++) {
+			heap[i] = i;
+			productEnd[i] = rows.multiplyTerm(i, cols, 0, products, i * width);
+		}
+		int heapSize = n;
+
+		TermBuilder result = new TermBuilder(n + cols.size,
+				(n + cols.size) * width);
+		Accumulator sum = new Accumulator();
+		long[] current = new long[width];
+		int currentLength = -1;
+		boolean small = rows.bigCoeffs == null && cols.bigCoeffs == null;
+		while (heapSize > 0) {
+			int i = heap[0];
+			int from = i * width;
+			int to = productEnd[i];
+			if (currentLength < 0 || PMonomial.compare(current, 0,
+					currentLength, products, from, to) != 0) {
+				if (currentLength >= 0) {
+					result.add(current, 0, currentLength, sum.small, sum.big);
 				}
+				currentLength = to - from;
+				System.arraycopy(products, from, current, 0, currentLength);
+				sum.clear();
+			}
+			int j = col[i];
+			if (small || (rows.getBigCoefficient(i) == null
+					&& cols.getBigCoefficient(j) == null)) {
+				sum.add(rows.coeffs[i] * cols.coeffs[j]);
+			} else {
+				sum.add(rows.getCoefficient(i)
+						.multiply(cols.getCoefficient(j)));
 			}
+			if (++col[i] < cols.size) {
+				productEnd[i] = rows.multiplyTerm(i, cols, col[i], products,
+						from);
+			} else {
+				heap[0] = heap[--heapSize];
+			}
+			siftDown(heap, heapSize, products, productEnd, width);
+		}
+		result.add(current, 0, currentLength, sum.small, sum.big);
+		return new PPolynomial(result, union(variables, poly.variables));
+	}
+
+	private int multiplyTerm(int i, PPolynomial poly, int j, long[] dest,
+			int destFrom) {
+		return PMonomial.multiply(factors, start[i], start[i + 1],
+				poly.factors, poly.start[j], poly.start[j + 1], dest,
+				destFrom);
+	}
 
+	private static void siftDown(int[] heap, int heapSize, long[] products,
+			int[] productEnd, int width) {
+		int pos = 0;
+		int row = heap[0];
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && compareProducts(heap[child + 1],
+					heap[child], products, productEnd, width) < 0) {
+				child++;
+			}
+			if (compareProducts(heap[child], row, products, productEnd,
+					width) >= 0) {
+				break;
+			}
+			heap[pos] = heap[child];
+			pos = child;
 		}
-		return new PPolynomial(result);
+		heap[pos] = row;
+	}
+
+	private static int compareProducts(int row1, int row2, long[] products,
+			int[] productEnd, int width) {
+		return PMonomial.compare(products, row1 * width, productEnd[row1],
+				products, row2 * width, productEnd[row2]);
 	}
 
 	@Override
 	public int compareTo(PPolynomial poly) {
-		if (this==poly){
+		if (this == poly) {
 			return 0;
 		}
-
-		TreeMap<PTerm, BigInteger> polyVars = poly.getTerms();
-		if (polyVars.isEmpty()) {
-			if (terms.isEmpty()) {
-				return 0;
+		// compare from the greatest term
+		int i = size - 1;
+		int j = poly.size - 1;
+		while (i >= 0 && j >= 0) {
+			int compare = compareTerms(i, poly, j);
+			if (compare == 0) {
+				compare = compareCoefficients(i, poly, j);
 			}
+			if (compare != 0) {
+				return compare;
+			}
+			i--;
+			j--;
+		}
+		if (i >= 0) {
 			return 1;
 		}
-		if (terms.isEmpty()) {
-			return -1;
+		return j >= 0 ? -1 : 0;
+	}
+
+	private int compareCoefficients(int i, PPolynomial poly, int j) {
+		if (getBigCoefficient(i) == null && poly.getBigCoefficient(j) == null) {
+			return coeffs[i] < poly.coeffs[j] ? -1
+					: coeffs[i] == poly.coeffs[j] ? 0 : 1;
 		}
-		
-		PTerm termsLastKey=terms.lastKey(),
-				polyVarsLastKey=polyVars.lastKey();
+		return getCoefficient(i).compareTo(poly.getCoefficient(j));
+	}
 
-		int compare = termsLastKey.compareTo(polyVarsLastKey);
+	private boolean isConstantTerm(int i) {
+		return start[i] == start[i + 1];
+	}
 
-		if (compare == 0) {
-			compare = terms.get(termsLastKey).compareTo(polyVars.get(polyVarsLastKey));
-		}
+	/**
+	 * @return whether the coefficient of the term is c
+	 */
+	private boolean hasCoefficient(int i, long c) {
+		return getBigCoefficient(i) == null && coeffs[i] == c;
+	}
 
-		if (compare != 0) {
-			return compare;
-		}
-		
-		do {
-			SortedMap<PTerm, BigInteger> termsSub = terms.headMap(termsLastKey);
-			SortedMap<PTerm, BigInteger> oSub = polyVars.headMap(polyVarsLastKey);
-			if (termsSub.isEmpty()) {
-				if (oSub.isEmpty()) {
-					return 0;
-				}
-				return -1;
-			}
-			if (oSub.isEmpty()) {
-				return 1;
-			}
-			termsLastKey=termsSub.lastKey();
-			polyVarsLastKey=oSub.lastKey();
-			compare = termsLastKey.compareTo(polyVarsLastKey);
-			if (compare == 0) {
-				compare = termsSub.get(termsLastKey).compareTo(
-						oSub.get(polyVarsLastKey));
-			}
-		} while (compare == 0);
+	private int signum(int i) {
+		BigInteger big = getBigCoefficient(i);
+		return big == null ? Long.signum(coeffs[i]) : big.signum();
+	}
 
-		return compare;
+	private void appendCoefficient(StringBuilder sb, int i) {
+		BigInteger big = getBigCoefficient(i);
+		if (big == null) {
+			sb.append(coeffs[i]);
+		} else {
+			sb.append(big);
+		}
 	}
 
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		if (!it.hasNext()) {
+		return toString(null);
+	}
+
+	/**
+	 * Exports the polynomial like {@link #toString()}, but with other names
+	 * for the variables
+	 * 
+	 * @param names
+	 *            names of the variables, null to use
+	 *            {@link PVariable#getName()}
+	 * @return the polynomial with the given variable names
+	 */
+	public String toString(Map<PVariable, String> names) {
+		if (size == 0) {
 			return "0";
 		}
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			BigInteger c = entry.getValue();
-			if (!t.getTerm().isEmpty()) {
-				if (c != BigInteger.ONE)
-					sb.append(c + "*");
-				sb.append(t);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			if (i > 0 && signum(i) > 0) {
+				sb.append('+');
+			}
+			if (isConstantTerm(i)) {
+				appendCoefficient(sb, i);
+				continue;
+			}
+			if (hasCoefficient(i, -1)) {
+				sb.append('-');
+			} else if (!hasCoefficient(i, 1)) {
+				appendCoefficient(sb, i);
+				sb.append('*');
+			}
+			// variables by decreasing id, named like PVariable.getName()
+			for (int k = start[i + 1] - 1; k >= start[i]; k--) {
+				int id = PMonomial.getId(factors[k]);
+				if (names == null) {
+					sb.append('v');
+					sb.append(id);
+				} else {
+					sb.append(names.get(variables[indexOfVariable(id)]));
+				}
+				int power = PMonomial.getExponent(factors[k]);
+				if (power > 1) {
+					sb.append('^');
+					sb.append(power);
+				}
+				if (k > start[i]) {
+					sb.append('*');
+				}
 			}
-			else
-				sb.append(c);
-			sb.append('+');
 		}
-		String ret = sb.substring(0, sb.length() - 1); // removing closing "+"
-		ret = ret.replaceAll("\\+-", "-").replaceAll("-1\\*", "-")
-				.replaceAll("\\+1\\*", "+").replaceAll("^1\\*", "");
-		return ret;
+		return sb.toString();
 	}
 
 	/**
@@ -336,58 +621,202 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return the LaTeX formatted polynomial
 	 */
 	public String toTeX() {
-		StringBuilder sb = new StringBuilder();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		if (!it.hasNext()) {
+		if (size == 0) {
 			return "0";
 		}
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			BigInteger c = entry.getValue();
-			if (!t.getTerm().isEmpty()) {
-				if (!c.equals(BigInteger.ONE)) {
-					// c != -1
-					if (!(c.add(BigInteger.ONE)).equals(BigInteger.ZERO)) {
-						// c < -1
-						if (c.add(BigInteger.ONE).compareTo(BigInteger.ZERO) < 0) {
-							if (sb.length() > 0) {
-								sb.deleteCharAt(sb.length()-1); // removing last "+"
-							}
-						} 
-						sb.append(c);
-					} else {
-						// -1
-						if (sb.length() > 0) {
-							sb.deleteCharAt(sb.length()-1); // removing last "+"
-						}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			if (!isConstantTerm(i)) {
+				if (!hasCoefficient(i, 1)) {
+					if (signum(i) < 0 && sb.length() > 0) {
+						sb.deleteCharAt(sb.length() - 1); // removing last "+"
+					}
+					if (hasCoefficient(i, -1)) {
 						sb.append('-');
+					} else {
+						appendCoefficient(sb, i);
+					}
+				}
+				for (int k = start[i + 1] - 1; k >= start[i]; k--) {
+					sb.append("v_{");
+					sb.append(PMonomial.getId(factors[k]));
+					sb.append('}');
+					int power = PMonomial.getExponent(factors[k]);
+					if (power > 1) {
+						sb.append("^{" + power + "}");
 					}
 				}
-				sb.append(t.toTeX());
+			} else {
+				appendCoefficient(sb, i);
 			}
-			else
-				sb.append(c);
 			sb.append('+');
 		}
 		return sb.substring(0, sb.length() - 1); // removing closing "+"
 	}
 
-	
+
 	/**
 	 * The set of the variables in this polynomial
 	 * @return the set of variables
 	 */
 	public HashSet<PVariable> getVars() {
 		HashSet<PVariable> v = new HashSet<>();
-		Iterator<PTerm> it = terms.keySet().iterator();
-		while (it.hasNext()) {
-			PTerm t = it.next();
-			v.addAll(t.getVars());
+		boolean[] used = new boolean[variables.length];
+		for (int k = 0; k < start[size]; k++) {
+			int index = indexOfVariable(PMonomial.getId(factors[k]));
+			if (!used[index]) {
+				used[index] = true;
+				v.add(variables[index]);
+			}
 		}
 		return v;
 	}
 
+	/**
+	 * Growable arrays of terms, in the layout of PPolynomial.
+	 */
+	private static final class TermBuilder {
+		int size;
+		int[] start;
+		long[] factors;
+		long[] coeffs;
+		BigInteger[] bigCoeffs;
+
+		TermBuilder(int terms, int factorCount) {
+			start = new int[terms + 1];
+			factors = new long[factorCount];
+			coeffs = new long[terms];
+		}
+
+		static TermBuilder single(BigInteger coeff, long[] monomial) {
+			TermBuilder term = new TermBuilder(1, monomial.length);
+			term.add(monomial, 0, monomial.length, 0, coeff);
+			return term;
+		}
+
+		/**
+		 * Appends a term, unless its coefficient (small + big) is zero.
+		 */
+		void add(long[] monomial, int from, int to, long small, BigInteger big) {
+			long smallCoeff = small;
+			BigInteger bigCoeff = null;
+			if (big != null) {
+				BigInteger value = small == 0 ? big
+						: big.add(BigInteger.valueOf(small));
+				if (value.bitLength() > SMALL_BITS) {
+					bigCoeff = value;
+					smallCoeff = 0;
+				} else {
+					smallCoeff = value.longValue();
+				}
+			} else if (small < Integer.MIN_VALUE || small > Integer.MAX_VALUE) {
+				bigCoeff = BigInteger.valueOf(small);
+				smallCoeff = 0;
+			}
+			if (smallCoeff == 0 && bigCoeff == null) {
+				return;
+			}
+			int end = start[size] + to - from;
+			if (size == coeffs.length) {
+				int capacity = 2 * size + 1;
+				start = Arrays.copyOf(start, capacity + 1);
+				coeffs = Arrays.copyOf(coeffs, capacity);
+				if (bigCoeffs != null) {
+					bigCoeffs = Arrays.copyOf(bigCoeffs, capacity);
+				}
+			}
+			if (end > factors.length) {
+				factors = Arrays.copyOf(factors, Math.max(end, 2 * factors.length));
+			}
+			System.arraycopy(monomial, from, factors, start[size], to - from);
+			coeffs[size] = smallCoeff;
+			if (bigCoeff != null) {
+				if (bigCoeffs == null) {
+					bigCoeffs = new BigInteger[coeffs.length];
+				}
+				bigCoeffs[size] = bigCoeff;
+			}
+			size++;
+			start[size] = end;
+		}
+
+		/**
+		 * @return polynomial with these terms after sorting them and adding
+		 *         the coefficients of equal monomials
+		 */
+		PPolynomial sort(final PVariable[] variables) {
+			boolean sorted = true;
+			for (int i = 1; i < size && sorted; i++) {
+				sorted = compare(i - 1, i) < 0;
+			}
+			if (sorted) {
+				return new PPolynomial(this, variables);
+			}
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer i, Integer j) {
+					return TermBuilder.this.compare(i, j);
+				}
+			});
+			TermBuilder result = new TermBuilder(size, start[size]);
+			Accumulator sum = new Accumulator();
+			for (int k = 0; k < size; k++) {
+				int i = order[k];
+				BigInteger big = bigCoeffs == null ? null : bigCoeffs[i];
+				if (big == null) {
+					sum.add(coeffs[i]);
+				} else {
+					sum.add(big);
+				}
+				if (k == size - 1 || compare(i, order[k + 1]) != 0) {
+					result.add(factors, start[i], start[i + 1], sum.small,
+							sum.big);
+					sum.clear();
+				}
+			}
+			return new PPolynomial(result, variables);
+		}
+
+		int compare(int i, int j) {
+			return PMonomial.compare(factors, start[i], start[i + 1], factors,
+					start[j], start[j + 1]);
+		}
+	}
+
+	/**
+	 * Sum of coefficients: small + big, where small stays below
+	 * {@link PPolynomial#SPILL} in absolute value.
+	 */
+	private static final class Accumulator {
+		long small;
+		BigInteger big;
+
+		/**
+		 * @param value
+		 *            value, at most 2^62 in absolute value
+		 */
+		void add(long value) {
+			small += value;
+			if (small >= SPILL || small <= -SPILL) {
+				add(BigInteger.valueOf(small));
+				small = 0;
+			}
+		}
+
+		void add(BigInteger value) {
+			big = big == null ? value : big.add(value);
+		}
+
+		void clear() {
+			small = 0;
+			big = null;
+		}
+	}
+
 	/**
 	 * The set of the variables in the given polynomials
 	 * @param polys the polynomials
@@ -687,63 +1116,63 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	
 	/**
 	 * Substitutes variables in the polynomial by integer values
-	 * 
+	 *
 	 * @param substitutions
 	 *            A map of the substitutions
 	 * @return a new polynomial with the variables substituted.
 	 */
 	public PPolynomial substitute(Map<PVariable, BigInteger> substitutions) {
-		
+
 		if (substitutions == null)
 			return this;
-			
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
 
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t1 = entry.getKey();
-			TreeMap<PVariable, Integer> term = new TreeMap<>(t1.getTerm());
-			BigInteger product = BigInteger.ONE;
-			Iterator<Entry<PVariable, BigInteger>> itSubst = substitutions
-					.entrySet()
-					.iterator();
-			while (itSubst.hasNext()) {
-				Entry<PVariable, BigInteger> entrySubst = itSubst.next();
-				PVariable variable = entrySubst.getKey();
-				Integer exponent = term.get(variable);
-				if (exponent != null) {
-					product = product
-							.multiply(entrySubst.getValue().pow(exponent));
-					term.remove(variable);
-				}
-			}
-			product = product.multiply(entry.getValue());
-			PTerm t = new PTerm(term);
-			if (result.containsKey(t)) {
-				BigInteger sum = result.get(t).add(product);
-//				if (sum.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > -1) {
-//					throw new ArithmeticException(
-//							"Integer Overflow in polynomial class");
-//				}
-				if (sum.longValue() == 0) {
-					result.remove(t);
-				} else {
-					result.put(t, sum);
+		// values by the index of the variable
+		BigInteger[] values = new BigInteger[variables.length];
+		boolean found = false;
+		for (int k = 0; k < variables.length; k++) {
+			values[k] = substitutions.get(variables[k]);
+			found = found || values[k] != null;
+		}
+		if (!found) {
+			return this;
+		}
+
+		TermBuilder result = new TermBuilder(size, factors.length);
+		long[] term = new long[maxTermLength()];
+		for (int i = 0; i < size; i++) {
+			long small = coeffs[i];
+			BigInteger big = getBigCoefficient(i);
+			int length = 0;
+			for (int k = start[i]; k < start[i + 1]; k++) {
+				BigInteger value = values[indexOfVariable(
+						PMonomial.getId(factors[k]))];
+				int exponent = PMonomial.getExponent(factors[k]);
+				if (value == null) {
+					term[length++] = factors[k];
+				} else if (value.signum() == 0) {
+					small = 0;
+					big = null;
+					break;
+				} else if (value.signum() < 0 && value.bitLength() == 0) {
+					// -1
+					if (exponent % 2 == 1) {
+						small = -small;
+						big = big == null ? null : big.negate();
+					}
+				} else if (!BigInteger.ONE.equals(value)) {
+					big = (big == null ? BigInteger.valueOf(small) : big)
+							.multiply(value.pow(exponent));
+					small = 0;
 				}
-			} else if (product.intValue() != 0){
-//				if (product.compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > -1) {
-//					throw new ArithmeticException(
-//							"Integer Overflow in polynomial class");
-//				}
-				result.put(t, product);
 			}
+			result.add(term, 0, length, small, big);
 		}
-		return new PPolynomial(result);
+		return result.sort(variables);
 	}
+
 	/**
 	 * Substitutes a variable in the polynomial by another variable.
-	 * 
+	 *
 	 * @param oldVar
 	 *            old variable
 	 * @param newVar
@@ -752,33 +1181,38 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return a new polynomial with the variable substituted.
 	 */
 	public PPolynomial substitute(PVariable oldVar, PVariable newVar) {
+		int oldId = oldVar.getId();
+		int newId = newVar.getId();
+		if (oldId == newId || indexOfVariable(oldId) < 0) {
+			return this;
+		}
 
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t1 = entry.getKey();
-			TreeMap<PVariable, Integer> term = new TreeMap<>(
-					t1.getTerm());
-			Integer oldExponent = term.get(oldVar);
-			if (oldExponent != null) {
-				Integer newExponent = term.get(newVar);
-				if (newExponent == null) {
-					newExponent = 0;
+		TermBuilder result = new TermBuilder(size, factors.length);
+		long[] term = new long[maxTermLength() + 1];
+		for (int i = 0; i < size; i++) {
+			int exponent = 0;
+			int length = 0;
+			for (int k = start[i]; k < start[i + 1]; k++) {
+				if (PMonomial.getId(factors[k]) == oldId) {
+					exponent = PMonomial.getExponent(factors[k]);
 				} else {
-					term.remove(newVar);
+					term[length++] = factors[k];
 				}
-				term.remove(oldVar);
-				term.put(newVar, oldExponent + newExponent);
 			}
-			BigInteger coeff = entry.getValue();
-			PTerm t = new PTerm(term);
-			result.put(t, coeff);
+			if (exponent == 0) {
+				copyTerm(result, i, false);
+				continue;
+			}
+			long[] newFactor = { PMonomial.pack(newId, exponent) };
+			long[] product = new long[length + 1];
+			int end = PMonomial.multiply(term, 0, length, newFactor, 0, 1,
+					product, 0);
+			result.add(product, 0, end, coeffs[i], getBigCoefficient(i));
 		}
-		return new PPolynomial(result);
+		return result.sort(union(variables, new PVariable[] { newVar }));
 	}
-	
-	
+
+
 	@Override
 	public boolean equals(Object o) {
 		if (o instanceof PPolynomial) {
@@ -789,7 +1223,14 @@ public class PPolynomial implements Comparable<PPolynomial> {
 
 	@Override
 	public int hashCode() {
-		return terms.hashCode();
+		int hash = size;
+		for (int i = 0; i < size; i++) {
+			BigInteger big = getBigCoefficient(i);
+			hash = 31 * hash + PMonomial.hashCode(factors, start[i],
+					start[i + 1]);
+			hash = 31 * hash + (big == null ? (int) coeffs[i] : big.hashCode());
+		}
+		return hash;
 	}
 
 	/**
@@ -797,31 +1238,25 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return true if the polynomial is zero false otherwise
 	 */
 	public boolean isZero() {
-		return terms.isEmpty();
+		return size == 0;
 	}
-	
+
 	/**
 	 * Tests if the polynomial is a constant.
 	 * @return if input is a constant
 	 */
 	public boolean isConstant() {
-		if (terms.size() > 1) {
-			return false;
-		}
-		if (terms.firstKey().equals(new PTerm())) {
-			return true;
-		}
-		return false;
-		}
-	
+		return size == 0 || (size == 1 && isConstantTerm(0));
+	}
+
 	/**
 	 * @return Integer value of Polynomial if it is constant
 	 */
 	public BigInteger getConstant() {
-		if (terms.size() > 1) {
+		if (size > 1) {
 			return null;
 		}
-		return terms.firstEntry().getValue();
+		return size == 0 ? BigInteger.ZERO : getCoefficient(0);
 	}
 
 	/**
@@ -831,16 +1266,37 @@ public class PPolynomial implements Comparable<PPolynomial> {
 	 * @return if the polynomials are associates
 	 */
 	public static boolean areAssociates1(PPolynomial p1, PPolynomial p2) {
-		return p1.equals(p2) || p1.add(p2).isZero();
+		return p1.equals(p2) || p1.isNegationOf(p2);
 	}
-	
-	
+
+	private boolean isNegationOf(PPolynomial poly) {
+		if (size != poly.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (compareTerms(i, poly, i) != 0) {
+				return false;
+			}
+			if (getBigCoefficient(i) == null
+					&& poly.getBigCoefficient(i) == null) {
+				if (coeffs[i] != -poly.coeffs[i]) {
+					return false;
+				}
+			} else if (!getCoefficient(i).negate()
+					.equals(poly.getCoefficient(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
 	/**
 	 * Tests if the Polynomial is the constant one polynomial
 	 * @return true if the polynomial is zero false otherwise
 	 */
 	public boolean isOne() {
-		return equals(new PPolynomial(BigInteger.ONE));
+		return size == 1 && isConstantTerm(0) && hasCoefficient(0, 1);
 	}
 	
 
@@ -1291,11 +1747,14 @@ public class PPolynomial implements Comparable<PPolynomial> {
 			// we try to use the internal CAS:
 			GeoGebraCAS cas = (GeoGebraCAS) kernel.getGeoGebraCAS();
 			
-			String polys = getPolysAsCommaSeparatedString(eqSystemSubstituted);
-			String elimVars = getVarsAsCommaSeparatedString(eqSystemSubstituted,
-					null, false, freeVariablesInput);
-			String freeVars = getVarsAsCommaSeparatedString(eqSystemSubstituted,
-					null, true, freeVariablesInput);
+			/*
+			 * The same hypotheses give the same program even if some
+			 * variables were created again, so the result can be cached.
+			 */
+			CanonicalSystem system = new CanonicalSystem(eqSystemSubstituted);
+			String polys = system.getPolys();
+			String elimVars = system.getVars(false, freeVariablesInput);
+			String freeVars = system.getVars(true, freeVariablesInput);
 			Log.trace("gbt polys = " + polys);
 			Log.trace("gbt vars = " + elimVars + "," + freeVars);
 			// Consider uncomment this if Giac cannot find a readable NDG:
@@ -1314,7 +1773,12 @@ public class PPolynomial implements Comparable<PPolynomial> {
 				return null; // cannot decide
 			}
 
-			elimResult = cas.evaluate(elimProgram).replace("unicode95u", "_")
+			elimResult = CanonicalSystem.getCachedResult(kernel, elimProgram);
+			if (elimResult == null) {
+				elimResult = cas.evaluate(elimProgram);
+				CanonicalSystem.putResult(kernel, elimProgram, elimResult);
+			}
+			elimResult = elimResult.replace("unicode95u", "_")
 					.replace("unicode91u", "[");
 
 			if (!factorized) {
@@ -1325,6 +1789,7 @@ public class PPolynomial implements Comparable<PPolynomial> {
 						+ " [2]: 1,1";
 				Log.trace("Rewritten: " + elimResult);
 			}
+			elimResult = system.restoreNames(elimResult);
 		}
 
 		// Singular returns "empty list", Giac "{0}" when the statement is
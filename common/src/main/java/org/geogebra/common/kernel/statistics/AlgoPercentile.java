@@ -15,7 +15,6 @@ package org.geogebra.common.kernel.statistics;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
@@ -32,7 +31,6 @@ public class AlgoPercentile extends AlgoElement {
 	private GeoNumeric result; // output
 	private int size;
 	private Percentile percentile;
-	private double[] inputArray;
 	private double val;
 
 	/**
@@ -102,25 +100,49 @@ public class AlgoPercentile extends AlgoElement {
 		// ==========================
 		// compute result
 
-		inputArray = new double[size];
-
-		// load input value array from geoList
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = inputList.get(i);
-			if (geo instanceof NumberValue) {
-				inputArray[i] = geo.evaluateDouble();
-			} else {
-				result.setUndefined();
-				return;
+		double[] sorted = inputList.getSortedNumericValues();
+		if (sorted == null) {
+			result.setUndefined();
+			return;
+		}
+		if (Double.isNaN(sorted[size - 1])) {
+			// undefined elements: keep the selection based result
+			if (percentile == null) {
+				percentile = new Percentile();
 			}
+			percentile.setData(inputList.getNumericValues());
+			result.setValue(percentile.evaluate(val));
+			return;
 		}
+		result.setValue(evaluateSorted(sorted, val / 100));
+	}
 
-		if (percentile == null) {
-			percentile = new Percentile();
+	/**
+	 * Same estimate as {@link Percentile} with default settings (legacy
+	 * estimation type), without copying and selecting on the data again.
+	 *
+	 * @param sorted
+	 *            values in ascending order, no NaN
+	 * @param p
+	 *            quantile in (0, 1]
+	 * @return percentile
+	 */
+	static double evaluateSorted(double[] sorted, double p) {
+		int length = sorted.length;
+		if (length == 1) {
+			return sorted[0];
 		}
-
-		percentile.setData(inputArray);
-		result.setValue(percentile.evaluate(val));
+		double pos = p == 1 ? length : p * (length + 1);
+		if (pos < 1) {
+			return sorted[0];
+		}
+		if (pos >= length) {
+			return sorted[length - 1];
+		}
+		int intPos = (int) Math.floor(pos);
+		double lower = sorted[intPos - 1];
+		double upper = sorted[intPos];
+		return lower + (pos - intPos) * (upper - lower);
 	}
 
 }
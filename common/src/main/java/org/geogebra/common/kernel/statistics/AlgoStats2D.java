@@ -14,12 +14,9 @@ package org.geogebra.common.kernel.statistics;
 
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
-import org.geogebra.common.kernel.kernelND.GeoPointND;
-import org.geogebra.common.kernel.matrix.Coords;
 
 /**
  * Mean, covariance, sum, sum of squares, etc from two lists or a list of points
@@ -152,6 +149,7 @@ public abstract class AlgoStats2D extends AlgoElement {
 		double sumxy = 0;
 		double sumyy = 0;
 		double valx, valy;
+		double[] xValues, yValues;
 		int sizex = geoListx.size();
 		int sizey = sizex;
 		if (mode == MODE_DOUBLELIST) {
@@ -162,44 +160,24 @@ public abstract class AlgoStats2D extends AlgoElement {
 				return;
 			}
 
-			for (int i = 0; i < sizex; i++) {
-				GeoElement geox = geoListx.get(i);
-				GeoElement geoy = geoListy.get(i);
-				if (geox instanceof NumberValue
-						&& geoy instanceof NumberValue) {
-					valx = geox.evaluateDouble();
-					valy = geoy.evaluateDouble();
-					sumx += valx;
-					sumy += valy;
-					sumxx += valx * valx;
-					sumyy += valy * valy;
-					sumxy += valx * valy;
-				} else {
-					result.setUndefined();
-					return;
-				}
-			}
+			xValues = geoListx.getNumericValues();
+			yValues = geoListy.getNumericValues();
 		} else { // MODE_LISTOFPOINTS
-			for (int i = 0; i < sizex; i++) {
-				GeoElement geo = geoListx.get(i);
-				if (geo.isGeoPoint()) {
-					Coords coords = ((GeoPointND) geo).getInhomCoordsInD3();
-					double x = coords.getX();
-					double y = coords.getY();
-
-					valx = x;
-					valy = y;
-					sumx += valx;
-					sumy += valy;
-					sumxx += valx * valx;
-					sumyy += valy * valy;
-					sumxy += valx * valy;
-				} else {
-					result.setUndefined();
-					return;
-				}
-			}
-
+			xValues = geoListx.getPointXValues();
+			yValues = geoListx.getPointYValues();
+		}
+		if (xValues == null || yValues == null) {
+			result.setUndefined();
+			return;
+		}
+		for (int i = 0; i < sizex; i++) {
+			valx = xValues[i];
+			valy = yValues[i];
+			sumx += valx;
+			sumy += valy;
+			sumxx += valx * valx;
+			sumyy += valy * valy;
+			sumxy += valx * valy;
 		}
 
 		double mux = sumx / sizex;
@@ -0,0 +1,210 @@
+package org.geogebra.common.kernel.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Imported data stored by columns: numbers in a primitive array per column,
+ * texts only for the cells that are not numbers.
+ */
+public class DataTable {
+
+	private static final int INITIAL_ROWS = 64;
+
+	private double[][] values = new double[0][];
+	private String[][] texts = new String[0][];
+	private String[] names;
+	private int rows;
+	private int capacity = INITIAL_ROWS;
+
+	/**
+	 * @return number of rows (without header)
+	 */
+	public int getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * @return number of columns
+	 */
+	public int getColumnCount() {
+		return values.length;
+	}
+
+	/**
+	 * @return whether the first row was used as column names
+	 */
+	public boolean hasHeader() {
+		return names != null;
+	}
+
+	/**
+	 * @param column
+	 *            column index
+	 * @return column name from the header row, null if there was no header
+	 */
+	public String getColumnName(int column) {
+		return names == null || column >= names.length ? null : names[column];
+	}
+
+	/**
+	 * @param column
+	 *            column index
+	 * @return whether all non-empty cells of the column are numbers
+	 */
+	public boolean isNumeric(int column) {
+		return texts[column] == null;
+	}
+
+	/**
+	 * Numbers of a column, NaN for empty or text cells. The array is shared
+	 * and must not be modified.
+	 *
+	 * @param column
+	 *            column index
+	 * @return array of length {@link #getRowCount()}
+	 */
+	public double[] getValues(int column) {
+		return values[column];
+	}
+
+	/**
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return number in the cell, NaN if empty or text
+	 */
+	public double getValue(int row, int column) {
+		return values[column][row];
+	}
+
+	/**
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return text of the cell, null if empty or a number
+	 */
+	public String getText(int row, int column) {
+		return texts[column] == null ? null : texts[column][row];
+	}
+
+	/**
+	 * Uses the first row as column names, if it has text in every non-empty
+	 * cell and the second row has at least one number.
+	 */
+	void detectHeader() {
+		if (rows < 2) {
+			return;
+		}
+		boolean hasText = false;
+		boolean nextHasNumber = false;
+		for (int column = 0; column < values.length; column++) {
+			if (!Double.isNaN(values[column][0])) {
+				return;
+			}
+			hasText |= getText(0, column) != null;
+			nextHasNumber |= !Double.isNaN(values[column][1]);
+		}
+		if (!hasText || !nextHasNumber) {
+			return;
+		}
+		names = new String[values.length];
+		for (int column = 0; column < values.length; column++) {
+			names[column] = getText(0, column);
+			values[column] = Arrays.copyOfRange(values[column], 1, capacity);
+			if (texts[column] != null) {
+				texts[column] = Arrays.copyOfRange(texts[column], 1, capacity);
+			}
+		}
+		rows--;
+		capacity = rows;
+		for (int column = 0; column < values.length; column++) {
+			if (texts[column] != null && !hasText(column)) {
+				texts[column] = null;
+			}
+		}
+	}
+
+	private boolean hasText(int column) {
+		for (int row = 0; row < rows; row++) {
+			if (texts[column][row] != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Starts a new row; cells not set in it stay empty.
+	 */
+	void addRow() {
+		if (rows == capacity) {
+			capacity *= 2;
+			for (int column = 0; column < values.length; column++) {
+				values[column] = grow(values[column]);
+				if (texts[column] != null) {
+					texts[column] = Arrays.copyOf(texts[column], capacity);
+				}
+			}
+		}
+		rows++;
+	}
+
+	/**
+	 * @param column
+	 *            column index
+	 * @param value
+	 *            number for the cell in the last row
+	 */
+	void setValue(int column, double value) {
+		ensureColumn(column);
+		values[column][rows - 1] = value;
+	}
+
+	/**
+	 * @param column
+	 *            column index
+	 * @param text
+	 *            text for the cell in the last row
+	 */
+	void setText(int column, String text) {
+		ensureColumn(column);
+		if (texts[column] == null) {
+			texts[column] = new String[capacity];
+		}
+		texts[column][rows - 1] = text;
+	}
+
+	/**
+	 * Trims the columns to the number of rows.
+	 */
+	void finish() {
+		capacity = rows;
+		for (int column = 0; column < values.length; column++) {
+			values[column] = Arrays.copyOf(values[column], rows);
+			if (texts[column] != null) {
+				texts[column] = Arrays.copyOf(texts[column], rows);
+			}
+		}
+	}
+
+	private void ensureColumn(int column) {
+		if (column < values.length) {
+			return;
+		}
+		int oldLength = values.length;
+		values = Arrays.copyOf(values, column + 1);
+		texts = Arrays.copyOf(texts, column + 1);
+		for (int i = oldLength; i <= column; i++) {
+			values[i] = new double[capacity];
+			Arrays.fill(values[i], Double.NaN);
+		}
+	}
+
+	private double[] grow(double[] column) {
+		double[] ret = Arrays.copyOf(column, capacity);
+		Arrays.fill(ret, rows, capacity, Double.NaN);
+		return ret;
+	}
+}
@@ -0,0 +1,205 @@
+package org.geogebra.common.kernel.statistics;
+
+/**
+ * Parses comma or tab separated data directly into a {@link DataTable},
+ * without splitting the input into lines and cells first. Numbers follow the
+ * rules of spreadsheet import: "1,234,567" is read as 1234567, any other
+ * comma as decimal separator.
+ */
+public class DataTableParser {
+
+	private static final char QUOTE = '"';
+
+	private final CharSequence input;
+	private final int length;
+	private final char separator;
+	private int pos;
+	private final StringBuilder cell = new StringBuilder();
+
+	/**
+	 * @param input
+	 *            comma or tab separated data; separator is tab if the first
+	 *            line has any tabs
+	 */
+	public DataTableParser(CharSequence input) {
+		this.input = input;
+		this.length = input.length();
+		this.separator = detectSeparator(input);
+	}
+
+	private static char detectSeparator(CharSequence input) {
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			if (c == '\t') {
+				return '\t';
+			}
+			if (c == '\n' || c == '\r') {
+				break;
+			}
+		}
+		return ',';
+	}
+
+	/**
+	 * @return parsed table; a header row becomes the column names
+	 */
+	public DataTable parse() {
+		DataTable table = new DataTable();
+		pos = 0;
+		while (pos < length) {
+			table.addRow();
+			int column = 0;
+			boolean endOfLine = false;
+			while (!endOfLine) {
+				readCell();
+				setCell(table, column);
+				column++;
+				endOfLine = pos >= length || input.charAt(pos) != separator;
+				pos++;
+			}
+			if (pos - 1 < length && input.charAt(pos - 1) == '\r'
+					&& pos < length && input.charAt(pos) == '\n') {
+				pos++;
+			}
+		}
+		table.finish();
+		table.detectHeader();
+		return table;
+	}
+
+	/**
+	 * Reads a cell into the buffer and stops at the separator or end of line.
+	 */
+	private void readCell() {
+		cell.setLength(0);
+		int start = pos;
+		while (pos < length && input.charAt(pos) == ' ') {
+			pos++;
+		}
+		if (pos < length && input.charAt(pos) == QUOTE) {
+			pos++;
+			while (pos < length) {
+				char c = input.charAt(pos);
+				if (c == QUOTE) {
+					if (pos + 1 < length && input.charAt(pos + 1) == QUOTE) {
+						cell.append(QUOTE);
+						pos += 2;
+						continue;
+					}
+					pos++;
+					break;
+				}
+				cell.append(c);
+				pos++;
+			}
+			// ignore anything after the closing quote
+			while (pos < length && !isCellEnd(input.charAt(pos))) {
+				pos++;
+			}
+			return;
+		}
+		pos = start;
+		while (pos < length && !isCellEnd(input.charAt(pos))) {
+			cell.append(input.charAt(pos));
+			pos++;
+		}
+	}
+
+	private boolean isCellEnd(char c) {
+		return c == separator || c == '\n' || c == '\r';
+	}
+
+	private void setCell(DataTable table, int column) {
+		int start = 0;
+		int end = cell.length();
+		while (start < end && cell.charAt(start) == ' ') {
+			start++;
+		}
+		while (end > start && cell.charAt(end - 1) == ' ') {
+			end--;
+		}
+		if (start == end) {
+			return;
+		}
+		double value = parseNumber(cell, start, end);
+		if (Double.isNaN(value)) {
+			table.setText(column, cell.substring(start, end));
+		} else {
+			table.setValue(column, value);
+		}
+	}
+
+	/**
+	 * @param s
+	 *            text
+	 * @param start
+	 *            start index
+	 * @param end
+	 *            end index (exclusive)
+	 * @return number, NaN if the text is not a plain decimal number
+	 */
+	static double parseNumber(CharSequence s, int start, int end) {
+		boolean grouped = isGroupedInteger(s, start, end);
+		StringBuilder sb = new StringBuilder(end - start);
+		boolean digits = false;
+		boolean point = false;
+		boolean exponent = false;
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits = true;
+				sb.append(c);
+			} else if (c == ',' && grouped) {
+				continue;
+			} else if ((c == '.' || c == ',') && !point && !exponent) {
+				point = true;
+				sb.append('.');
+			} else if ((c == '-' || c == '+' || c == '\u2212')
+					&& (i == start || s.charAt(i - 1) == 'E')) {
+				sb.append(c == '+' ? '+' : '-');
+			} else if (c == 'E' && digits && !exponent && i + 1 < end) {
+				exponent = true;
+				digits = false;
+				sb.append(c);
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (!digits) {
+			return Double.NaN;
+		}
+		try {
+			return Double.parseDouble(sb.toString());
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * @return whether the text matches -?\d?\d?\d,(\d\d\d,)*\d\d\d
+	 */
+	private static boolean isGroupedInteger(CharSequence s, int start,
+			int end) {
+		int i = start < end && s.charAt(start) == '-' ? start + 1 : start;
+		int firstComma = -1;
+		for (int j = i; j < end; j++) {
+			if (s.charAt(j) == ',') {
+				firstComma = j;
+				break;
+			}
+		}
+		if (firstComma < 0 || firstComma - i < 1 || firstComma - i > 3
+				|| (end - firstComma) % 4 != 0) {
+			return false;
+		}
+		for (int j = i; j < end; j++) {
+			char c = s.charAt(j);
+			boolean commaPosition = j >= firstComma
+					&& (j - firstComma) % 4 == 0;
+			if (commaPosition ? c != ',' : c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
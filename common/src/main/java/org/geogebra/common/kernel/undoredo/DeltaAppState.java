@@ -0,0 +1,147 @@
+package org.geogebra.common.kernel.undoredo;
+
+import java.util.HashMap;
+
+import org.geogebra.common.kernel.AppState;
+
+/**
+ * App state that is either a full checkpoint or a delta against a
+ * checkpoint. Deltas only keep the construction chunks that differ from the
+ * checkpoint, the complete XML is reassembled on demand.
+ */
+public class DeltaAppState implements AppState {
+
+	private UndoXMLChunks checkpoint;
+	private DeltaAppState base;
+	private String head;
+	private String tail;
+	private String[] keys;
+	private HashMap<String, String> changedChunks;
+	private int storedLength;
+	private boolean deleted;
+
+	private DeltaAppState(UndoXMLChunks checkpoint) {
+		this.checkpoint = checkpoint;
+		this.storedLength = checkpoint.getLength();
+	}
+
+	private DeltaAppState(DeltaAppState base) {
+		this.base = base;
+		this.changedChunks = new HashMap<>();
+	}
+
+	/**
+	 * @param chunks
+	 *            split undo XML
+	 * @return full checkpoint
+	 */
+	public static DeltaAppState checkpoint(UndoXMLChunks chunks) {
+		return new DeltaAppState(chunks);
+	}
+
+	/**
+	 * @param base
+	 *            checkpoint state
+	 * @param chunks
+	 *            split undo XML
+	 * @return state that stores only the difference to base
+	 */
+	public static DeltaAppState delta(DeltaAppState base,
+			UndoXMLChunks chunks) {
+		UndoXMLChunks baseChunks = base.getChunks();
+		DeltaAppState state = new DeltaAppState(base);
+		int length = 0;
+		if (!baseChunks.getHead().equals(chunks.getHead())) {
+			state.head = chunks.getHead();
+			length += state.head.length();
+		}
+		if (!baseChunks.getTail().equals(chunks.getTail())) {
+			state.tail = chunks.getTail();
+			length += state.tail.length();
+		}
+		if (!baseChunks.hasSameKeys(chunks)) {
+			state.keys = chunks.getKeys();
+			for (String key : state.keys) {
+				length += key.length();
+			}
+		}
+		for (int i = 0; i < chunks.size(); i++) {
+			String chunk = chunks.getChunk(i);
+			if (!chunk.equals(baseChunks.getChunk(chunks.getKey(i)))) {
+				state.changedChunks.put(chunks.getKey(i), chunk);
+				length += chunk.length();
+			}
+		}
+		state.storedLength = length;
+		return state;
+	}
+
+	/**
+	 * @return split XML of this state
+	 */
+	public UndoXMLChunks getChunks() {
+		if (checkpoint != null) {
+			return checkpoint;
+		}
+		UndoXMLChunks baseChunks = base.getChunks();
+		String[] allKeys = keys == null ? baseChunks.getKeys() : keys;
+		String[] chunks = new String[allKeys.length];
+		for (int i = 0; i < allKeys.length; i++) {
+			String changed = changedChunks.get(allKeys[i]);
+			chunks[i] = changed == null ? baseChunks.getChunk(allKeys[i])
+					: changed;
+		}
+		return new UndoXMLChunks(head == null ? baseChunks.getHead() : head,
+				allKeys, chunks, tail == null ? baseChunks.getTail() : tail);
+	}
+
+	/**
+	 * @return whether this is a full checkpoint
+	 */
+	public boolean isCheckpoint() {
+		return checkpoint != null;
+	}
+
+	/**
+	 * @return the checkpoint this delta refers to, this for checkpoints
+	 */
+	public DeltaAppState getBase() {
+		return checkpoint == null ? base : this;
+	}
+
+	/**
+	 * @return number of characters stored by this state alone
+	 */
+	public int getStoredLength() {
+		return storedLength;
+	}
+
+	@Override
+	public String getXml() {
+		return getChunks().getXML();
+	}
+
+	@Override
+	public void delete() {
+		// checkpoint data may still be referenced by other deltas, it is
+		// released by GC once no delta refers to it
+		changedChunks = null;
+		storedLength = 0;
+		deleted = true;
+	}
+
+	/**
+	 * @return whether this state was removed from the undo history
+	 */
+	public boolean isDeleted() {
+		return deleted;
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state instanceof DeltaAppState) {
+			return getChunks().equalsTo(((DeltaAppState) state).getChunks());
+		}
+		return state != null && getXml().equals(state.getXml());
+	}
+}
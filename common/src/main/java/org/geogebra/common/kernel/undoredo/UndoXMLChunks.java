@@ -0,0 +1,284 @@
+package org.geogebra.common.kernel.undoredo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Undo XML split into the part before the construction elements, one chunk
+ * per top-level construction tag (&lt;element&gt;, &lt;command&gt;,
+ * &lt;expression&gt;, ...) and the part after them. Chunks are identified by
+ * keys derived from labels so that two snapshots of the same construction can
+ * be compared element by element.
+ */
+public final class UndoXMLChunks {
+
+	private static final String CONSTRUCTION_OPEN = "<construction";
+	private static final String CONSTRUCTION_CLOSE = "</construction>";
+	/** prefix of keys for &lt;element&gt; chunks */
+	public static final String ELEMENT_PREFIX = "element:";
+
+	private final String head;
+	private final String tail;
+	private final String[] keys;
+	private final String[] chunks;
+	private HashMap<String, Integer> keyIndex;
+
+	/**
+	 * @param head
+	 *            XML up to and including the construction start tag
+	 * @param keys
+	 *            chunk keys
+	 * @param chunks
+	 *            construction element chunks
+	 * @param tail
+	 *            XML from the construction end tag
+	 */
+	UndoXMLChunks(String head, String[] keys, String[] chunks, String tail) {
+		this.head = head;
+		this.keys = keys;
+		this.chunks = chunks;
+		this.tail = tail;
+	}
+
+	/**
+	 * @param xml
+	 *            undo XML
+	 * @return split XML or null if the XML has no construction
+	 */
+	public static UndoXMLChunks split(String xml) {
+		int open = xml.indexOf(CONSTRUCTION_OPEN);
+		if (open < 0) {
+			return null;
+		}
+		int bodyStart = xml.indexOf('>', open) + 1;
+		int bodyEnd = xml.lastIndexOf(CONSTRUCTION_CLOSE);
+		if (bodyStart <= 0 || bodyEnd < bodyStart
+				|| xml.charAt(bodyStart - 2) == '/') {
+			return null;
+		}
+		bodyStart = skipNewline(xml, bodyStart);
+
+		ArrayList<String> keyList = new ArrayList<>();
+		ArrayList<String> chunkList = new ArrayList<>();
+		HashSet<String> usedKeys = new HashSet<>();
+		int pos = bodyStart;
+		while (pos < bodyEnd) {
+			int end = findChunkEnd(xml, pos, bodyEnd);
+			if (end < 0) {
+				return null;
+			}
+			String chunk = xml.substring(pos, end);
+			String key = getKey(chunk);
+			if (!usedKeys.add(key)) {
+				key = key + "#" + chunkList.size();
+				usedKeys.add(key);
+			}
+			keyList.add(key);
+			chunkList.add(chunk);
+			pos = end;
+		}
+		return new UndoXMLChunks(xml.substring(0, bodyStart),
+				keyList.toArray(new String[0]),
+				chunkList.toArray(new String[0]), xml.substring(bodyEnd));
+	}
+
+	private static int skipNewline(String xml, int pos) {
+		return pos < xml.length() && xml.charAt(pos) == '\n' ? pos + 1 : pos;
+	}
+
+	/**
+	 * Finds end of top-level tag starting at given position, including the
+	 * trailing newline. Attribute values are XML-encoded, so any &lt; or
+	 * &gt; is part of markup.
+	 */
+	private static int findChunkEnd(String xml, int start, int bodyEnd) {
+		int depth = 0;
+		int pos = start;
+		while (pos < bodyEnd) {
+			int tagStart = xml.indexOf('<', pos);
+			if (tagStart < 0 || tagStart >= bodyEnd) {
+				// trailing text
+				return depth == 0 ? bodyEnd : -1;
+			}
+			int tagEnd = xml.indexOf('>', tagStart);
+			if (tagEnd < 0 || tagEnd >= bodyEnd) {
+				return -1;
+			}
+			if (xml.charAt(tagStart + 1) == '/') {
+				depth--;
+			} else if (xml.charAt(tagEnd - 1) != '/') {
+				depth++;
+			}
+			pos = tagEnd + 1;
+			if (depth <= 0) {
+				return depth == 0 ? skipNewline(xml, pos) : -1;
+			}
+		}
+		return -1;
+	}
+
+	private static String getKey(String chunk) {
+		int nameStart = chunk.indexOf('<') + 1;
+		int nameEnd = nameStart;
+		while (nameEnd < chunk.length()
+				&& Character.isLetterOrDigit(chunk.charAt(nameEnd))) {
+			nameEnd++;
+		}
+		String tagName = chunk.substring(nameStart, nameEnd);
+		String id;
+		if ("command".equals(tagName)) {
+			id = getTagContent(chunk, "<output");
+		} else if ("cascell".equals(tagName)) {
+			id = getAttribute(chunk, "caslabel");
+		} else {
+			id = getAttribute(chunk, "label");
+		}
+		return tagName + ":" + (id == null ? "" : id);
+	}
+
+	private static String getAttribute(String chunk, String name) {
+		int tagEnd = chunk.indexOf('>');
+		int start = chunk.indexOf(" " + name + "=\"");
+		if (start < 0 || start > tagEnd) {
+			return null;
+		}
+		start += name.length() + 3;
+		int end = chunk.indexOf('"', start);
+		return end < 0 ? null : chunk.substring(start, end);
+	}
+
+	private static String getTagContent(String chunk, String tagStart) {
+		int start = chunk.indexOf(tagStart);
+		if (start < 0) {
+			return null;
+		}
+		int end = chunk.indexOf("/>", start);
+		return end < 0 ? null
+				: chunk.substring(start + tagStart.length(), end).trim();
+	}
+
+	/**
+	 * @return XML before construction elements
+	 */
+	public String getHead() {
+		return head;
+	}
+
+	/**
+	 * @return XML after construction elements
+	 */
+	public String getTail() {
+		return tail;
+	}
+
+	/**
+	 * @return number of chunks
+	 */
+	public int size() {
+		return chunks.length;
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return key of i-th chunk
+	 */
+	public String getKey(int i) {
+		return keys[i];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return i-th chunk
+	 */
+	public String getChunk(int i) {
+		return chunks[i];
+	}
+
+	/**
+	 * @param key
+	 *            chunk key
+	 * @return chunk with given key or null
+	 */
+	public String getChunk(String key) {
+		if (keyIndex == null) {
+			keyIndex = new HashMap<>(keys.length * 2);
+			for (int i = 0; i < keys.length; i++) {
+				keyIndex.put(keys[i], i);
+			}
+		}
+		Integer index = keyIndex.get(key);
+		return index == null ? null : chunks[index];
+	}
+
+	/**
+	 * @param other
+	 *            other chunks
+	 * @return whether both have the same keys in the same order
+	 */
+	public boolean hasSameKeys(UndoXMLChunks other) {
+		if (other.keys.length != keys.length) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (!keys[i].equals(other.keys[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return keys in construction order
+	 */
+	String[] getKeys() {
+		return keys;
+	}
+
+	/**
+	 * @return total number of characters
+	 */
+	public int getLength() {
+		int length = head.length() + tail.length();
+		for (String chunk : chunks) {
+			length += chunk.length();
+		}
+		return length;
+	}
+
+	/**
+	 * @return complete XML
+	 */
+	public String getXML() {
+		StringBuilder sb = new StringBuilder(getLength());
+		sb.append(head);
+		for (String chunk : chunks) {
+			sb.append(chunk);
+		}
+		sb.append(tail);
+		return sb.toString();
+	}
+
+	/**
+	 * @param other
+	 *            other chunks
+	 * @return whether the XML of both is the same
+	 */
+	public boolean equalsTo(UndoXMLChunks other) {
+		if (other == this) {
+			return true;
+		}
+		if (!head.equals(other.head) || !tail.equals(other.tail)
+				|| !hasSameKeys(other)) {
+			return false;
+		}
+		for (int i = 0; i < chunks.length; i++) {
+			if (!chunks[i].equals(other.chunks[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
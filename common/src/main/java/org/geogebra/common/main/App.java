@@ -39,6 +39,7 @@ import org.geogebra.common.euclidian3D.EuclidianView3DInterface;
 import org.geogebra.common.euclidian3D.Input3DConstants;
 import org.geogebra.common.export.pstricks.GeoGebraExport;
 import org.geogebra.common.factories.AwtFactory;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportToPrinter3D;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.Format;
 import org.geogebra.common.gui.AccessibilityManagerInterface;
 import org.geogebra.common.gui.AccessibilityManagerNoGui;
@@ -4880,6 +4881,21 @@ public abstract class App implements UpdateSelection, AppInterface, EuclidianHos
 		// needs to be implemented in subclasses
 	}
 
+	/**
+	 * Writes a 3D export to a file. Platforms that can write the export
+	 * while it is produced override this to stream it to a sink instead of
+	 * building it in memory.
+	 *
+	 * @param format
+	 *            export format
+	 * @param exporter
+	 *            exporter for the 3D scene
+	 */
+	public void exportToFile3D(Format format, ExportToPrinter3D exporter) {
+		exportStringToFile(format.getExtension(),
+				exporter.export(format).toString());
+	}
+
 	/**
 	 * handle image as appropriate
 	 * web: show in lightbox
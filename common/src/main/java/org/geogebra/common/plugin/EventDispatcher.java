@@ -8,7 +8,8 @@ import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.main.App;
-import org.geogebra.common.util.debug.GeoGebraProfiler;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 
 /**
  * Every event scripting machinery must implement the EventListener interface
@@ -149,9 +150,10 @@ public class EventDispatcher implements ClientView {
 
 	@Override
 	public void update(GeoElement geo) {
-		long start = System.currentTimeMillis();
+		PerformanceMetrics metrics = app.getKernel().getMetrics();
+		double start = metrics.startTimer();
 		dispatchEvent(EventType.UPDATE, geo);
-		GeoGebraProfiler.addEvent(System.currentTimeMillis() - start);
+		metrics.recordTime(MetricType.EVENT_DISPATCH, "update", start);
 	}
 
 	@Override
@@ -0,0 +1,139 @@
+package org.geogebra.common.util.profiler;
+
+import org.geogebra.common.move.ggtapi.models.json.JSONException;
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+
+/**
+ * Histogram of measured values with buckets growing by powers of two, from
+ * 2^-10 (about a microsecond for times in milliseconds) to 2^30.
+ */
+public class MetricHistogram {
+
+	private static final int MIN_EXPONENT = -10;
+	private static final int BUCKETS = 41;
+	private static final double LOG2 = Math.log(2);
+
+	private final long[] buckets = new long[BUCKETS];
+	private long count;
+	private double sum;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * @param value
+	 *            measured value
+	 */
+	public void record(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+		buckets[bucketOf(value)]++;
+	}
+
+	private static int bucketOf(double value) {
+		if (value <= 0) {
+			return 0;
+		}
+		int exponent = (int) Math.floor(Math.log(value) / LOG2);
+		return Math.max(0, Math.min(BUCKETS - 1, exponent - MIN_EXPONENT));
+	}
+
+	/**
+	 * @return number of values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return sum of values
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return mean value or 0 if empty
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+
+	/**
+	 * @return minimal value or 0 if empty
+	 */
+	public double getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	/**
+	 * @return maximal value or 0 if empty
+	 */
+	public double getMax() {
+		return count == 0 ? 0 : max;
+	}
+
+	/**
+	 * @param fraction
+	 *            fraction between 0 and 1
+	 * @return upper bound of the bucket containing the percentile, at most the
+	 *         maximal value
+	 */
+	public double getPercentile(double fraction) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(fraction * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min(max, Math.pow(2, i + MIN_EXPONENT + 1));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Adds all values of another histogram.
+	 *
+	 * @param other
+	 *            other histogram
+	 */
+	public void add(MetricHistogram other) {
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] += other.buckets[i];
+		}
+	}
+
+	/**
+	 * @return summary of the values as JSON
+	 * @throws JSONException
+	 *             if values are not finite
+	 */
+	public JSONObject toJson() throws JSONException {
+		JSONObject json = new JSONObject();
+		json.put("count", count);
+		json.put("sum", sum);
+		json.put("mean", getMean());
+		json.put("min", getMin());
+		json.put("max", getMax());
+		json.put("p50", getPercentile(0.5));
+		json.put("p90", getPercentile(0.9));
+		json.put("p99", getPercentile(0.99));
+		return json;
+	}
+
+	@Override
+	public String toString() {
+		return count + " x " + getMean() + " = " + sum;
+	}
+}
@@ -0,0 +1,55 @@
+package org.geogebra.common.util.profiler;
+
+/**
+ * Kinds of measurements collected by {@link PerformanceMetrics}.
+ */
+public enum MetricType {
+	/** compute() of an algorithm, per algorithm class */
+	ALGO_COMPUTE("algoCompute", "ms"),
+	/** update of a drawable, per drawable class */
+	DRAWABLE_UPDATE("drawableUpdate", "ms"),
+	/** painting of a drawable, per drawable class */
+	DRAWABLE_DRAW("drawableDraw", "ms"),
+	/** CAS call, per command */
+	CAS("cas", "ms"),
+	/** translation of CAS input to Giac, per command */
+	CAS_TRANSLATE("casTranslate", "ms"),
+	/** evaluation in Giac, per command */
+	CAS_EVALUATE("casEvaluate", "ms"),
+	/** parsing of Giac output, per command */
+	CAS_PARSE("casParse", "ms"),
+	/** size of stored undo point */
+	UNDO_SIZE("undoSize", "chars"),
+	/** repaint of a view, per view class */
+	REPAINT("repaint", "ms"),
+	/** update cascade */
+	UPDATE_CASCADE("updateCascade", "ms"),
+	/** update of an algebra view item */
+	ALGEBRA_UPDATE("algebraUpdate", "ms"),
+	/** dispatching of a scripting event */
+	EVENT_DISPATCH("eventDispatch", "ms"),
+	/** handling of a drag event */
+	DRAG("drag", "ms");
+
+	private final String key;
+	private final String unit;
+
+	MetricType(String key, String unit) {
+		this.key = key;
+		this.unit = unit;
+	}
+
+	/**
+	 * @return key used in snapshots
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return unit of the measured values
+	 */
+	public String getUnit() {
+		return unit;
+	}
+}
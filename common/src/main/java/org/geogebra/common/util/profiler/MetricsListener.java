@@ -0,0 +1,18 @@
+package org.geogebra.common.util.profiler;
+
+/**
+ * Receives every measurement recorded by {@link PerformanceMetrics}, e.g. to
+ * forward it to an event stream.
+ */
+public interface MetricsListener {
+
+	/**
+	 * @param type
+	 *            kind of measurement
+	 * @param source
+	 *            measured class or command
+	 * @param value
+	 *            measured value, see {@link MetricType#getUnit()}
+	 */
+	void onMeasurement(MetricType type, String source, double value);
+}
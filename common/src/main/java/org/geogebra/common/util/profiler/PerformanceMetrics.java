@@ -0,0 +1,259 @@
+package org.geogebra.common.util.profiler;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.move.ggtapi.models.json.JSONException;
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Performance measurements of one kernel: histograms of compute times per
+ * algorithm class, update and draw times per drawable class, CAS latencies
+ * per command, undo point sizes and view repaints. Disabled by default; while
+ * disabled, {@link #startTimer()} and the record methods do nothing.
+ *
+ * Collected data can be exported with {@link #toJson()}; listeners receive
+ * each measurement as it is recorded.
+ */
+public class PerformanceMetrics {
+
+	private volatile boolean enabled;
+	private final EnumMap<MetricType, TreeMap<String, MetricHistogram>> histograms =
+			new EnumMap<>(MetricType.class);
+	private final ArrayList<MetricsListener> listeners = new ArrayList<>();
+
+	/**
+	 * @param enabled
+	 *            whether to collect measurements
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return whether measurements are collected
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param listener
+	 *            listener for measurements
+	 */
+	public synchronized void addListener(MetricsListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener
+	 *            listener for measurements
+	 */
+	public synchronized void removeListener(MetricsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return current time in milliseconds (with sub-millisecond precision
+	 *         where available)
+	 */
+	public static double now() {
+		UtilFactory factory = UtilFactory.getPrototype();
+		return factory == null ? System.currentTimeMillis()
+				: factory.getMillisecondTime();
+	}
+
+	/**
+	 * @return start time for {@link #recordTime(MetricType, Object, double)},
+	 *         negative if disabled
+	 */
+	public double startTimer() {
+		return enabled ? now() : -1;
+	}
+
+	/**
+	 * Records time elapsed since start.
+	 *
+	 * @param type
+	 *            kind of measurement
+	 * @param source
+	 *            measured object, its class is used as source name
+	 * @param start
+	 *            result of {@link #startTimer()}
+	 */
+	public void recordTime(MetricType type, Object source, double start) {
+		if (start >= 0 && enabled) {
+			record(type, source.getClass().getName(), now() - start);
+		}
+	}
+
+	/**
+	 * Records time elapsed since start.
+	 *
+	 * @param type
+	 *            kind of measurement
+	 * @param source
+	 *            measured class or command
+	 * @param start
+	 *            result of {@link #startTimer()}
+	 */
+	public void recordTime(MetricType type, String source, double start) {
+		if (start >= 0 && enabled) {
+			record(type, source, now() - start);
+		}
+	}
+
+	/**
+	 * @param type
+	 *            kind of measurement
+	 * @param source
+	 *            measured object, its class is used as source name
+	 * @param value
+	 *            measured value
+	 */
+	public void record(MetricType type, Object source, double value) {
+		if (enabled) {
+			record(type, source.getClass().getName(), value);
+		}
+	}
+
+	/**
+	 * @param type
+	 *            kind of measurement
+	 * @param source
+	 *            measured class or command
+	 * @param value
+	 *            measured value
+	 */
+	public void record(MetricType type, String source, double value) {
+		// no lock when disabled
+		if (enabled) {
+			addMeasurement(type, source, value);
+		}
+	}
+
+	private synchronized void addMeasurement(MetricType type, String source,
+			double value) {
+		TreeMap<String, MetricHistogram> sources = histograms.get(type);
+		if (sources == null) {
+			sources = new TreeMap<>();
+			histograms.put(type, sources);
+		}
+		MetricHistogram histogram = sources.get(source);
+		if (histogram == null) {
+			histogram = new MetricHistogram();
+			sources.put(source, histogram);
+		}
+		histogram.record(value);
+		for (MetricsListener listener : listeners) {
+			listener.onMeasurement(type, source, value);
+		}
+	}
+
+	/**
+	 * @param type
+	 *            kind of measurement
+	 * @param source
+	 *            measured class or command
+	 * @return copy of histogram for given source, empty if nothing was recorded
+	 */
+	public synchronized MetricHistogram getHistogram(MetricType type,
+			String source) {
+		MetricHistogram copy = new MetricHistogram();
+		TreeMap<String, MetricHistogram> sources = histograms.get(type);
+		if (sources != null && sources.containsKey(source)) {
+			copy.add(sources.get(source));
+		}
+		return copy;
+	}
+
+	/**
+	 * @param type
+	 *            kind of measurement
+	 * @return histogram of all sources of given kind
+	 */
+	public synchronized MetricHistogram getTotal(MetricType type) {
+		MetricHistogram total = new MetricHistogram();
+		TreeMap<String, MetricHistogram> sources = histograms.get(type);
+		if (sources != null) {
+			for (MetricHistogram histogram : sources.values()) {
+				total.add(histogram);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Removes all measurements.
+	 */
+	public synchronized void reset() {
+		histograms.clear();
+	}
+
+	/**
+	 * @return snapshot of all measurements
+	 * @throws JSONException
+	 *             if some measured value is not finite
+	 */
+	public synchronized JSONObject getSnapshot() throws JSONException {
+		JSONObject snapshot = new JSONObject();
+		for (Map.Entry<MetricType, TreeMap<String, MetricHistogram>> entry : histograms
+				.entrySet()) {
+			MetricType type = entry.getKey();
+			JSONObject json = getTotal(type).toJson();
+			json.put("unit", type.getUnit());
+			JSONObject sources = new JSONObject();
+			for (Map.Entry<String, MetricHistogram> source : entry.getValue()
+					.entrySet()) {
+				sources.put(source.getKey(), source.getValue().toJson());
+			}
+			json.put("sources", sources);
+			snapshot.put(type.getKey(), json);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return snapshot of all measurements as JSON string
+	 */
+	public String toJson() {
+		try {
+			return getSnapshot().toString();
+		} catch (JSONException e) {
+			Log.error("Invalid measurement: " + e.getMessage());
+			return "{}";
+		}
+	}
+
+	/**
+	 * Logs summary of measurements of given kind.
+	 *
+	 * @param type
+	 *            kind of measurement
+	 */
+	public synchronized void logSummary(MetricType type) {
+		MetricHistogram total = getTotal(type);
+		if (total.getCount() == 0) {
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("Profile ");
+		sb.append(type.getKey());
+		sb.append(": ");
+		sb.append(total);
+		sb.append(' ');
+		sb.append(type.getUnit());
+		for (Map.Entry<String, MetricHistogram> source : histograms.get(type)
+				.entrySet()) {
+			sb.append("\n  ");
+			sb.append(source.getKey());
+			sb.append(": ");
+			sb.append(source.getValue());
+		}
+		Log.debug(sb.toString());
+	}
+}
@@ -0,0 +1,54 @@
+package org.geogebra.desktop.util;
+
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.MetricsListener;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Forwards measurements of {@link PerformanceMetrics} to Java Flight Recorder
+ * as <code>org.geogebra.Measurement</code> events. Only compiled with JDK 11+;
+ * AppD loads it by name when <code>jdk.jfr</code> is available at runtime.
+ */
+public class JfrMetricsListener implements MetricsListener {
+
+	/**
+	 * Flight Recorder event for one measurement.
+	 */
+	@Name("org.geogebra.Measurement")
+	@Label("GeoGebra Measurement")
+	@Category("GeoGebra")
+	@Description("Measurement recorded by GeoGebra performance metrics")
+	@StackTrace(false)
+	static class MeasurementEvent extends Event {
+		@Label("Type")
+		String type;
+
+		@Label("Source")
+		String source;
+
+		@Label("Value")
+		double value;
+
+		@Label("Unit")
+		String unit;
+	}
+
+	@Override
+	public void onMeasurement(MetricType type, String source, double value) {
+		MeasurementEvent event = new MeasurementEvent();
+		if (event.isEnabled()) {
+			event.type = type.getKey();
+			event.source = source;
+			event.value = value;
+			event.unit = type.getUnit();
+			event.commit();
+		}
+	}
+}
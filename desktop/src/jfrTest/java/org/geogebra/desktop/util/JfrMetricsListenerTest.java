@@ -0,0 +1,42 @@
+package org.geogebra.desktop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrMetricsListenerTest extends BaseUnitTest {
+
+	@Test
+	public void measurementsShouldBeStreamedToFlightRecorder()
+			throws Exception {
+		PerformanceMetrics metrics = getKernel().getMetrics();
+		File file = File.createTempFile("metrics", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("org.geogebra.Measurement");
+			recording.start();
+			metrics.addListener(new JfrMetricsListener());
+			metrics.setEnabled(true);
+			metrics.record(MetricType.CAS, "Solve", 3);
+			recording.stop();
+			recording.dump(file.toPath());
+			List<RecordedEvent> events = RecordingFile
+					.readAllEvents(file.toPath());
+			assertEquals(1, events.size());
+			assertEquals("Solve", events.get(0).getString("source"));
+			assertEquals(3, events.get(0).getDouble("value"), DELTA);
+		} finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+}
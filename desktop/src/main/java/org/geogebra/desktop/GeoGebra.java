@@ -14,6 +14,7 @@ package org.geogebra.desktop;
 
 import java.awt.Frame;
 import java.awt.Toolkit;
+import java.io.IOException;
 import java.net.URL;
 
 import org.geogebra.common.GeoGebraConstants;
@@ -22,6 +23,7 @@ import org.geogebra.common.util.Util;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.desktop.gui.app.GeoGebraFrame;
 import org.geogebra.desktop.main.AppD;
+import org.geogebra.desktop.main.EvaluationServer;
 import org.geogebra.desktop.main.GeoGebraServer;
 
 public class GeoGebra {
@@ -61,6 +63,15 @@ public class GeoGebra {
 		GeoGebraPreferencesXML.setDefaultWindowY((int) (600.0 * sf));
 	}
 
+	private static void startEvaluationServer(String host, String port) {
+		try {
+			new EvaluationServer(Runtime.getRuntime().availableProcessors(),
+					256).start(host, Integer.parseInt(port));
+		} catch (IOException | NumberFormatException e) {
+			Log.error("Cannot start evaluation server: " + e.getMessage());
+		}
+	}
+
 	protected void doMain(String[] cmdArgs) {
 
 		CommandLineArguments args = new CommandLineArguments(cmdArgs);
@@ -83,6 +94,15 @@ public class GeoGebra {
 			new GeoGebraServer(args.getStringValue("startHttpServer")).start();
 			return;
 		}
+		if (args.containsArg("startEvaluationServer")) {
+			// binds to loopback unless a host is given
+			startEvaluationServer(
+					args.containsArg("evaluationServerHost")
+							? args.getStringValue("evaluationServerHost")
+							: null,
+					args.getStringValue("startEvaluationServer"));
+			return;
+		}
 		if (args.containsArg("help") || args.containsArg("proverhelp")
 				|| args.containsArg("v")
 				|| args.containsArg("regressionFile")) {
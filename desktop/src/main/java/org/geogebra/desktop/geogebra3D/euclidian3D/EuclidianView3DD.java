@@ -34,6 +34,7 @@ import org.geogebra.common.geogebra3D.euclidian3D.EuclidianController3D;
 import org.geogebra.common.geogebra3D.euclidian3D.EuclidianView3D;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer.RendererType;
+import org.geogebra.common.jre.euclidian3D.ParallelSurfaceEvaluator;
 import org.geogebra.common.main.App.ExportType;
 import org.geogebra.common.main.settings.EuclidianSettings;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
@@ -79,6 +80,12 @@ public class EuclidianView3DD extends EuclidianView3D
 
 		super(ec, settings);
 
+		// sample surfaces on all cores; with one core they are evaluated
+		// point by point when needed, as on web
+		if (Runtime.getRuntime().availableProcessors() > 1) {
+			setSurfaceBatchEvaluator(new ParallelSurfaceEvaluator());
+		}
+
 		initView(false);
 
 		EuclidianSettings es = null;
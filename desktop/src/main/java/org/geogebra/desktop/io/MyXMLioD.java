@@ -31,6 +31,7 @@ import javax.imageio.ImageIO;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.AppDI;
 import org.geogebra.common.jre.io.MyXMLioJre;
+import org.geogebra.common.jre.util.StreamUtil;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.util.StringUtil;
@@ -87,20 +88,20 @@ public class MyXMLioD extends MyXMLioJre {
 				structureFound = true;
 			} else if (name.equals(XML_FILE)) {
 				// load xml file into memory first
-				xmlFileBuffer = UtilD.loadIntoMemory(zip);
+				xmlFileBuffer = StreamUtil.loadIntoMemory(zip);
 				xmlFound = true;
 				handler = getGGBHandler();
 			} else if (name.equals(XML_FILE_DEFAULTS_2D)) {
 				// load defaults xml file into memory first
-				defaults2dXmlFileBuffer = UtilD.loadIntoMemory(zip);
+				defaults2dXmlFileBuffer = StreamUtil.loadIntoMemory(zip);
 				handler = getGGBHandler();
 			} else if (app.is3D() && name.equals(XML_FILE_DEFAULTS_3D)) {
 				// load defaults xml file into memory first
-				defaults3dXmlFileBuffer = UtilD.loadIntoMemory(zip);
+				defaults3dXmlFileBuffer = StreamUtil.loadIntoMemory(zip);
 				handler = getGGBHandler();
 			} else if (name.equals(XML_FILE_MACRO)) {
 				// load macro xml file into memory first
-				macroXmlFileBuffer = UtilD.loadIntoMemory(zip);
+				macroXmlFileBuffer = StreamUtil.loadIntoMemory(zip);
 				macroXMLfound = true;
 				handler = getGGBHandler();
 			} else if (name.equals(JAVASCRIPT_FILE)) {
@@ -103,7 +103,9 @@ public class UndoManagerD extends UndoManager {
 
 					// insert undo info
 					UndoCommand command = new UndoCommand(appStateToAdd);
-					maybeStoreUndoCommand(command);
+					if (maybeStoreUndoCommand(command)) {
+						appStateToAdd.delete();
+					}
 					pruneStateList();
 					app.getEventDispatcher().dispatchEvent(
 							new Event(EventType.STOREUNDO));
@@ -129,6 +129,8 @@ import org.geogebra.common.factories.Factory;
 import org.geogebra.common.factories.FormatFactory;
 import org.geogebra.common.factories.LaTeXFactory;
 import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportToPrinter3D;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.Format;
 import org.geogebra.common.geogebra3D.io.OFFHandler;
 import org.geogebra.common.geogebra3D.kernel3D.commands.CommandDispatcher3D;
 import org.geogebra.common.gui.toolbar.ToolBar;
@@ -137,9 +139,12 @@ import org.geogebra.common.io.layout.DockPanelData;
 import org.geogebra.common.io.layout.Perspective;
 import org.geogebra.common.io.layout.PerspectiveDecoder;
 import org.geogebra.common.javax.swing.GImageIcon;
+import org.geogebra.common.jre.euclidian3D.FileChannelExportSink;
+import org.geogebra.common.jre.euclidian3D.ParallelExportExecutor;
 import org.geogebra.common.jre.factory.FormatFactoryJre;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.AppDI;
+import org.geogebra.common.jre.kernel.ParallelLocusEvaluator;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcher3DJre;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcherJre;
 import org.geogebra.common.jre.main.TemplateHelper;
@@ -181,6 +186,8 @@ import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.Util;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.common.util.debug.Log.LogDestination;
+import org.geogebra.common.util.profiler.MetricsListener;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 import org.geogebra.desktop.CommandLineArguments;
 import org.geogebra.desktop.GeoGebra;
 import org.geogebra.desktop.awt.GBufferedImageD;
@@ -497,6 +504,10 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 		initFactories();
 		initKernel();
 		kernel.setPrintDecimals(getConfig().getDefaultPrintDecimals());
+		// sample loci on all cores
+		if (Runtime.getRuntime().availableProcessors() > 1) {
+			kernel.setLocusEvaluator(new ParallelLocusEvaluator());
+		}
 
 		// init settings
 		initSettings();
@@ -786,6 +797,7 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 					+ "  --logFile=FILENAME\tset log file\n"
 					+ "  --silent\tCompletely mute logging\n"
 					+ "  --prover=OPTIONS\tSet options for the prover subsystem (use --proverhelp for more information)\n"
+					+ "  --metrics\tcollect performance metrics, recorded by Java Flight Recorder if available\n"
 			/*
 			 * +
 			 * "  --singularWS=OPTIONS\tSet options for SingularWS (use --singularWShelp for more information)\n"
@@ -1301,6 +1313,9 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 		if (args.containsArg("regressionFile")) {
 			this.regressionFileName = args.getStringValue("regressionFile");
 		}
+		if (args.containsArg("metrics")) {
+			enableMetrics();
+		}
 		if (args.containsArg("prover")) {
 			String[] proverOptions = args.getStringValue("prover").split(",");
 			for (int i = 0; i < proverOptions.length; i++) {
@@ -1316,6 +1331,25 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 		}
 	}
 
+	/**
+	 * Enables performance metrics of the kernel and forwards them to Java
+	 * Flight Recorder when it's available (JDK 11+).
+	 */
+	private void enableMetrics() {
+		PerformanceMetrics metrics = kernel.getMetrics();
+		metrics.setEnabled(true);
+		try {
+			Class.forName("jdk.jfr.Event");
+			metrics.addListener((MetricsListener) Class
+					.forName("org.geogebra.desktop.util.JfrMetricsListener")
+					.newInstance());
+		} catch (ClassNotFoundException | LinkageError e) {
+			Log.debug("Java Flight Recorder not available");
+		} catch (InstantiationException | IllegalAccessException e) {
+			Log.debug(e);
+		}
+	}
+
 	// **************************************************************************
 	// STATUS
 	// **************************************************************************
@@ -5263,6 +5297,23 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 			e.printStackTrace();
 		}
 	}
+
+	private ParallelExportExecutor exportExecutor;
+
+	@Override
+	public void exportToFile3D(Format format, ExportToPrinter3D exporter) {
+		File file = new File("test." + format.getExtension());
+		if (exportExecutor == null) {
+			exportExecutor = new ParallelExportExecutor();
+		}
+		Log.debug("Export to " + file);
+		try (FileChannelExportSink sink = FileChannelExportSink
+				.create(file.toPath())) {
+			exporter.export(format, sink, exportExecutor);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
 	
 	@Override
 	public void handleImageExport(String base64image) {
@@ -0,0 +1,206 @@
+package org.geogebra.desktop.main;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.jre.headless.CommandResult;
+import org.geogebra.common.jre.headless.EvaluationPool;
+import org.geogebra.common.jre.headless.EvaluationResult;
+import org.geogebra.common.move.ggtapi.models.json.JSONArray;
+import org.geogebra.common.move.ggtapi.models.json.JSONException;
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.geogebra.desktop.util.HttpRequestD;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal HTTP front end of {@link EvaluationPool}, for local testing.
+ *
+ * POST /v0.1/evaluate with {"commands": ["A=(1,2)", ...], "timeout": 5000}
+ * evaluates one job; GET /v0.1/stats returns pool metrics. The timeout is at
+ * most {@link EvaluationPool#DEFAULT_TIMEOUT}. Commands are not
+ * authenticated, so the server listens on the loopback interface unless
+ * another host is given.
+ */
+public class EvaluationServer {
+
+	private final EvaluationPool pool;
+	private HttpServer server;
+
+	/**
+	 * @param poolSize
+	 *            number of warm apps
+	 * @param queueCapacity
+	 *            maximal number of waiting jobs
+	 */
+	public EvaluationServer(int poolSize, int queueCapacity) {
+		pool = new EvaluationPool(new EvaluationPool.AppFactory() {
+			@Override
+			public AppCommon createApp() {
+				return new AppDNoGui(new LocalizationD(3), false);
+			}
+		}, poolSize, queueCapacity);
+	}
+
+	/**
+	 * Starts the server on the loopback interface.
+	 * 
+	 * @param port
+	 *            port
+	 * @throws IOException
+	 *             if server cannot be started
+	 */
+	public void start(int port) throws IOException {
+		start(null, port);
+	}
+
+	/**
+	 * @param host
+	 *            host name or address to bind to, null for loopback
+	 * @param port
+	 *            port
+	 * @throws IOException
+	 *             if server cannot be started
+	 */
+	public void start(String host, int port) throws IOException {
+		InetSocketAddress address = host == null
+				? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+				: new InetSocketAddress(host, port);
+		server = HttpServer.create(address, 0);
+		server.createContext("/v0.1/evaluate", new EvaluateHandler());
+		server.createContext("/v0.1/stats", new StatsHandler());
+		// requests only wait for the pool
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+	}
+
+	/**
+	 * Stops the server and the pool.
+	 */
+	public void stop() {
+		if (server != null) {
+			server.stop(0);
+		}
+		pool.shutdown();
+	}
+
+	private class EvaluateHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange t) throws IOException {
+			try {
+				String body = HttpRequestD.readOutput(t.getRequestBody());
+				JSONObject request = body == null ? null
+						: new JSONObject(body);
+				JSONArray json = request == null ? null
+						: request.optJSONArray("commands");
+				if (json == null) {
+					writeError(t, 400, "Invalid request: no commands");
+					return;
+				}
+				ArrayList<String> commands = new ArrayList<>();
+				for (int i = 0; i < json.length(); i++) {
+					Object command = json.opt(i);
+					if (!(command instanceof String)) {
+						writeError(t, 400,
+								"Invalid request: command " + i
+										+ " is not a string");
+						return;
+					}
+					commands.add((String) command);
+				}
+				long timeout = Math.max(0,
+						Math.min(EvaluationPool.DEFAULT_TIMEOUT,
+								request.optLong("timeout",
+										EvaluationPool.DEFAULT_TIMEOUT)));
+				EvaluationResult result = pool.submit(commands, timeout)
+						.get();
+				writeOutput(t, 200, toJSON(result));
+			} catch (RejectedExecutionException e) {
+				writeError(t, 503, e.getMessage());
+			} catch (JSONException e) {
+				writeError(t, 400, "Invalid request");
+			} catch (InterruptedException e) {
+				writeError(t, 500, "Interrupted");
+			}
+		}
+	}
+
+	private class StatsHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange t) throws IOException {
+			try {
+				JSONObject stats = new JSONObject();
+				stats.put("completedJobs", pool.getCompletedJobs());
+				stats.put("timedOutJobs", pool.getTimedOutJobs());
+				stats.put("rejectedJobs", pool.getRejectedJobs());
+				stats.put("evaluatedCommands", pool.getEvaluatedCommands());
+				stats.put("failedCommands", pool.getFailedCommands());
+				stats.put("queueLength", pool.getQueueLength());
+				stats.put("averageRunTime", pool.getAverageRunTime());
+				stats.put("averageWaitTime", pool.getAverageWaitTime());
+				stats.put("jobsPerSecond", pool.getThroughput());
+				writeOutput(t, 200, stats.toString());
+			} catch (JSONException e) {
+				writeError(t, 500, e.getMessage());
+			}
+		}
+	}
+
+	private static String toJSON(EvaluationResult result)
+			throws JSONException {
+		JSONObject json = new JSONObject();
+		json.put("status", result.getStatus().name());
+		json.put("runTime", result.getRunTime());
+		json.put("waitTime", result.getWaitTime());
+		JSONArray results = new JSONArray();
+		for (CommandResult command : result.getCommands()) {
+			JSONObject item = new JSONObject();
+			item.put("cmd", command.getCommand());
+			if (command.getError() != null) {
+				item.put("error", command.getError());
+			} else {
+				item.put("labels", new JSONArray(command.getLabels()));
+				item.put("values", new JSONArray(command.getValues()));
+			}
+			results.put(item);
+		}
+		json.put("results", results);
+		return json.toString();
+	}
+
+	private static void writeError(HttpExchange t, int code, String message)
+			throws IOException {
+		JSONObject error = new JSONObject();
+		try {
+			error.put("error", message + "");
+		} catch (JSONException e) {
+			Log.debug(e.getMessage());
+		}
+		writeOutput(t, code, error.toString());
+	}
+
+	private static void writeOutput(HttpExchange t, int code, String message)
+			throws IOException {
+		byte[] data = message.getBytes(Charsets.getUtf8());
+		t.getResponseHeaders().set("Content-type",
+				"application/json; charset=UTF-8");
+		t.sendResponseHeaders(code, data.length);
+		OutputStream out = t.getResponseBody();
+		try {
+			out.write(data);
+		} finally {
+			out.close();
+		}
+	}
+}
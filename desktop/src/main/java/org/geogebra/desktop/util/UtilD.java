@@ -23,7 +23,6 @@ import java.awt.Container;
 import java.awt.event.KeyListener;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -143,16 +142,6 @@ public class UtilD {
 		}
 	}
 
-	/**
-	 * Writes all contents of the given InputStream to a byte array.
-	 */
-	public static byte[] loadIntoMemory(InputStream is) throws IOException {
-		ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		copyStream(is, bos);
-		bos.close();
-		return bos.toByteArray();
-	}
-
 	public static String loadFileIntoString(String filename) {
 
 		InputStream ios = null;
@@ -19,8 +19,8 @@ import org.geogebra.common.kernel.geos.GeoText;
 import org.geogebra.common.main.App.ExportType;
 import org.geogebra.common.main.settings.EuclidianSettings;
 import org.geogebra.common.util.DoubleUtil;
-import org.geogebra.common.util.debug.GeoGebraProfiler;
 import org.geogebra.common.util.debug.Log;
+import org.geogebra.common.util.profiler.MetricType;
 import org.geogebra.web.geogebra3D.web.euclidian3D.openGL.RendererWInterface;
 import org.geogebra.web.geogebra3D.web.euclidian3D.openGL.RendererWithImplW;
 import org.geogebra.web.geogebra3D.web.euclidian3DnoWebGL.RendererWnoWebGL;
@@ -459,7 +459,7 @@ public class EuclidianView3DW extends EuclidianView3D implements
 		}
 
 		lastRepaint = System.currentTimeMillis() - time;
-		GeoGebraProfiler.addRepaint(lastRepaint);
+		kernel.getMetrics().record(MetricType.REPAINT, this, lastRepaint);
 
 		if (objectsWaitingForNewRepaint > 0) {
 			kernel.notifyControllersMoveIfWaiting();
@@ -383,6 +383,22 @@ public class Browser {
 			return;
 		}
 
+		// object URL of a Blob (streamed 3D export), download directly
+		if (startsWith(url, "blob:")) {
+			var link = $doc.createElement("a");
+			link.download = title;
+			link.href = url;
+			link.onclick = function() {
+				requestAnimationFrame(function() {
+					($wnd.URL || $wnd.webkitURL).revokeObjectURL(url);
+				})
+			};
+			$wnd.setTimeout(function() {
+				link.click()
+			}, 10);
+			return;
+		}
+
 		var base64encoded = true;
 
 		if (startsWith(url, @org.geogebra.common.util.StringUtil::pngMarker)) {
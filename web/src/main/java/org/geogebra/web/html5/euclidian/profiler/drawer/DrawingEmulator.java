@@ -5,7 +5,8 @@ import java.util.List;
 import javax.annotation.Nullable;
 
 import org.geogebra.common.move.ggtapi.models.json.JSONException;
-import org.geogebra.common.util.debug.GeoGebraProfiler;
+import org.geogebra.common.util.profiler.MetricType;
+import org.geogebra.common.util.profiler.PerformanceMetrics;
 import org.geogebra.web.html5.euclidian.MouseTouchGestureControllerW;
 import org.geogebra.web.html5.euclidian.profiler.coords.Coordinate;
 import org.geogebra.web.html5.euclidian.profiler.coords.CoordinatesParser;
@@ -21,11 +22,20 @@ public class DrawingEmulator {
 	private static final String FILE_NAME = "coords.json";
 
 	private MouseTouchGestureControllerW mouseTouchGestureController;
+	private PerformanceMetrics metrics;
 	private List<Coordinate> coordinates;
 	private int sleepIntervalSum;
 
-	public DrawingEmulator(MouseTouchGestureControllerW mouseTouchGestureController) {
+	/**
+	 * @param mouseTouchGestureController
+	 *            controller
+	 * @param metrics
+	 *            performance metrics of the kernel
+	 */
+	public DrawingEmulator(MouseTouchGestureControllerW mouseTouchGestureController,
+			PerformanceMetrics metrics) {
 		this.mouseTouchGestureController = mouseTouchGestureController;
+		this.metrics = metrics;
 	}
 
 	/**
@@ -59,6 +69,8 @@ public class DrawingEmulator {
 	}
 
 	private void drawWithFpsProfiling() {
+		metrics.reset();
+		metrics.setEnabled(true);
 		doDraw();
 		endDrawing();
 	}
@@ -91,7 +103,8 @@ public class DrawingEmulator {
 			@Override
 			public void run() {
 				sleepIntervalSum = 0;
-				GeoGebraProfiler.printDragMeasurementData();
+				metrics.logSummary(MetricType.DRAG);
+				metrics.logSummary(MetricType.REPAINT);
 			}
 		}.schedule(sleepIntervalSum);
 	}
@@ -22,6 +22,8 @@ import org.geogebra.common.factories.CASFactory;
 import org.geogebra.common.factories.Factory;
 import org.geogebra.common.factories.FormatFactory;
 import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportToPrinter3D;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.Format;
 import org.geogebra.common.geogebra3D.kernel3D.commands.CommandDispatcher3D;
 import org.geogebra.common.gui.AccessibilityManagerInterface;
 import org.geogebra.common.gui.SetLabels;
@@ -131,6 +133,7 @@ import org.geogebra.web.html5.safeimage.ImageLoader;
 import org.geogebra.web.html5.sound.GTimerW;
 import org.geogebra.web.html5.sound.SoundManagerW;
 import org.geogebra.web.html5.util.AppletParameters;
+import org.geogebra.web.html5.util.BlobExportSink;
 import org.geogebra.web.html5.util.CopyPasteW;
 import org.geogebra.web.html5.util.Dom;
 import org.geogebra.web.html5.util.GeoGebraElement;
@@ -3381,6 +3384,18 @@ public abstract class AppW extends App implements SetLabels, HasLanguage {
 				extension, "Export", this);
 	}
 
+	@Override
+	public void exportToFile3D(Format format, ExportToPrinter3D exporter) {
+		BlobExportSink sink = new BlobExportSink();
+		exporter.export(format, sink, null);
+		String extension = format.getExtension();
+		String url = sink.createObjectURL("html".equals(extension)
+				? "text/html" : "application/octet-stream");
+		dispatchEvent(new Event(EventType.OPEN_DIALOG, null, "export3D"));
+		getFileManager().showExportAsPictureDialog(url, getExportTitle(),
+				extension, "Export", this);
+	}
+
 	/**
 	 * @return file extension of current construction
 	 */
@@ -0,0 +1,62 @@
+package org.geogebra.web.html5.util;
+
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.ExportSink;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+
+/**
+ * Export sink collecting the output as parts of a Blob, so that the export
+ * is never held in one string.
+ */
+public class BlobExportSink implements ExportSink {
+
+	private final JavaScriptObject parts = JavaScriptObject.createArray();
+
+	@Override
+	public void write(StringBuilder text) {
+		// Blob encodes strings as UTF-8
+		pushText(parts, text.toString());
+	}
+
+	@Override
+	public void write(byte[] data, int length) {
+		JsArrayInteger bytes = JavaScriptObject.createArray().cast();
+		for (int i = 0; i < length; i++) {
+			bytes.push(data[i] & 0xff);
+		}
+		pushBytes(parts, bytes);
+	}
+
+	@Override
+	public boolean isSeekable() {
+		return false;
+	}
+
+	@Override
+	public void writeAt(long position, byte[] data, int length) {
+		throw new UnsupportedOperationException("sink is not seekable");
+	}
+
+	/**
+	 * @param mimeType
+	 *            MIME type of the file
+	 * @return object URL of the collected output
+	 */
+	public native String createObjectURL(String mimeType) /*-{
+		var blob = new $wnd.Blob(this.@org.geogebra.web.html5.util.BlobExportSink::parts, {
+			type : mimeType
+		});
+		return ($wnd.URL || $wnd.webkitURL).createObjectURL(blob);
+	}-*/;
+
+	private static native void pushText(JavaScriptObject parts,
+			String text) /*-{
+		parts.push(text);
+	}-*/;
+
+	private static native void pushBytes(JavaScriptObject parts,
+			JsArrayInteger bytes) /*-{
+		parts.push(new $wnd.Uint8Array(bytes));
+	}-*/;
+}